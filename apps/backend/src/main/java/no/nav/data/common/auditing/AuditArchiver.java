@@ -0,0 +1,120 @@
+package no.nav.data.common.auditing;
+
+import io.prometheus.client.Counter;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import no.nav.data.common.auditing.domain.AuditArchiveRepository;
+import no.nav.data.common.auditing.domain.AuditCompactionRepository;
+import no.nav.data.common.auditing.domain.AuditPartitionRepository;
+import no.nav.data.common.auditing.domain.AuditVersionRepository;
+import no.nav.data.common.utils.MetricUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the monthly partitions of AUDIT_VERSION. Creates partitions ahead of time,
+ * and moves partitions older than {@link AuditProperties#retentionMonths()} to AUDIT_VERSION_ARCHIVE, oldest first.
+ * <p>
+ * Before a partition is archived, the first later version of each of its objects is rewritten as a full version if it is delta encoded,
+ * so versions left in AUDIT_VERSION never need the archive to be reconstructed.
+ * Archiving and compaction share the {@link AuditCompactor#MAINTENANCE_LOCK} lock, so no patch is written against a version while its partition is archived.
+ */
+@Slf4j
+@Service
+public class AuditArchiver {
+
+    private static final int MONTHS_AHEAD = 3;
+
+    private final AuditPartitionRepository partitionRepository;
+    private final AuditArchiveRepository archiveRepository;
+    private final AuditVersionRepository repository;
+    private final AuditCompactionRepository compactionRepository;
+    private final AuditVersionReader reader;
+    private final AuditProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archivedCounter;
+
+    public AuditArchiver(AuditPartitionRepository partitionRepository, AuditArchiveRepository archiveRepository, AuditVersionRepository repository,
+            AuditCompactionRepository compactionRepository, AuditVersionReader reader, AuditProperties properties, PlatformTransactionManager transactionManager) {
+        this.partitionRepository = partitionRepository;
+        this.archiveRepository = archiveRepository;
+        this.repository = repository;
+        this.compactionRepository = compactionRepository;
+        this.reader = reader;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedCounter = MetricUtils.counter()
+                .name("audit_archived_counter").help("Audit versions moved to the archive")
+                .register();
+    }
+
+    @Scheduled(cron = "0 15 3 * * ?") // Every night at 3:15 am
+    @SchedulerLock(name = AuditCompactor.MAINTENANCE_LOCK, lockAtMostFor = AuditCompactor.MAINTENANCE_LOCK_AT_MOST)
+    public void archiveScheduled() {
+        var created = createPartitions();
+        var archived = archive();
+        if (!created.isEmpty() || !archived.isEmpty()) {
+            log.info("Audit partitions created {} archived {}", created, archived);
+        }
+    }
+
+    /**
+     * Creates missing partitions from the oldest version in the default partition up to {@value #MONTHS_AHEAD} months ahead
+     *
+     * @return months created
+     */
+    public List<YearMonth> createPartitions() {
+        var existing = partitionRepository.findPartitions();
+        var oldestInDefault = partitionRepository.findOldestInDefault();
+        var to = YearMonth.now().plusMonths(MONTHS_AHEAD);
+        var from = oldestInDefault == null ? YearMonth.now() : YearMonth.from(oldestInDefault);
+        var created = new ArrayList<YearMonth>();
+        for (var month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            if (!existing.contains(month)) {
+                var partition = month;
+                transactionTemplate.executeWithoutResult(status -> partitionRepository.createPartition(partition));
+                created.add(month);
+            }
+        }
+        return created;
+    }
+
+    /**
+     * @return months archived
+     */
+    public List<YearMonth> archive() {
+        var before = properties.archiveBefore();
+        var archived = new ArrayList<YearMonth>();
+        for (var month : partitionRepository.findPartitions()) {
+            if (!month.isBefore(before)) {
+                break;
+            }
+            // compacting assigns ordinals, which archived versions must have to be reconstructed
+            var notCompacted = partitionRepository.countNotCompacted(month);
+            if (notCompacted > 0) {
+                log.warn("Audit partition {} has {} versions not compacted, stopping archival", month, notCompacted);
+                break;
+            }
+            int versions = transactionTemplate.execute(status -> archive(month));
+            archivedCounter.inc(versions);
+            log.info("Archived audit partition {} with {} versions", month, versions);
+            archived.add(month);
+        }
+        return archived;
+    }
+
+    private int archive(YearMonth month) {
+        var start = month.atDay(1).atStartOfDay();
+        var end = month.plusMonths(1).atDay(1).atStartOfDay();
+        reader.resolve(repository.findPatchesFollowing(start, end)).forEach(compactionRepository::updateFull);
+        int versions = archiveRepository.archive(month);
+        partitionRepository.dropPartition(month);
+        return versions;
+    }
+}
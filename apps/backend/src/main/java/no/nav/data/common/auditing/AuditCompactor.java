@@ -0,0 +1,168 @@
+package no.nav.data.common.auditing;
+
+import io.prometheus.client.Counter;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.DefaultLockingTaskExecutor;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.LockingTaskExecutor;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import no.nav.data.common.auditing.domain.AuditArchiveRepository;
+import no.nav.data.common.auditing.domain.AuditCompactionRepository;
+import no.nav.data.common.auditing.domain.AuditCompactionRepository.Compacted;
+import no.nav.data.common.auditing.domain.AuditEncoding;
+import no.nav.data.common.auditing.domain.AuditVersionRepository;
+import no.nav.data.common.utils.JsonPatch;
+import no.nav.data.common.utils.JsonUtils;
+import no.nav.data.common.utils.MetricUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Delta encodes audit history. Every {@link AuditProperties#keyframeInterval()}-th version of an object is kept as a full snapshot,
+ * the versions in between are replaced by a json patch against the previous version.
+ * A version is also kept in full if the patch would not be smaller.
+ * <p>
+ * Versions newer than {@link AuditProperties#compactAfter()} are left alone, so recent history is read without reconstruction.
+ * The first run converts all existing history. A version is kept in full if the version before it is old enough to be archived.
+ */
+@Slf4j
+@Service
+public class AuditCompactor {
+
+    /**
+     * Held while compacting or archiving, they both rewrite the encoding of versions
+     */
+    static final String MAINTENANCE_LOCK = "auditMaintenance";
+    static final String MAINTENANCE_LOCK_AT_MOST = "PT6H";
+    private static final int TABLE_IDS_PER_QUERY = 100;
+
+    private final AuditVersionRepository repository;
+    private final AuditCompactionRepository compactionRepository;
+    private final AuditArchiveRepository archiveRepository;
+    private final AuditVersionReader reader;
+    private final AuditProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final LockingTaskExecutor lockingTaskExecutor;
+    private final Counter compactedCounter;
+
+    public AuditCompactor(AuditVersionRepository repository, AuditCompactionRepository compactionRepository, AuditArchiveRepository archiveRepository,
+            AuditVersionReader reader, AuditProperties properties, PlatformTransactionManager transactionManager, LockProvider lockProvider) {
+        this.repository = repository;
+        this.compactionRepository = compactionRepository;
+        this.archiveRepository = archiveRepository;
+        this.reader = reader;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lockingTaskExecutor = new DefaultLockingTaskExecutor(lockProvider);
+        this.compactedCounter = MetricUtils.counter()
+                .labels(AuditEncoding.FULL.name()).labels(AuditEncoding.PATCH.name())
+                .labelNames("encoding")
+                .name("audit_compacted_counter").help("Audit versions compacted, by encoding")
+                .register();
+    }
+
+    @Scheduled(initialDelayString = "PT10M", fixedRateString = "PT1H")
+    @SchedulerLock(name = MAINTENANCE_LOCK, lockAtMostFor = MAINTENANCE_LOCK_AT_MOST)
+    public void compactScheduled() {
+        var result = compact();
+        if (result.versions() > 0) {
+            log.info("Compacted audit {}", result);
+        }
+    }
+
+    /**
+     * Compacts outside the schedule, under the same lock
+     *
+     * @return empty if compaction or archiving is already running
+     */
+    @SneakyThrows
+    public Optional<CompactionResult> compactLocked() {
+        var config = new LockConfiguration(Instant.now(), MAINTENANCE_LOCK, Duration.parse(MAINTENANCE_LOCK_AT_MOST), Duration.ZERO);
+        var result = lockingTaskExecutor.executeWithLock(this::compact, config);
+        return result.wasExecuted() ? Optional.of(result.getResult()) : Optional.empty();
+    }
+
+    public CompactionResult compact() {
+        var before = LocalDateTime.now().minus(properties.compactAfter());
+        var result = CompactionResult.EMPTY;
+        var seen = new HashSet<String>();
+        List<String> tableIds;
+        while (!(tableIds = repository.findTableIdsToCompact(before, TABLE_IDS_PER_QUERY)).isEmpty() && seen.addAll(tableIds)) {
+            for (String tableId : tableIds) {
+                result = result.plus(transactionTemplate.execute(status -> compactTable(tableId, before)));
+            }
+        }
+        return result;
+    }
+
+    private CompactionResult compactTable(String tableId, LocalDateTime before) {
+        // versions locked by a concurrent run are skipped, and picked up by the next run
+        var versions = repository.lockNotCompacted(tableId, before);
+        if (versions.isEmpty()) {
+            return CompactionResult.EMPTY;
+        }
+        var last = repository.findLastCompacted(tableId);
+        var archivable = properties.archiveBefore().atDay(1).atStartOfDay();
+        String previous = last == null ? null : reader.resolve(last).getData();
+        var previousTime = last == null ? null : last.getTime();
+        int ordinal = last == null ? nextArchivedOrdinal(tableId) : last.getOrdinal() + 1;
+
+        var compacted = new ArrayList<Compacted>(versions.size());
+        long bytesBefore = 0;
+        long bytesAfter = 0;
+        int patches = 0;
+        for (var version : versions) {
+            String patch = null;
+            // a patch against a version that may be archived would need the archive to be reconstructed
+            if (previous != null && !previousTime.isBefore(archivable) && ordinal % properties.keyframeInterval() != 0) {
+                var diff = JsonUtils.toJson(JsonPatch.diff(JsonUtils.toJsonNode(previous), JsonUtils.toJsonNode(version.getData())));
+                patch = diff.length() < version.getData().length() ? diff : null;
+            }
+            compacted.add(new Compacted(version.getId(), version.getTime(), ordinal, patch));
+            bytesBefore += version.getData().length();
+            bytesAfter += patch == null ? version.getData().length() : patch.length();
+            patches += patch == null ? 0 : 1;
+            previous = version.getData();
+            previousTime = version.getTime();
+            ordinal++;
+        }
+        compactionRepository.update(compacted);
+        compactedCounter.labels(AuditEncoding.PATCH.name()).inc(patches);
+        compactedCounter.labels(AuditEncoding.FULL.name()).inc(versions.size() - patches);
+        return new CompactionResult(1, versions.size(), patches, bytesBefore, bytesAfter);
+    }
+
+    /**
+     * Ordinals continue after archived versions, the first version after them is kept in full as there is no previous version in AUDIT_VERSION
+     */
+    private int nextArchivedOrdinal(String tableId) {
+        var lastArchived = archiveRepository.findLastOrdinal(tableId);
+        return lastArchived == null ? 0 : lastArchived + 1;
+    }
+
+    /**
+     * @param bytesBefore size of the json data of the compacted versions before compaction
+     * @param bytesAfter  size after compaction
+     */
+    public record CompactionResult(int objects, int versions, int patches, long bytesBefore, long bytesAfter) {
+
+        static final CompactionResult EMPTY = new CompactionResult(0, 0, 0, 0, 0);
+
+        CompactionResult plus(CompactionResult other) {
+            return new CompactionResult(objects + other.objects, versions + other.versions, patches + other.patches,
+                    bytesBefore + other.bytesBefore, bytesAfter + other.bytesAfter);
+        }
+    }
+}
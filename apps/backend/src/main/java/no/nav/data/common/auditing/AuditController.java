@@ -1,31 +1,45 @@
 package no.nav.data.common.auditing;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import no.nav.data.common.auditing.domain.AuditFilter;
+import no.nav.data.common.auditing.domain.AuditPageRepository;
 import no.nav.data.common.auditing.domain.AuditVersion;
 import no.nav.data.common.auditing.domain.AuditVersionRepository;
 import no.nav.data.common.auditing.domain.MailLogRepository;
 import no.nav.data.common.auditing.dto.AuditLogResponse;
 import no.nav.data.common.auditing.dto.AuditResponse;
 import no.nav.data.common.auditing.dto.MailLogResponse;
+import no.nav.data.common.exceptions.ValidationException;
+import no.nav.data.common.rest.CursorParameters;
 import no.nav.data.common.rest.PageParameters;
+import no.nav.data.common.rest.RestResponseCursorPage;
 import no.nav.data.common.rest.RestResponsePage;
+import no.nav.data.common.rest.StreamingResponse;
 import no.nav.data.common.security.azure.support.MailLog;
 import no.nav.data.common.storage.StorageService;
 import no.nav.data.common.storage.domain.GenericStorage;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -38,11 +52,18 @@ import static no.nav.data.common.utils.StreamUtils.convert;
 public class AuditController {
 
     private final AuditVersionRepository repository;
+    private final AuditVersionReader reader;
     private final StorageService storage;
     private final MailLogRepository mailLogRepository;
+    private final AuditPageRepository pageRepository;
+    private final AuditExportService exportService;
 
-    public AuditController(AuditVersionRepository repository, StorageService storage, MailLogRepository mailLogRepository) {
+    public AuditController(AuditVersionRepository repository, AuditVersionReader reader, StorageService storage, MailLogRepository mailLogRepository,
+            AuditPageRepository pageRepository, AuditExportService exportService) {
         this.repository = repository;
+        this.reader = reader;
+        this.pageRepository = pageRepository;
+        this.exportService = exportService;
         this.storage = storage;
         this.mailLogRepository = mailLogRepository;
     }
@@ -53,13 +74,51 @@ public class AuditController {
     public ResponseEntity<RestResponsePage<AuditResponse>> getAll(@ParameterObject PageParameters paging, @RequestParam(required = false) String table) {
         log.info("Received request for Audit {} table {}", paging, table);
         Pageable pageable = paging.createSortedPageByFieldDescending(AuditVersion.Fields.time);
-        Page<AuditResponse> page;
-        if (table != null) {
-            page = repository.findByTable(table, pageable).map(AuditVersion::convertToResponse);
-        } else {
-            page = repository.findAll(pageable).map(AuditVersion::convertToResponse);
-        }
-        return new ResponseEntity<>(new RestResponsePage<>(page), HttpStatus.OK);
+        Page<AuditVersion> page = table != null ? repository.findByTable(table, pageable) : repository.findAll(pageable);
+        return new ResponseEntity<>(new RestResponsePage<>(resolve(page).map(AuditVersion::convertToResponse)), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Get Audit log as newline delimited json", description = "Request with Accept: application/x-ndjson")
+    @ApiResponse(description = "Audit log fetched", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = AuditResponse.class)))
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAllStream(@ParameterObject PageParameters paging, @RequestParam(required = false) String table) {
+        log.info("Received request for Audit stream {} table {}", paging, table);
+        Pageable pageable = paging.createSortedPageByFieldDescending(AuditVersion.Fields.time);
+        Page<AuditVersion> page = table != null ? repository.findByTable(table, pageable) : repository.findAll(pageable);
+        return StreamingResponse.ndjson(resolve(page).stream(), AuditVersion::convertToResponse);
+    }
+
+    @Operation(summary = "Get page of Audit log", description = "Newest first, use nextCursor from the response to get the next page")
+    @ApiResponse(description = "Audit log fetched")
+    @GetMapping("/page")
+    public ResponseEntity<RestResponseCursorPage<AuditResponse>> getPage(
+            @ParameterObject CursorParameters paging,
+            @RequestParam(name = "table", required = false) String table,
+            @RequestParam(name = "tableId", required = false) String tableId,
+            @RequestParam(name = "user", required = false) String user,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to
+    ) {
+        log.info("Received request for Audit page table {} tableId {}", table, tableId);
+        var page = pageRepository.findPage(filter(table, tableId, user, from, to), paging.getCursor(), paging.validPageSize(), paging.isIncludeTotal());
+        var resolved = reader.resolve(page.getContent());
+        return ResponseEntity.ok(new RestResponseCursorPage<>(convert(resolved, AuditVersion::convertToResponse), page.getPageSize(), page.getNextCursor(),
+                page.getTotalElements()));
+    }
+
+    @Operation(summary = "Export Audit log as newline delimited json", description = "Oldest first, archived versions included")
+    @ApiResponse(description = "Audit log exported", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = AuditResponse.class)))
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(name = "table", required = false) String table,
+            @RequestParam(name = "tableId", required = false) String tableId,
+            @RequestParam(name = "user", required = false) String user,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to
+    ) {
+        log.info("Received request for Audit export table {} tableId {} user {} from {} to {}", table, tableId, user, from, to);
+        var filter = filter(table, tableId, user, from, to);
+        return StreamingResponse.ndjson(consumer -> exportService.export(filter, consumer), AuditVersion::convertToResponse);
     }
 
     @Operation(summary = "Get Audit log for object")
@@ -67,7 +126,7 @@ public class AuditController {
     @GetMapping("/log/{id}")
     public ResponseEntity<AuditLogResponse> findForId(@PathVariable String id) {
         log.info("Received request for Audit with the id={}", id);
-        List<AuditVersion> log = repository.findByTableIdOrderByTimeDesc(id);
+        List<AuditVersion> log = reader.findHistory(id);
         return new ResponseEntity<>(new AuditLogResponse(id, convert(log, AuditVersion::convertToResponse)), HttpStatus.OK);
     }
 
@@ -100,6 +159,17 @@ public class AuditController {
         return new ResponseEntity<>(new RestResponsePage<>(convert(list, gs -> gs.toMailLog().convertToResponse())), HttpStatus.OK);
     }
 
+    private static AuditFilter filter(String table, String tableId, String user, LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new ValidationException("from must be before to");
+        }
+        return AuditFilter.builder().table(table).tableId(tableId).user(user).from(from).to(to).build();
+    }
+
+    private Page<AuditVersion> resolve(Page<AuditVersion> page) {
+        return new PageImpl<>(reader.resolve(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
     static class AuditLogPage extends RestResponsePage<AuditResponse> {
 
     }
@@ -0,0 +1,54 @@
+package no.nav.data.common.auditing;
+
+import no.nav.data.common.auditing.domain.AuditFilter;
+import no.nav.data.common.auditing.domain.AuditPageRepository;
+import no.nav.data.common.auditing.domain.AuditVersion;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Exports the complete audit log, archived versions included, without holding it in memory.
+ * Versions are read through a database cursor and reconstructed {@value #RESOLVE_BATCH_SIZE} at a time.
+ */
+@Service
+public class AuditExportService {
+
+    private static final int RESOLVE_BATCH_SIZE = 500;
+
+    private final AuditPageRepository pageRepository;
+    private final AuditVersionReader reader;
+    private final TransactionTemplate transactionTemplate;
+
+    public AuditExportService(AuditPageRepository pageRepository, AuditVersionReader reader, PlatformTransactionManager transactionManager) {
+        this.pageRepository = pageRepository;
+        this.reader = reader;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * @param consumer receives versions with the full snapshot of the object, oldest first
+     */
+    public void export(AuditFilter filter, Consumer<AuditVersion> consumer) {
+        transactionTemplate.executeWithoutResult(status -> {
+            var batch = new ArrayList<AuditVersion>(RESOLVE_BATCH_SIZE);
+            pageRepository.export(filter, version -> {
+                batch.add(version);
+                if (batch.size() == RESOLVE_BATCH_SIZE) {
+                    flush(batch, consumer);
+                }
+            });
+            flush(batch, consumer);
+        });
+    }
+
+    private void flush(List<AuditVersion> batch, Consumer<AuditVersion> consumer) {
+        reader.resolve(batch).forEach(consumer);
+        batch.clear();
+    }
+}
@@ -0,0 +1,137 @@
+package no.nav.data.common.auditing;
+
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import no.nav.data.common.auditing.domain.AuditOutboxRepository;
+import no.nav.data.common.auditing.domain.AuditVersion;
+import no.nav.data.common.storage.DatabaseSignals;
+import no.nav.data.common.utils.MdcUtils;
+import no.nav.data.common.utils.MetricUtils;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes audit versions through {@link AuditOutboxRepository}.
+ * <p>
+ * Audit versions are added to the outbox inside the audited transaction, and moved to AUDIT_VERSION in batches by a background thread.
+ * The writer is woken after each local commit, and checks the outbox at a fixed interval for anything left by other instances or failed runs.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(AuditProperties.class)
+public class AuditOutboxWriter {
+
+    /**
+     * Sent through {@link DatabaseSignals} when audit versions have been written to AUDIT_VERSION
+     */
+    public static final String AUDIT_WRITTEN_SIGNAL = "audit_written";
+    private static final String WRITER_NAME = "auditWriter";
+
+    private final AuditOutboxRepository repository;
+    private final AuditProperties properties;
+    private final DatabaseSignals signals;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Runnable flushTask;
+
+    private final Gauge sizeGauge;
+    private final Gauge lagGauge;
+    private final Counter writtenCounter;
+
+    public AuditOutboxWriter(AuditOutboxRepository repository, AuditProperties properties, DatabaseSignals signals) {
+        this.repository = repository;
+        this.properties = properties;
+        this.signals = signals;
+        this.sizeGauge = MetricUtils.gauge().name("audit_outbox_size").help("Audit versions waiting in the outbox").register();
+        this.lagGauge = MetricUtils.gauge().name("audit_outbox_lag_seconds").help("Age of the oldest audit version waiting in the outbox").register();
+        this.writtenCounter = MetricUtils.counter().name("audit_outbox_written_counter").help("Audit versions moved from the outbox").register();
+        this.flushTask = MdcUtils.wrapAsync(this::flush, WRITER_NAME);
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, WRITER_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        var interval = properties.flushInterval().toMillis();
+        executor.scheduleWithFixedDelay(flushTask, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void add(AuditVersion auditVersion) {
+        repository.add(auditVersion);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            requestFlush();
+        } else if (!TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requestFlush();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AuditOutboxWriter.this);
+                }
+            });
+        }
+    }
+
+    /**
+     * Moves all audit versions currently in the outbox
+     */
+    public void flush() {
+        flushRequested.set(false);
+        try {
+            int moved;
+            int total = 0;
+            do {
+                moved = repository.moveBatch(properties.batchSize());
+                writtenCounter.inc(moved);
+                total += moved;
+            } while (moved == properties.batchSize());
+            if (total > 0) {
+                signals.signal(AUDIT_WRITTEN_SIGNAL);
+            }
+            updateMetrics();
+        } catch (Exception e) {
+            log.error("Failed to write audit versions from outbox", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Audit writer did not stop in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void requestFlush() {
+        if (properties.synchronous()) {
+            flush();
+        } else if (flushRequested.compareAndSet(false, true) && !executor.isShutdown()) {
+            executor.execute(flushTask);
+        }
+    }
+
+    private void updateMetrics() {
+        var status = repository.status();
+        sizeGauge.set(status.size());
+        lagGauge.set(status.oldest() == null ? 0 : Duration.between(status.oldest(), LocalDateTime.now()).toMillis() / 1000d);
+    }
+}
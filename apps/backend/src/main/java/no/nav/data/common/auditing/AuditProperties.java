@@ -0,0 +1,40 @@
+package no.nav.data.common.auditing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.YearMonth;
+
+/**
+ * @param flushInterval    how often the outbox is checked when no local writes wake the writer
+ * @param batchSize        audit versions moved per statement
+ * @param synchronous      flush in the writing thread after commit, for tests that read audits right after a write
+ * @param keyframeInterval every n-th version of an object is kept as a full snapshot when compacting, the rest are stored as json patches
+ * @param compactAfter     age of audit versions before they are compacted
+ * @param retentionMonths  months of audit history kept in AUDIT_VERSION, older monthly partitions are moved to AUDIT_VERSION_ARCHIVE
+ */
+@ConfigurationProperties("team-catalog.audit")
+public record AuditProperties(
+        Duration flushInterval,
+        Integer batchSize,
+        boolean synchronous,
+        Integer keyframeInterval,
+        Duration compactAfter,
+        Integer retentionMonths
+) {
+
+    public AuditProperties {
+        flushInterval = flushInterval == null ? Duration.ofSeconds(5) : flushInterval;
+        batchSize = batchSize == null ? 500 : batchSize;
+        keyframeInterval = keyframeInterval == null ? 10 : keyframeInterval;
+        compactAfter = compactAfter == null ? Duration.ofHours(1) : compactAfter;
+        retentionMonths = retentionMonths == null ? 24 : retentionMonths;
+    }
+
+    /**
+     * @return first month kept in AUDIT_VERSION, partitions of earlier months are archived
+     */
+    public YearMonth archiveBefore() {
+        return YearMonth.now().minusMonths(retentionMonths);
+    }
+}
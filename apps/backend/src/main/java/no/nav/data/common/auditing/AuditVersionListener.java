@@ -17,7 +17,6 @@ import jakarta.persistence.PreUpdate;
 import lombok.extern.slf4j.Slf4j;
 import no.nav.data.common.auditing.domain.Action;
 import no.nav.data.common.auditing.domain.AuditVersion;
-import no.nav.data.common.auditing.domain.AuditVersionRepository;
 import no.nav.data.common.auditing.domain.Auditable;
 import no.nav.data.common.storage.domain.GenericStorage;
 import no.nav.data.common.utils.HibernateUtils;
@@ -34,7 +33,7 @@ import static no.nav.data.common.storage.domain.TypeRegistration.isAudited;
 @Slf4j
 public class AuditVersionListener {
 
-    private static AuditVersionRepository repository;
+    private static AuditOutboxWriter writer;
 
     private static final ObjectWriter wr;
 
@@ -46,8 +45,8 @@ public class AuditVersionListener {
         wr = om.writer(filters);
     }
 
-    public static void setRepo(AuditVersionRepository repository) {
-        AuditVersionListener.repository = repository;
+    public static void setWriter(AuditOutboxWriter writer) {
+        AuditVersionListener.writer = writer;
     }
 
     @PrePersist
@@ -65,14 +64,17 @@ public class AuditVersionListener {
         audit(entity, Action.DELETE);
     }
 
-    private void audit(Object entity, Action action) {
+    /**
+     * Audit changes made outside of the persistence context
+     */
+    public static void audit(Object entity, Action action) {
         Assert.isTrue(entity instanceof Auditable, "Invalid object");
         if (entity instanceof GenericStorage gs && !isAudited((gs).getType())) {
             return;
         }
         AuditVersion auditVersion = convertAuditVersion(entity, action);
         if (auditVersion != null) {
-            repository.save(auditVersion);
+            writer.add(auditVersion);
         }
     }
 
@@ -0,0 +1,161 @@
+package no.nav.data.common.auditing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import no.nav.data.common.auditing.domain.AuditArchiveRepository;
+import no.nav.data.common.auditing.domain.AuditVersion;
+import no.nav.data.common.auditing.domain.AuditVersionRepository;
+import no.nav.data.common.auditing.domain.AuditVersionRepositoryCustom.ChainRequest;
+import no.nav.data.common.utils.JsonPatch;
+import no.nav.data.common.utils.JsonUtils;
+import no.nav.data.common.utils.MetricUtils;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.util.stream.Collectors.groupingBy;
+
+/**
+ * Reads audit versions with the full snapshot of the object, reconstructing delta encoded versions from the closest full version.
+ * <p>
+ * Reconstructed snapshots are cached, so walking the history of an object applies each patch once.
+ */
+@Service
+public class AuditVersionReader {
+
+    private final AuditVersionRepository repository;
+    private final AuditArchiveRepository archiveRepository;
+    private final Cache<UUID, String> fullDataCache = MetricUtils.register("auditFullDataCache", Caffeine.newBuilder().recordStats()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .maximumSize(2000).build());
+
+    public AuditVersionReader(AuditVersionRepository repository, AuditArchiveRepository archiveRepository) {
+        this.repository = repository;
+        this.archiveRepository = archiveRepository;
+    }
+
+    public Optional<AuditVersion> findById(UUID id) {
+        return repository.findById(id).or(() -> archiveRepository.findById(id)).map(this::resolve);
+    }
+
+    public Optional<AuditVersion> findLatest(String tableId) {
+        return Optional.ofNullable(repository.findByTableIdOrderByTimeDescLimitOne(tableId))
+                .or(() -> archiveRepository.findByTableIdOrderByTimeDescLimitOne(tableId))
+                .map(this::resolve);
+    }
+
+    /**
+     * @return all versions of the object, archived versions included, newest first
+     */
+    public List<AuditVersion> findHistory(String tableId) {
+        var history = new ArrayList<>(repository.findByTableIdOrderByTimeDesc(tableId));
+        history.addAll(archiveRepository.findByTableIdOrderByTimeDesc(tableId));
+        return resolve(history);
+    }
+
+    public AuditVersion resolve(AuditVersion version) {
+        return resolve(List.of(version)).get(0);
+    }
+
+    /**
+     * @return the versions in the same order, delta encoded versions replaced by detached copies with the full snapshot
+     */
+    public List<AuditVersion> resolve(List<AuditVersion> versions) {
+        var fullData = new HashMap<UUID, String>();
+        versions.stream().filter(AuditVersion::isPatch).forEach(v -> {
+            var cached = fullDataCache.getIfPresent(v.getId());
+            if (cached != null) {
+                fullData.put(v.getId(), cached);
+            }
+        });
+        var toLoad = new ArrayList<ChainRequest>();
+        versions.stream()
+                .filter(v -> v.isPatch() && !fullData.containsKey(v.getId()))
+                .collect(groupingBy(AuditVersion::getTableId))
+                .forEach((tableId, patches) -> {
+                    int from = patches.stream().mapToInt(AuditVersion::getOrdinal).min().orElseThrow();
+                    int to = patches.stream().mapToInt(AuditVersion::getOrdinal).max().orElseThrow();
+                    chainFrom(tableId, from, to, versions).ifPresentOrElse(chain -> reconstruct(tableId, chain, fullData), () -> toLoad.add(new ChainRequest(tableId, from, to)));
+                });
+        if (!toLoad.isEmpty()) {
+            var chains = repository.findChains(toLoad).stream().collect(groupingBy(AuditVersion::getTableId));
+            // the oldest version of an object in AUDIT_VERSION is a full version, so a chain is either in AUDIT_VERSION or in the archive
+            toLoad.forEach(request -> {
+                var chain = chains.get(request.tableId());
+                reconstruct(request.tableId(), chain != null ? chain : archiveRepository.findChain(request.tableId(), request.fromOrdinal(), request.toOrdinal()), fullData);
+            });
+        }
+        return versions.stream().map(v -> v.isPatch() ? v.withFullData(fullData.get(v.getId())) : v).toList();
+    }
+
+    /**
+     * @return versions by id, archived versions included
+     */
+    public Map<UUID, AuditVersion> findAllById(Collection<UUID> ids) {
+        var found = new ArrayList<>(repository.findAllById(ids));
+        if (found.size() < ids.size()) {
+            var foundIds = found.stream().map(AuditVersion::getId).collect(Collectors.toSet());
+            var missing = ids.stream().filter(id -> !foundIds.contains(id)).toList();
+            found.addAll(archiveRepository.findAllById(missing));
+        }
+        return resolve(found).stream().collect(Collectors.toMap(AuditVersion::getId, Function.identity()));
+    }
+
+    private void reconstruct(String tableId, List<AuditVersion> chain, Map<UUID, String> result) {
+        JsonNode current = null;
+        for (AuditVersion version : chain) {
+            String fullData;
+            if (version.isPatch()) {
+                if (current == null) {
+                    throw new IllegalStateException("Audit history for " + tableId + " has no full version before ordinal " + version.getOrdinal());
+                }
+                current = JsonPatch.apply(current, JsonUtils.toJsonNode(version.getData()));
+                fullData = JsonUtils.toJson(current);
+            } else {
+                fullData = version.getData();
+                current = JsonUtils.toJsonNode(fullData);
+            }
+            fullDataCache.put(version.getId(), fullData);
+            result.put(version.getId(), fullData);
+        }
+    }
+
+    /**
+     * The audit log of an object usually contains the whole chain, use it instead of querying again
+     */
+    private static Optional<List<AuditVersion>> chainFrom(String tableId, int from, int to, Collection<AuditVersion> available) {
+        var sorted = available.stream()
+                .filter(v -> tableId.equals(v.getTableId()) && v.getOrdinal() != null && v.getOrdinal() <= to)
+                .sorted(Comparator.comparing(AuditVersion::getOrdinal))
+                .toList();
+        int start = -1;
+        for (int i = sorted.size() - 1; i >= 0; i--) {
+            var version = sorted.get(i);
+            if (!version.isPatch() && version.getOrdinal() <= from) {
+                start = i;
+                break;
+            }
+        }
+        if (start < 0) {
+            return Optional.empty();
+        }
+        var chain = sorted.subList(start, sorted.size());
+        for (int i = 1; i < chain.size(); i++) {
+            if (chain.get(i).getOrdinal() != chain.get(i - 1).getOrdinal() + 1) {
+                return Optional.empty();
+            }
+        }
+        return chain.get(chain.size() - 1).getOrdinal() == to ? Optional.of(chain) : Optional.empty();
+    }
+}
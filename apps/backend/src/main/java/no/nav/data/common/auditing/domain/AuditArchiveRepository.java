@@ -0,0 +1,151 @@
+package no.nav.data.common.auditing.domain;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.SneakyThrows;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static no.nav.data.common.utils.MetricUtils.DB_QUERY_TIMED;
+import static no.nav.data.common.utils.MetricUtils.QUERY;
+
+/**
+ * Audit versions moved out of AUDIT_VERSION by the audit archiver. Data is stored gzip compressed, encoded as it was in AUDIT_VERSION.
+ * <p>
+ * Partitions are archived oldest first, so the versions of an object in the archive are older than its versions in AUDIT_VERSION,
+ * and delta encoded versions in the archive always have their full version in the archive.
+ */
+@Repository
+public class AuditArchiveRepository {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String COLUMNS = "audit_id, action, table_name, table_id, user_id, time, data, encoding, ordinal, product_area_id";
+
+    private final NamedParameterJdbcTemplate template;
+    private final RowMapper<AuditVersion> archivedMapper = (rs, i) -> AuditVersionRowMapper.map(rs, gunzip(rs.getBytes("data")));
+    private final RowMapper<AuditVersion> partitionMapper = (rs, i) -> AuditVersionRowMapper.map(rs, rs.getString("data"));
+
+    public AuditArchiveRepository(NamedParameterJdbcTemplate template) {
+        this.template = template;
+    }
+
+    /**
+     * Copies all versions of the partition for month to the archive. Versions already archived are ignored, so a failed archival can be retried.
+     *
+     * @return number of versions copied
+     */
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditArchiveRepository.archive"}, percentiles = {.99, .75, .50})
+    public int archive(YearMonth month) {
+        var batch = new ArrayList<AuditVersion>(BATCH_SIZE);
+        int[] archived = {0};
+        template.query("select " + COLUMNS + " from " + AuditPartitionRepository.partitionName(month), rs -> {
+            batch.add(partitionMapper.mapRow(rs, 0));
+            if (batch.size() == BATCH_SIZE) {
+                archived[0] += insert(batch);
+                batch.clear();
+            }
+        });
+        return archived[0] + insert(batch);
+    }
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditArchiveRepository.findById"}, percentiles = {.99, .75, .50})
+    public Optional<AuditVersion> findById(UUID id) {
+        return template.query("select " + COLUMNS + " from audit_version_archive where audit_id = :id",
+                new MapSqlParameterSource().addValue("id", id), archivedMapper).stream().findFirst();
+    }
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditArchiveRepository.findAllById"}, percentiles = {.99, .75, .50})
+    public List<AuditVersion> findAllById(Collection<UUID> ids) {
+        return template.query("select " + COLUMNS + " from audit_version_archive where audit_id in (:ids)",
+                new MapSqlParameterSource().addValue("ids", ids), archivedMapper);
+    }
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditArchiveRepository.findByTableIdOrderByTimeDesc"}, percentiles = {.99, .75, .50})
+    public List<AuditVersion> findByTableIdOrderByTimeDesc(String tableId) {
+        return template.query("select " + COLUMNS + " from audit_version_archive where table_id = :tableId order by time desc",
+                new MapSqlParameterSource().addValue("tableId", tableId), archivedMapper);
+    }
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditArchiveRepository.findByTableIdOrderByTimeDescLimitOne"}, percentiles = {.99, .75, .50})
+    public Optional<AuditVersion> findByTableIdOrderByTimeDescLimitOne(String tableId) {
+        return template.query("select " + COLUMNS + " from audit_version_archive where table_id = :tableId order by time desc limit 1",
+                new MapSqlParameterSource().addValue("tableId", tableId), archivedMapper).stream().findFirst();
+    }
+
+    /**
+     * @see AuditVersionRepositoryCustom#findChains(List)
+     */
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditArchiveRepository.findChain"}, percentiles = {.99, .75, .50})
+    public List<AuditVersion> findChain(String tableId, int fromOrdinal, int toOrdinal) {
+        return template.query("""
+                        select %s from audit_version_archive
+                         where table_id = :tableId
+                           and ordinal between (select max(ordinal) from audit_version_archive
+                                                 where table_id = :tableId and encoding = 'FULL' and ordinal <= :from) and :to
+                         order by ordinal
+                        """.formatted(COLUMNS),
+                new MapSqlParameterSource().addValue("tableId", tableId).addValue("from", fromOrdinal).addValue("to", toOrdinal), archivedMapper);
+    }
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditArchiveRepository.findLastOrdinal"}, percentiles = {.99, .75, .50})
+    public Integer findLastOrdinal(String tableId) {
+        return template.queryForObject("select max(ordinal) from audit_version_archive where table_id = :tableId",
+                new MapSqlParameterSource().addValue("tableId", tableId), Integer.class);
+    }
+
+    private int insert(List<AuditVersion> versions) {
+        if (versions.isEmpty()) {
+            return 0;
+        }
+        var inserted = template.batchUpdate("insert into audit_version_archive (" + COLUMNS + ") "
+                        + "values (:id, :action, :table, :tableId, :user, :time, :data, :encoding, :ordinal, :productAreaId) "
+                        + "on conflict (audit_id) do nothing",
+                versions.stream().map(v -> new MapSqlParameterSource()
+                        .addValue("id", v.getId())
+                        .addValue("action", v.getAction().name())
+                        .addValue("table", v.getTable())
+                        .addValue("tableId", v.getTableId())
+                        .addValue("user", v.getUser())
+                        .addValue("time", Timestamp.valueOf(v.getTime()))
+                        .addValue("data", gzip(v.getData()))
+                        .addValue("encoding", v.getEncoding().name())
+                        .addValue("ordinal", v.getOrdinal())
+                        .addValue("productAreaId", v.getProductAreaId())
+                ).toArray(MapSqlParameterSource[]::new));
+        int count = 0;
+        for (int rows : inserted) {
+            count += Math.max(rows, 0);
+        }
+        return count;
+    }
+
+    @SneakyThrows
+    private static byte[] gzip(String data) {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new GZIPOutputStream(bytes)) {
+            out.write(data.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    @SneakyThrows
+    static String gunzip(byte[] data) {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
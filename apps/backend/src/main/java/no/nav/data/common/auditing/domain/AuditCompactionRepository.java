@@ -0,0 +1,57 @@
+package no.nav.data.common.auditing.domain;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static no.nav.data.common.utils.MetricUtils.DB_QUERY_TIMED;
+import static no.nav.data.common.utils.MetricUtils.QUERY;
+
+@Repository
+public class AuditCompactionRepository {
+
+    private final NamedParameterJdbcTemplate template;
+
+    public AuditCompactionRepository(NamedParameterJdbcTemplate template) {
+        this.template = template;
+    }
+
+    /**
+     * @param time  time of the version, to find it in its partition
+     * @param patch json patch for delta encoded versions, null for versions kept as full snapshots
+     */
+    public record Compacted(UUID id, LocalDateTime time, int ordinal, String patch) {
+
+    }
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditCompactionRepository.update"}, percentiles = {.99, .75, .50})
+    public void update(List<Compacted> versions) {
+        template.batchUpdate("update audit_version set ordinal = :ordinal, encoding = :encoding, data = coalesce(cast(:patch as jsonb), data) where audit_id = :id and time = :time",
+                versions.stream().map(v -> new MapSqlParameterSource()
+                        .addValue("id", v.id())
+                        .addValue("time", Timestamp.valueOf(v.time()))
+                        .addValue("ordinal", v.ordinal())
+                        .addValue("encoding", (v.patch() == null ? AuditEncoding.FULL : AuditEncoding.PATCH).name())
+                        .addValue("patch", v.patch())
+                ).toArray(MapSqlParameterSource[]::new));
+    }
+
+    /**
+     * Replaces a delta encoded version with its full snapshot
+     */
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditCompactionRepository.updateFull"}, percentiles = {.99, .75, .50})
+    public void updateFull(AuditVersion version) {
+        template.update("update audit_version set encoding = :encoding, data = cast(:data as jsonb) where audit_id = :id and time = :time",
+                new MapSqlParameterSource()
+                        .addValue("id", version.getId())
+                        .addValue("time", Timestamp.valueOf(version.getTime()))
+                        .addValue("encoding", AuditEncoding.FULL.name())
+                        .addValue("data", version.getData()));
+    }
+}
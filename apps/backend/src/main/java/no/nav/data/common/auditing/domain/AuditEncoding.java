@@ -0,0 +1,12 @@
+package no.nav.data.common.auditing.domain;
+
+public enum AuditEncoding {
+    /**
+     * Data is the full snapshot of the object
+     */
+    FULL,
+    /**
+     * Data is a json patch against the version with the previous ordinal of the same object
+     */
+    PATCH
+}
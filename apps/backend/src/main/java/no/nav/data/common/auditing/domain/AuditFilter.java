@@ -0,0 +1,47 @@
+package no.nav.data.common.auditing.domain;
+
+import lombok.Builder;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filters for listing and exporting audit versions, null means no filter
+ *
+ * @param from inclusive
+ * @param to exclusive
+ */
+@Builder
+public record AuditFilter(String table, String tableId, String user, LocalDateTime from, LocalDateTime to) {
+
+    public static final AuditFilter ALL = AuditFilter.builder().build();
+
+    List<String> where(MapSqlParameterSource params) {
+        var where = new ArrayList<String>();
+        where.add("true");
+        if (table != null) {
+            where.add("table_name = :table");
+            params.addValue("table", table);
+        }
+        if (tableId != null) {
+            where.add("table_id = :tableId");
+            params.addValue("tableId", tableId);
+        }
+        if (user != null) {
+            where.add("user_id = :user");
+            params.addValue("user", user);
+        }
+        if (from != null) {
+            where.add("time >= :from");
+            params.addValue("from", Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            where.add("time < :to");
+            params.addValue("to", Timestamp.valueOf(to));
+        }
+        return where;
+    }
+}
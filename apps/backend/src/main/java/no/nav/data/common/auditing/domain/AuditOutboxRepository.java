@@ -0,0 +1,82 @@
+package no.nav.data.common.auditing.domain;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static no.nav.data.common.utils.MetricUtils.DB_QUERY_TIMED;
+import static no.nav.data.common.utils.MetricUtils.QUERY;
+
+/**
+ * Audit versions waiting to be written to AUDIT_VERSION.
+ * <p>
+ * The outbox has no indexes besides the sequence and stores data as text, so the insert made inside the audited transaction is cheap.
+ */
+@Repository
+public class AuditOutboxRepository {
+
+    private final NamedParameterJdbcTemplate template;
+
+    public AuditOutboxRepository(NamedParameterJdbcTemplate template) {
+        this.template = template;
+    }
+
+    /**
+     * Joins the current transaction, the audit version is only visible to the writer if the audited change is committed
+     */
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditOutboxRepository.add"}, percentiles = {.99, .75, .50})
+    public void add(AuditVersion auditVersion) {
+        template.update("insert into audit_outbox (audit_id, action, table_name, table_id, user_id, time, data) "
+                        + "values (:auditId, :action, :tableName, :tableId, :userId, :time, :data)",
+                new MapSqlParameterSource()
+                        .addValue("auditId", auditVersion.getId())
+                        .addValue("action", auditVersion.getAction().name())
+                        .addValue("tableName", auditVersion.getTable())
+                        .addValue("tableId", auditVersion.getTableId())
+                        .addValue("userId", auditVersion.getUser())
+                        .addValue("time", Timestamp.valueOf(auditVersion.getTime()))
+                        .addValue("data", auditVersion.getData()));
+    }
+
+    /**
+     * Moves the oldest audit versions to AUDIT_VERSION in one statement. Rows locked by another writer are skipped,
+     * and audit versions already written are ignored, so a batch can safely be retried.
+     *
+     * @return number of audit versions moved
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditOutboxRepository.moveBatch"}, percentiles = {.99, .75, .50})
+    public int moveBatch(int batchSize) {
+        return template.update("""
+                        with batch as (
+                          delete from audit_outbox
+                           where seq in (select seq from audit_outbox order by seq limit :batchSize for update skip locked)
+                          returning audit_id, action, table_name, table_id, user_id, time, data
+                        )
+                        insert into audit_version (audit_id, action, table_name, table_id, user_id, time, data, product_area_id)
+                        select audit_id, action, table_name, table_id, user_id, time, json,
+                               case when table_name = 'Team' then json #>> '{data,productAreaId}' end
+                          from (select *, cast(data as jsonb) as json from batch) b
+                        on conflict (audit_id, time) do nothing
+                        """,
+                new MapSqlParameterSource().addValue("batchSize", batchSize));
+    }
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditOutboxRepository.status"}, percentiles = {.99, .75, .50})
+    public OutboxStatus status() {
+        return template.queryForObject("select count(*) as size, min(time) as oldest from audit_outbox", new MapSqlParameterSource(), (rs, i) -> {
+            Timestamp oldest = rs.getTimestamp("oldest");
+            return new OutboxStatus(rs.getLong("size"), oldest == null ? null : oldest.toLocalDateTime());
+        });
+    }
+
+    public record OutboxStatus(long size, LocalDateTime oldest) {
+
+    }
+}
@@ -0,0 +1,113 @@
+package no.nav.data.common.auditing.domain;
+
+import io.micrometer.core.annotation.Timed;
+import no.nav.data.common.exceptions.ValidationException;
+import no.nav.data.common.rest.RestResponseCursorPage;
+import no.nav.data.common.utils.JsonUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static no.nav.data.common.utils.MetricUtils.DB_QUERY_TIMED;
+import static no.nav.data.common.utils.MetricUtils.QUERY;
+
+/**
+ * Keyset pagination of AUDIT_VERSION ordered by time and id, newest first, backed by the audit_version_time_id index.
+ * The cost of a page does not depend on how far into the log it is.
+ */
+@Repository
+public class AuditPageRepository {
+
+    private static final String COLUMNS = "audit_id, action, table_name, table_id, user_id, time, data, encoding, ordinal, product_area_id";
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    private static final RowMapper<AuditVersion> MAPPER = (rs, i) -> AuditVersionRowMapper.map(rs, rs.getString("data"));
+    private static final RowMapper<AuditVersion> ARCHIVED_MAPPER = (rs, i) -> AuditVersionRowMapper.map(rs, AuditArchiveRepository.gunzip(rs.getBytes("data")));
+
+    private final NamedParameterJdbcTemplate template;
+    private final NamedParameterJdbcTemplate exportTemplate;
+
+    public AuditPageRepository(NamedParameterJdbcTemplate template) {
+        this.template = template;
+        var exportJdbcTemplate = new JdbcTemplate(template.getJdbcTemplate().getDataSource());
+        exportJdbcTemplate.setFetchSize(EXPORT_FETCH_SIZE);
+        this.exportTemplate = new NamedParameterJdbcTemplate(exportJdbcTemplate);
+    }
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditPageRepository.findPage"}, percentiles = {.99, .75, .50})
+    public RestResponseCursorPage<AuditVersion> findPage(AuditFilter filter, String cursor, int pageSize, boolean includeTotal) {
+        var params = new MapSqlParameterSource();
+        var where = filter.where(params);
+
+        var keyset = new ArrayList<>(where);
+        Cursor.decode(cursor).ifPresent(c -> {
+            keyset.add("(time, audit_id) < (:cursorTime, :cursorId)");
+            params.addValue("cursorTime", Timestamp.valueOf(c.time())).addValue("cursorId", c.id());
+        });
+        params.addValue("limit", pageSize + 1);
+
+        var rows = template.query("select " + COLUMNS + " from audit_version where " + String.join(" and ", keyset)
+                + " order by time desc, audit_id desc limit :limit", params, MAPPER);
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            var last = rows.get(pageSize - 1);
+            nextCursor = new Cursor(last.getTime(), last.getId()).encode();
+        }
+        Long total = includeTotal ? template.queryForObject("select count(*) from audit_version where " + String.join(" and ", where), params, Long.class) : null;
+        return new RestResponseCursorPage<>(rows, pageSize, nextCursor, total);
+    }
+
+    /**
+     * Reads all matching versions, archived versions included, oldest first. Rows are fetched {@value #EXPORT_FETCH_SIZE} at a time through a database cursor,
+     * which postgres only uses inside a transaction.
+     */
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditPageRepository.export"}, percentiles = {.99, .75, .50})
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void export(AuditFilter filter, Consumer<AuditVersion> consumer) {
+        var params = new MapSqlParameterSource();
+        var where = String.join(" and ", filter.where(params));
+        // archived partitions are older than the partitions left in audit_version
+        exportTemplate.query("select " + COLUMNS + " from audit_version_archive where " + where + " order by time, audit_id", params,
+                (RowCallbackHandler) rs -> consumer.accept(ARCHIVED_MAPPER.mapRow(rs, 0)));
+        exportTemplate.query("select " + COLUMNS + " from audit_version where " + where + " order by time, audit_id", params,
+                (RowCallbackHandler) rs -> consumer.accept(MAPPER.mapRow(rs, 0)));
+    }
+
+    record Cursor(LocalDateTime time, UUID id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(JsonUtils.toJson(this).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Optional<Cursor> decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return Optional.empty();
+            }
+            try {
+                var cursorObject = JsonUtils.toObject(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8), Cursor.class);
+                if (cursorObject.id() == null || cursorObject.time() == null) {
+                    throw new IllegalArgumentException("missing id");
+                }
+                return Optional.of(cursorObject);
+            } catch (Exception e) {
+                throw new ValidationException("Invalid cursor " + cursor);
+            }
+        }
+    }
+}
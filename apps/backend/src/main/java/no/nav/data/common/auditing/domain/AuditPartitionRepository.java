@@ -0,0 +1,97 @@
+package no.nav.data.common.auditing.domain;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import static no.nav.data.common.utils.MetricUtils.DB_QUERY_TIMED;
+import static no.nav.data.common.utils.MetricUtils.QUERY;
+
+/**
+ * Monthly partitions of AUDIT_VERSION, named audit_version_yyyy_mm. Versions outside all monthly partitions end up in audit_version_default.
+ */
+@Repository
+public class AuditPartitionRepository {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("audit_version_(\\d{4})_(\\d{2})");
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final NamedParameterJdbcTemplate template;
+
+    public AuditPartitionRepository(NamedParameterJdbcTemplate template) {
+        this.template = template;
+    }
+
+    public static String partitionName(YearMonth month) {
+        return "audit_version_" + month.format(NAME_FORMAT);
+    }
+
+    /**
+     * @return monthly partitions, oldest first
+     */
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditPartitionRepository.findPartitions"}, percentiles = {.99, .75, .50})
+    public List<YearMonth> findPartitions() {
+        return template.queryForList("""
+                        select c.relname from pg_inherits i
+                          join pg_class c on c.oid = i.inhrelid
+                         where i.inhparent = 'audit_version'::regclass
+                        """, new MapSqlParameterSource(), String.class).stream()
+                .map(PARTITION_NAME::matcher)
+                .filter(m -> m.matches())
+                .map(m -> YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))))
+                .sorted()
+                .toList();
+    }
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditPartitionRepository.findOldestInDefault"}, percentiles = {.99, .75, .50})
+    public LocalDateTime findOldestInDefault() {
+        var oldest = template.queryForObject("select min(time) from audit_version_default", new MapSqlParameterSource(), Timestamp.class);
+        return oldest == null ? null : oldest.toLocalDateTime();
+    }
+
+    /**
+     * Creates the partition for month, moving versions of that month out of the default partition. Must run in a transaction.
+     */
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditPartitionRepository.createPartition"}, percentiles = {.99, .75, .50})
+    public void createPartition(YearMonth month) {
+        var name = partitionName(month);
+        var range = new MapSqlParameterSource().addValue("start", start(month)).addValue("end", start(month.plusMonths(1)));
+        var jdbc = template.getJdbcTemplate();
+        jdbc.execute("create table " + name + " (like audit_version including defaults including constraints)");
+        template.update("insert into " + name + " select * from audit_version_default where time >= :start and time < :end", range);
+        template.update("delete from audit_version_default where time >= :start and time < :end", range);
+        jdbc.execute("alter table audit_version attach partition " + name + " for values from ('" + month.atDay(1) + "') to ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    /**
+     * @return number of versions in the partition not yet compacted
+     */
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditPartitionRepository.countNotCompacted"}, percentiles = {.99, .75, .50})
+    public long countNotCompacted(YearMonth month) {
+        return Objects.requireNonNull(template.queryForObject("select count(*) from " + partitionName(month) + " where ordinal is null",
+                new MapSqlParameterSource(), Long.class));
+    }
+
+    /**
+     * Detaches and drops the partition for month. Must run in a transaction.
+     */
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditPartitionRepository.dropPartition"}, percentiles = {.99, .75, .50})
+    public void dropPartition(YearMonth month) {
+        var jdbc = template.getJdbcTemplate();
+        jdbc.execute("alter table audit_version detach partition " + partitionName(month));
+        jdbc.execute("drop table " + partitionName(month));
+    }
+
+    private static Timestamp start(YearMonth month) {
+        return Timestamp.valueOf(month.atDay(1).atStartOfDay());
+    }
+}
@@ -21,7 +21,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
@@ -31,6 +31,10 @@ public class AuditVersion {
 
     public static final String TEAM_TYPE = TypeRegistration.typeOf(Team.class);
     public static final String PA_TYPE = TypeRegistration.typeOf(ProductArea.class);
+    /**
+     * Field of the {@link GenericStorage} json holding the domain object
+     */
+    private static final String STORAGE_DATA_FIELD = "data";
 
     @Id
     @Column(name = "AUDIT_ID")
@@ -58,9 +62,40 @@ public class AuditVersion {
     @Column(name = "DATA", nullable = false, updatable = false)
     private String data;
 
+    /**
+     * Versions are written as {@link AuditEncoding#FULL} and delta encoded later by the audit compactor
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "ENCODING", nullable = false, updatable = false)
+    @Builder.Default
+    private AuditEncoding encoding = AuditEncoding.FULL;
+
+    /**
+     * Position in the history of the object, set when the version is compacted
+     */
+    @Column(name = "ORDINAL", updatable = false)
+    private Integer ordinal;
+
+    /**
+     * Product area of team versions, set by the outbox writer
+     */
+    @Column(name = "PRODUCT_AREA_ID", insertable = false, updatable = false)
+    private String productAreaId;
+
     @Transient
     private transient DomainObject domainObjectCache;
 
+    public boolean isPatch() {
+        return encoding == AuditEncoding.PATCH;
+    }
+
+    /**
+     * @return detached copy holding the full snapshot of a delta encoded version
+     */
+    public AuditVersion withFullData(String fullData) {
+        return toBuilder().encoding(AuditEncoding.FULL).data(fullData).domainObjectCache(null).build();
+    }
+
     public boolean isTeam() {
         return getTable().equals(TEAM_TYPE);
     }
@@ -82,14 +117,15 @@ public class AuditVersion {
         if (!table.equals(TypeRegistration.typeOf(type))) {
             throw new ValidationException("Invalid type for audit" + type);
         }
+        assertFull();
         if (domainObjectCache == null) {
-            var genStorage = JsonUtils.toObject(data, GenericStorage.class);
-            domainObjectCache = JsonUtils.toObject(genStorage.getData(), type);
+            domainObjectCache = JsonUtils.readField(data, STORAGE_DATA_FIELD, type);
         }
         return (T) domainObjectCache;
     }
 
     public AuditResponse convertToResponse() {
+        assertFull();
         return AuditResponse.builder()
                 .id(id.toString())
                 .action(action)
@@ -97,10 +133,16 @@ public class AuditVersion {
                 .tableId(tableId)
                 .time(time)
                 .user(user)
-                .data(JsonUtils.toJsonNode(this.data))
+                .data(data)
                 .build();
     }
 
+    private void assertFull() {
+        if (isPatch()) {
+            throw new IllegalStateException("Audit version " + id + " is delta encoded, read it through AuditVersionReader");
+        }
+    }
+
     public static String tableName(Class<? extends Auditable> aClass) {
         return aClass.getAnnotation(Table.class).name();
     }
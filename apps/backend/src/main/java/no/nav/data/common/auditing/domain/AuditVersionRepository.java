@@ -18,7 +18,7 @@ import static no.nav.data.common.utils.MetricUtils.DB_QUERY_TIMED;
 import static no.nav.data.common.utils.MetricUtils.QUERY;
 
 @Repository
-public interface AuditVersionRepository extends JpaRepository<AuditVersion, UUID> {
+public interface AuditVersionRepository extends JpaRepository<AuditVersion, UUID>, AuditVersionRepositoryCustom {
 
     @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditVersionRepository.findByTable"}, percentiles = {.99, .75, .50})
     Page<AuditVersion> findByTable(String table, Pageable pageable);
@@ -30,24 +30,69 @@ public interface AuditVersionRepository extends JpaRepository<AuditVersion, UUID
     @Query(value = "select * from audit_version where table_id = ?1 order by time desc limit 1", nativeQuery = true)
     AuditVersion findByTableIdOrderByTimeDescLimitOne(String tableId);
 
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditVersionRepository.findLastCompacted"}, percentiles = {.99, .75, .50})
+    @Query(value = "select * from audit_version where table_id = ?1 and ordinal is not null order by ordinal desc limit 1", nativeQuery = true)
+    AuditVersion findLastCompacted(String tableId);
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditVersionRepository.lockNotCompacted"}, percentiles = {.99, .75, .50})
+    @Query(value = "select * from audit_version where table_id = ?1 and ordinal is null and time < ?2 order by time, audit_id for update skip locked", nativeQuery = true)
+    List<AuditVersion> lockNotCompacted(String tableId, LocalDateTime before);
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditVersionRepository.findTableIdsToCompact"}, percentiles = {.99, .75, .50})
+    @Query(value = "select distinct table_id from audit_version where ordinal is null and time < ?1 limit ?2", nativeQuery = true)
+    List<String> findTableIdsToCompact(LocalDateTime before, int limit);
+
+    /**
+     * @return the first version after end of objects with versions between start and end, if it is delta encoded
+     */
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditVersionRepository.findPatchesFollowing"}, percentiles = {.99, .75, .50})
+    @Query(value = """
+            select * from (
+              select distinct on (table_id) * from audit_version
+               where time >= ?2
+                 and table_id in (select table_id from audit_version where time >= ?1 and time < ?2)
+               order by table_id, ordinal nulls last, time
+            ) first_following
+             where encoding = 'PATCH'
+            """, nativeQuery = true)
+    List<AuditVersion> findPatchesFollowing(LocalDateTime start, LocalDateTime end);
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditVersionRepository.getTime"}, percentiles = {.99, .75, .50})
+    @Query(value = "select time from audit_version where audit_id = ?1", nativeQuery = true)
+    LocalDateTime getTime(UUID id);
+
+    /**
+     * Takes the time rather than the id of the last audit seen, so only partitions after it are scanned
+     */
     @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditVersionRepository.getAllMetadataAfter"}, percentiles = {.99, .75, .50})
     @Query(value = "select cast(audit_id as text) as id, time, action, table_name as tableName, table_id as tableId "
             + "from audit_version "
-            + "where time > (select time from audit_version where audit_id = ?1) "
+            + "where time > ?1 "
             + "and (table_name = 'Team' or table_name = 'ProductArea') "
             + "order by time", nativeQuery = true)
-    List<AuditMetadata> getAllMetadataAfter(UUID id);
+    List<AuditMetadata> getAllMetadataAfter(LocalDateTime time);
 
+    /**
+     * Latest version before time of existing teams and teams changed since, found by index per team rather than scanning all team versions.
+     * Teams unchanged since their versions were archived are read from the archive.
+     */
     @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditVersionRepository.getTeamMetadataBefore"}, percentiles = {.99, .75, .50})
     @Query(value = """
-            select distinct on (table_id)
-             cast(audit_id as text) as id, time, action, table_name as tableName, table_id as tableId,
-             data #>> '{data,productAreaId}' as productAreaId
-             from audit_version
-             where table_name = 'Team'
-                and action <> 'DELETE'
-                and time < ?1
-             order by table_id, time desc
+            select cast(v.audit_id as text) as id, v.time, v.action, v.table_name as tableName, v.table_id as tableId,
+             v.product_area_id as productAreaId
+             from (select cast(id as text) as table_id from generic_storage where type = 'Team'
+                   union
+                   select table_id from audit_version where table_name = 'Team' and time >= ?1) team
+             cross join lateral (
+               (select audit_id, time, action, table_name, table_id, product_area_id from audit_version
+                 where table_id = team.table_id and table_name = 'Team' and action <> 'DELETE' and time < ?1
+                 order by time desc limit 1)
+               union all
+               (select audit_id, time, action, table_name, table_id, product_area_id from audit_version_archive
+                 where table_id = team.table_id and table_name = 'Team' and action <> 'DELETE' and time < ?1
+                 order by time desc limit 1)
+               order by time desc limit 1
+             ) v
             """, nativeQuery = true)
     List<TeamAuditMetadata> getTeamMetadataBefore(LocalDateTime time);
 
@@ -55,7 +100,7 @@ public interface AuditVersionRepository extends JpaRepository<AuditVersion, UUID
     @Query(value = """
             select distinct on (table_id)
              cast(audit_id as text) as id, time, action, table_name as tableName, table_id as tableId,
-             data #>> '{data,productAreaId}' as productAreaId
+             product_area_id as productAreaId
              from audit_version
              where table_name = 'Team'
               and action <> 'DELETE'
@@ -72,19 +117,6 @@ public interface AuditVersionRepository extends JpaRepository<AuditVersion, UUID
             + "from audit_version where audit_id in ?1", nativeQuery = true)
     List<AuditMetadata> getMetadataByIds(List<UUID> uuids);
 
-    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditVersionRepository.getPreviousAuditIdFor"}, percentiles = {.99, .75, .50})
-    @Query(value = "select cast(audit_id as text) from audit_version "
-            + "where table_id = (select table_id from audit_version where audit_id = ?1) "
-            + "and time < (select time from audit_version where audit_id = ?1) "
-            + "order by time desc limit 1", nativeQuery = true)
-    String getPreviousAuditIdFor(UUID id);
-
-    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditVersionRepository.lastAuditForObject"}, percentiles = {.99, .75, .50})
-    @Query(value = "select cast(audit_id as text) as id, time, action, table_name as tableName, table_id as tableId "
-            + "from audit_version "
-            + "where table_id = cast(?1 as text) order by time desc limit 1", nativeQuery = true)
-    AuditMetadata lastAuditForObject(UUID uuid);
-
     @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditVersionRepository.findByTimeBetween"}, percentiles = {.99, .75, .50})
     @Query(value = "select cast(audit_id as text) as id, time, action, table_name as tableName, table_id as tableId"
             + " from audit_version where time between ?1 and ?2 "
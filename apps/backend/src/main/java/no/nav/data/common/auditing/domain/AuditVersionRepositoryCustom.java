@@ -0,0 +1,40 @@
+package no.nav.data.common.auditing.domain;
+
+import no.nav.data.common.auditing.dto.AuditMetadata;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface AuditVersionRepositoryCustom {
+
+    /**
+     * Latest version of each object before the given time, in one query. Archived versions are included.
+     *
+     * @param before object id and time, a null time finds the latest version of the object
+     * @return latest version by object id, objects without versions before the time are left out
+     */
+    Map<UUID, AuditMetadata> findLatestBefore(Map<UUID, LocalDateTime> before);
+
+    /**
+     * Versions from the closest full version at or before fromOrdinal up to toOrdinal, for many objects in one query.
+     * Versions in the archive are not included.
+     *
+     * @return versions ordered by object and ordinal
+     */
+    List<AuditVersion> findChains(List<ChainRequest> requests);
+
+    /**
+     * Metadata of the versions of the given tables, without data.
+     *
+     * @param after only versions after this time, a null time includes archived versions
+     * @return metadata ordered by time
+     */
+    List<AuditMetadata> findMetadataAfter(Collection<String> tables, LocalDateTime after);
+
+    record ChainRequest(String tableId, int fromOrdinal, int toOrdinal) {
+
+    }
+}
@@ -0,0 +1,122 @@
+package no.nav.data.common.auditing.domain;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.Value;
+import no.nav.data.common.auditing.dto.AuditMetadata;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static no.nav.data.common.utils.MetricUtils.DB_QUERY_TIMED;
+import static no.nav.data.common.utils.MetricUtils.QUERY;
+
+@Repository
+public class AuditVersionRepositoryImpl implements AuditVersionRepositoryCustom {
+
+    private final NamedParameterJdbcTemplate template;
+
+    public AuditVersionRepositoryImpl(NamedParameterJdbcTemplate template) {
+        this.template = template;
+    }
+
+    @Override
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditVersionRepositoryCustom.findLatestBefore"}, percentiles = {.99, .75, .50})
+    public Map<UUID, AuditMetadata> findLatestBefore(Map<UUID, LocalDateTime> before) {
+        var result = new HashMap<UUID, AuditMetadata>();
+        if (before.isEmpty()) {
+            return result;
+        }
+        var tableIds = before.keySet().stream().map(UUID::toString).toArray(String[]::new);
+        var times = before.keySet().stream().map(id -> before.get(id) == null ? "infinity" : before.get(id).toString()).toArray(String[]::new);
+        template.query("""
+                        with target as (
+                          select table_id, cast(before as timestamp) as before
+                            from unnest(cast(:tableIds as text[]), cast(:times as text[])) as t(table_id, before)
+                        )
+                        select audit_id, time, action, table_name, table_id from (
+                          select v.audit_id, v.time, v.action, v.table_name, v.table_id,
+                                 row_number() over (partition by v.table_id order by v.time desc) as rank
+                            from (select audit_id, time, action, table_name, table_id from audit_version
+                                  union all
+                                  select audit_id, time, action, table_name, table_id from audit_version_archive) v
+                            join target t on t.table_id = v.table_id and v.time < t.before
+                        ) ranked
+                         where rank = 1
+                        """,
+                new MapSqlParameterSource().addValue("tableIds", tableIds).addValue("times", times),
+                rs -> {
+                    var tableId = UUID.fromString(rs.getString("table_id"));
+                    result.put(tableId, new Metadata(rs.getObject("audit_id", UUID.class), rs.getTimestamp("time").toLocalDateTime(),
+                            Action.valueOf(rs.getString("action")), rs.getString("table_name"), tableId));
+                });
+        return result;
+    }
+
+    @Override
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditVersionRepositoryCustom.findChains"}, percentiles = {.99, .75, .50})
+    public List<AuditVersion> findChains(List<ChainRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        return template.query("""
+                        with target as (
+                          select * from unnest(cast(:tableIds as text[]), cast(:froms as int[]), cast(:tos as int[])) as t(table_id, from_ordinal, to_ordinal)
+                        ), keyframe as (
+                          select t.table_id, t.to_ordinal,
+                                 (select max(ordinal) from audit_version v
+                                   where v.table_id = t.table_id and v.encoding = 'FULL' and v.ordinal <= t.from_ordinal) as from_ordinal
+                            from target t
+                        )
+                        select v.* from audit_version v
+                          join keyframe k on k.table_id = v.table_id and v.ordinal between k.from_ordinal and k.to_ordinal
+                         order by v.table_id, v.ordinal
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("tableIds", requests.stream().map(ChainRequest::tableId).toArray(String[]::new))
+                        .addValue("froms", requests.stream().map(ChainRequest::fromOrdinal).toArray(Integer[]::new))
+                        .addValue("tos", requests.stream().map(ChainRequest::toOrdinal).toArray(Integer[]::new)),
+                (rs, i) -> AuditVersionRowMapper.map(rs, rs.getString("data")));
+    }
+
+    @Override
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "AuditVersionRepositoryCustom.findMetadataAfter"}, percentiles = {.99, .75, .50})
+    public List<AuditMetadata> findMetadataAfter(Collection<String> tables, LocalDateTime after) {
+        var params = new MapSqlParameterSource().addValue("tables", tables);
+        String sql;
+        if (after == null) {
+            sql = """
+                    select audit_id, time, action, table_name, table_id from audit_version where table_name in (:tables)
+                    union all
+                    select audit_id, time, action, table_name, table_id from audit_version_archive where table_name in (:tables)
+                    order by time
+                    """;
+        } else {
+            sql = """
+                    select audit_id, time, action, table_name, table_id from audit_version
+                     where table_name in (:tables) and time > :after
+                     order by time
+                    """;
+            params.addValue("after", Timestamp.valueOf(after));
+        }
+        return template.query(sql, params, (rs, i) -> new Metadata(rs.getObject("audit_id", UUID.class), rs.getTimestamp("time").toLocalDateTime(),
+                Action.valueOf(rs.getString("action")), rs.getString("table_name"), UUID.fromString(rs.getString("table_id"))));
+    }
+
+    @Value
+    static class Metadata implements AuditMetadata {
+
+        UUID id;
+        LocalDateTime time;
+        Action action;
+        String tableName;
+        UUID tableId;
+    }
+}
@@ -0,0 +1,29 @@
+package no.nav.data.common.auditing.domain;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Maps audit_version and audit_version_archive rows read with jdbc
+ */
+final class AuditVersionRowMapper {
+
+    private AuditVersionRowMapper() {
+    }
+
+    static AuditVersion map(ResultSet rs, String data) throws SQLException {
+        return AuditVersion.builder()
+                .id(rs.getObject("audit_id", UUID.class))
+                .action(Action.valueOf(rs.getString("action")))
+                .table(rs.getString("table_name"))
+                .tableId(rs.getString("table_id"))
+                .user(rs.getString("user_id"))
+                .time(rs.getTimestamp("time").toLocalDateTime())
+                .data(data)
+                .encoding(AuditEncoding.valueOf(rs.getString("encoding")))
+                .ordinal(rs.getObject("ordinal", Integer.class))
+                .productAreaId(rs.getString("product_area_id"))
+                .build();
+    }
+}
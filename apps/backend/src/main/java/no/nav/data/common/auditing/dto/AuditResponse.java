@@ -1,7 +1,8 @@
 package no.nav.data.common.auditing.dto;
 
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,6 +24,11 @@ public class AuditResponse {
     private String tableId;
     private LocalDateTime time;
     private String user;
-    private JsonNode data;
+    /**
+     * Json as stored, written to the response without parsing it
+     */
+    @JsonRawValue
+    @Schema(type = "object")
+    private String data;
 
 }
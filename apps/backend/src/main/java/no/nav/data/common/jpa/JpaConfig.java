@@ -4,9 +4,9 @@ import io.prometheus.client.hibernate.HibernateStatisticsCollector;
 import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
 import no.nav.data.AppStarter;
+import no.nav.data.common.auditing.AuditOutboxWriter;
 import no.nav.data.common.auditing.AuditVersionListener;
 import no.nav.data.common.auditing.AuditorAwareImpl;
-import no.nav.data.common.auditing.domain.AuditVersionRepository;
 import no.nav.data.common.storage.StorageService;
 import org.hibernate.SessionFactory;
 import org.springframework.boot.ApplicationRunner;
@@ -34,8 +34,8 @@ public class JpaConfig {
     }
 
     @Bean
-    public ApplicationRunner initAudit(AuditVersionRepository repository) {
-        return args -> AuditVersionListener.setRepo(repository);
+    public ApplicationRunner initAudit(AuditOutboxWriter writer) {
+        return args -> AuditVersionListener.setWriter(writer);
     }
 
     @Bean
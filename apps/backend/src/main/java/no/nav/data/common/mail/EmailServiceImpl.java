@@ -1,35 +1,73 @@
 package no.nav.data.common.mail;
 
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Summary;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import no.nav.data.common.security.SecurityProperties;
 import no.nav.data.common.storage.StorageService;
+import no.nav.data.common.utils.Backoff;
+import no.nav.data.common.utils.MetricUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+import static no.nav.data.common.utils.StreamUtils.convert;
+import static no.nav.data.common.utils.StreamUtils.filter;
 
 @Service
 public class EmailServiceImpl implements EmailService {
 
     public static final Logger logger = LogManager.getLogger(EmailServiceImpl.class);
 
+    private static final int BATCH_SIZE = 50;
+    private static final int PARALLELISM = 4;
+    /**
+     * Longer than a batch takes to send, including the retries done by the email client
+     */
+    private static final Duration LEASE = Duration.ofMinutes(10);
+    private static final Duration MAX_RUN_TIME = Duration.ofMinutes(5);
+
     private final StorageService storage;
+    private final MailQueueRepository queue;
     private final SecurityProperties securityProperties;
 
     private final EmailClient emailClient;
 
-    public EmailServiceImpl(StorageService storage, SecurityProperties securityProperties,
+    private final Gauge queueGauge;
+    private final Summary sendSummary;
+
+    public EmailServiceImpl(StorageService storage, MailQueueRepository queue, SecurityProperties securityProperties,
                             EmailClient emailClient) {
         this.storage = storage;
+        this.queue = queue;
         this.securityProperties = securityProperties;
         this.emailClient = emailClient;
+        this.queueGauge = MetricUtils.gauge()
+                .labels("queued").labels("dead")
+                .labelNames("state")
+                .name("mail_queue_gauge").help("Scheduled mails waiting to be sent, and mails in dead letter")
+                .register();
+        this.sendSummary = MetricUtils.summary()
+                .name("mail_send_summary").help("Time taken to send a scheduled mail, in seconds")
+                .quantile(.5, .01).quantile(.9, .01).quantile(.99, .001)
+                .maxAgeSeconds(Duration.ofHours(24).getSeconds())
+                .register();
     }
 
+    /**
+     * Sends the mail right away, failures are thrown to the caller
+     */
     @Override
     public void sendMail(MailTask mailTask) {
-        var toSend = securityProperties.isDev() ? mailTask.withSubject("[DEV] " + mailTask.getSubject()) : mailTask;
-
-        emailClient.sendEmail(toSend).subscribe();
+        send(mailTask).block();
     }
 
     @Override
@@ -37,14 +75,60 @@ public class EmailServiceImpl implements EmailService {
         storage.save(mailTask);
     }
 
+    /**
+     * Claims scheduled mails in batches and sends each batch with bounded parallelism. A mail is removed from the queue once it has been sent,
+     * a failed mail is retried with {@link Backoff} until it is put in dead letter.
+     */
     @SchedulerLock(name = "sendMail")
     @Scheduled(initialDelayString = "PT2M", fixedRateString = "PT1M")
     public void sendMail() {
-        var tasks = storage.getAll(MailTask.class);
+        var deadline = LocalDateTime.now().plus(MAX_RUN_TIME);
+        List<MailTask> tasks;
+        while (LocalDateTime.now().isBefore(deadline) && !(tasks = queue.claim(BATCH_SIZE, LEASE)).isEmpty()) {
+            var results = requireNonNull(Flux.fromIterable(tasks)
+                    .flatMap(this::sendScheduled, PARALLELISM)
+                    .collectList()
+                    .block());
+
+            queue.delete(convert(filter(results, r -> r.error() == null), r -> r.task().getId()));
+            filter(results, r -> r.error() != null).forEach(this::failed);
+        }
+        var status = queue.status();
+        queueGauge.labels("queued").set(status.queued());
+        queueGauge.labels("dead").set(status.dead());
+    }
+
+    private Mono<Void> send(MailTask mailTask) {
+        var toSend = securityProperties.isDev() ? mailTask.withSubject("[DEV] " + mailTask.getSubject()) : mailTask;
+        return Mono.defer(() -> emailClient.sendEmail(toSend));
+    }
+
+    private Mono<SendResult> sendScheduled(MailTask task) {
+        return send(task)
+                .thenReturn(task)
+                .elapsed()
+                .map(sent -> {
+                    sendSummary.observe(sent.getT1() / 1000.0);
+                    return new SendResult(task, null);
+                })
+                .onErrorResume(e -> Mono.just(new SendResult(task, e)));
+    }
+
+    private void failed(SendResult result) {
+        var task = result.task();
+        var attempts = task.getAttempts() + 1;
+        var error = String.valueOf(result.error().getMessage());
+        if (Backoff.exhausted(attempts)) {
+            logger.error("Failed to send mail id: {}, attempt {}, putting it in dead letter", task.getId(), attempts, result.error());
+            queue.deadLetter(task.getId(), attempts, error);
+        } else {
+            var retryDelay = Backoff.retryDelay(attempts);
+            logger.error("Failed to send mail id: {}, attempt {}, retrying in {}", task.getId(), attempts, retryDelay, result.error());
+            queue.failed(task.getId(), attempts, error, retryDelay);
+        }
+    }
+
+    private record SendResult(MailTask task, Throwable error) {
 
-        tasks.forEach(task -> {
-            sendMail(task);
-            storage.delete(task);
-        });
     }
 }
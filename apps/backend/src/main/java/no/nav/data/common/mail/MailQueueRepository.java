@@ -0,0 +1,122 @@
+package no.nav.data.common.mail;
+
+import io.micrometer.core.annotation.Timed;
+import no.nav.data.common.storage.domain.TypeRegistration;
+import no.nav.data.common.utils.JsonUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static no.nav.data.common.utils.MetricUtils.DB_QUERY_TIMED;
+import static no.nav.data.common.utils.MetricUtils.QUERY;
+
+/**
+ * Queue of scheduled mails, stored as MailTask in GENERIC_STORAGE.
+ * <p>
+ * A worker claims mails by setting leasedUntil, other workers skip mails that are leased or locked by a claim in progress.
+ * A mail whose worker died is claimed again when the lease runs out.
+ * <p>
+ * MailTask is not an audited type, so changing it with plain sql instead of through StorageService leaves out no audit versions.
+ */
+@Repository
+public class MailQueueRepository {
+
+    private static final String TYPE = TypeRegistration.typeOf(MailTask.class);
+
+    private final NamedParameterJdbcTemplate template;
+
+    public MailQueueRepository(NamedParameterJdbcTemplate template) {
+        this.template = template;
+    }
+
+    /**
+     * Claims the oldest mails that are not leased
+     */
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "MailQueueRepository.claim"}, percentiles = {.99, .75, .50})
+    public List<MailTask> claim(int batchSize, Duration lease) {
+        return template.query("""
+                        update generic_storage
+                           set data = data || jsonb_build_object('leasedUntil', localtimestamp + make_interval(secs => :lease)), version = version + 1
+                         where id in (select id
+                                        from generic_storage
+                                       where type = :type
+                                         and coalesce(cast(data ->> 'deadLetter' as boolean), false) = false
+                                         and coalesce(cast(data ->> 'leasedUntil' as timestamp), '-infinity') < localtimestamp
+                                       order by created_date
+                                       limit :batchSize
+                                         for update skip locked)
+                        returning id, data
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("type", TYPE)
+                        .addValue("lease", lease.toSeconds())
+                        .addValue("batchSize", batchSize),
+                (rs, i) -> {
+                    var task = JsonUtils.toObject(rs.getString("data"), MailTask.class);
+                    task.setId(rs.getObject("id", UUID.class));
+                    return task;
+                });
+    }
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "MailQueueRepository.delete"}, percentiles = {.99, .75, .50})
+    public void delete(List<UUID> ids) {
+        if (!ids.isEmpty()) {
+            template.update("delete from generic_storage where type = :type and id in (:ids)", new MapSqlParameterSource().addValue("type", TYPE).addValue("ids", ids));
+        }
+    }
+
+    /**
+     * Stores the failed attempt, the mail is not claimed again until retryDelay has passed
+     */
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "MailQueueRepository.failed"}, percentiles = {.99, .75, .50})
+    public void failed(UUID id, int attempts, String error, Duration retryDelay) {
+        template.update("""
+                        update generic_storage
+                           set data = data || jsonb_build_object('attempts', :attempts, 'lastError', cast(:error as text),
+                                                                 'leasedUntil', localtimestamp + make_interval(secs => :retryDelay)),
+                               version = version + 1
+                         where type = :type and id = :id
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("type", TYPE)
+                        .addValue("id", id)
+                        .addValue("attempts", attempts)
+                        .addValue("error", error)
+                        .addValue("retryDelay", retryDelay.toSeconds()));
+    }
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "MailQueueRepository.deadLetter"}, percentiles = {.99, .75, .50})
+    public void deadLetter(UUID id, int attempts, String error) {
+        template.update("""
+                        update generic_storage
+                           set data = data - 'leasedUntil' || jsonb_build_object('attempts', :attempts, 'lastError', cast(:error as text), 'deadLetter', true),
+                               version = version + 1
+                         where type = :type and id = :id
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("type", TYPE)
+                        .addValue("id", id)
+                        .addValue("attempts", attempts)
+                        .addValue("error", error));
+    }
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "MailQueueRepository.status"}, percentiles = {.99, .75, .50})
+    public QueueStatus status() {
+        return template.queryForObject("""
+                        select count(*) filter (where not coalesce(cast(data ->> 'deadLetter' as boolean), false)) as queued,
+                               count(*) filter (where coalesce(cast(data ->> 'deadLetter' as boolean), false)) as dead
+                          from generic_storage
+                         where type = :type
+                        """,
+                new MapSqlParameterSource().addValue("type", TYPE),
+                (rs, i) -> new QueueStatus(rs.getLong("queued"), rs.getLong("dead")));
+    }
+
+    public record QueueStatus(long queued, long dead) {
+
+    }
+}
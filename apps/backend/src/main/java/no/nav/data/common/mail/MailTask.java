@@ -10,6 +10,7 @@ import no.nav.data.common.storage.domain.ChangeStamp;
 import no.nav.data.common.storage.domain.DomainObject;
 import no.nav.data.team.contact.domain.Channel;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
@@ -25,6 +26,14 @@ public class MailTask implements DomainObject {
     private String subject;
     private String body;
 
+    /**
+     * Set while a worker is sending the mail, or until the next attempt after a failure
+     */
+    private LocalDateTime leasedUntil;
+    private int attempts;
+    private String lastError;
+    private boolean deadLetter;
+
     private ChangeStamp changeStamp;
 
     public MailLog toMailLog() {
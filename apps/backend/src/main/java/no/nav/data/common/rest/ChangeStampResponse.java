@@ -12,9 +12,10 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@JsonPropertyOrder({"lastModifiedBy", "lastModifiedDate"})
+@JsonPropertyOrder({"lastModifiedBy", "lastModifiedDate", "version"})
 public class ChangeStampResponse {
 
     private String lastModifiedBy;
     private LocalDateTime lastModifiedDate;
+    private Long version;
 }
@@ -0,0 +1,33 @@
+package no.nav.data.common.rest;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorParameters {
+
+    @Schema(description = "Opaque cursor from nextCursor of the previous page, omit for the first page")
+    private String cursor;
+    @Schema(defaultValue = "20", minimum = "1", maximum = "250")
+    private int pageSize = 20;
+    @Schema(description = "Include totalElements, costs an extra count query", defaultValue = "false")
+    private boolean includeTotal = false;
+
+    public int validPageSize() {
+        if (pageSize < 1) {
+            log.warn("invalid pageSize {}, setting to 1", pageSize);
+            pageSize = 1;
+        }
+        if (pageSize > 250) {
+            log.warn("invalid pageSize {}, setting to 250", pageSize);
+            pageSize = 250;
+        }
+        return pageSize;
+    }
+}
@@ -0,0 +1,76 @@
+package no.nav.data.common.rest;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldset from the {@code fields} request parameter, ie. {@code fields=id,name,naisTeams}.
+ * <p>
+ * Converters use {@link #ifIncluded(String, Supplier)} to skip expensive fields entirely,
+ * responses annotated with {@code @JsonFilter(FieldSelection.FILTER)} only serialize the selected fields.
+ * The id is always included.
+ */
+public final class FieldSelection {
+
+    public static final String PARAM = "fields";
+    public static final String FILTER = "fieldSelection";
+    public static final FieldSelection ALL = new FieldSelection(null);
+
+    private static final String ID = "id";
+
+    private final Set<String> fields;
+
+    private FieldSelection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static FieldSelection parse(String fields) {
+        if (StringUtils.isBlank(fields)) {
+            return ALL;
+        }
+        var selected = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(StringUtils::isNotEmpty)
+                .collect(Collectors.toCollection(HashSet::new));
+        selected.add(ID);
+        return new FieldSelection(Set.copyOf(selected));
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    public boolean includesAny(Collection<String> fieldNames) {
+        return fields == null || fieldNames.stream().anyMatch(fields::contains);
+    }
+
+    /**
+     * @return value from the supplier, or null without calling it if the field is not selected
+     */
+    public <T> T ifIncluded(String field, Supplier<T> supplier) {
+        return includes(field) ? supplier.get() : null;
+    }
+
+    public FilterProvider filterProvider() {
+        var filter = fields == null ? SimpleBeanPropertyFilter.serializeAll() : SimpleBeanPropertyFilter.filterOutAllExcept(fields);
+        return new SimpleFilterProvider().addFilter(FILTER, filter);
+    }
+
+    @Override
+    public String toString() {
+        return fields == null ? "all" : String.join(",", fields);
+    }
+}
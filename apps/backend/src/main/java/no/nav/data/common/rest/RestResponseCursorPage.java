@@ -0,0 +1,39 @@
+package no.nav.data.common.rest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.swagger.v3.oas.annotations.Parameter;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import no.nav.data.common.utils.StreamUtils;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+@AllArgsConstructor
+@JsonPropertyOrder({"pageSize", "numberOfElements", "totalElements", "nextCursor", "content"})
+public class RestResponseCursorPage<T> {
+
+    private final long pageSize;
+    private final long numberOfElements;
+    @JsonInclude(Include.NON_NULL)
+    @Parameter(description = "Only set if includeTotal was requested")
+    private final Long totalElements;
+    @Parameter(description = "Cursor for the next page, null on the last page")
+    private final String nextCursor;
+    private final List<T> content;
+
+    public RestResponseCursorPage() {
+        this(0, 0, null, null, List.of());
+    }
+
+    public RestResponseCursorPage(List<T> content, long pageSize, String nextCursor, Long totalElements) {
+        this(pageSize, content.size(), totalElements, nextCursor, content);
+    }
+
+    public <R> RestResponseCursorPage<R> convert(Function<T, R> converter) {
+        return new RestResponseCursorPage<>(pageSize, numberOfElements, totalElements, nextCursor, StreamUtils.convert(content, converter));
+    }
+}
@@ -0,0 +1,71 @@
+package no.nav.data.common.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import no.nav.data.common.utils.JsonUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes list responses as newline delimited json, converting and serializing one element at a time instead of building the complete response first.
+ */
+public final class StreamingResponse {
+
+    private static final ObjectWriter writer = JsonUtils.getObjectMapper().writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private StreamingResponse() {
+    }
+
+    /**
+     * @param items lazy stream of items, consumed when the response is written
+     */
+    public static <T, R> ResponseEntity<StreamingResponseBody> ndjson(Stream<T> items, Function<T, R> converter) {
+        return ndjson(items, converter, FieldSelection.ALL);
+    }
+
+    public static <T, R> ResponseEntity<StreamingResponseBody> ndjson(Stream<T> items, Function<T, R> converter, FieldSelection fields) {
+        var writer = fields.isAll() ? StreamingResponse.writer : StreamingResponse.writer.with(fields.filterProvider());
+        StreamingResponseBody body = out -> {
+            try (var generator = writer.createGenerator(out); items) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                var iterator = items.map(converter).iterator();
+                while (iterator.hasNext()) {
+                    writer.writeValue(generator, iterator.next());
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * @param producer passes each item to the given consumer, called when the response is written. For sources that must stay open while
+     * the items are read, such as a database cursor inside a transaction.
+     */
+    public static <T, R> ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<T>> producer, Function<T, R> converter) {
+        StreamingResponseBody body = out -> {
+            try (var generator = writer.createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                producer.accept(item -> {
+                    try {
+                        writer.writeValue(generator, converter.apply(item));
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
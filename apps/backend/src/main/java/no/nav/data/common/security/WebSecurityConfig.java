@@ -54,7 +54,7 @@ public class WebSecurityConfig {
                         .requestMatchers(HttpMethod.GET, getAndOptionsEndpoints()).permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, getAndOptionsEndpoints()).permitAll()
                         .requestMatchers(adminOnlyEndpoints()).hasRole(AppRole.ADMIN.name())
-                        .requestMatchers(HttpMethod.POST, "/resource/multi").permitAll()
+                        .requestMatchers(HttpMethod.POST, readOnlyPostEndpoints()).permitAll()
                         .requestMatchers("/logout").authenticated()
                         .requestMatchers("/**").hasRole(AppRole.WRITE.name())
                 );
@@ -86,6 +86,7 @@ public class WebSecurityConfig {
                 "/locationTwo/**",
                 "/member/**",
                 "/tag/**",
+                "/search/**",
                 "/contactaddress/**",
                 "/dash/**",
                 "/settings/**",
@@ -94,6 +95,16 @@ public class WebSecurityConfig {
         };
     }
 
+    /**
+     * Lookups taking their arguments as a body
+     */
+    String[] readOnlyPostEndpoints() {
+        return new String[]{
+                "/resource/multi",
+                "/member/membership"
+        };
+    }
+
     String[] adminOnlyEndpoints() {
         return new String[]{
                 "/audit/**",
@@ -0,0 +1,164 @@
+package no.nav.data.common.storage;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import no.nav.data.common.utils.MdcUtils;
+import org.postgresql.PGConnection;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Wakes workers when data they process has been written, on this and other instances.
+ * <p>
+ * Signals are sent with postgres NOTIFY, which is delivered when the sending transaction commits, and received on a dedicated connection outside the connection pool.
+ * While that connection is down, or when disabled, signals are delivered to listeners on this instance only, still after the transaction commits.
+ * Signals are hints, workers must still check for work at a slow rate, as signals sent while reconnecting are lost.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(DatabaseSignalsProperties.class)
+public class DatabaseSignals {
+
+    private static final String THREAD_NAME = "databaseSignals";
+    private static final Duration RECEIVE_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(30);
+
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Map<String, List<Runnable>> listeners = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread thread;
+
+    public DatabaseSignals(DataSourceProperties dataSourceProperties, JdbcTemplate jdbcTemplate,
+            DatabaseSignalsProperties properties) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = properties.enabled();
+    }
+
+    /**
+     * @param channel lower case name
+     * @param listener called on the receiving thread, should hand the work over to a worker
+     */
+    public void listen(String channel, Runnable listener) {
+        listeners.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Sends the signal after the current transaction commits, or right away outside a transaction
+     */
+    public void signal(String channel) {
+        if (enabled && listening) {
+            jdbcTemplate.queryForObject("select pg_notify(?, '')", Object.class, channel);
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(channel);
+                }
+            });
+        } else {
+            deliver(channel);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(MdcUtils.wrapAsync(this::receive, THREAD_NAME), THREAD_NAME);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void receive() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(), dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                receive(connection);
+            } catch (SQLException e) {
+                log.warn("Database signal connection failed, retrying in {}", RECONNECT_DELAY, e);
+            } finally {
+                listening = false;
+            }
+            sleep(RECONNECT_DELAY);
+        }
+    }
+
+    private void receive(Connection connection) throws SQLException {
+        var pgConnection = connection.unwrap(PGConnection.class);
+        Set<String> subscribed = new HashSet<>();
+        boolean reconnected = true;
+        while (running) {
+            for (String channel : listeners.keySet()) {
+                if (subscribed.add(channel)) {
+                    try (var statement = connection.createStatement()) {
+                        statement.execute("listen " + channel);
+                    }
+                }
+            }
+            listening = true;
+            if (reconnected) {
+                // signals sent before we were listening are lost
+                listeners.keySet().forEach(this::deliver);
+                reconnected = false;
+            }
+            var notifications = pgConnection.getNotifications((int) RECEIVE_TIMEOUT.toMillis());
+            if (notifications != null) {
+                var channels = new HashSet<String>();
+                for (var notification : notifications) {
+                    channels.add(notification.getName());
+                }
+                channels.forEach(this::deliver);
+            }
+        }
+    }
+
+    private void deliver(String channel) {
+        listeners.getOrDefault(channel, List.of()).forEach(listener -> {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                log.error("Database signal listener for {} failed", channel, e);
+            }
+        });
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package no.nav.data.common.storage;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param enabled send signals to other instances with postgres NOTIFY, when disabled signals only reach listeners on this instance
+ */
+@ConfigurationProperties("team-catalog.database-signals")
+public record DatabaseSignalsProperties(
+        Boolean enabled
+) {
+
+    public DatabaseSignalsProperties {
+        enabled = enabled == null || enabled;
+    }
+}
@@ -1,19 +1,25 @@
 package no.nav.data.common.storage;
 
 import lombok.extern.slf4j.Slf4j;
+import no.nav.data.common.auditing.AuditVersionListener;
+import no.nav.data.common.auditing.domain.Action;
+import no.nav.data.common.exceptions.ConflictException;
 import no.nav.data.common.exceptions.NotFoundException;
 import no.nav.data.common.storage.domain.DomainObject;
 import no.nav.data.common.storage.domain.GenericStorage;
 import no.nav.data.common.storage.domain.GenericStorageRepository;
 import no.nav.data.common.storage.domain.TypeRegistration;
+import no.nav.data.team.catalog.CatalogSnapshotListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static no.nav.data.common.utils.StreamUtils.convert;
@@ -39,6 +45,16 @@ public class StorageService {
         return getStorage(uuid, type).getDomainObjectData(type);
     }
 
+    /**
+     * Get an object to be updated by a client, saving it fails if it is no longer at the version the client read.
+     * Without a version it is saved over any changes made in the meantime
+     */
+    public <T extends DomainObject> T getForUpdate(UUID uuid, Class<T> type, Long version) {
+        var object = get(uuid, type);
+        object.getChangeStamp().setVersion(version);
+        return object;
+    }
+
     /**
      * Batch save, does not work for existing objects
      */
@@ -48,7 +64,14 @@ public class StorageService {
         return repository.saveAll(storages);
     }
 
+    /**
+     * Objects read from storage are updated in a single statement, failing if the object has been modified by someone else in the meantime
+     */
     public <T extends DomainObject> T save(T object) {
+        var version = object.getChangeStamp() == null ? null : object.getChangeStamp().getVersion();
+        if (object.getId() != null && version != null) {
+            return update(object, version);
+        }
         var storage = object.getId() != null ? getStorage(object.getId(), object.getClass()) : new GenericStorage().generateId();
         storage.setDomainObjectData(object);
         var saved = repository.save(storage);
@@ -56,6 +79,21 @@ public class StorageService {
         return (T) saved.getDomainObjectData(object.getClass());
     }
 
+    private <T extends DomainObject> T update(T object, long version) {
+        var storage = new GenericStorage(object.getId(), null, null, version).setDomainObjectData(object);
+        var updated = repository.updateIfUnmodified(storage).orElseThrow(() -> {
+            String type = TypeRegistration.typeOf(object.getClass());
+            if (!repository.existsByIdAndType(object.getId(), type)) {
+                return new NotFoundException("Couldn't find " + type + " with id " + object.getId());
+            }
+            return new ConflictException(type + " with id " + object.getId() + " has been modified by someone else, reload and try again");
+        });
+        AuditVersionListener.audit(updated, Action.UPDATE);
+        CatalogSnapshotListener.saved(updated);
+        //noinspection unchecked
+        return (T) updated.getDomainObjectData(object.getClass());
+    }
+
     public <T extends DomainObject> void deleteAll(List<T> objects) {
         repository.deleteAll(convert(objects, DomainObject::getId));
     }
@@ -74,6 +112,16 @@ public class StorageService {
         return repository.existsByIdAndType(uuid, type);
     }
 
+    /**
+     * @return the subset of the given ids that exist for the type
+     */
+    public <T extends DomainObject> Set<UUID> existingIds(Collection<UUID> uuids, Class<T> type) {
+        if (uuids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(repository.findIdsByTypeAndIdIn(TypeRegistration.typeOf(type), uuids));
+    }
+
     /**
      * Will not throw if object does not exist
      */
@@ -18,4 +18,6 @@ public class ChangeStamp {
 
     private String lastModifiedBy;
     private LocalDateTime lastModifiedDate;
+
+    private Long version;
 }
@@ -31,6 +31,7 @@ public interface DomainObject {
         return ChangeStampResponse.builder()
                 .lastModifiedBy(getChangeStamp().getLastModifiedBy())
                 .lastModifiedDate(getChangeStamp().getLastModifiedDate() == null ? LocalDateTime.now() : getChangeStamp().getLastModifiedDate())
+                .version(getChangeStamp().getVersion())
                 .build();
     }
 
@@ -3,8 +3,10 @@ package no.nav.data.common.storage.domain;
 import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -14,6 +16,7 @@ import no.nav.data.common.auditing.domain.Auditable;
 import no.nav.data.common.security.azure.support.MailLog;
 import no.nav.data.common.utils.JsonUtils;
 import no.nav.data.common.utils.StreamUtils;
+import no.nav.data.team.catalog.CatalogSnapshotListener;
 import no.nav.data.team.cluster.domain.Cluster;
 import no.nav.data.team.po.domain.ProductArea;
 import no.nav.data.team.resource.domain.Resource;
@@ -34,6 +37,7 @@ import static no.nav.data.common.utils.StreamUtils.convert;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@EntityListeners(CatalogSnapshotListener.class)
 @Table(name = "GENERIC_STORAGE")
 public class GenericStorage extends Auditable {
 
@@ -49,6 +53,10 @@ public class GenericStorage extends Auditable {
     @Column(name = "DATA", nullable = false)
     private JsonNode data;
 
+    @Version
+    @Column(name = "VERSION")
+    private Long version;
+
     public GenericStorage generateId() {
         Assert.isTrue(id == null, "id already set");
         id = UUID.randomUUID();
@@ -67,7 +75,7 @@ public class GenericStorage extends Auditable {
     public <T extends DomainObject> T getDomainObjectData(Class<T> clazz) {
         validateType(clazz);
         T object = JsonUtils.toObject(data, clazz);
-        object.setChangeStamp(new ChangeStamp(getCreatedBy(), getCreatedDate(), getLastModifiedBy(), getLastModifiedDate()));
+        object.setChangeStamp(new ChangeStamp(getCreatedBy(), getCreatedDate(), getLastModifiedBy(), getLastModifiedDate(), version));
         return object;
     }
 
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,7 +14,7 @@ import java.util.UUID;
 import static no.nav.data.common.utils.MetricUtils.DB_QUERY_TIMED;
 import static no.nav.data.common.utils.MetricUtils.QUERY;
 
-public interface GenericStorageRepository extends JpaRepository<GenericStorage, UUID> {
+public interface GenericStorageRepository extends JpaRepository<GenericStorage, UUID>, GenericStorageRepositoryCustom {
 
     @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "GenericStorageRepository.existsByIdAndType"}, percentiles = {.99, .75, .50})
     boolean existsByIdAndType(UUID id, String type);
@@ -24,6 +25,10 @@ public interface GenericStorageRepository extends JpaRepository<GenericStorage,
     @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "GenericStorageRepository.findAllByType"}, percentiles = {.99, .75, .50})
     List<GenericStorage> findAllByType(String type);
 
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "GenericStorageRepository.findIdsByTypeAndIdIn"}, percentiles = {.99, .75, .50})
+    @Query("select id from GenericStorage where type = ?1 and id in ?2")
+    List<UUID> findIdsByTypeAndIdIn(String type, Collection<UUID> ids);
+
     @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "GenericStorageRepository.countByType"}, percentiles = {.99, .75, .50})
     long countByType(String type);
 
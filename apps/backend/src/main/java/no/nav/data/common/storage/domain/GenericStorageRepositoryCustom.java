@@ -0,0 +1,13 @@
+package no.nav.data.common.storage.domain;
+
+import java.util.Optional;
+
+public interface GenericStorageRepositoryCustom {
+
+    /**
+     * Update data in a single statement if the stored version still matches the version of the given storage.
+     *
+     * @return the updated storage, or empty if it does not exist or has been modified since it was read
+     */
+    Optional<GenericStorage> updateIfUnmodified(GenericStorage storage);
+}
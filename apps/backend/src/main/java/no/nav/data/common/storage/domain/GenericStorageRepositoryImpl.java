@@ -0,0 +1,73 @@
+package no.nav.data.common.storage.domain;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import no.nav.data.common.utils.JsonUtils;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static no.nav.data.common.utils.MetricUtils.DB_QUERY_TIMED;
+import static no.nav.data.common.utils.MetricUtils.QUERY;
+
+@Repository
+public class GenericStorageRepositoryImpl implements GenericStorageRepositoryCustom {
+
+    private final NamedParameterJdbcTemplate template;
+    private final AuditorAware<String> auditorAware;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public GenericStorageRepositoryImpl(NamedParameterJdbcTemplate template, AuditorAware<String> auditorAware) {
+        this.template = template;
+        this.auditorAware = auditorAware;
+    }
+
+    @Override
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "GenericStorageRepositoryCustom.updateIfUnmodified"}, percentiles = {.99, .75, .50})
+    public Optional<GenericStorage> updateIfUnmodified(GenericStorage storage) {
+        detachManaged(storage);
+        var user = auditorAware.getCurrentAuditor().orElse(null);
+        var time = LocalDateTime.now();
+        var params = new MapSqlParameterSource()
+                .addValue("id", storage.getId())
+                .addValue("type", storage.getType())
+                .addValue("version", storage.getVersion())
+                .addValue("data", JsonUtils.toJson(storage.getData()))
+                .addValue("user", user)
+                .addValue("time", time);
+        var updated = template.query("""
+                        update generic_storage
+                        set data = cast(:data as jsonb), last_modified_by = :user, last_modified_date = :time, version = version + 1
+                        where id = :id and type = :type and version = :version
+                        returning created_by, created_date, version
+                        """, params,
+                (rs, i) -> {
+                    var gs = new GenericStorage(storage.getId(), storage.getType(), storage.getData(), rs.getLong("version"));
+                    gs.setCreatedBy(rs.getString("created_by"));
+                    gs.setCreatedDate(rs.getTimestamp("created_date").toLocalDateTime());
+                    gs.setLastModifiedBy(user);
+                    gs.setLastModifiedDate(time);
+                    return gs;
+                });
+        return updated.stream().findFirst();
+    }
+
+    /**
+     * The update bypasses the persistence context, flush pending changes to the row and make sure a stale copy is not served later in the transaction
+     */
+    private void detachManaged(GenericStorage storage) {
+        var reference = entityManager.getReference(GenericStorage.class, storage.getId());
+        if (!(reference instanceof HibernateProxy)) {
+            entityManager.flush();
+        }
+        entityManager.detach(reference);
+    }
+}
@@ -5,9 +5,11 @@ import no.nav.data.common.security.azure.support.MailLog;
 import no.nav.data.common.validator.RequestElement;
 import no.nav.data.team.cluster.domain.Cluster;
 import no.nav.data.team.notify.domain.GenericNotificationTask;
+import no.nav.data.team.notify.domain.MessageDigest;
 import no.nav.data.team.notify.domain.Notification;
 import no.nav.data.team.notify.domain.NotificationState;
 import no.nav.data.team.notify.domain.NotificationTask;
+import no.nav.data.team.notify.domain.PendingMessage;
 import no.nav.data.team.po.domain.ProductArea;
 import no.nav.data.team.resource.domain.Resource;
 import no.nav.data.team.resource.domain.ResourceEvent;
@@ -42,6 +44,8 @@ public final class TypeRegistration {
         addDomainClass(Notification.class, false);
         addDomainClass(NotificationState.class, false);
         addDomainClass(NotificationTask.class, false);
+        addDomainClass(PendingMessage.class, false);
+        addDomainClass(MessageDigest.class, false);
     }
 
     private TypeRegistration() {
@@ -1,15 +1,19 @@
 package no.nav.data.common.template;
 
 
+import freemarker.cache.StrongCacheStorage;
 import freemarker.template.Configuration;
 import freemarker.template.TemplateExceptionHandler;
+import io.prometheus.client.Summary;
 import lombok.extern.slf4j.Slf4j;
 import no.nav.data.common.exceptions.TechnicalException;
+import no.nav.data.common.utils.MetricUtils;
 import no.nav.data.team.notify.dto.Model;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.io.ClassPathResource;
 
 import java.io.StringWriter;
+import java.time.Duration;
 
 @Slf4j
 @org.springframework.context.annotation.Configuration
@@ -25,6 +29,9 @@ public class FreemarkerConfig {
             var config = new Configuration(Configuration.VERSION_2_3_30);
             config.setClassForTemplateLoading(this.getClass(), "/template/freemarker");
             config.setWrapUncheckedExceptions(true);
+            // Templates are on the classpath and never change, so each is compiled once and kept rather than checked for changes on use
+            config.setTemplateUpdateDelayMilliseconds(Long.MAX_VALUE);
+            config.setCacheStorage(new StrongCacheStorage());
             dev(config);
             return config;
         } catch (Exception e) {
@@ -41,21 +48,31 @@ public class FreemarkerConfig {
     public class FreemarkerService {
 
         private final Configuration cfg;
+        private final Summary renderSummary;
 
         public FreemarkerService() {
             cfg = freemarkerConfig();
+            renderSummary = MetricUtils.summary()
+                    .labelNames("template")
+                    .name("template_render_summary").help("Time taken to render a freemarker template, in seconds")
+                    .quantile(.5, .01).quantile(.9, .01).quantile(.99, .001)
+                    .maxAgeSeconds(Duration.ofHours(24).getSeconds())
+                    .register();
         }
 
         public String generate(Model model) {
+            var templateName = model.getTemplate().getTemplateName();
+            var timer = renderSummary.labels(templateName).startTimer();
             try (var writer = new StringWriter()) {
-                var template = cfg.getTemplate(model.getTemplate().getTemplateName());
-                template.process(model, writer);
+                cfg.getTemplate(templateName).process(model, writer);
                 return writer.toString();
             } catch (Exception e) {
                 TechnicalException freemarkerError = new TechnicalException("io error", e);
                 log.error("Unable to generate String from freemarker template for model {}", model);
                 log.error(e.getMessage(), e);
                 throw freemarkerError;
+            } finally {
+                timer.observeDuration();
             }
         }
     }
@@ -0,0 +1,31 @@
+package no.nav.data.common.utils;
+
+import java.time.Duration;
+
+/**
+ * Exponential backoff for sends that are retried by a later run, used by the mail queue and notification tasks
+ */
+public final class Backoff {
+
+    public static final int MAX_ATTEMPTS = 8;
+    public static final Duration FIRST_RETRY = Duration.ofMinutes(1);
+    public static final Duration MAX_RETRY = Duration.ofHours(6);
+
+    private Backoff() {
+    }
+
+    /**
+     * @return true when a send that has failed this many times should be put in dead letter
+     */
+    public static boolean exhausted(int attempts) {
+        return attempts >= MAX_ATTEMPTS;
+    }
+
+    /**
+     * Delay before the next attempt, after the given number of failed attempts
+     */
+    public static Duration retryDelay(int attempts) {
+        var delay = FIRST_RETRY.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(MAX_RETRY) > 0 ? MAX_RETRY : delay;
+    }
+}
@@ -0,0 +1,208 @@
+package no.nav.data.common.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Json Patch (RFC 6902) using the add, remove and replace operations.
+ * <p>
+ * Arrays are diffed by trimming the common prefix and suffix and removing or adding the elements outside the longest common subsequence of the rest,
+ * so adding or removing a member in a large members list is a single operation.
+ */
+public final class JsonPatch {
+
+    private static final String OP = "op";
+    private static final String PATH = "path";
+    private static final String VALUE = "value";
+    private static final long MAX_LCS_CELLS = 250_000;
+
+    private JsonPatch() {
+    }
+
+    /**
+     * @return operations that turn source into target
+     */
+    public static ArrayNode diff(JsonNode source, JsonNode target) {
+        var ops = JsonNodeFactory.instance.arrayNode();
+        diff("", source, target, ops);
+        return ops;
+    }
+
+    /**
+     * @return a copy of source with the operations applied, source is not modified
+     */
+    public static JsonNode apply(JsonNode source, JsonNode patch) {
+        JsonNode root = source.deepCopy();
+        for (JsonNode op : patch) {
+            var tokens = parsePath(op.get(PATH).asText());
+            var value = op.get(VALUE);
+            if (tokens.isEmpty()) {
+                root = value.deepCopy();
+                continue;
+            }
+            var parent = root;
+            for (int i = 0; i < tokens.size() - 1; i++) {
+                parent = parent.isArray() ? parent.get(Integer.parseInt(tokens.get(i))) : parent.get(tokens.get(i));
+            }
+            var last = tokens.get(tokens.size() - 1);
+            switch (op.get(OP).asText()) {
+                case "add" -> add(parent, last, value.deepCopy());
+                case "remove" -> remove(parent, last);
+                case "replace" -> replace(parent, last, value.deepCopy());
+                default -> throw new IllegalArgumentException("Unsupported json patch operation " + op.get(OP).asText());
+            }
+        }
+        return root;
+    }
+
+    private static void diff(String path, JsonNode source, JsonNode target, ArrayNode ops) {
+        if (source.equals(target)) {
+            return;
+        }
+        if (source.isObject() && target.isObject()) {
+            source.fieldNames().forEachRemaining(field -> {
+                if (!target.has(field)) {
+                    ops.add(op("remove", path + "/" + escape(field), null));
+                } else {
+                    diff(path + "/" + escape(field), source.get(field), target.get(field), ops);
+                }
+            });
+            target.fields().forEachRemaining(field -> {
+                if (!source.has(field.getKey())) {
+                    ops.add(op("add", path + "/" + escape(field.getKey()), field.getValue()));
+                }
+            });
+        } else if (source.isArray() && target.isArray()) {
+            diffArray(path, source, target, ops);
+        } else {
+            ops.add(op("replace", path, target));
+        }
+    }
+
+    private static void diffArray(String path, JsonNode source, JsonNode target, ArrayNode ops) {
+        int prefix = 0;
+        while (prefix < source.size() && prefix < target.size() && source.get(prefix).equals(target.get(prefix))) {
+            prefix++;
+        }
+        int sourceEnd = source.size();
+        int targetEnd = target.size();
+        while (sourceEnd > prefix && targetEnd > prefix && source.get(sourceEnd - 1).equals(target.get(targetEnd - 1))) {
+            sourceEnd--;
+            targetEnd--;
+        }
+        int sourceChanged = sourceEnd - prefix;
+        int targetChanged = targetEnd - prefix;
+        if ((long) sourceChanged * targetChanged <= MAX_LCS_CELLS) {
+            diffLcs(path, prefix, source, sourceChanged, target, targetChanged, ops);
+            return;
+        }
+        int common = Math.min(sourceChanged, targetChanged);
+        for (int i = prefix; i < prefix + common; i++) {
+            diff(path + "/" + i, source.get(i), target.get(i), ops);
+        }
+        for (int i = common; i < sourceChanged; i++) {
+            ops.add(op("remove", path + "/" + (prefix + common), null));
+        }
+        for (int i = common; i < targetChanged; i++) {
+            ops.add(op("add", path + "/" + (prefix + i), target.get(prefix + i)));
+        }
+    }
+
+    /**
+     * Removes and adds elements outside the longest common subsequence, an element replaced in place is diffed as a nested change
+     */
+    private static void diffLcs(String path, int offset, JsonNode source, int sourceLength, JsonNode target, int targetLength, ArrayNode ops) {
+        var lcs = new int[sourceLength + 1][targetLength + 1];
+        for (int i = sourceLength - 1; i >= 0; i--) {
+            for (int j = targetLength - 1; j >= 0; j--) {
+                lcs[i][j] = source.get(offset + i).equals(target.get(offset + j)) ? lcs[i + 1][j + 1] + 1 : Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+            }
+        }
+        int i = 0;
+        int j = 0;
+        int position = offset;
+        while (i < sourceLength && j < targetLength) {
+            var sourceElement = source.get(offset + i);
+            var targetElement = target.get(offset + j);
+            if (sourceElement.equals(targetElement)) {
+                i++;
+                j++;
+                position++;
+            } else if (lcs[i + 1][j + 1] == lcs[i][j]) {
+                diff(path + "/" + position, sourceElement, targetElement, ops);
+                i++;
+                j++;
+                position++;
+            } else if (lcs[i + 1][j] >= lcs[i][j + 1]) {
+                ops.add(op("remove", path + "/" + position, null));
+                i++;
+            } else {
+                ops.add(op("add", path + "/" + position, targetElement));
+                j++;
+                position++;
+            }
+        }
+        for (; i < sourceLength; i++) {
+            ops.add(op("remove", path + "/" + position, null));
+        }
+        for (; j < targetLength; j++, position++) {
+            ops.add(op("add", path + "/" + position, target.get(offset + j)));
+        }
+    }
+
+    private static ObjectNode op(String op, String path, JsonNode value) {
+        var node = JsonNodeFactory.instance.objectNode().put(OP, op).put(PATH, path);
+        if (value != null) {
+            node.set(VALUE, value);
+        }
+        return node;
+    }
+
+    private static void add(JsonNode parent, String token, JsonNode value) {
+        if (parent instanceof ArrayNode array) {
+            if (token.equals("-")) {
+                array.add(value);
+            } else {
+                array.insert(Integer.parseInt(token), value);
+            }
+        } else {
+            ((ObjectNode) parent).set(token, value);
+        }
+    }
+
+    private static void remove(JsonNode parent, String token) {
+        if (parent instanceof ArrayNode array) {
+            array.remove(Integer.parseInt(token));
+        } else {
+            ((ObjectNode) parent).remove(token);
+        }
+    }
+
+    private static void replace(JsonNode parent, String token, JsonNode value) {
+        if (parent instanceof ArrayNode array) {
+            array.set(Integer.parseInt(token), value);
+        } else {
+            ((ObjectNode) parent).set(token, value);
+        }
+    }
+
+    private static String escape(String token) {
+        return token.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static List<String> parsePath(String path) {
+        var tokens = new ArrayList<String>();
+        if (path.isEmpty()) {
+            return tokens;
+        }
+        for (String token : path.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+}
@@ -1,11 +1,14 @@
 package no.nav.data.common.utils;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import no.nav.data.common.exceptions.TechnicalException;
 import org.springframework.core.ParameterizedTypeReference;
@@ -33,6 +36,8 @@ public final class JsonUtils {
         om.registerModule(new JavaTimeModule());
         om.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         om.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        // classes with a @JsonFilter serialize all properties unless a filter is provided for the write
+        om.setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
         return om;
     }
 
@@ -68,6 +73,30 @@ public final class JsonUtils {
         }
     }
 
+    /**
+     * Reads one field of a json object into the given type without building a tree of the whole document, other fields are skipped
+     *
+     * @return null if the field is missing or null
+     */
+    public static <T> T readField(String json, String field, Class<T> type) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("invalid json, expected object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var name = parser.getCurrentName();
+                var token = parser.nextToken();
+                if (name.equals(field)) {
+                    return token == JsonToken.VALUE_NULL ? null : objectMapper.readValue(parser, type);
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("invalid json ", e);
+        }
+    }
+
     public static String toJson(Object object) {
         try {
             return objectMapper.writeValueAsString(object);
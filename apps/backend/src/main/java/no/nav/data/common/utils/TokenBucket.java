@@ -0,0 +1,67 @@
+package no.nav.data.common.utils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate limiter allowing bursts of up to capacity calls, refilled at a steady rate. Callers waiting for a token are served in the order they asked.
+ */
+public class TokenBucket {
+
+    private final int capacity;
+    private final double nanosPerToken;
+    private final LongSupplier nanoTime;
+
+    private double tokens;
+    private long refilledAt;
+
+    /**
+     * @param capacity calls allowed in a burst
+     * @param tokens calls allowed per period
+     */
+    public TokenBucket(int capacity, int tokens, Duration period) {
+        this(capacity, tokens, period, System::nanoTime);
+    }
+
+    TokenBucket(int capacity, int tokens, Duration period, LongSupplier nanoTime) {
+        this.capacity = capacity;
+        this.nanosPerToken = (double) period.toNanos() / tokens;
+        this.nanoTime = nanoTime;
+        this.tokens = capacity;
+        this.refilledAt = nanoTime.getAsLong();
+    }
+
+    /**
+     * Takes a token, waiting for one if needed
+     *
+     * @return false without taking a token if it would take longer than maxWait
+     */
+    public boolean tryAcquire(Duration maxWait) throws InterruptedException {
+        long wait = reserve(maxWait);
+        if (wait < 0) {
+            return false;
+        }
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        return true;
+    }
+
+    /**
+     * @return nanos to wait for the reserved token, or -1 if nothing was reserved
+     */
+    synchronized long reserve(Duration maxWait) {
+        long now = nanoTime.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) / nanosPerToken);
+        refilledAt = now;
+
+        long wait = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * nanosPerToken);
+        if (wait > maxWait.toNanos()) {
+            return -1;
+        }
+        // tokens go negative while callers are waiting, so later callers wait behind them
+        tokens -= 1;
+        return wait;
+    }
+}
@@ -25,6 +25,14 @@ public interface RequestElement extends Validated {
     @JsonIgnore
     void setUpdate(Boolean update);
 
+    /**
+     * Version of the object when the client read it. Can also be given as an If-Match header.
+     * An update with a version fails if the object has been modified since, an update without one overwrites other changes
+     */
+    Long getVersion();
+
+    void setVersion(Long version);
+
     @JsonIgnore
     default UUID getIdAsUUID() {
         try {
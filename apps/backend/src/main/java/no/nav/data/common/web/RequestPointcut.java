@@ -2,14 +2,19 @@ package no.nav.data.common.web;
 
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.extern.slf4j.Slf4j;
+import no.nav.data.common.exceptions.ValidationException;
 import no.nav.data.common.nais.NaisEndpoints;
 import no.nav.data.common.validator.RequestElement;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.util.Collection;
 import java.util.stream.Stream;
@@ -31,6 +36,7 @@ public class RequestPointcut {
         log.debug("{} {}", signature.getDeclaringType().getSimpleName(), signature.getName());
 
         boolean isPut = signature.getMethod().isAnnotationPresent(PutMapping.class);
+        Long ifMatchVersion = isPut ? ifMatchVersion() : null;
         Stream.of(joinPoint.getArgs())
                 .flatMap(arg -> {
                     if (arg instanceof RequestElement re) {
@@ -44,7 +50,29 @@ public class RequestPointcut {
                 .forEach(req -> {
                     log.trace("setting update");
                     req.setUpdate(isPut);
+                    if (ifMatchVersion != null) {
+                        req.setVersion(ifMatchVersion);
+                    }
                 });
     }
 
+    /**
+     * Version of the object the client updates, given as an etag in the If-Match header
+     */
+    private static Long ifMatchVersion() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        var ifMatch = attributes.getRequest().getHeader(HttpHeaders.IF_MATCH);
+        if (ifMatch == null) {
+            return null;
+        }
+        var etag = StringUtils.strip(StringUtils.removeStart(ifMatch.trim(), "W/"), "\"");
+        try {
+            return Long.valueOf(etag);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("If-Match %s is not a valid version".formatted(ifMatch));
+        }
+    }
+
 }
@@ -0,0 +1,17 @@
+package no.nav.data.team.catalog;
+
+import no.nav.data.common.storage.domain.DomainObject;
+
+import java.util.UUID;
+
+/**
+ * Notified by {@link CatalogSnapshotService} after a new snapshot is published, in the order the changes were applied
+ */
+public interface CatalogChangeListener {
+
+    void reloaded(CatalogSnapshot snapshot);
+
+    void saved(DomainObject object);
+
+    void removed(Class<?> type, UUID id);
+}
@@ -0,0 +1,18 @@
+package no.nav.data.team.catalog;
+
+import lombok.Builder;
+import no.nav.data.team.shared.domain.DomainObjectStatus;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Filters for listing teams, product areas and clusters, null means no filter
+ *
+ * @param locationCodes office location codes, including all sub locations of the requested location
+ */
+@Builder
+public record CatalogFilter(List<DomainObjectStatus> statuses, UUID productAreaId, UUID clusterId, Collection<String> locationCodes) {
+
+}
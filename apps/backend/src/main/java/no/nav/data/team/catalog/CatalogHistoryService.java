@@ -0,0 +1,157 @@
+package no.nav.data.team.catalog;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import no.nav.data.common.auditing.AuditOutboxWriter;
+import no.nav.data.common.auditing.AuditVersionReader;
+import no.nav.data.common.auditing.domain.AuditOutboxRepository;
+import no.nav.data.common.auditing.domain.AuditVersion;
+import no.nav.data.common.auditing.domain.AuditVersionRepository;
+import no.nav.data.common.auditing.dto.AuditMetadata;
+import no.nav.data.common.storage.DatabaseSignals;
+import no.nav.data.common.storage.domain.TypeRegistration;
+import no.nav.data.common.utils.MetricUtils;
+import no.nav.data.team.cluster.domain.Cluster;
+import no.nav.data.team.po.domain.ProductArea;
+import no.nav.data.team.team.domain.Team;
+import org.apache.commons.collections4.ListUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static no.nav.data.team.catalog.CatalogSnapshotService.CATALOG_TYPES;
+
+/**
+ * Catalog as it was at a point in time, reconstructed from the audit log.
+ * <p>
+ * A {@link CatalogTimeline} of audit metadata finds the version of each object at the time. It is loaded by the first request, and then extended with new versions
+ * when audit versions are written, outside of requests.
+ * The catalog only changes when an audit version is written, so reconstructed snapshots are cached by the time of the latest change at or before the requested time.
+ */
+@Slf4j
+@Service
+public class CatalogHistoryService {
+
+    private static final List<String> TABLES = CATALOG_TYPES.stream().map(TypeRegistration::typeOf).toList();
+    /**
+     * Versions are looked for from a little before the watermark, in case a version was still uncommitted, and not yet in the outbox, when the watermark was set
+     */
+    private static final Duration OVERLAP = Duration.ofMinutes(1);
+    /**
+     * Versions written by other instances without a signal are picked up this often
+     */
+    private static final Duration MAX_REFRESH_INTERVAL = Duration.ofMinutes(1);
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final AuditVersionRepository repository;
+    private final AuditVersionReader reader;
+    private final AuditOutboxRepository outboxRepository;
+    private final CatalogTimeline timeline = new CatalogTimeline();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final AtomicBoolean changed = new AtomicBoolean();
+    private final Cache<SnapshotKey, CatalogSnapshot> snapshots = MetricUtils.register("catalogHistoryCache", Caffeine.newBuilder().recordStats()
+            .expireAfterAccess(Duration.ofMinutes(30))
+            .maximumSize(10).build());
+    /**
+     * Incremented when a late version changes the catalog at a time already seen, so snapshots cached before are not used
+     */
+    private long generation;
+    /**
+     * All versions before this are in the timeline, it never passes the oldest audit in the outbox. Null until the timeline is loaded
+     */
+    private volatile LocalDateTime watermark;
+    private volatile Instant refreshed = Instant.MIN;
+
+    public CatalogHistoryService(AuditVersionRepository repository, AuditVersionReader reader, AuditOutboxRepository outboxRepository, DatabaseSignals signals) {
+        this.repository = repository;
+        this.reader = reader;
+        this.outboxRepository = outboxRepository;
+        signals.listen(AuditOutboxWriter.AUDIT_WRITTEN_SIGNAL, () -> changed.set(true));
+    }
+
+    public CatalogSnapshot asOf(LocalDateTime time) {
+        if (watermark == null) {
+            refresh();
+        }
+        long currentGeneration;
+        CatalogTimeline.State state;
+        synchronized (this) {
+            currentGeneration = generation;
+            state = timeline.at(time);
+        }
+        if (state.changedAt() == null) {
+            return CatalogSnapshot.EMPTY;
+        }
+        return snapshots.get(new SnapshotKey(currentGeneration, state.changedAt()), key -> load(state.versions()));
+    }
+
+    /**
+     * Extends a loaded timeline when audit versions have been written, or after {@link #MAX_REFRESH_INTERVAL}
+     */
+    @Scheduled(initialDelayString = "PT1M", fixedDelayString = "PT5S")
+    public void refreshIfChanged() {
+        if (watermark == null) {
+            return;
+        }
+        if (changed.get() || Instant.now().isAfter(refreshed.plus(MAX_REFRESH_INTERVAL))) {
+            refresh();
+        }
+    }
+
+    /**
+     * Adds versions written since the watermark. Only the timeline update is done under the lock that requests read it with
+     */
+    void refresh() {
+        refreshLock.lock();
+        try {
+            // versions signalled until now are found by this refresh
+            changed.set(false);
+            // read before the versions, versions moved from the outbox after this are not older than it
+            var now = LocalDateTime.now();
+            var outboxOldest = Optional.ofNullable(outboxRepository.status().oldest()).orElse(now);
+            var current = watermark;
+            var versions = repository.findMetadataAfter(TABLES, current == null ? null : current.minus(OVERLAP));
+            synchronized (this) {
+                if (timeline.add(versions)) {
+                    generation++;
+                }
+            }
+            if (current == null || outboxOldest.isAfter(current)) {
+                watermark = outboxOldest;
+            }
+            refreshed = Instant.now();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private CatalogSnapshot load(List<AuditMetadata> versions) {
+        var teams = new ArrayList<Team>();
+        var productAreas = new ArrayList<ProductArea>();
+        var clusters = new ArrayList<Cluster>();
+        ListUtils.partition(versions.stream().map(AuditMetadata::getId).toList(), LOAD_BATCH_SIZE).forEach(ids -> reader.findAllById(ids).values().forEach(version -> {
+            if (version.getTable().equals(AuditVersion.TEAM_TYPE)) {
+                teams.add(version.getDomainObjectData(Team.class));
+            } else if (version.getTable().equals(AuditVersion.PA_TYPE)) {
+                productAreas.add(version.getDomainObjectData(ProductArea.class));
+            } else {
+                clusters.add(version.getDomainObjectData(Cluster.class));
+            }
+        }));
+        log.info("Reconstructed catalog with {} teams, {} product areas and {} clusters", teams.size(), productAreas.size(), clusters.size());
+        return CatalogSnapshot.of(0, teams, productAreas, clusters);
+    }
+
+    private record SnapshotKey(long generation, LocalDateTime changedAt) {
+
+    }
+}
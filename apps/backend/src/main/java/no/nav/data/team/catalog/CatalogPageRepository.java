@@ -0,0 +1,133 @@
+package no.nav.data.team.catalog;
+
+import io.micrometer.core.annotation.Timed;
+import no.nav.data.common.exceptions.ValidationException;
+import no.nav.data.common.rest.RestResponseCursorPage;
+import no.nav.data.common.storage.domain.DomainObject;
+import no.nav.data.common.storage.domain.GenericStorage;
+import no.nav.data.common.storage.domain.TypeRegistration;
+import no.nav.data.common.utils.JsonUtils;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static no.nav.data.common.utils.MetricUtils.DB_QUERY_TIMED;
+import static no.nav.data.common.utils.MetricUtils.QUERY;
+import static no.nav.data.common.utils.StreamUtils.convert;
+
+/**
+ * Keyset pagination ordered by lower case name and id, backed by the gs_catalog_name_idx index.
+ * The cost of a page does not depend on how far into the list it is.
+ */
+@Repository
+public class CatalogPageRepository {
+
+    private static final String NAME_KEY = "coalesce(lower(data ->> 'name'), '')";
+
+    private static final RowMapper<Row> ROW_MAPPER = (rs, i) -> {
+        var gs = new GenericStorage(rs.getObject("id", UUID.class), rs.getString("type"), JsonUtils.toJsonNode(rs.getString("data")), rs.getLong("version"));
+        gs.setCreatedBy(rs.getString("created_by"));
+        gs.setCreatedDate(toLocalDateTime(rs.getTimestamp("created_date")));
+        gs.setLastModifiedBy(rs.getString("last_modified_by"));
+        gs.setLastModifiedDate(toLocalDateTime(rs.getTimestamp("last_modified_date")));
+        return new Row(gs, rs.getString("name_key"));
+    };
+
+    private final NamedParameterJdbcTemplate template;
+
+    public CatalogPageRepository(NamedParameterJdbcTemplate template) {
+        this.template = template;
+    }
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "CatalogPageRepository.findPage"}, percentiles = {.99, .75, .50})
+    public <T extends DomainObject> RestResponseCursorPage<T> findPage(Class<T> type, CatalogFilter filter, String cursor, int pageSize, boolean includeTotal) {
+        var params = new MapSqlParameterSource();
+        var where = where(type, filter, params);
+
+        var keyset = new ArrayList<>(where);
+        Cursor.decode(cursor).ifPresent(c -> {
+            keyset.add("(" + NAME_KEY + ", id) > (:cursorName, :cursorId)");
+            params.addValue("cursorName", c.name()).addValue("cursorId", c.id());
+        });
+        params.addValue("limit", pageSize + 1);
+
+        var rows = template.query("select *, " + NAME_KEY + " as name_key from generic_storage where " + String.join(" and ", keyset)
+                + " order by " + NAME_KEY + ", id limit :limit", params, ROW_MAPPER);
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            var last = rows.get(pageSize - 1);
+            nextCursor = new Cursor(last.nameKey(), last.storage().getId()).encode();
+        }
+        Long total = includeTotal ? template.queryForObject("select count(*) from generic_storage where " + String.join(" and ", where), params, Long.class) : null;
+        return new RestResponseCursorPage<>(GenericStorage.to(convert(rows, Row::storage), type), pageSize, nextCursor, total);
+    }
+
+    private static List<String> where(Class<?> type, CatalogFilter filter, MapSqlParameterSource params) {
+        var where = new ArrayList<String>();
+        where.add("type = :type");
+        params.addValue("type", TypeRegistration.typeOf(type));
+        if (filter.statuses() != null) {
+            where.add("data ->> 'status' in (:statuses)");
+            params.addValue("statuses", convert(filter.statuses(), Enum::name));
+        }
+        if (filter.productAreaId() != null) {
+            where.add("data ->> 'productAreaId' = :productAreaId");
+            params.addValue("productAreaId", filter.productAreaId().toString());
+        }
+        if (filter.clusterId() != null) {
+            where.add("data -> 'clusterIds' ?? :clusterId");
+            params.addValue("clusterId", filter.clusterId().toString());
+        }
+        if (filter.locationCodes() != null) {
+            if (filter.locationCodes().isEmpty()) {
+                where.add("false");
+            } else {
+                where.add("data #>> '{officeHours,locationCode}' in (:locationCodes)");
+                params.addValue("locationCodes", filter.locationCodes());
+            }
+        }
+        return where;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    private record Row(GenericStorage storage, String nameKey) {
+
+    }
+
+    record Cursor(String name, UUID id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(JsonUtils.toJson(this).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Optional<Cursor> decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return Optional.empty();
+            }
+            try {
+                var cursorObject = JsonUtils.toObject(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8), Cursor.class);
+                if (cursorObject.id() == null || cursorObject.name() == null) {
+                    throw new IllegalArgumentException("missing id");
+                }
+                return Optional.of(cursorObject);
+            } catch (Exception e) {
+                throw new ValidationException("Invalid cursor " + cursor);
+            }
+        }
+    }
+}
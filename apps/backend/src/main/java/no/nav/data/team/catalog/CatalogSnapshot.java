@@ -0,0 +1,229 @@
+package no.nav.data.team.catalog;
+
+import no.nav.data.common.storage.domain.ChangeStamp;
+import no.nav.data.common.storage.domain.DomainObject;
+import no.nav.data.team.cluster.domain.Cluster;
+import no.nav.data.team.po.domain.ProductArea;
+import no.nav.data.team.tag.TagDictionary;
+import no.nav.data.team.team.domain.Team;
+import org.apache.commons.lang3.StringUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+import static no.nav.data.common.utils.StreamUtils.filter;
+import static no.nav.data.common.utils.StreamUtils.safeStream;
+
+/**
+ * Immutable view of all teams, product areas and clusters at a given version.
+ * Domain objects are shared between readers and must not be mutated.
+ */
+public final class CatalogSnapshot {
+
+    public static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, Map.of(), Map.of(), Map.of(), TagDictionary.EMPTY, MembershipIndex.EMPTY);
+
+    private final long version;
+    private final Map<UUID, Team> teams;
+    private final Map<UUID, ProductArea> productAreas;
+    private final Map<UUID, Cluster> clusters;
+    private final List<Team> teamList;
+    private final List<ProductArea> productAreaList;
+    private final List<Cluster> clusterList;
+    private final Map<UUID, List<Team>> teamsByProductArea;
+    private final Map<UUID, List<Team>> teamsByCluster;
+    private final TagDictionary tags;
+    private final MembershipIndex memberships;
+
+    private CatalogSnapshot(long version, Map<UUID, Team> teams, Map<UUID, ProductArea> productAreas, Map<UUID, Cluster> clusters, TagDictionary tags,
+            MembershipIndex memberships) {
+        this.version = version;
+        this.tags = tags;
+        this.memberships = memberships;
+        this.teams = Collections.unmodifiableMap(teams);
+        this.productAreas = Collections.unmodifiableMap(productAreas);
+        this.clusters = Collections.unmodifiableMap(clusters);
+        this.teamList = List.copyOf(teams.values());
+        this.productAreaList = List.copyOf(productAreas.values());
+        this.clusterList = List.copyOf(clusters.values());
+
+        var byProductArea = new HashMap<UUID, List<Team>>();
+        var byCluster = new HashMap<UUID, List<Team>>();
+        teams.values().forEach(team -> {
+            if (team.getProductAreaId() != null) {
+                byProductArea.computeIfAbsent(team.getProductAreaId(), k -> new ArrayList<>()).add(team);
+            }
+            safeStream(team.getClusterIds()).distinct().forEach(clusterId -> byCluster.computeIfAbsent(clusterId, k -> new ArrayList<>()).add(team));
+        });
+        byProductArea.replaceAll((k, v) -> List.copyOf(v));
+        byCluster.replaceAll((k, v) -> List.copyOf(v));
+        this.teamsByProductArea = byProductArea;
+        this.teamsByCluster = byCluster;
+    }
+
+    public static CatalogSnapshot of(long version, Collection<Team> teams, Collection<ProductArea> productAreas, Collection<Cluster> clusters) {
+        return new CatalogSnapshot(version, byId(teams), byId(productAreas), byId(clusters), TagDictionary.of(teams, productAreas),
+                MembershipIndex.of(teams, productAreas, clusters));
+    }
+
+    /**
+     * @return a new snapshot with the given object added or replaced
+     */
+    public CatalogSnapshot withSaved(DomainObject object) {
+        if (object instanceof Team team) {
+            var previous = teams.get(team.getId());
+            var newTags = tags.withChanged(Team.class, tagsOf(previous), team.getTags());
+            return new CatalogSnapshot(version + 1, put(teams, team), productAreas, clusters, newTags, memberships.withChanged(previous, team));
+        } else if (object instanceof ProductArea pa) {
+            var previous = productAreas.get(pa.getId());
+            var newTags = tags.withChanged(ProductArea.class, tagsOf(previous), pa.getTags());
+            return new CatalogSnapshot(version + 1, teams, put(productAreas, pa), clusters, newTags, memberships.withChanged(previous, pa));
+        } else if (object instanceof Cluster cluster) {
+            var newMemberships = memberships.withChanged(clusters.get(cluster.getId()), cluster);
+            return new CatalogSnapshot(version + 1, teams, productAreas, put(clusters, cluster), tags, newMemberships);
+        }
+        return this;
+    }
+
+    /**
+     * @return a new snapshot without the object of the given type and id
+     */
+    public CatalogSnapshot withRemoved(Class<?> type, UUID id) {
+        if (type == Team.class && teams.containsKey(id)) {
+            var previous = teams.get(id);
+            var newTags = tags.withChanged(Team.class, previous.getTags(), List.of());
+            return new CatalogSnapshot(version + 1, remove(teams, id), productAreas, clusters, newTags, memberships.withChanged(previous, null));
+        } else if (type == ProductArea.class && productAreas.containsKey(id)) {
+            var previous = productAreas.get(id);
+            var newTags = tags.withChanged(ProductArea.class, previous.getTags(), List.of());
+            return new CatalogSnapshot(version + 1, teams, remove(productAreas, id), clusters, newTags, memberships.withChanged(previous, null));
+        } else if (type == Cluster.class && clusters.containsKey(id)) {
+            return new CatalogSnapshot(version + 1, teams, productAreas, remove(clusters, id), tags, memberships.withChanged(clusters.get(id), null));
+        }
+        return this;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Team> getTeams() {
+        return teamList;
+    }
+
+    public List<ProductArea> getProductAreas() {
+        return productAreaList;
+    }
+
+    public List<Cluster> getClusters() {
+        return clusterList;
+    }
+
+    public TagDictionary getTagDictionary() {
+        return tags;
+    }
+
+    public Optional<Team> findTeam(UUID id) {
+        return Optional.ofNullable(teams.get(id));
+    }
+
+    public Optional<ProductArea> findProductArea(UUID id) {
+        return Optional.ofNullable(productAreas.get(id));
+    }
+
+    public Optional<Cluster> findCluster(UUID id) {
+        return Optional.ofNullable(clusters.get(id));
+    }
+
+    public List<Team> findTeamsByProductArea(UUID productAreaId) {
+        return teamsByProductArea.getOrDefault(productAreaId, List.of());
+    }
+
+    public List<Team> findTeamsByCluster(UUID clusterId) {
+        return teamsByCluster.getOrDefault(clusterId, List.of());
+    }
+
+    /**
+     * @return teams, product areas and clusters where the ident is a member
+     */
+    public Membership findMemberships(String navIdent) {
+        return memberships.find(navIdent);
+    }
+
+    public List<Team> searchTeams(String name) {
+        return filter(teams.values(), t -> StringUtils.containsIgnoreCase(t.getName(), name));
+    }
+
+    public List<ProductArea> searchProductAreas(String name) {
+        return filter(productAreas.values(), pa -> StringUtils.containsIgnoreCase(pa.getName(), name));
+    }
+
+    public List<Cluster> searchClusters(String name) {
+        return filter(clusters.values(), c -> StringUtils.containsIgnoreCase(c.getName(), name));
+    }
+
+    /**
+     * Cheap summary per type, used to detect writes made by other instances
+     */
+    public Map<Class<?>, Fingerprint> fingerprints() {
+        return Map.of(
+                Team.class, Fingerprint.of(teams.values()),
+                ProductArea.class, Fingerprint.of(productAreas.values()),
+                Cluster.class, Fingerprint.of(clusters.values())
+        );
+    }
+
+    public record Fingerprint(long count, LocalDateTime lastModified) {
+
+        public Fingerprint {
+            // database timestamps have lower precision than LocalDateTime.now()
+            lastModified = lastModified == null ? null : lastModified.truncatedTo(ChronoUnit.MILLIS);
+        }
+
+        static Fingerprint of(Collection<? extends DomainObject> objects) {
+            var lastModified = objects.stream()
+                    .map(DomainObject::getChangeStamp)
+                    .filter(Objects::nonNull)
+                    .map(ChangeStamp::getLastModifiedDate)
+                    .filter(Objects::nonNull)
+                    .max(LocalDateTime::compareTo)
+                    .orElse(null);
+            return new Fingerprint(objects.size(), lastModified);
+        }
+    }
+
+    private static List<String> tagsOf(Team team) {
+        return team == null ? List.of() : team.getTags();
+    }
+
+    private static List<String> tagsOf(ProductArea productArea) {
+        return productArea == null ? List.of() : productArea.getTags();
+    }
+
+    private static <T extends DomainObject> Map<UUID, T> byId(Collection<T> objects) {
+        var map = new LinkedHashMap<UUID, T>();
+        objects.forEach(o -> map.put(o.getId(), o));
+        return map;
+    }
+
+    private static <T extends DomainObject> Map<UUID, T> put(Map<UUID, T> map, T object) {
+        var copy = new LinkedHashMap<>(map);
+        copy.put(object.getId(), object);
+        return copy;
+    }
+
+    private static <T> Map<UUID, T> remove(Map<UUID, T> map, UUID id) {
+        var copy = new LinkedHashMap<>(map);
+        copy.remove(id);
+        return copy;
+    }
+}
@@ -0,0 +1,64 @@
+package no.nav.data.team.catalog;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import no.nav.data.common.storage.domain.DomainObject;
+import no.nav.data.common.storage.domain.GenericStorage;
+import no.nav.data.common.storage.domain.TypeRegistration;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Writes changes to teams, product areas and clusters through to the {@link CatalogSnapshotService} once the transaction has committed
+ */
+public class CatalogSnapshotListener {
+
+    private static CatalogSnapshotService service;
+
+    public static void setService(CatalogSnapshotService service) {
+        CatalogSnapshotListener.service = service;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void postSave(Object entity) {
+        saved(entity);
+    }
+
+    /**
+     * Register changes made outside of the persistence context
+     */
+    public static void saved(Object entity) {
+        if (entity instanceof GenericStorage gs && isCatalogType(gs)) {
+            DomainObject object = gs.getDomainObjectData(TypeRegistration.classFrom(gs.getType()));
+            afterCommit(() -> service.saved(object));
+        }
+    }
+
+    @PostRemove
+    public void postRemove(Object entity) {
+        if (entity instanceof GenericStorage gs && isCatalogType(gs)) {
+            Class<?> type = TypeRegistration.classFrom(gs.getType());
+            var id = gs.getId();
+            afterCommit(() -> service.removed(type, id));
+        }
+    }
+
+    private static boolean isCatalogType(GenericStorage gs) {
+        return service != null && CatalogSnapshotService.CATALOG_TYPES.contains(TypeRegistration.classFrom(gs.getType()));
+    }
+
+    private static void afterCommit(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,40 @@
+package no.nav.data.team.catalog;
+
+import io.micrometer.core.annotation.Timed;
+import no.nav.data.common.storage.domain.TypeRegistration;
+import no.nav.data.team.catalog.CatalogSnapshot.Fingerprint;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+
+import static no.nav.data.common.utils.MetricUtils.DB_QUERY_TIMED;
+import static no.nav.data.common.utils.MetricUtils.QUERY;
+import static no.nav.data.common.utils.StreamUtils.convert;
+
+@Repository
+public class CatalogSnapshotRepository {
+
+    private final NamedParameterJdbcTemplate template;
+
+    public CatalogSnapshotRepository(NamedParameterJdbcTemplate template) {
+        this.template = template;
+    }
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "CatalogSnapshotRepository.fingerprints"}, percentiles = {.99, .75, .50})
+    public Map<Class<?>, Fingerprint> fingerprints() {
+        var result = new HashMap<Class<?>, Fingerprint>();
+        CatalogSnapshotService.CATALOG_TYPES.forEach(type -> result.put(type, new Fingerprint(0, null)));
+        template.query("select type, count(*) as count, max(last_modified_date) as last_modified from generic_storage where type in (:types) group by type",
+                new MapSqlParameterSource().addValue("types", convert(CatalogSnapshotService.CATALOG_TYPES, TypeRegistration::typeOf)),
+                rs -> {
+                    Timestamp lastModified = rs.getTimestamp("last_modified");
+                    result.put(TypeRegistration.classFrom(rs.getString("type")),
+                            new Fingerprint(rs.getLong("count"), lastModified == null ? null : lastModified.toLocalDateTime()));
+                });
+        return result;
+    }
+}
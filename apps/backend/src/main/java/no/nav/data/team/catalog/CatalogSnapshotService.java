@@ -0,0 +1,122 @@
+package no.nav.data.team.catalog;
+
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import lombok.extern.slf4j.Slf4j;
+import no.nav.data.common.storage.StorageService;
+import no.nav.data.common.storage.domain.DomainObject;
+import no.nav.data.common.utils.MetricUtils;
+import no.nav.data.team.cluster.domain.Cluster;
+import no.nav.data.team.po.domain.ProductArea;
+import no.nav.data.team.team.domain.Team;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Holds all teams, product areas and clusters in memory.
+ * <p>
+ * Local writes are applied after commit through {@link CatalogSnapshotListener}, writes made by other instances are picked up by {@link #refreshIfChanged()}.
+ */
+@Slf4j
+@Service
+public class CatalogSnapshotService {
+
+    static final List<Class<? extends DomainObject>> CATALOG_TYPES = List.of(Team.class, ProductArea.class, Cluster.class);
+
+    private final StorageService storage;
+    private final CatalogSnapshotRepository repository;
+    private final CatalogHistoryService history;
+    private final Gauge versionGauge;
+    private final Counter reloadCounter;
+    private final List<CatalogChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile CatalogSnapshot snapshot;
+
+    public CatalogSnapshotService(StorageService storage, CatalogSnapshotRepository repository, CatalogHistoryService history) {
+        this.storage = storage;
+        this.repository = repository;
+        this.history = history;
+        this.versionGauge = MetricUtils.gauge().name("catalog_snapshot_version").help("Version of the in-memory catalog snapshot").register();
+        this.reloadCounter = MetricUtils.counter().name("catalog_snapshot_reload_counter").help("Full reloads of the in-memory catalog snapshot").register();
+        CatalogSnapshotListener.setService(this);
+    }
+
+    @Bean
+    public ApplicationRunner initCatalogSnapshot() {
+        return args -> reload();
+    }
+
+    public void addListener(CatalogChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public CatalogSnapshot get() {
+        var current = snapshot;
+        return current != null ? current : reload();
+    }
+
+    /**
+     * @param asOf point in time, null for the current catalog
+     */
+    public CatalogSnapshot get(LocalDateTime asOf) {
+        return asOf == null ? get() : history.asOf(asOf);
+    }
+
+    public synchronized CatalogSnapshot reload() {
+        var previousVersion = snapshot == null ? 0 : snapshot.getVersion();
+        var loaded = CatalogSnapshot.of(previousVersion + 1, storage.getAll(Team.class), storage.getAll(ProductArea.class), storage.getAll(Cluster.class));
+        publish(loaded);
+        notifyListeners(l -> l.reloaded(loaded));
+        reloadCounter.inc();
+        log.info("Loaded catalog snapshot version {}", loaded.getVersion());
+        return loaded;
+    }
+
+    /**
+     * Picks up writes made by other instances
+     */
+    @Scheduled(initialDelayString = "PT1M", fixedRateString = "PT30S")
+    public void refreshIfChanged() {
+        var current = snapshot;
+        if (current != null && !repository.fingerprints().equals(current.fingerprints())) {
+            reload();
+        }
+    }
+
+    synchronized void saved(DomainObject object) {
+        if (snapshot != null) {
+            publish(snapshot.withSaved(object));
+            notifyListeners(l -> l.saved(object));
+        }
+    }
+
+    synchronized void removed(Class<?> type, UUID id) {
+        if (snapshot != null) {
+            publish(snapshot.withRemoved(type, id));
+            notifyListeners(l -> l.removed(type, id));
+        }
+    }
+
+    private void publish(CatalogSnapshot newSnapshot) {
+        snapshot = newSnapshot;
+        versionGauge.set(newSnapshot.getVersion());
+    }
+
+    private void notifyListeners(Consumer<CatalogChangeListener> notification) {
+        listeners.forEach(listener -> {
+            try {
+                notification.accept(listener);
+            } catch (Exception e) {
+                log.error("Catalog change listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        });
+    }
+}
@@ -0,0 +1,113 @@
+package no.nav.data.team.catalog;
+
+import no.nav.data.common.auditing.domain.Action;
+import no.nav.data.common.auditing.dto.AuditMetadata;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Audit versions of each team, product area and cluster ordered by time.
+ * Finds the version of every object at a point in time without reading audit data.
+ * <p>
+ * Not thread safe.
+ */
+final class CatalogTimeline {
+
+    private final Map<UUID, List<AuditMetadata>> versionsByObject = new HashMap<>();
+    private LocalDateTime latest;
+
+    /**
+     * Versions already added are ignored
+     *
+     * @return true if a version older than the latest version was added, which changes the catalog at a time already seen
+     */
+    boolean add(Collection<AuditMetadata> versions) {
+        boolean changedPast = false;
+        for (AuditMetadata version : versions) {
+            var objectVersions = versionsByObject.computeIfAbsent(version.getTableId(), id -> new ArrayList<>());
+            int index = insertionPoint(objectVersions, version);
+            if (index < 0) {
+                continue;
+            }
+            objectVersions.add(index, version);
+            if (latest != null && !version.getTime().isAfter(latest)) {
+                changedPast = true;
+            }
+            if (latest == null || version.getTime().isAfter(latest)) {
+                latest = version.getTime();
+            }
+        }
+        return changedPast;
+    }
+
+    LocalDateTime getLatest() {
+        return latest;
+    }
+
+    /**
+     * @return version of each object at the given time, objects not yet created or deleted are left out
+     */
+    State at(LocalDateTime time) {
+        LocalDateTime changedAt = null;
+        var current = new ArrayList<AuditMetadata>();
+        for (List<AuditMetadata> objectVersions : versionsByObject.values()) {
+            int index = lastAtOrBefore(objectVersions, time);
+            if (index < 0) {
+                continue;
+            }
+            var version = objectVersions.get(index);
+            if (changedAt == null || version.getTime().isAfter(changedAt)) {
+                changedAt = version.getTime();
+            }
+            if (version.getAction() != Action.DELETE) {
+                current.add(version);
+            }
+        }
+        return new State(changedAt, current);
+    }
+
+    /**
+     * @param changedAt time of the latest change at or before the requested time, the catalog is the same at any time up to the next change
+     */
+    record State(LocalDateTime changedAt, List<AuditMetadata> versions) {
+
+    }
+
+    /**
+     * @return index to insert the version at, keeping versions with the same time in insertion order, or -1 if the version is already added
+     */
+    private static int insertionPoint(List<AuditMetadata> versions, AuditMetadata version) {
+        int index = versions.size();
+        while (index > 0 && versions.get(index - 1).getTime().isAfter(version.getTime())) {
+            index--;
+        }
+        for (int i = index - 1; i >= 0 && versions.get(i).getTime().equals(version.getTime()); i--) {
+            if (versions.get(i).getId().equals(version.getId())) {
+                return -1;
+            }
+        }
+        return index;
+    }
+
+    private static int lastAtOrBefore(List<AuditMetadata> versions, LocalDateTime time) {
+        int low = 0;
+        int high = versions.size() - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (versions.get(mid).getTime().isAfter(time)) {
+                high = mid - 1;
+            } else {
+                found = mid;
+                low = mid + 1;
+            }
+        }
+        return found;
+    }
+}
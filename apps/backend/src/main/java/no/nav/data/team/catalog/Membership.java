@@ -0,0 +1,20 @@
+package no.nav.data.team.catalog;
+
+import no.nav.data.team.cluster.domain.Cluster;
+import no.nav.data.team.po.domain.ProductArea;
+import no.nav.data.team.team.domain.Team;
+
+import java.util.List;
+
+/**
+ * Teams, product areas and clusters an ident is a member of
+ */
+public record Membership(List<Team> teams, List<ProductArea> productAreas, List<Cluster> clusters) {
+
+    public static final Membership EMPTY = new Membership(List.of(), List.of(), List.of());
+
+    public boolean isEmpty() {
+        return teams.isEmpty() && productAreas.isEmpty() && clusters.isEmpty();
+    }
+
+}
@@ -0,0 +1,110 @@
+package no.nav.data.team.catalog;
+
+import no.nav.data.common.storage.domain.DomainObject;
+import no.nav.data.team.cluster.domain.Cluster;
+import no.nav.data.team.po.domain.ProductArea;
+import no.nav.data.team.shared.domain.Member;
+import no.nav.data.team.shared.domain.Membered;
+import no.nav.data.team.team.domain.Team;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static no.nav.data.common.utils.StreamUtils.filter;
+import static no.nav.data.common.utils.StreamUtils.safeStream;
+
+/**
+ * Immutable index of the teams, product areas and clusters each ident is a member of.
+ * Kept as part of the catalog snapshot, changes are applied per saved or removed object.
+ */
+final class MembershipIndex {
+
+    static final MembershipIndex EMPTY = new MembershipIndex(Map.of());
+
+    private final Map<String, Membership> membershipsByIdent;
+
+    private MembershipIndex(Map<String, Membership> membershipsByIdent) {
+        this.membershipsByIdent = membershipsByIdent;
+    }
+
+    static MembershipIndex of(Collection<Team> teams, Collection<ProductArea> productAreas, Collection<Cluster> clusters) {
+        var index = new HashMap<String, Membership>();
+        Stream.of(teams, productAreas, clusters).flatMap(Collection::stream).forEach(object -> add(index, object));
+        return new MembershipIndex(index);
+    }
+
+    /**
+     * @param previous object before the change, null if created
+     * @param current object after the change, null if removed
+     * @return index where previous has been replaced by current
+     */
+    <T extends DomainObject & Membered> MembershipIndex withChanged(T previous, T current) {
+        if (memberIdents(previous).isEmpty() && memberIdents(current).isEmpty()) {
+            return this;
+        }
+        var copy = new HashMap<>(membershipsByIdent);
+        if (previous != null) {
+            remove(copy, previous);
+        }
+        if (current != null) {
+            add(copy, current);
+        }
+        return new MembershipIndex(copy);
+    }
+
+    Membership find(String navIdent) {
+        return membershipsByIdent.getOrDefault(navIdent, Membership.EMPTY);
+    }
+
+    private static void add(Map<String, Membership> index, Membered object) {
+        memberIdents(object).forEach(ident -> index.put(ident, with(index.getOrDefault(ident, Membership.EMPTY), object)));
+    }
+
+    private static void remove(Map<String, Membership> index, DomainObject object) {
+        memberIdents((Membered) object).forEach(ident -> {
+            var membership = without(index.getOrDefault(ident, Membership.EMPTY), object.getId());
+            if (membership.isEmpty()) {
+                index.remove(ident);
+            } else {
+                index.put(ident, membership);
+            }
+        });
+    }
+
+    private static Membership with(Membership membership, Membered object) {
+        if (object instanceof Team team) {
+            return new Membership(append(membership.teams(), team), membership.productAreas(), membership.clusters());
+        } else if (object instanceof ProductArea pa) {
+            return new Membership(membership.teams(), append(membership.productAreas(), pa), membership.clusters());
+        } else if (object instanceof Cluster cluster) {
+            return new Membership(membership.teams(), membership.productAreas(), append(membership.clusters(), cluster));
+        }
+        return membership;
+    }
+
+    private static Membership without(Membership membership, UUID id) {
+        return new Membership(
+                filter(membership.teams(), t -> !t.getId().equals(id)),
+                filter(membership.productAreas(), pa -> !pa.getId().equals(id)),
+                filter(membership.clusters(), c -> !c.getId().equals(id))
+        );
+    }
+
+    private static <T> List<T> append(List<T> list, T object) {
+        return Stream.concat(list.stream(), Stream.of(object)).toList();
+    }
+
+    private static Set<String> memberIdents(Membered membered) {
+        if (membered == null) {
+            return Set.of();
+        }
+        return safeStream(membered.getMembers()).map(Member::getNavIdent).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+}
@@ -1,18 +1,29 @@
 package no.nav.data.team.cluster;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import no.nav.data.common.exceptions.ValidationException;
+import no.nav.data.common.rest.CursorParameters;
+import no.nav.data.common.rest.FieldSelection;
+import no.nav.data.common.rest.RestResponseCursorPage;
 import no.nav.data.common.rest.RestResponsePage;
+import no.nav.data.common.rest.StreamingResponse;
 import no.nav.data.common.utils.StreamUtils;
+import no.nav.data.team.catalog.CatalogFilter;
 import no.nav.data.team.cluster.domain.Cluster;
 import no.nav.data.team.cluster.dto.ClusterRequest;
 import no.nav.data.team.cluster.dto.ClusterResponse;
 import no.nav.data.team.shared.domain.DomainObjectStatus;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,12 +33,15 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.time.LocalDateTime;
 import java.util.Objects;
 import java.util.UUID;
 
 import static no.nav.data.common.utils.StreamUtils.convert;
+import static no.nav.data.team.shared.domain.Membered.withResources;
 
 @Slf4j
 @RestController
@@ -45,27 +59,61 @@ public class ClusterController {
     @ApiResponse(description = "ok")
     @GetMapping
     public ResponseEntity<RestResponsePage<ClusterResponse>> getAll(
-            @RequestParam(name = "status", required = false, defaultValue = "ACTIVE,PLANNED,INACTIVE") String stringStatus
-
+            @RequestParam(name = "status", required = false, defaultValue = "ACTIVE,PLANNED,INACTIVE") String stringStatus,
+            @RequestParam(name = "asOf", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime asOf,
+            @RequestParam(name = FieldSelection.PARAM, required = false) String fields
     ) {
         log.info("Get all Clusters");
 
-        var cluster = service.getAll();
+        var cluster = service.getAll(asOf);
 
         var queryStatusList = DomainObjectStatus.fromQueryParameter(stringStatus);
 
         cluster = cluster.stream().filter(t -> queryStatusList.contains(t.getStatus())).toList();
+        var fieldSelection = FieldSelection.parse(fields);
+
+
+        return ResponseEntity.ok(new RestResponsePage<>(StreamUtils.convert(cluster, withResources(cluster, fieldSelection, (c, r) -> c.convertToResponse(r, fieldSelection)))));
+    }
 
+    @Operation(summary = "Get All Clusters as newline delimited json", description = "Request with Accept: application/x-ndjson")
+    @ApiResponse(description = "ok", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ClusterResponse.class)))
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAllStream(
+            @RequestParam(name = "status", required = false, defaultValue = "ACTIVE,PLANNED,INACTIVE") String stringStatus,
+            @RequestParam(name = "asOf", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime asOf,
+            @RequestParam(name = FieldSelection.PARAM, required = false) String fields
+    ) {
+        log.info("Get all Clusters as stream");
+        var queryStatusList = DomainObjectStatus.fromQueryParameter(stringStatus);
+        var clusters = service.getAll(asOf).stream().filter(t -> queryStatusList.contains(t.getStatus())).toList();
+        var fieldSelection = FieldSelection.parse(fields);
+        return StreamingResponse.ndjson(clusters.stream(), withResources(clusters, fieldSelection, (c, r) -> c.convertToResponse(r, fieldSelection)), fieldSelection);
+    }
 
-        return ResponseEntity.ok(new RestResponsePage<>(StreamUtils.convert(cluster, Cluster::convertToResponse)));
+    @Operation(summary = "Get page of Clusters", description = "Sorted by name, use nextCursor from the response to get the next page")
+    @ApiResponse(description = "ok")
+    @GetMapping("/page")
+    public ResponseEntity<RestResponseCursorPage<ClusterResponse>> getPage(
+            @ParameterObject CursorParameters paging,
+            @RequestParam(name = "productAreaId", required = false) UUID productAreaId,
+            @RequestParam(name = "status", required = false, defaultValue = "ACTIVE,PLANNED,INACTIVE") String stringStatus,
+            @RequestParam(name = FieldSelection.PARAM, required = false) String fields
+    ) {
+        log.info("Get page of Clusters");
+        var filter = CatalogFilter.builder().statuses(DomainObjectStatus.fromQueryParameter(stringStatus)).productAreaId(productAreaId).build();
+        var page = service.getPage(filter, paging);
+        var fieldSelection = FieldSelection.parse(fields);
+        return ResponseEntity.ok(page.convert(withResources(page.getContent(), fieldSelection, (c, r) -> c.convertToResponse(r, fieldSelection))));
     }
 
     @Operation(summary = "Get Cluster")
     @ApiResponse(description = "ok")
     @GetMapping("/{id}")
-    public ResponseEntity<ClusterResponse> getById(@PathVariable UUID id) {
+    public ResponseEntity<ClusterResponse> getById(@PathVariable UUID id,
+            @RequestParam(name = "asOf", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime asOf) {
         log.info("Get Cluster id={}", id);
-        return ResponseEntity.ok(service.get(id).convertToResponse());
+        return ResponseEntity.ok(service.get(id, asOf).convertToResponse());
     }
 
     @Operation(summary = "Search Cluster")
@@ -78,7 +126,7 @@ public class ClusterController {
         }
         var cluster= service.search(name);
         log.info("Returned {} clusters", cluster.size());
-        return new ResponseEntity<>(new RestResponsePage<>(convert(cluster, Cluster::convertToResponse)), HttpStatus.OK);
+        return new ResponseEntity<>(new RestResponsePage<>(convert(cluster, withResources(cluster, Cluster::convertToResponse))), HttpStatus.OK);
     }
 
     @Operation(summary = "Create Cluster")
@@ -115,4 +163,8 @@ public class ClusterController {
 
     }
 
+    static class ClusterCursorPageResponse extends RestResponseCursorPage<ClusterResponse> {
+
+    }
+
 }
@@ -1,10 +1,16 @@
 package no.nav.data.team.cluster;
 
 import lombok.extern.slf4j.Slf4j;
+import no.nav.data.common.exceptions.NotFoundException;
 import no.nav.data.common.exceptions.ValidationException;
+import no.nav.data.common.rest.CursorParameters;
+import no.nav.data.common.rest.RestResponseCursorPage;
 import no.nav.data.common.storage.StorageService;
-import no.nav.data.common.storage.domain.GenericStorage;
+import no.nav.data.common.storage.domain.TypeRegistration;
 import no.nav.data.common.validator.Validator;
+import no.nav.data.team.catalog.CatalogFilter;
+import no.nav.data.team.catalog.CatalogPageRepository;
+import no.nav.data.team.catalog.CatalogSnapshotService;
 import no.nav.data.team.cluster.domain.Cluster;
 import no.nav.data.team.cluster.dto.ClusterRequest;
 import no.nav.data.team.po.domain.ProductArea;
@@ -14,10 +20,10 @@ import no.nav.data.team.team.domain.Team;
 import no.nav.data.team.team.dto.TeamRequest.Fields;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
-import static no.nav.data.common.utils.StreamUtils.convert;
 import static no.nav.data.common.validator.Validator.*;
 
 @Slf4j
@@ -26,12 +32,14 @@ public class ClusterService {
 
     private final StorageService storage;
     private final TeamRepository teamRepository;
-    private final ClusterRepository repository;
+    private final CatalogSnapshotService catalog;
+    private final CatalogPageRepository pageRepository;
 
-    public ClusterService(StorageService storage, TeamRepository teamRepository, ClusterRepository repository) {
+    public ClusterService(StorageService storage, TeamRepository teamRepository, CatalogSnapshotService catalog, CatalogPageRepository pageRepository) {
         this.storage = storage;
         this.teamRepository = teamRepository;
-        this.repository = repository;
+        this.catalog = catalog;
+        this.pageRepository = pageRepository;
     }
 
     public Cluster save(ClusterRequest request) {
@@ -40,7 +48,7 @@ public class ClusterService {
                 .addValidations(validator -> validator.checkExists(request.getProductAreaId(), storage, ProductArea.class))
                 .addValidations(this::validateStatusNotNull)
                 .ifErrorsThrowValidationException();
-        var cluster = request.isUpdate() ? storage.get(request.getIdAsUUID(), Cluster.class) : new Cluster();
+        var cluster = request.isUpdate() ? storage.getForUpdate(request.getIdAsUUID(), Cluster.class, request.getVersion()) : new Cluster();
         return storage.save(cluster.convert(request));
     }
 
@@ -54,8 +62,18 @@ public class ClusterService {
         return storage.get(id, Cluster.class);
     }
 
+    /**
+     * @param asOf point in time, null for the current cluster
+     */
+    public Cluster get(UUID id, LocalDateTime asOf) {
+        if (asOf == null) {
+            return get(id);
+        }
+        return catalog.get(asOf).findCluster(id).orElseThrow(() -> new NotFoundException("Couldn't find " + TypeRegistration.typeOf(Cluster.class) + " with id " + id + " at " + asOf));
+    }
+
     public List<Cluster> search(String name) {
-        return convert(repository.findByNameLike(name), GenericStorage::toCluster);
+        return catalog.get().searchClusters(name);
     }
 
     public Cluster delete(UUID id) {
@@ -71,7 +89,15 @@ public class ClusterService {
     }
 
     public List<Cluster> getAll() {
-        return storage.getAll(Cluster.class);
+        return getAll(null);
+    }
+
+    public List<Cluster> getAll(LocalDateTime asOf) {
+        return catalog.get(asOf).getClusters();
+    }
+
+    public RestResponseCursorPage<Cluster> getPage(CatalogFilter filter, CursorParameters paging) {
+        return pageRepository.findPage(Cluster.class, filter, paging.getCursor(), paging.validPageSize(), paging.isIncludeTotal());
     }
 
     public List<Cluster> getAllActive() {
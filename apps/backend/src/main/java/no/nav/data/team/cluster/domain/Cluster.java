@@ -4,11 +4,13 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import no.nav.data.common.rest.FieldSelection;
 import no.nav.data.common.storage.domain.ChangeStamp;
 import no.nav.data.common.storage.domain.DomainObject;
 import no.nav.data.common.utils.StreamUtils;
 import no.nav.data.team.cluster.dto.ClusterRequest;
 import no.nav.data.team.cluster.dto.ClusterResponse;
+import no.nav.data.team.resource.domain.Resource;
 import no.nav.data.team.shared.domain.HistorizedDomainObject;
 import no.nav.data.team.shared.domain.Membered;
 import no.nav.data.team.shared.dto.Links;
@@ -17,6 +19,7 @@ import no.nav.data.team.shared.domain.DomainObjectStatus;
 import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static no.nav.data.common.utils.StreamUtils.copyOf;
@@ -62,6 +65,14 @@ public class Cluster implements DomainObject, Membered, HistorizedDomainObject {
     }
 
     public ClusterResponse convertToResponse() {
+        return convertToResponse(Membered.resolveResources(List.of(this)));
+    }
+
+    public ClusterResponse convertToResponse(Map<String, Resource> resources) {
+        return convertToResponse(resources, FieldSelection.ALL);
+    }
+
+    public ClusterResponse convertToResponse(Map<String, Resource> resources, FieldSelection fields) {
         return ClusterResponse.builder()
                 .id(id)
                 .name(name)
@@ -69,10 +80,10 @@ public class Cluster implements DomainObject, Membered, HistorizedDomainObject {
                 .slackChannel(slackChannel)
                 .tags(copyOf(tags))
                 .productAreaId(productAreaId)
-                .members(StreamUtils.convert(members, ClusterMember::convertToResponse))
+                .members(fields.ifIncluded("members", () -> StreamUtils.convert(members, m -> m.convertToResponse(resources))))
                 .status(status)
-                .changeStamp(convertChangeStampResponse())
-                .links(Links.getFor(this))
+                .changeStamp(fields.ifIncluded("changeStamp", this::convertChangeStampResponse))
+                .links(fields.ifIncluded("links", () -> Links.getFor(this)))
                 .build();
     }
 }
@@ -32,6 +32,7 @@ public class ClusterRequest implements RequestElement {
 
     private DomainObjectStatus status;
 
+    private Long version;
     private Boolean update;
 
     public UUID productAreaIdAsUUID() {
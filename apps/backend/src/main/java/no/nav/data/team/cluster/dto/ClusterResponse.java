@@ -1,11 +1,13 @@
 package no.nav.data.team.cluster.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import no.nav.data.common.rest.ChangeStampResponse;
+import no.nav.data.common.rest.FieldSelection;
 import no.nav.data.team.member.dto.MemberResponse;
 import no.nav.data.team.shared.dto.Links;
 import no.nav.data.team.shared.domain.DomainObjectStatus;
@@ -18,6 +20,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonPropertyOrder({"id", "name", "description", "slackChannel", "tags", "productAreaId", "members", "status", "changeStamp", "links"})
+@JsonFilter(FieldSelection.FILTER)
 public class ClusterResponse {
 
     private UUID id;
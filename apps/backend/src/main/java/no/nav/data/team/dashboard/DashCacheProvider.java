@@ -14,9 +14,11 @@ import no.nav.data.team.member.dto.MemberResponse;
 import no.nav.data.team.po.ProductAreaService;
 import no.nav.data.team.po.domain.ProductArea;
 import no.nav.data.team.resource.NomClient;
+import no.nav.data.team.resource.domain.Resource;
 import no.nav.data.team.resource.domain.ResourceType;
 import no.nav.data.team.shared.domain.DomainObjectStatus;
 import no.nav.data.team.shared.domain.Member;
+import no.nav.data.team.shared.domain.Membered;
 import no.nav.data.team.team.TeamService;
 import no.nav.data.team.team.domain.*;
 import org.springframework.context.annotation.Bean;
@@ -63,6 +65,11 @@ public class DashCacheProvider {
         List<ProductArea> productAreasAll = productAreaService.getAll();
         List<Cluster> clustersAll = clusterService.getAll();
 
+        var activeMembered = new ArrayList<Membered>(teamsActive);
+        activeMembered.addAll(productAreasActive);
+        activeMembered.addAll(clustersActive);
+        var resources = Membered.resolveResources(activeMembered);
+
         return DashResponse.builder()
                 .teamsCount(teamsActive.size())
                 .productAreasCount(productAreasActive.size())
@@ -79,13 +86,13 @@ public class DashCacheProvider {
                 .clusterCountPlanned(clustersAll.stream().filter(cluster -> cluster.getStatus().equals(DomainObjectStatus.PLANNED)).count())
                 .clusterCountInactive(clustersAll.stream().filter(cluster -> cluster.getStatus().equals(DomainObjectStatus.INACTIVE)).count())
 
-                .total(calcForTotal(teamsActive, productAreasActive, clustersActive))
-                .productAreas(convert(productAreasActive, pa -> calcForArea(filter(teamsActive, t -> pa.getId().equals(t.getProductAreaId())), pa, clustersActive)))
-                .clusters(convert(clustersActive, cluster -> calcForCluster(filter(teamsActive, t -> copyOf(t.getClusterIds()).contains(cluster.getId())), cluster, clustersActive)))
+                .total(calcForTotal(teamsActive, productAreasActive, clustersActive, resources))
+                .productAreas(convert(productAreasActive, pa -> calcForArea(filter(teamsActive, t -> pa.getId().equals(t.getProductAreaId())), pa, clustersActive, resources)))
+                .clusters(convert(clustersActive, cluster -> calcForCluster(filter(teamsActive, t -> copyOf(t.getClusterIds()).contains(cluster.getId())), cluster, clustersActive, resources)))
 
-                .areaSummaryMap(createAreaSummaryMap(teamsActive, productAreasActive, clustersActive))
-                .clusterSummaryMap(createClusterSummaryMap(teamsActive, clustersActive))
-                .teamSummaryMap(createTeamSummaryMap(teamsActive, productAreasActive, clustersActive))
+                .areaSummaryMap(createAreaSummaryMap(teamsActive, productAreasActive, clustersActive, resources))
+                .clusterSummaryMap(createClusterSummaryMap(teamsActive, clustersActive, resources))
+                .teamSummaryMap(createTeamSummaryMap(teamsActive, resources))
 
                 .locationSummaryMap(createLocationSummaryMap(teamsActive))
 
@@ -195,7 +202,7 @@ public class DashCacheProvider {
         return out;
     }
 
-    private Map<UUID, DashResponse.ClusterSummary> createClusterSummaryMap(List<Team> teams, List<Cluster> clusters) {
+    private Map<UUID, DashResponse.ClusterSummary> createClusterSummaryMap(List<Team> teams, List<Cluster> clusters, Map<String, Resource> resources) {
         val map = new HashMap<UUID, DashResponse.ClusterSummary>();
 
         for (val cluster: clusters){
@@ -219,7 +226,7 @@ public class DashCacheProvider {
             );
 
             val uniqueResourcesExternal = totaluniqueResources.stream()
-                    .map(ident -> nomClient.getByNavIdent(ident).orElse(null))
+                    .map(resources::get)
                     .filter(Objects::nonNull)
                     .filter(ressource -> ressource.getResourceType().equals(ResourceType.EXTERNAL))
                     .count();
@@ -238,13 +245,13 @@ public class DashCacheProvider {
         return map;
     }
 
-    private Map<UUID, DashResponse.TeamSummary2> createTeamSummaryMap(List<Team> teams, List<ProductArea> productAreas, List<Cluster> clusters) {
+    private Map<UUID, DashResponse.TeamSummary2> createTeamSummaryMap(List<Team> teams, Map<String, Resource> resources) {
         val map = new HashMap<UUID, DashResponse.TeamSummary2>();
 
         for(val team : teams){
 
             val uniqueResourcesExternal = team.getMembers().stream()
-                    .map(teamMember -> nomClient.getByNavIdent(teamMember.getNavIdent()).orElse(null))
+                    .map(teamMember -> resources.get(teamMember.getNavIdent()))
                     .filter(Objects::nonNull)
                     .filter(resource -> resource.getResourceType().equals(ResourceType.EXTERNAL))
                     .count();
@@ -261,7 +268,7 @@ public class DashCacheProvider {
         return map;
     }
 
-    private Map<UUID, DashResponse.AreaSummary> createAreaSummaryMap(List<Team> teams, List<ProductArea> productAreas, List<Cluster> clusters) {
+    private Map<UUID, DashResponse.AreaSummary> createAreaSummaryMap(List<Team> teams, List<ProductArea> productAreas, List<Cluster> clusters, Map<String, Resource> resources) {
         val map = new HashMap<UUID, DashResponse.AreaSummary>();
 
         for (val pa: productAreas){
@@ -316,7 +323,7 @@ public class DashCacheProvider {
             );
 
             val uniqueResourcesExternal = uniqueResources.stream()
-                    .map(ident -> nomClient.getByNavIdent(ident).orElse(null))
+                    .map(resources::get)
                     .filter(Objects::nonNull)
                     .filter(ressource -> ressource.getResourceType().equals(ResourceType.EXTERNAL))
                     .count();
@@ -338,25 +345,26 @@ public class DashCacheProvider {
     }
 
 
-    private DashResponse.TeamSummary calcForTotal(List<Team> teams, List<ProductArea> productAreas, List<Cluster> clusters) {
-        return calcForTeams(teams, null, productAreas, null, clusters);
+    private DashResponse.TeamSummary calcForTotal(List<Team> teams, List<ProductArea> productAreas, List<Cluster> clusters, Map<String, Resource> resources) {
+        return calcForTeams(teams, null, productAreas, null, clusters, resources);
     }
 
-    private DashResponse.TeamSummary calcForArea(List<Team> teams, ProductArea productArea, List<Cluster> clusters) {
-        return calcForTeams(teams, productArea, List.of(), null, clusters);
+    private DashResponse.TeamSummary calcForArea(List<Team> teams, ProductArea productArea, List<Cluster> clusters, Map<String, Resource> resources) {
+        return calcForTeams(teams, productArea, List.of(), null, clusters, resources);
     }
 
-    private DashResponse.TeamSummary calcForCluster(List<Team> teams, Cluster cluster, List<Cluster> clusters) {
-        return calcForTeams(teams, null, List.of(), cluster, clusters);
+    private DashResponse.TeamSummary calcForCluster(List<Team> teams, Cluster cluster, List<Cluster> clusters, Map<String, Resource> resources) {
+        return calcForTeams(teams, null, List.of(), cluster, clusters, resources);
     }
 
-    private DashResponse.TeamSummary calcForTeams(List<Team> teams, ProductArea productArea, List<ProductArea> productAreas, Cluster cluster, List<Cluster> clusters) {
+    private DashResponse.TeamSummary calcForTeams(List<Team> teams, ProductArea productArea, List<ProductArea> productAreas, Cluster cluster, List<Cluster> clusters,
+            Map<String, Resource> resources) {
         Map<TeamRole, Integer> roles = new EnumMap<>(TeamRole.class);
         Map<TeamOwnershipType, Integer> teamOwnershipTypes = new EnumMap<>(TeamOwnershipType.class);
         Map<TeamType, Integer> teamTypes = new EnumMap<>(TeamType.class);
 
         Map<Integer, List<Team>> teamsBuckets = teams.stream().collect(Collectors.groupingBy(t -> groups.ceiling(t.getMembers().size())));
-        Map<Integer, List<Team>> extPercentBuckets = teams.stream().collect(Collectors.groupingBy(t -> extPercentGroups.ceiling(percentExternalMembers(t))));
+        Map<Integer, List<Team>> extPercentBuckets = teams.stream().collect(Collectors.groupingBy(t -> extPercentGroups.ceiling(percentExternalMembers(t, resources))));
 
         teams.stream().flatMap(t -> t.getMembers().stream()).flatMap(m -> m.getRoles().stream()).forEach(r -> roles.compute(r, counter));
         teams.forEach(t -> teamOwnershipTypes.compute(t.getTeamOwnershipType() == null ? TeamOwnershipType.UNKNOWN : t.getTeamOwnershipType(), counter));
@@ -408,7 +416,7 @@ public class DashCacheProvider {
                 .teamExternalUpto100p(extPercentBuckets.getOrDefault(100, E).size())
 
                 .uniqueResources(countUniqueResources(teams, productAreaMembers, clusterMembers))
-                .uniqueResourcesExternal(countUniqueResourcesExternal(teams, productAreaMembers, clusterMembers))
+                .uniqueResourcesExternal(countUniqueResourcesExternal(teams, productAreaMembers, clusterMembers, resources))
                 .totalResources(countResources(teams, productAreaMembers, clusterMembers))
 
                 .roles(roles.entrySet().stream()
@@ -424,13 +432,13 @@ public class DashCacheProvider {
                 .build();
     }
 
-    private long countUniqueResourcesExternal(List<Team> teams, List<Member> productAreaMembers, List<Member> clusterMembers) {
+    private long countUniqueResourcesExternal(List<Team> teams, List<Member> productAreaMembers, List<Member> clusterMembers, Map<String, Resource> resources) {
         return Stream.concat(
                         Stream.concat(
-                                productAreaMembers.stream().map(Member::convertToResponse),
-                                teams.stream().flatMap(team -> team.getMembers().stream()).map(TeamMember::convertToResponse)
+                                productAreaMembers.stream().map(m -> m.convertToResponse(resources)),
+                                teams.stream().flatMap(team -> team.getMembers().stream()).map(m -> m.convertToResponse(resources))
                         ),
-                        clusterMembers.stream().map(Member::convertToResponse)
+                        clusterMembers.stream().map(m -> m.convertToResponse(resources))
                 )
                 .filter(m -> ResourceType.EXTERNAL == m.getResource().getResourceType())
                 .map(MemberResponse::getNavIdent).distinct()
@@ -452,11 +460,11 @@ public class DashCacheProvider {
                 productAreaMembers.size() + clusterMembers.size();
     }
 
-    private int percentExternalMembers(Team t) {
+    private int percentExternalMembers(Team t, Map<String, Resource> resources) {
         if (t.getMembers().isEmpty()) {
             return 0;
         }
-        long externalMembers = t.getMembers().stream().map(TeamMember::convertToResponse).filter(m -> ResourceType.EXTERNAL == m.getResource().getResourceType()).count();
+        long externalMembers = t.getMembers().stream().map(m -> m.convertToResponse(resources)).filter(m -> ResourceType.EXTERNAL == m.getResource().getResourceType()).count();
         return ((int) externalMembers * 100) / t.getMembers().size();
     }
 
@@ -11,6 +11,7 @@ import no.nav.data.common.security.azure.support.MailLog;
 import no.nav.data.common.storage.StorageService;
 import no.nav.data.common.utils.JsonUtils;
 import no.nav.data.common.utils.MetricUtils;
+import no.nav.data.common.utils.TokenBucket;
 import no.nav.data.common.web.TraceHeaderRequestInterceptor;
 import no.nav.data.team.contact.domain.SlackChannel;
 import no.nav.data.team.contact.domain.SlackUser;
@@ -62,6 +63,7 @@ public class SlackClient {
     private static final int MAX_BLOCKS_PER_MESSAGE = 50;
     private static final int MAX_CHARS_PER_BLOCK = 3000;
     private static final String SINGLETON = "SINGLETON";
+    private static final Duration MAX_RATE_LIMIT_WAIT = Duration.ofMinutes(1);
 
     private final NomClient nomClient;
     private final RestTemplate restTemplate;
@@ -71,6 +73,11 @@ public class SlackClient {
     private final Cache<String, User> userCache;
     private final LoadingCache<String, String> conversationCache;
     private final LoadingCache<String, Map<String, Channel>> channelCache;
+    /**
+     * Slack tier 3 methods, used to look up users and open conversations, allow 50 calls a minute, and posting is limited to about one message a second.
+     * Every api call takes a token, as sending one notification can take several calls.
+     */
+    private final TokenBucket rateLimit = new TokenBucket(10, 50, Duration.ofMinutes(1));
 
     public SlackClient(NomClient nomClient, RestTemplateBuilder restTemplateBuilder, SlackProperties properties, SecurityProperties securityProperties,
             StorageService storage) {
@@ -149,6 +156,7 @@ public class SlackClient {
             reqForm.add("limit", "1000");
             reqForm.add("exclude_archived", "true");
 
+            acquire();
             var response = restTemplate.postForEntity(LIST_CONVERSATIONS, new HttpEntity<>(reqForm, headers), ListChannelResponse.class);
             list = checkResponse(response);
             cursor = list.getResponseMetadata().getNextCursor();
@@ -158,6 +166,7 @@ public class SlackClient {
     }
 
     private User doGetUserByEmail(String email) {
+        acquire();
         try {
             var response = restTemplate.getForEntity(LOOKUP_BY_EMAIL, UserResponse.class, email);
             UserResponse user = checkResponse(response);
@@ -172,6 +181,7 @@ public class SlackClient {
     }
 
     private User doGetUserById(String id) {
+        acquire();
         try {
             var response = restTemplate.getForEntity(LOOKUP_BY_ID, UserResponse.class, id);
             UserResponse user = checkResponse(response);
@@ -187,10 +197,11 @@ public class SlackClient {
 
     public void sendMessageToUser(String email, String subject, List<Block> blocks) {
         try {
-            if (getUserByEmail(email) == null) {
+            var user = getUserByEmail(email);
+            if (user == null) {
                 log.warn("Notification for email {} with subject {} could not be sent. Slack user does not exist. Message will not be sent", email, subject);
             } else {
-                var userId = getUserByEmail(email).getId();
+                var userId = user.getId();
                 if (userId == null) {
                     throw new NotFoundException("Couldn't find slack user for email" + email);
                 }
@@ -204,10 +215,11 @@ public class SlackClient {
     public void sendMessageToUserId(String userId, String subject, List<Block> blocks) {
         try {
             var channel = openConversation(userId);
-            if (getUserBySlackId(userId) == null) {
+            var user = getUserBySlackId(userId);
+            if (user == null) {
                 log.warn("Notification for user id {} with subject {} could not be sent. Slack user does not exist. Message will not be sent", userId, subject);
             } else {
-                var userName = getUserBySlackId(userId).getName();
+                var userName = user.getName();
                 List<List<Block>> partitions = ListUtils.partition(splitLongBlocks(blocks), MAX_BLOCKS_PER_MESSAGE);
                 partitions.forEach(partition -> doSendMessageToChannel(channel, subject, partition, no.nav.data.team.contact.domain.Channel.SLACK_USER, userName));
             }
@@ -218,10 +230,11 @@ public class SlackClient {
 
     public void sendMessageToChannel(String channel, String subject, List<Block> blocks) {
         try {
-            if (getChannel(channel) == null) {
+            var slackChannel = getChannel(channel);
+            if (slackChannel == null) {
                 log.warn("Notification for channel id {} with subject {} could not be sent. Channel does not exist or might be archived. Message will not be sent", channel, subject);
             } else {
-                var channelName = getChannel(channel).getName();
+                var channelName = slackChannel.getName();
                 List<List<Block>> partitions = ListUtils.partition(splitLongBlocks(blocks), MAX_BLOCKS_PER_MESSAGE);
                 partitions.forEach(partition -> doSendMessageToChannel(channel, subject, partition, no.nav.data.team.contact.domain.Channel.SLACK, channelName));
             }
@@ -237,6 +250,7 @@ public class SlackClient {
                 blockKit.add(0, Block.header("[DEV]"));
             }
             var request = new PostMessageRequest(channel, blockKit);
+            acquire();
             var response = restTemplate.postForEntity(POST_MESSAGE, request, PostMessageResponse.class);
             checkResponse(response);
             storage.save(MailLog.builder().to(channel + " - " + channelName).subject(subject).body(JsonUtils.toJson(blockKit)).channel(channelType).build());
@@ -247,6 +261,7 @@ public class SlackClient {
 
     private String doOpenConversation(String userId) {
         try {
+            acquire();
             var response = restTemplate.postForEntity(OPEN_CONVERSATION, new CreateConversationRequest(userId), CreateConversationResponse.class);
             CreateConversationResponse create = checkResponse(response);
             return create.getChannel().getId();
@@ -255,6 +270,17 @@ public class SlackClient {
         }
     }
 
+    private void acquire() {
+        try {
+            if (!rateLimit.tryAcquire(MAX_RATE_LIMIT_WAIT)) {
+                throw new TechnicalException("Slack rate limit, no call available within " + MAX_RATE_LIMIT_WAIT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TechnicalException("Interrupted waiting for slack rate limit", e);
+        }
+    }
+
     private <T extends Response> T checkResponse(ResponseEntity<T> response) {
         Assert.notNull(response.getBody(), "empty body");
         Assert.isTrue(response.getBody().isOk(), "Not ok error: " + response.getBody().getError());
@@ -4,11 +4,14 @@ import no.nav.data.team.location.domain.Location;
 import no.nav.data.team.location.domain.LocationType;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Component
@@ -33,6 +36,12 @@ public class LocationRepository {
         return Optional.ofNullable(code != null ? locationByCode.get(code) : null);
     }
 
+    public Map<String, Location> getLocationsByCodes(Collection<String> codes){
+        return codes.stream().filter(Objects::nonNull).distinct()
+                .filter(locationByCode::containsKey)
+                .collect(Collectors.toMap(Function.identity(), locationByCode::get));
+    }
+
     public Map<String, Location> getLocationsByType(LocationType locationType){
         return locationByCode.entrySet().stream()
                 .filter(e -> e.getValue().getType().equals(locationType) || locationType == null)
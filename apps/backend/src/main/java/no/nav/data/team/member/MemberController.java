@@ -10,27 +10,44 @@ import lombok.extern.slf4j.Slf4j;
 import no.nav.data.common.TeamCatalogProps;
 import no.nav.data.common.exceptions.TechnicalException;
 import no.nav.data.common.exceptions.ValidationException;
+import no.nav.data.common.rest.FieldSelection;
+import no.nav.data.team.catalog.CatalogSnapshotService;
+import no.nav.data.team.catalog.Membership;
 import no.nav.data.team.cluster.domain.Cluster;
+import no.nav.data.team.cluster.dto.ClusterResponse;
 import no.nav.data.team.member.MemberExportService.SpreadsheetType;
 import no.nav.data.team.member.dto.MembershipResponse;
 import no.nav.data.team.po.domain.ProductArea;
 import no.nav.data.team.po.dto.ProductAreaResponse;
-import no.nav.data.team.resource.domain.ResourceRepository;
+import no.nav.data.team.resource.domain.Resource;
 import no.nav.data.team.team.domain.Team;
+import no.nav.data.team.team.dto.TeamResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
 
 import static no.nav.data.common.export.ExcelBuilder.SPREADSHEETML_SHEET_MIME;
 import static no.nav.data.common.utils.StreamUtils.convert;
+import static no.nav.data.team.shared.domain.Membered.withResources;
 
 @Slf4j
 @RestController
@@ -38,12 +55,12 @@ import static no.nav.data.common.utils.StreamUtils.convert;
 @Tag(name = "Member", description = "Member endpoint")
 public class MemberController {
 
-    private final ResourceRepository resourceRepository;
+    private final CatalogSnapshotService catalog;
     private final MemberExportService memberExportService;
     private final TeamCatalogProps teamCatalogProps;
 
-    public MemberController(ResourceRepository resourceRepository, MemberExportService memberExportService, TeamCatalogProps teamCatalogProps) {
-        this.resourceRepository = resourceRepository;
+    public MemberController(CatalogSnapshotService catalog, MemberExportService memberExportService, TeamCatalogProps teamCatalogProps) {
+        this.catalog = catalog;
         this.memberExportService = memberExportService;
         this.teamCatalogProps = teamCatalogProps;
     }
@@ -51,14 +68,25 @@ public class MemberController {
     @Operation(summary = "Get Memberships")
     @ApiResponse(description = "ok")
     @GetMapping("/membership/{id}")
-    public ResponseEntity<MembershipResponse> getAll(@PathVariable String id) {
+    public ResponseEntity<MembershipResponse> getAll(@PathVariable String id,
+            @RequestParam(name = "asOf", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime asOf,
+            @RequestParam(name = FieldSelection.PARAM, required = false) String fields) {
         log.info("Get memberships for navident {}",id);
-        var memberships = resourceRepository.findByMemberIdent(id);
-        return ResponseEntity.ok(new MembershipResponse(
-                convert(memberships.teams(), Team::convertToResponse),
-                convert(memberships.productAreas(), this::convertProductAreaToReponse),
-                convert(memberships.clusters(), Cluster::convertToResponse)
-        ));
+        var memberships = Map.of(id, catalog.get(asOf).findMemberships(id));
+        return ResponseEntity.ok(convertMemberships(memberships, FieldSelection.parse(fields)).get(id));
+    }
+
+    @Operation(summary = "Get Memberships for multiple navidents")
+    @ApiResponse(description = "ok")
+    @PostMapping("/membership")
+    public ResponseEntity<Map<String, MembershipResponse>> getAllForIdents(@RequestBody List<String> ids,
+            @RequestParam(name = "asOf", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime asOf,
+            @RequestParam(name = FieldSelection.PARAM, required = false) String fields) {
+        log.info("Get memberships for {} navidents", ids.size());
+        var snapshot = catalog.get(asOf);
+        var memberships = new LinkedHashMap<String, Membership>();
+        ids.forEach(id -> memberships.put(id, snapshot.findMemberships(id)));
+        return ResponseEntity.ok(convertMemberships(memberships, FieldSelection.parse(fields)));
     }
 
     @Operation(summary = "Get export for members")
@@ -90,8 +118,32 @@ public class MemberController {
         }
     }
 
-    private ProductAreaResponse convertProductAreaToReponse(ProductArea pa){
-        return pa.convertToResponse(teamCatalogProps.getDefaultProductareaUuid());
+    /**
+     * Converts each team, product area and cluster once, with one resource lookup for all of them
+     */
+    private Map<String, MembershipResponse> convertMemberships(Map<String, Membership> memberships, FieldSelection fields) {
+        var teams = memberships.values().stream().flatMap(m -> m.teams().stream()).distinct().toList();
+        var productAreas = memberships.values().stream().flatMap(m -> m.productAreas().stream()).distinct().toList();
+        var clusters = memberships.values().stream().flatMap(m -> m.clusters().stream()).distinct().toList();
+
+        Function<Team, TeamResponse> teamConverter = withResources(teams, fields, (t, r) -> t.convertToResponse(r, fields));
+        Function<ProductArea, ProductAreaResponse> paConverter = withResources(productAreas, fields, (pa, r) -> convertProductAreaToReponse(pa, r, fields));
+        Function<Cluster, ClusterResponse> clusterConverter = withResources(clusters, fields, (c, r) -> c.convertToResponse(r, fields));
+        var teamResponses = new HashMap<UUID, TeamResponse>();
+        var paResponses = new HashMap<UUID, ProductAreaResponse>();
+        var clusterResponses = new HashMap<UUID, ClusterResponse>();
+
+        var result = new LinkedHashMap<String, MembershipResponse>();
+        memberships.forEach((ident, membership) -> result.put(ident, new MembershipResponse(
+                convert(membership.teams(), t -> teamResponses.computeIfAbsent(t.getId(), id -> teamConverter.apply(t))),
+                convert(membership.productAreas(), pa -> paResponses.computeIfAbsent(pa.getId(), id -> paConverter.apply(pa))),
+                convert(membership.clusters(), c -> clusterResponses.computeIfAbsent(c.getId(), id -> clusterConverter.apply(c)))
+        )));
+        return result;
+    }
+
+    private ProductAreaResponse convertProductAreaToReponse(ProductArea pa, Map<String, Resource> resources, FieldSelection fields) {
+        return pa.convertToResponse(teamCatalogProps.getDefaultProductareaUuid(), resources, fields);
     }
 
 
@@ -93,20 +93,23 @@ public class MemberExportService {
     }
 
     private Stream<Member> mapPaMembers(List<ProductArea> productAreas) {
-        return productAreas.stream().flatMap(pa -> pa.getMembers().stream().map(m -> new Member(Relation.PA, m.convertToResponse(), null, pa, List.of())));
+        var resources = Membered.resolveResources(productAreas);
+        return productAreas.stream().flatMap(pa -> pa.getMembers().stream().map(m -> new Member(Relation.PA, m.convertToResponse(resources), null, pa, List.of())));
     }
 
     private Stream<Member> mapClusterMembers(List<Cluster> clusters, List<ProductArea> productAreas) {
+        var resources = Membered.resolveResources(clusters);
         return clusters.stream().flatMap(cluster -> cluster.getMembers().stream()
-                .map(m -> new Member(Relation.CLUSTER, m.convertToResponse(), null, tryFind(productAreas, pa -> pa.getId().equals(cluster.getProductAreaId())).orElse(null),
+                .map(m -> new Member(Relation.CLUSTER, m.convertToResponse(resources), null, tryFind(productAreas, pa -> pa.getId().equals(cluster.getProductAreaId())).orElse(null),
                         List.of(cluster))));
     }
 
     private Stream<Member> mapTeamMembers(List<Team> teams, List<ProductArea> pas, List<Cluster> clusters) {
+        var resources = Membered.resolveResources(teams);
         return teams.stream().flatMap(t -> t.getMembers().stream().map(m -> {
             ProductArea productArea = t.getProductAreaId() != null ? StreamUtils.find(pas, pa -> pa.getId().equals(t.getProductAreaId())) : null;
             List<Cluster> clustersForTeam = filter(clusters, cluster -> t.getClusterIds().contains(cluster.getId()));
-            return new Member(Relation.TEAM, m.convertToResponse(), t, productArea, clustersForTeam);
+            return new Member(Relation.TEAM, m.convertToResponse(resources), t, productArea, clustersForTeam);
         }));
     }
 
@@ -13,9 +13,12 @@ import no.nav.data.team.notify.domain.NotificationTask.AuditTarget;
 import no.nav.data.team.notify.domain.TeamAuditMetadata;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -27,7 +30,6 @@ import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
 import static no.nav.data.common.utils.StreamUtils.convert;
 import static no.nav.data.common.utils.StreamUtils.filter;
-import static no.nav.data.common.utils.StreamUtils.find;
 import static no.nav.data.common.utils.StreamUtils.tryFind;
 import static no.nav.data.common.utils.StreamUtils.union;
 
@@ -41,6 +43,9 @@ public class AuditDiffService {
         this.auditVersionRepository = auditVersionRepository;
     }
 
+    /**
+     * Audits, product area teams and targets are indexed by id, so a run is linear in the number of audits and notifications
+     */
     public List<NotificationTask> createTask(List<AuditMetadata> audits, List<Notification> notifications) {
         var allTasks = new ArrayList<NotificationTask>();
         if (audits.isEmpty()) {
@@ -54,12 +59,12 @@ public class AuditDiffService {
 
         var teamsPrev = auditVersionRepository.getTeamMetadataBefore(auditsStart);
         var teamsCurr = auditVersionRepository.getTeamMetadataBetween(auditsStart, auditsEnd);
-        notifications = expandProductAreaNotifications(notifications, teamsPrev, teamsCurr);
+        notifications = expandProductAreaNotifications(notifications, teamsByProductArea(teamsPrev, teamsCurr));
         var auditsByTargetId = audits.stream().collect(groupingBy(AuditMetadata::getTableId));
         notifications.removeIf(n -> {
                     boolean notAllEventNotification = n.getType() != NotificationType.ALL_EVENTS;
                     boolean noAuditsForNotification = !auditsByTargetId.containsKey(n.getTarget());
-                    boolean noDependentAuditsForNotification = auditsByTargetId.keySet().stream().noneMatch(n::isDependentOn);
+                    boolean noDependentAuditsForNotification = !n.isDependentOnAny(auditsByTargetId.keySet());
                     return notAllEventNotification && noAuditsForNotification && noDependentAuditsForNotification;
                 }
         );
@@ -70,25 +75,39 @@ public class AuditDiffService {
             }
         });
 
+        var previousAudits = findPreviousAudits(auditsByTargetId);
         var notificationsByIdent = notifications.stream().collect(groupingBy(Notification::getIdent));
         log.info("Notification for {}", notificationsByIdent.keySet());
         for (Entry<String, List<Notification>> entry : notificationsByIdent.entrySet()) {
             String ident = entry.getKey();
             List<Notification> notificationsForIdent = entry.getValue();
             var notificationTargetAudits = unpackAndGroupTargets(notificationsForIdent, auditsByTargetId);
-            var tasksForIdent = createTasks(ident, notificationTargetAudits);
-            allTasks.addAll(filter(tasksForIdent, t -> !t.getTargets().isEmpty()));
+            var tasksForIdent = filter(createTasks(ident, notificationTargetAudits, previousAudits), t -> !t.getTargets().isEmpty());
+            tasksForIdent.forEach(t -> log.info("Notification to {} {} targets {}", ident, t.getChannel(), t.getTargets().size()));
+            allTasks.addAll(tasksForIdent);
         }
         return allTasks;
     }
 
-    private List<Notification> expandProductAreaNotifications(List<Notification> notifications, List<TeamAuditMetadata> teamsPrev, List<TeamAuditMetadata> teamsCurr) {
+    /**
+     * Teams in each product area before or during the audited period, in the order they were found
+     */
+    private static Map<UUID, List<UUID>> teamsByProductArea(List<TeamAuditMetadata> teamsPrev, List<TeamAuditMetadata> teamsCurr) {
+        var teams = new HashMap<UUID, Set<UUID>>();
+        Stream.concat(teamsPrev.stream(), teamsCurr.stream())
+                .filter(t -> t.getProductAreaId() != null)
+                .forEach(t -> teams.computeIfAbsent(t.getProductAreaId(), id -> new LinkedHashSet<>()).add(t.getTableId()));
+        var teamLists = new HashMap<UUID, List<UUID>>();
+        teams.forEach((productAreaId, teamIds) -> teamLists.put(productAreaId, List.copyOf(teamIds)));
+        return teamLists;
+    }
+
+    private List<Notification> expandProductAreaNotifications(List<Notification> notifications, Map<UUID, List<UUID>> teamsByProductArea) {
         var allNotifications = new ArrayList<>(notifications);
+        var productAreasLogged = new HashSet<UUID>();
         for (Notification notification : notifications) {
             if (notification.getType() == NotificationType.PA) {
-                var paTeamsPrev = filter(teamsPrev, t -> notification.getTarget().equals(t.getProductAreaId()));
-                var paTeamsCurr = filter(teamsCurr, t -> notification.getTarget().equals(t.getProductAreaId()));
-                var allTeams = union(paTeamsPrev, paTeamsCurr).stream().map(TeamAuditMetadata::getTableId).distinct().collect(toList());
+                var allTeams = teamsByProductArea.getOrDefault(notification.getTarget(), List.of());
                 // Adding teams from product area to notifications, setting their level as Product area, to enforce correct channel overrides later
                 allNotifications.addAll(convert(allTeams, teamId -> Notification.builder()
                         .type(NotificationType.PA)
@@ -98,7 +117,9 @@ public class AuditDiffService {
                         .target(teamId)
                         .build()));
                 notification.setDependentTargets(allTeams);
-                log.info("Notification PA {} DependentTargets {}", notification.getTarget(), allTeams);
+                if (productAreasLogged.add(notification.getTarget())) {
+                    log.info("Notification PA {} DependentTargets {}", notification.getTarget(), allTeams);
+                }
             }
         }
         return allNotifications;
@@ -117,7 +138,23 @@ public class AuditDiffService {
         return union(allEventAudits, targetAudits);
     }
 
-    private List<NotificationTask> createTasks(String ident, List<NotificationTargetAudits> targetAudits) {
+    /**
+     * Finds the audits notifications are compared against for all targets in one query.
+     * For changed targets the audit before the oldest change, for unchanged targets their latest audit.
+     */
+    private Map<UUID, AuditMetadata> findPreviousAudits(Map<UUID, List<AuditMetadata>> auditsByTargetId) {
+        var before = new HashMap<UUID, LocalDateTime>();
+        auditsByTargetId.forEach((targetId, audits) -> {
+            if (audits.isEmpty()) {
+                before.put(targetId, null);
+            } else if (audits.get(0).getAction() != Action.CREATE) {
+                before.put(targetId, audits.get(0).getTime());
+            }
+        });
+        return auditVersionRepository.findLatestBefore(before);
+    }
+
+    private List<NotificationTask> createTasks(String ident, List<NotificationTargetAudits> targetAudits, Map<UUID, AuditMetadata> previousAudits) {
         // All times are equal down here
         var time = targetAudits.get(0).getNotification().getTime();
 
@@ -140,19 +177,19 @@ public class AuditDiffService {
         });
 
         return classifications.stream()
-                .filter(c -> c.getTargets().stream().anyMatch(t -> !t.isSilent()))
+                .filter(c -> c.getTargetsById().values().stream().anyMatch(t -> !t.isSilent()))
                 .map(classification ->
                         NotificationTask.builder()
                                 .ident(ident)
                                 .time(time)
                                 .channel(classification.getChannel())
-                                .targets(convertAuditTargets(ident, classification.getTargets()))
+                                .targets(convertAuditTargets(ident, classification.getTargets(), previousAudits))
                                 .build()
                 )
                 .collect(toList());
     }
 
-    private List<AuditTarget> convertAuditTargets(String ident, List<Target> targets) {
+    private List<AuditTarget> convertAuditTargets(String ident, List<Target> targets, Map<UUID, AuditMetadata> previousAudits) {
         return convert(targets, target -> {
             var targetId = target.getTarget();
             var audits = target.getAudits();
@@ -161,13 +198,13 @@ public class AuditDiffService {
             UUID curr;
             if (audits.isEmpty()) {
                 // If the target in question has not actually changed, ie. a team added/removed in a product area
-                oldestAudit = auditVersionRepository.lastAuditForObject(targetId);
+                oldestAudit = previousAudits.get(targetId);
                 prev = oldestAudit.getId();
                 curr = oldestAudit.getId();
             } else {
                 oldestAudit = audits.get(0);
                 var newestAudit = audits.get(audits.size() - 1);
-                prev = getPreviousFor(oldestAudit);
+                prev = oldestAudit.getAction() == Action.CREATE ? null : previousAudits.get(targetId).getId();
                 curr = newestAudit.getAction() == Action.DELETE ? null : newestAudit.getId();
             }
             if (prev == null && curr == null) {
@@ -175,7 +212,7 @@ public class AuditDiffService {
                 return null;
             }
             var tableName = oldestAudit.getTableName();
-            log.info("Notification to {} target {}: {} from {} to {}", ident, tableName, targetId, prev, curr);
+            log.trace("Notification to {} target {}: {} from {} to {}", ident, tableName, targetId, prev, curr);
             return AuditTarget.builder()
                     .targetId(targetId)
                     .type(tableName)
@@ -186,13 +223,6 @@ public class AuditDiffService {
         });
     }
 
-    private UUID getPreviousFor(AuditMetadata oldestAudit) {
-        if (oldestAudit.getAction() == Action.CREATE) {
-            return null;
-        }
-        return UUID.fromString(auditVersionRepository.getPreviousAuditIdFor(oldestAudit.getId()));
-    }
-
     @Value
     static class NotificationTargetAudits {
 
@@ -205,29 +235,24 @@ public class AuditDiffService {
     static class TargetClassification {
 
         NotificationChannel channel;
-        List<Target> targets = new ArrayList<>();
-        Set<UUID> targetsAdded = new HashSet<>();
+        Map<UUID, Target> targetsById = new LinkedHashMap<>();
 
         TargetClassification(NotificationChannel channel) {
             this.channel = channel;
         }
 
-        boolean isAdded(UUID targetId) {
-            return targetsAdded.contains(targetId);
+        List<Target> getTargets() {
+            return List.copyOf(targetsById.values());
         }
 
         void add(Target target) {
-            if (isAdded(target.getTarget())) {
-                if (!target.isSilent()) {
-                    var existingTarget = find(targets, t -> t.getTarget().equals(target.getTarget()));
-                    if (existingTarget.isSilent()) {
-                        targets.remove(existingTarget);
-                        targets.add(target);
-                    }
-                }
-            } else {
-                targetsAdded.add(target.getTarget());
-                targets.add(target);
+            var existingTarget = targetsById.get(target.getTarget());
+            if (existingTarget == null) {
+                targetsById.put(target.getTarget(), target);
+            } else if (!target.isSilent() && existingTarget.isSilent()) {
+                // a target replacing a silent one is moved last, as it was added last
+                targetsById.remove(target.getTarget());
+                targetsById.put(target.getTarget(), target);
             }
         }
 
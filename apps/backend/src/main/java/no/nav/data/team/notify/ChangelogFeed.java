@@ -0,0 +1,193 @@
+package no.nav.data.team.notify;
+
+import io.prometheus.client.Counter;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import no.nav.data.common.auditing.domain.Action;
+import no.nav.data.common.auditing.domain.AuditOutboxRepository;
+import no.nav.data.common.auditing.domain.AuditVersion;
+import no.nav.data.common.auditing.domain.AuditVersionRepository;
+import no.nav.data.common.utils.MetricUtils;
+import no.nav.data.team.notify.domain.ChangelogRepository;
+import no.nav.data.team.notify.domain.ChangelogRepository.ChangelogAudit;
+import no.nav.data.team.notify.domain.ChangelogRepository.ChangelogEntry;
+import no.nav.data.team.notify.domain.Notification.NotificationTime;
+import no.nav.data.team.notify.domain.Notification.NotificationType;
+import no.nav.data.team.notify.domain.NotificationTask;
+import no.nav.data.team.notify.domain.NotificationTask.AuditTarget;
+import no.nav.data.team.notify.dto.Changelog;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Changelog of teams and product areas, materialized per audit as audits arrive.
+ * <p>
+ * Each audit is diffed against the audit before it once, and stored as its own changelog. The changelog of a period is then
+ * the entries of the period merged together, rather than a diff of all audits in the period computed per request.
+ * Audits are appended by a scheduled job only, reads are served from the entries before the watermark. Periods the feed does not
+ * cover are left to the caller.
+ */
+@Slf4j
+@Service
+public class ChangelogFeed {
+
+    // changes before this date have non-backwards compatible formats
+    static final LocalDateTime EARLIEST_CHANGELOG = LocalDateTime.of(2020, Month.APRIL, 24, 0, 0);
+    private static final int BATCH_SIZE = 200;
+    /**
+     * Audits are looked for from a little before the watermark, in case an audit was still uncommitted, and not yet in the outbox, when the watermark was set
+     */
+    private static final Duration OVERLAP = Duration.ofMinutes(1);
+
+    private final ChangelogRepository repository;
+    private final AuditVersionRepository auditVersionRepository;
+    private final AuditOutboxRepository outboxRepository;
+    private final NotificationMessageGenerator messageGenerator;
+    private final Counter counter;
+
+    public ChangelogFeed(ChangelogRepository repository, AuditVersionRepository auditVersionRepository, AuditOutboxRepository outboxRepository,
+            NotificationMessageGenerator messageGenerator) {
+        this.repository = repository;
+        this.auditVersionRepository = auditVersionRepository;
+        this.outboxRepository = outboxRepository;
+        this.messageGenerator = messageGenerator;
+        this.counter = MetricUtils.counter()
+                .labels("feed").labels("fallback")
+                .labelNames("source")
+                .name("changelog_feed_counter").help("Changelogs read from the feed, and changelogs the feed did not cover")
+                .register();
+    }
+
+    @Scheduled(initialDelayString = "PT1M", fixedDelayString = "PT1M")
+    @SchedulerLock(name = "changelogFeed")
+    public void appendAll() {
+        int appended;
+        do {
+            appended = appendBatch();
+        } while (appended == BATCH_SIZE);
+    }
+
+    /**
+     * @return changelog of the period up to the watermark, changes after it are included once the scheduled job has appended them.
+     * Empty if the feed does not cover the start of the period
+     */
+    public Optional<Changelog> changelog(NotificationType type, UUID targetId, LocalDateTime start, LocalDateTime end) {
+        start = start.isBefore(EARLIEST_CHANGELOG) ? EARLIEST_CHANGELOG : start;
+        var watermark = repository.getWatermark();
+        // the feed starts at the oldest audit not archived
+        var first = watermark == null ? null : repository.getCoverage().first();
+        if (first == null || start.isBefore(first)) {
+            counter.labels("fallback").inc();
+            return Optional.empty();
+        }
+        end = min(end, watermark);
+        var entries = switch (type) {
+            case TEAM -> repository.findByTarget(targetId, start, end);
+            case PA -> repository.findByProductArea(targetId, start, end);
+            case ALL_EVENTS -> repository.findAll(start, end);
+        };
+        counter.labels("feed").inc();
+        return Optional.of(Changelog.merge(entries));
+    }
+
+    /**
+     * Appends audits from the watermark, then moves the watermark up to the oldest audit still in the outbox, as audits are written to AUDIT_VERSION
+     * in outbox order rather than in time order. Audits already appended are skipped, so the rescan is bounded by how far the outbox is behind.
+     * <p>
+     * An audit whose changelog fails stops the batch, and the watermark is kept before it so it is retried next run.
+     *
+     * @return number of audits appended
+     */
+    int appendBatch() {
+        // read before the audits, audits moved from the outbox after this are not older than it
+        var outboxOldest = Optional.ofNullable(outboxRepository.status().oldest()).orElseGet(LocalDateTime::now);
+        var watermark = Optional.ofNullable(repository.getWatermark()).orElseGet(() -> repository.getCoverage().last());
+        var after = watermark == null ? EARLIEST_CHANGELOG : watermark.minus(OVERLAP);
+        var audits = repository.findAuditsWithoutEntries(after, BATCH_SIZE);
+
+        var entries = new ArrayList<ChangelogEntry>();
+        ChangelogAudit failed = null;
+        for (var audit : audits) {
+            try {
+                entries.addAll(entries(audit));
+            } catch (DataAccessException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                log.error("Failed to create changelog for audit {}, retrying next run", audit.id(), e);
+                failed = audit;
+                break;
+            }
+        }
+        var appended = failed == null ? audits : audits.subList(0, audits.indexOf(failed));
+        if (!appended.isEmpty()) {
+            repository.append(entries);
+            log.info("Appended {} audits to changelog, up to {}", appended.size(), appended.get(appended.size() - 1).time());
+        }
+
+        LocalDateTime reached;
+        if (failed != null) {
+            reached = min(outboxOldest, failed.time());
+        } else {
+            reached = audits.size() < BATCH_SIZE ? outboxOldest : min(outboxOldest, audits.get(audits.size() - 1).time());
+        }
+        if (watermark == null || reached.isAfter(watermark)) {
+            repository.setWatermark(reached);
+        }
+        return appended.size();
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    /**
+     * Changelog of the audited object, and of the product areas a team was moved between
+     */
+    private List<ChangelogEntry> entries(ChangelogAudit audit) {
+        var prev = audit.action() == Action.CREATE ? null : audit.prevAuditId();
+        var curr = audit.action() == Action.DELETE ? null : audit.id();
+        boolean team = AuditVersion.TEAM_TYPE.equals(audit.tableName());
+        var prevArea = team && prev != null ? audit.prevProductAreaId() : null;
+        var currArea = team && curr != null ? audit.productAreaId() : null;
+        var marker = new ChangelogEntry(audit.id(), audit.tableId(), audit.time(), currArea == null ? prevArea : currArea, prevArea, null);
+        if (prev == null && curr == null) {
+            return List.of(marker);
+        }
+
+        var targets = new ArrayList<AuditTarget>();
+        targets.add(AuditTarget.builder().targetId(audit.tableId()).type(audit.tableName()).prevAuditId(prev).currAuditId(curr).build());
+        if (!Objects.equals(prevArea, currArea)) {
+            // product areas the team left or joined, as they were at the time
+            var areas = new HashMap<UUID, LocalDateTime>();
+            Optional.ofNullable(prevArea).ifPresent(id -> areas.put(id, audit.time()));
+            Optional.ofNullable(currArea).ifPresent(id -> areas.put(id, audit.time()));
+            auditVersionRepository.findLatestBefore(areas).forEach((areaId, areaAudit) -> {
+                if (areaAudit.getAction() != Action.DELETE) {
+                    targets.add(AuditTarget.builder().targetId(areaId).type(AuditVersion.PA_TYPE).prevAuditId(areaAudit.getId()).currAuditId(areaAudit.getId()).build());
+                }
+            });
+        }
+
+        var task = NotificationTask.builder().time(NotificationTime.ALL).targets(targets).build();
+        var changelog = Changelog.from(messageGenerator.updateSummary(task).getModel());
+
+        var byTarget = changelog.byTarget();
+        var entries = new ArrayList<ChangelogEntry>();
+        entries.add(new ChangelogEntry(marker.auditId(), marker.targetId(), marker.time(), marker.productAreaId(), marker.prevProductAreaId(),
+                byTarget.get(audit.tableId().toString())));
+        targets.subList(1, targets.size()).forEach(area -> Optional.ofNullable(byTarget.get(area.getTargetId().toString()))
+                .ifPresent(cl -> entries.add(new ChangelogEntry(audit.id(), area.getTargetId(), audit.time(), null, null, cl))));
+        return entries;
+    }
+}
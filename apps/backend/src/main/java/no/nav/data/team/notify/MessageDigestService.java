@@ -0,0 +1,157 @@
+package no.nav.data.team.notify;
+
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import no.nav.data.common.mail.EmailService;
+import no.nav.data.common.mail.MailTask;
+import no.nav.data.common.storage.StorageService;
+import no.nav.data.common.storage.domain.GenericStorage;
+import no.nav.data.team.integration.slack.SlackClient;
+import no.nav.data.team.integration.slack.dto.SlackDtos.PostMessageRequest.Block;
+import no.nav.data.team.notify.domain.MessageDigest;
+import no.nav.data.team.notify.domain.NotificationRepository;
+import no.nav.data.team.notify.domain.PendingMessage;
+import no.nav.data.team.notify.domain.PendingMessage.RecipientType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.stream.Collectors.groupingBy;
+import static no.nav.data.common.utils.StreamUtils.convert;
+import static no.nav.data.team.notify.NotificationConstants.UPDATE_SUBJECT;
+
+/**
+ * Collects messages to the same recipient over a window and sends them as one digest, so a recipient gets one slack message or email
+ * for nudges, inactive members and updates arriving close together.
+ * <p>
+ * Digests are sent by {@link NotificationDispatcher}, which retries failed digests and puts them in dead letter like notification tasks.
+ */
+@Slf4j
+@Service
+public class MessageDigestService {
+
+    static final String SLACK_FALLBACK_SUFFIX = " - Erstatning for slack melding. Klarte ikke finne din slack bruker.";
+    private static final String DIGEST_SUBJECT = "Teamkatalog - %d varsler";
+    /**
+     * Digests of updates only keep the update subject, so the mail log can hide them like single updates
+     */
+    private static final String UPDATE_DIGEST_SUBJECT = UPDATE_SUBJECT + " - %d varsler";
+
+    private final StorageService storage;
+    private final NotificationRepository repository;
+    private final NotificationDispatcher dispatcher;
+    private final EmailService emailService;
+    private final SlackClient slackClient;
+    private final TemplateService templateService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration window;
+
+    public MessageDigestService(StorageService storage, NotificationRepository repository, NotificationDispatcher dispatcher, EmailService emailService,
+            SlackClient slackClient, TemplateService templateService, PlatformTransactionManager transactionManager,
+            @Value("${team-catalog.notify.digest-window:PT5M}") Duration window) {
+        this.storage = storage;
+        this.repository = repository;
+        this.dispatcher = dispatcher;
+        this.emailService = emailService;
+        this.slackClient = slackClient;
+        this.templateService = templateService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.window = window;
+    }
+
+    /**
+     * Sends the message in a digest once the window from the oldest message waiting for the same recipient has passed, or right away if the window is zero
+     *
+     * @param html body of the mail for email recipients, put in one document with the other messages in the digest
+     * @param slack blocks for slack recipients
+     */
+    public void add(RecipientType recipientType, String address, String subject, String html, List<Block> slack) {
+        var message = PendingMessage.builder()
+                .recipientType(recipientType)
+                .address(address)
+                .subject(subject)
+                .html(html)
+                .slack(slack == null ? null : PendingMessage.toSlackBlocks(slack))
+                .queued(LocalDateTime.now())
+                .build();
+        if (window.isZero()) {
+            dispatcher.send(storage.save(MessageDigest.create(message.recipient(), List.of(message))), this::send);
+        } else {
+            storage.save(message);
+        }
+    }
+
+    @Scheduled(initialDelayString = "PT1M", fixedRateString = "PT1M")
+    @SchedulerLock(name = "sendDigests")
+    public void sendDigests() {
+        collectDigests(LocalDateTime.now().minus(window));
+        dispatcher.dispatchDue(MessageDigest.class, this::send);
+    }
+
+    /**
+     * Replaces the pending messages of recipients whose oldest message was queued before the given time with one digest per recipient
+     */
+    void collectDigests(LocalDateTime queuedBefore) {
+        transactionTemplate.executeWithoutResult(status -> {
+            var pending = GenericStorage.to(repository.findPendingMessagesQueuedBefore(queuedBefore), PendingMessage.class);
+            if (pending.isEmpty()) {
+                return;
+            }
+            pending.stream().collect(groupingBy(PendingMessage::recipient))
+                    .forEach((recipient, messages) -> storage.save(MessageDigest.create(recipient, messages)));
+            storage.deleteAll(pending);
+        });
+    }
+
+    void send(MessageDigest digest) {
+        var recipient = digest.recipient();
+        var messages = digest.getMessages();
+        var subject = subject(messages);
+        log.info("Sending digest of {} messages to {}", messages.size(), recipient);
+        switch (recipient.type()) {
+            case EMAIL -> sendMail(recipient.address(), subject, messages);
+            case SLACK_CHANNEL -> slackClient.sendMessageToChannel(recipient.address(), subject, slack(messages));
+            case SLACK_USER_ID -> slackClient.sendMessageToUserId(recipient.address(), subject, slack(messages));
+            case SLACK_USER_EMAIL -> {
+                // looked up once for all messages in the digest
+                var user = slackClient.getUserByEmail(recipient.address());
+                if (user == null || user.getId() == null) {
+                    sendMail(recipient.address(), subject + SLACK_FALLBACK_SUFFIX, messages);
+                } else {
+                    slackClient.sendMessageToUserId(user.getId(), subject, slack(messages));
+                }
+            }
+        }
+    }
+
+    static String subject(List<PendingMessage> messages) {
+        if (messages.size() == 1) {
+            return messages.get(0).getSubject();
+        }
+        var updates = messages.stream().allMatch(m -> m.getSubject() != null && m.getSubject().startsWith(UPDATE_SUBJECT));
+        return (updates ? UPDATE_DIGEST_SUBJECT : DIGEST_SUBJECT).formatted(messages.size());
+    }
+
+    private void sendMail(String address, String subject, List<PendingMessage> messages) {
+        var body = templateService.mail(subject, convert(messages, PendingMessage::getHtml));
+        emailService.scheduleMail(MailTask.builder().to(address).subject(subject).body(body).build());
+    }
+
+    private static List<Block> slack(List<PendingMessage> messages) {
+        var blocks = new ArrayList<Block>();
+        for (var message : messages) {
+            if (!blocks.isEmpty()) {
+                blocks.add(Block.divider());
+            }
+            blocks.addAll(message.slackBlocks());
+        }
+        return blocks;
+    }
+}
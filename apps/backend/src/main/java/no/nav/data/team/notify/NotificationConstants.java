@@ -9,4 +9,8 @@ public class NotificationConstants {
 
     public static final Period NUDGE_TIME_CUTOFF = Period.ofMonths(3);
     public static final String NUDGE_TIME_CUTOFF_DESCRIPTION = "3 måneder";
+    /**
+     * The mail log can hide mails with subjects starting with this, see MailLogRepository.findAllNonUpdates
+     */
+    public static final String UPDATE_SUBJECT = "Teamkatalog oppdatering";
 }
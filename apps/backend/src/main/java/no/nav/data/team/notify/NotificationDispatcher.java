@@ -0,0 +1,161 @@
+package no.nav.data.team.notify;
+
+import io.prometheus.client.Counter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import no.nav.data.common.storage.StorageService;
+import no.nav.data.common.storage.domain.GenericStorage;
+import no.nav.data.common.storage.domain.TypeRegistration;
+import no.nav.data.common.utils.Backoff;
+import no.nav.data.common.utils.MdcUtils;
+import no.nav.data.common.utils.MetricUtils;
+import no.nav.data.common.utils.TokenBucket;
+import no.nav.data.team.notify.domain.DispatchTask;
+import no.nav.data.team.notify.domain.Notification.NotificationChannel;
+import no.nav.data.team.notify.domain.NotificationRepository;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static no.nav.data.common.utils.StreamUtils.convert;
+import static no.nav.data.common.utils.StreamUtils.filter;
+
+/**
+ * Sends notification tasks and message digests with a bounded number of concurrent sends and a rate limit per channel.
+ * <p>
+ * A failed task is retried with {@link Backoff}, independent of other tasks, and put in dead letter when it has failed too many times or can never be sent.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher {
+
+    /**
+     * Tasks not started within a run are left for the next, so a backlog doesn't hold the scheduler lock
+     */
+    private static final Duration MAX_RUN_TIME = Duration.ofMinutes(5);
+    /**
+     * Tasks in dead letter are kept this long for inspection
+     */
+    static final Duration DEAD_LETTER_RETENTION = Duration.ofDays(30);
+
+    private final StorageService storage;
+    private final NotificationRepository repository;
+    private final Map<NotificationChannel, ChannelDispatch> channels = new EnumMap<>(NotificationChannel.class);
+    private final Counter counter;
+
+    public NotificationDispatcher(StorageService storage, NotificationRepository repository) {
+        this.storage = storage;
+        this.repository = repository;
+        // Microsoft Graph allows 30 mails a minute per mailbox
+        channels.put(NotificationChannel.EMAIL, ChannelDispatch.create(NotificationChannel.EMAIL, 4, new TokenBucket(10, 30, Duration.ofMinutes(1))));
+        // A slack task takes several api calls, SlackClient rate limits each of them
+        channels.put(NotificationChannel.SLACK, ChannelDispatch.create(NotificationChannel.SLACK, 2, null));
+        this.counter = MetricUtils.counter()
+                .labels(NotificationChannel.EMAIL.name(), "sent").labels(NotificationChannel.EMAIL.name(), "retry").labels(NotificationChannel.EMAIL.name(), "dead")
+                .labels(NotificationChannel.SLACK.name(), "sent").labels(NotificationChannel.SLACK.name(), "retry").labels(NotificationChannel.SLACK.name(), "dead")
+                .labelNames("channel", "result")
+                .name("notification_task_counter").help("Notification tasks and digests sent, retried and put in dead letter")
+                .register();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(c -> c.executor().shutdownNow());
+    }
+
+    /**
+     * Sends the stored tasks of the type that are due, and deletes tasks that have been in dead letter for longer than {@link #DEAD_LETTER_RETENTION}
+     */
+    public <T extends DispatchTask> void dispatchDue(Class<T> type, Consumer<T> sender) {
+        var typeName = TypeRegistration.typeOf(type);
+        var tasks = GenericStorage.to(repository.findDue(typeName, LocalDateTime.now()), type);
+        log.info("{} - running {} tasks", typeName, tasks.size());
+        dispatch(tasks, sender);
+
+        var dead = GenericStorage.to(repository.findDeadLetterBefore(typeName, LocalDateTime.now().minus(DEAD_LETTER_RETENTION)), type);
+        if (!dead.isEmpty()) {
+            log.warn("{} - deleting {} tasks that have been in dead letter for {}", typeName, dead.size(), DEAD_LETTER_RETENTION);
+            dead.forEach(storage::delete);
+        }
+    }
+
+    /**
+     * Sends the tasks that are due, returns when all of them are sent, failed, or left for the next run
+     */
+    <T extends DispatchTask> void dispatch(List<T> tasks, Consumer<T> sender) {
+        var now = LocalDateTime.now();
+        var due = filter(tasks, t -> t.isDue(now));
+        if (due.isEmpty()) {
+            return;
+        }
+        log.info("NotifyTasks - dispatching {} of {} tasks", due.size(), tasks.size());
+        var deadline = Instant.now().plus(MAX_RUN_TIME);
+        var sends = convert(due, task -> {
+            var channel = channels.get(task.getChannel());
+            return CompletableFuture.runAsync(MdcUtils.wrapAsync(() -> send(task, sender, channel.rateLimit(), deadline), "notifyTask"), channel.executor());
+        });
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private <T extends DispatchTask> void send(T task, Consumer<T> sender, TokenBucket rateLimit, Instant deadline) {
+        try {
+            var maxWait = Duration.between(Instant.now(), deadline);
+            if (maxWait.isNegative() || rateLimit != null && !rateLimit.tryAcquire(maxWait)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        send(task, sender);
+    }
+
+    /**
+     * Sends a stored task right away, without waiting for the rate limit
+     */
+    <T extends DispatchTask> void send(T task, Consumer<T> sender) {
+        var channel = task.getChannel();
+        try {
+            sender.accept(task);
+            storage.delete(task);
+            counter.labels(channel.name(), "sent").inc();
+        } catch (MailNotFoundException e) {
+            log.warn("Email error on task id: %s, putting it in dead letter".formatted(task.getId()), e);
+            task.deadLetter(e.getMessage());
+            storage.save(task);
+            counter.labels(channel.name(), "dead").inc();
+        } catch (Exception e) {
+            if (Backoff.exhausted(task.getAttempts() + 1)) {
+                log.error("Failed to notify task id: %s, attempt %d, putting it in dead letter".formatted(task.getId(), task.getAttempts() + 1), e);
+                task.deadLetter(e.getMessage());
+                counter.labels(channel.name(), "dead").inc();
+            } else {
+                var nextAttempt = LocalDateTime.now().plus(Backoff.retryDelay(task.getAttempts() + 1));
+                log.error("Failed to notify task id: %s, attempt %d, retrying at %s".formatted(task.getId(), task.getAttempts() + 1, nextAttempt), e);
+                task.failed(e.getMessage(), nextAttempt);
+                counter.labels(channel.name(), "retry").inc();
+            }
+            storage.save(task);
+        }
+    }
+
+    /**
+     * @param rateLimit tasks sent per period, null when the client limits its own calls
+     */
+    private record ChannelDispatch(ExecutorService executor, TokenBucket rateLimit) {
+
+        static ChannelDispatch create(NotificationChannel channel, int concurrency, TokenBucket rateLimit) {
+            return new ChannelDispatch(Executors.newFixedThreadPool(concurrency, new CustomizableThreadFactory("notify-" + channel.name().toLowerCase() + "-")), rateLimit);
+        }
+    }
+}
@@ -4,8 +4,8 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import no.nav.data.common.auditing.AuditVersionReader;
 import no.nav.data.common.auditing.domain.AuditVersion;
-import no.nav.data.common.auditing.domain.AuditVersionRepository;
 import no.nav.data.common.exceptions.NotFoundException;
 import no.nav.data.common.storage.StorageService;
 import no.nav.data.team.contact.domain.ContactMessage;
@@ -35,7 +35,9 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static java.util.stream.Collectors.toSet;
 import static no.nav.data.common.utils.StreamUtils.convert;
 import static no.nav.data.common.utils.StreamUtils.filterCommonElements;
 import static no.nav.data.team.contact.domain.ContactMessage.Paragraph.VarselUrl.url;
@@ -44,18 +46,18 @@ import static no.nav.data.team.contact.domain.ContactMessage.Paragraph.VarselUrl
 @Service
 public class NotificationMessageGenerator {
 
-    private final AuditVersionRepository auditVersionRepository;
+    private final AuditVersionReader auditVersionReader;
     private final LoadingCache<UUID, AuditVersion> auditCache;
     private final LoadingCache<UUID, ProductArea> paCache;
     private final UrlGenerator urlGenerator;
     private final NomClient nomClient;
 
-    public NotificationMessageGenerator(AuditVersionRepository auditVersionRepository,
+    public NotificationMessageGenerator(AuditVersionReader auditVersionReader,
             StorageService storageService, UrlGenerator urlGenerator, NomClient nomClient) {
-        this.auditVersionRepository = auditVersionRepository;
+        this.auditVersionReader = auditVersionReader;
         this.auditCache = Caffeine.newBuilder().recordStats()
                 .expireAfterWrite(Duration.ofMinutes(5))
-                .maximumSize(1000).build(id -> auditVersionRepository.findById(id).orElseThrow());
+                .maximumSize(1000).build(id -> auditVersionReader.findById(id).orElseThrow());
         this.paCache = Caffeine.newBuilder().recordStats()
                 .expireAfterWrite(Duration.ofMinutes(1))
                 .maximumSize(1000).build(id -> storageService.get(id, ProductArea.class));
@@ -68,7 +70,7 @@ public class NotificationMessageGenerator {
         var model = new UpdateModel();
         model.setBaseUrl(urlGenerator.getBaseUrl());
         model.setTime(task.getTime());
-        task.getTargets().forEach(this::fetchAuditVersions);
+        fetchAuditVersions(task.getTargets());
 
         task.getTargets().forEach(t -> {
             if (t.isSilent()) {
@@ -92,12 +94,16 @@ public class NotificationMessageGenerator {
         });
 
         boolean isEmpty = model.getCreated().isEmpty() && model.getDeleted().isEmpty() && model.getUpdated().isEmpty();
-        return new NotificationMessage<>("Teamkatalog oppdatering", model, urlGenerator.isDev(), isEmpty);
+        return new NotificationMessage<>(NotificationConstants.UPDATE_SUBJECT, model, urlGenerator.isDev(), isEmpty);
     }
 
-    private void fetchAuditVersions(AuditTarget auditTarget) {
-        Optional.ofNullable(auditTarget.getPrevAuditId()).ifPresent(id -> auditTarget.setPrevAuditVersion(auditCache.get(id)));
-        Optional.ofNullable(auditTarget.getCurrAuditId()).ifPresent(id -> auditTarget.setCurrAuditVersion(auditCache.get(id)));
+    private void fetchAuditVersions(List<AuditTarget> auditTargets) {
+        var ids = auditTargets.stream().flatMap(t -> Stream.of(t.getPrevAuditId(), t.getCurrAuditId())).filter(Objects::nonNull).collect(toSet());
+        var versions = auditCache.getAll(ids, missing -> auditVersionReader.findAllById(List.copyOf(missing)));
+        auditTargets.forEach(t -> {
+            Optional.ofNullable(t.getPrevAuditId()).ifPresent(id -> t.setPrevAuditVersion(Optional.ofNullable(versions.get(id)).orElseThrow()));
+            Optional.ofNullable(t.getCurrAuditId()).ifPresent(id -> t.setCurrAuditVersion(Optional.ofNullable(versions.get(id)).orElseThrow()));
+        });
     }
 
     private UpdateItem diffItem(AuditVersion prevVersion, AuditVersion currVersion, NotificationTask task) {
@@ -167,7 +173,7 @@ public class NotificationMessageGenerator {
             log.trace("Product area has been deleted {}", id);
         }
         if (pa == null) {
-            pa = auditVersionRepository.findByTableIdOrderByTimeDescLimitOne(id.toString()).getProductAreaData();
+            pa = auditVersionReader.findLatest(id.toString()).orElseThrow().getProductAreaData();
             return paToItem(pa, true);
         }
         return paToItem(pa, false);
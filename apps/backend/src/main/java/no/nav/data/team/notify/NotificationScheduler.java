@@ -4,14 +4,19 @@ import lombok.extern.slf4j.Slf4j;
 import net.javacrumbs.shedlock.core.DefaultLockingTaskExecutor;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.LockingTaskExecutor;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import jakarta.annotation.PreDestroy;
+import no.nav.data.common.auditing.AuditOutboxWriter;
 import no.nav.data.common.auditing.domain.AuditVersion;
 import no.nav.data.common.auditing.domain.AuditVersionRepository;
 import no.nav.data.common.auditing.dto.AuditMetadata;
 import no.nav.data.common.rest.PageParameters;
+import no.nav.data.common.storage.DatabaseSignals;
 import no.nav.data.common.storage.StorageService;
 import no.nav.data.common.storage.domain.GenericStorage;
 import no.nav.data.common.utils.DateUtil;
+import no.nav.data.common.utils.MdcUtils;
 import no.nav.data.team.notify.domain.Notification;
 import no.nav.data.team.notify.domain.Notification.NotificationTime;
 import no.nav.data.team.notify.domain.NotificationRepository;
@@ -36,36 +41,66 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.util.stream.Collectors.toList;
 import static no.nav.data.common.utils.StreamUtils.convert;
 import static no.nav.data.common.utils.StreamUtils.filter;
 import static no.nav.data.common.utils.StreamUtils.union;
-import static org.docx4j.com.google.common.math.IntMath.pow;
 import static org.springframework.util.CollectionUtils.isEmpty;
 
+/**
+ * Creates notification tasks from new audit versions and sends them.
+ * <p>
+ * A worker is woken through {@link DatabaseSignals} when audit versions are written, so notifications for single changes go out shortly after
+ * the edit has settled. The scheduled runs are a safety net for lost signals and failed tasks.
+ */
 @Slf4j
 @Component
 @ConditionalOnProperty(value = "team-catalog.envlevel", havingValue = "primary")
 public class NotificationScheduler {
 
-
-    private LocalDateTime snooze = null;
-    private int snoozeTimes = 0;
+    private static final String WORKER_NAME = "notificationWorker";
+    /**
+     * Objects edited more recently than this are notified in a later run, so a series of edits gives one notification
+     */
+    private static final Duration RECENT_EDIT = Duration.ofMinutes(3);
+    private static final Duration LOCKED_RETRY_DELAY = Duration.ofSeconds(30);
 
     private final NotificationRepository repository;
     private final NotificationService service;
+    private final NotificationDispatcher dispatcher;
     private final AuditVersionRepository auditVersionRepository;
     private final StorageService storage;
     private final AuditDiffService auditDiffService;
+    private final LockingTaskExecutor lockingTaskExecutor;
+    private final ScheduledExecutorService worker;
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+    private final AtomicBoolean delayedWakeScheduled = new AtomicBoolean();
 
-    public NotificationScheduler(NotificationRepository repository, NotificationService service, AuditVersionRepository auditVersionRepository,
-            StorageService storage, AuditDiffService auditDiffService) {
+    public NotificationScheduler(NotificationRepository repository, NotificationService service, NotificationDispatcher dispatcher, AuditVersionRepository auditVersionRepository,
+            StorageService storage, AuditDiffService auditDiffService, LockProvider lockProvider, DatabaseSignals signals) {
         this.repository = repository;
         this.service = service;
+        this.dispatcher = dispatcher;
         this.auditVersionRepository = auditVersionRepository;
         this.storage = storage;
         this.auditDiffService = auditDiffService;
+        this.lockingTaskExecutor = new DefaultLockingTaskExecutor(lockProvider);
+        this.worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, WORKER_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        signals.listen(AuditOutboxWriter.AUDIT_WRITTEN_SIGNAL, this::wake);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
     }
 
     @Bean
@@ -126,48 +161,62 @@ public class NotificationScheduler {
         }
     }
 
-    @Scheduled(cron = "0 * * * * ?") // Every whole minute, if more than 5 errors, do snooze for 3+4^X minutes where X is times snoozed ,max 5
-    @SchedulerLock(name = "runNotifyTasks")
-    public void runNotifyTasks() {
-        Duration uptime = DateUtil.uptime();
-        if (uptime.minus(Duration.ofMinutes(2)).isNegative()) {
-            log.info("NotifyTasks - skip uptime {}", uptime);
-            return;
+    /**
+     * Runs the ALL summary and sends the tasks it created, coalescing wakeups that arrive while a run is waiting
+     */
+    void wake() {
+        if (wakeRequested.compareAndSet(false, true) && !worker.isShutdown()) {
+            worker.execute(MdcUtils.wrapAsync(this::processChanges, WORKER_NAME));
         }
+    }
 
-        if (snooze != null && snooze.isAfter(LocalDateTime.now())) {
-            return;
-        }
-        snooze = null;
-        int maxErrors = 5;
-
-        var tasks = storage.getAll(NotificationTask.class);
-        log.info("NotifyTasks - running {} tasks", tasks.size());
-        var errors = 0;
-        for (var task : tasks) {
-            if (errors >= maxErrors) {
-                snoozeTimes = Math.max(snoozeTimes + 1, 5);
-                snooze = LocalDateTime.now().plusMinutes(3L + pow(4, snoozeTimes));
-                log.warn("NotifyTasks - Max Errors reached -> Snoozing until {}", snooze);
+    private void processChanges() {
+        wakeRequested.set(false);
+        try {
+            var summary = lockingTaskExecutor.executeWithLock(() -> summary(NotificationTime.ALL), lockConfiguration("allNotify"));
+            if (!summary.wasExecuted()) {
+                // another instance is running, it may have started before the latest audit versions were written
+                wakeLater(LOCKED_RETRY_DELAY);
                 return;
             }
+            if (summary.getResult() != null && summary.getResult().tasks() > 0) {
+                lockingTaskExecutor.executeWithLock((Runnable) this::runNotifyTasks, lockConfiguration("runNotifyTasks"));
+            }
+            if (summary.getResult() != null && summary.getResult().skipped() > 0) {
+                wakeLater(RECENT_EDIT);
+            }
+        } catch (Throwable e) {
+            log.error("Notification worker failed", e);
+        }
+    }
 
-            try {
-                service.notifyTask(task);
-                storage.delete(task);
+    private void wakeLater(Duration delay) {
+        if (delayedWakeScheduled.compareAndSet(false, true) && !worker.isShutdown()) {
+            worker.schedule(() -> {
+                delayedWakeScheduled.set(false);
+                wake();
+            }, delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
 
-                snoozeTimes = 0;
-            } catch (MailNotFoundException e) {
-                log.warn("Email error on task id: %s".formatted(task.getId()), e);
-            } catch (Exception e) {
-                errors++;
-                log.error("Failed to notify task id: %s".formatted(task.getId()), e);
-            }
+    private static LockConfiguration lockConfiguration(String name) {
+        return new LockConfiguration(Instant.now(), name, Duration.ofMinutes(10), Duration.ZERO);
+    }
+
+    @Scheduled(cron = "0 */10 * * * ?") // Every 10 minutes, tasks are also sent when created. Failed tasks are retried with backoff by the dispatcher
+    @SchedulerLock(name = "runNotifyTasks", lockAtLeastFor = "PT5S")
+    public void runNotifyTasks() {
+        Duration uptime = DateUtil.uptime();
+        if (uptime.minus(Duration.ofMinutes(2)).isNegative()) {
+            log.info("NotifyTasks - skip uptime {}", uptime);
+            return;
         }
+
+        dispatcher.dispatchDue(NotificationTask.class, service::notifyTask);
     }
 
-    @Scheduled(cron = "30 * * * * ?") // Once every half past minute
-    @SchedulerLock(name = "allNotify")
+    @Scheduled(cron = "30 */10 * * * ?") // Every 10 minutes at half past, as the worker is woken when audit versions are written
+    @SchedulerLock(name = "allNotify", lockAtLeastFor = "PT5S")
     public void allNotify() {
         var uptime = DateUtil.uptime();
         if (uptime.minus(Duration.ofMinutes(2)).isNegative()) {
@@ -195,21 +244,25 @@ public class NotificationScheduler {
         summary(NotificationTime.MONTHLY);
     }
 
-    void summary(NotificationTime time) {
+    /**
+     * @return number of tasks created and of objects skipped as they were edited recently
+     */
+    SummaryResult summary(NotificationTime time) {
         log.info("{} - Notification running", time);
         var state = getState(time);
         UUID lastAuditId = null;
+        int tasks = 0;
 
         if (state.getLastAuditNotified() != null) {
             var audits = union(
-                    auditVersionRepository.getAllMetadataAfter(state.getLastAuditNotified()),
+                    auditVersionRepository.getAllMetadataAfter(auditVersionRepository.getTime(state.getLastAuditNotified())),
                     isEmpty(state.getSkipped()) ? List.of() : auditVersionRepository.getMetadataByIds(state.getSkipped())
             );
             audits.sort(Comparator.comparing(AuditMetadata::getTime));
 
             if (time == NotificationTime.ALL) {
                 // Skip objects that have been edited very recently
-                LocalDateTime cutoff = LocalDateTime.now().minusMinutes(3);
+                LocalDateTime cutoff = LocalDateTime.now().minus(RECENT_EDIT);
                 var recents = filter(audits, a -> a.getTime().isAfter(cutoff)).stream().map(AuditMetadata::getTableId).distinct().collect(toList());
                 var removed = filter(audits, a -> recents.contains(a.getTableId()));
                 audits.removeIf(removed::contains);
@@ -221,7 +274,7 @@ public class NotificationScheduler {
 
             if (audits.isEmpty()) {
                 log.info("{} - Notification end - no new audits", time);
-                return;
+                return new SummaryResult(0, size(state.getSkipped()));
             }
             var notifications = GenericStorage.to(repository.findByTime(time), Notification.class);
             var lastAudit = audits.get(audits.size() - 1);
@@ -229,11 +282,21 @@ public class NotificationScheduler {
 
             var tasksForIdent = auditDiffService.createTask(audits, notifications);
             tasksForIdent.forEach(storage::save);
+            tasks = tasksForIdent.size();
         }
 
         state.setLastAuditNotified(lastAuditId);
         storage.save(state);
         log.info("{} - Notification end at {}", time, lastAuditId);
+        return new SummaryResult(tasks, size(state.getSkipped()));
+    }
+
+    record SummaryResult(int tasks, int skipped) {
+
+    }
+
+    private static int size(List<?> list) {
+        return list == null ? 0 : list.size();
     }
 
 
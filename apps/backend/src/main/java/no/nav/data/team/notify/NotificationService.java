@@ -5,22 +5,19 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import no.nav.data.common.auditing.domain.AuditVersionRepository;
-import no.nav.data.common.exceptions.NotFoundException;
 import no.nav.data.common.exceptions.ValidationException;
-import no.nav.data.common.mail.EmailService;
-import no.nav.data.common.mail.MailTask;
 import no.nav.data.common.security.SecurityUtils;
 import no.nav.data.common.storage.StorageService;
 import no.nav.data.common.utils.MetricUtils;
 import no.nav.data.team.contact.domain.ContactAddress;
 import no.nav.data.team.contact.domain.ContactMessage;
-import no.nav.data.team.integration.slack.SlackClient;
 import no.nav.data.team.notify.domain.GenericNotificationTask.InactiveMembers;
 import no.nav.data.team.notify.domain.Notification;
 import no.nav.data.team.notify.domain.Notification.NotificationChannel;
 import no.nav.data.team.notify.domain.Notification.NotificationTime;
 import no.nav.data.team.notify.domain.Notification.NotificationType;
 import no.nav.data.team.notify.domain.NotificationTask;
+import no.nav.data.team.notify.domain.PendingMessage.RecipientType;
 import no.nav.data.team.notify.dto.Changelog;
 import no.nav.data.team.notify.dto.MailModels.UpdateModel;
 import no.nav.data.team.notify.dto.NotificationDto;
@@ -37,7 +34,6 @@ import org.springframework.util.CollectionUtils;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.Month;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
@@ -56,23 +52,20 @@ public class NotificationService {
 
     private final StorageService storage;
     private final NomClient nomClient;
-    private final EmailService emailService;
     private final TemplateService templateService;
-    private final SlackClient slackClient;
     private final NotificationSlackMessageConverter notificationSlackMessageConverter;
+    private final MessageDigestService digests;
 
     private final AuditVersionRepository auditVersionRepository;
     private final NotificationMessageGenerator messageGenerator;
     private final AuditDiffService auditDiffService;
+    private final ChangelogFeed changelogFeed;
     private final Cache<String, Changelog> changelogCache = MetricUtils.register("changelogCache",
             Caffeine.newBuilder()
                     .expireAfterWrite(Duration.ofMinutes(15))
                     .maximumSize(500)
                     .recordStats().build());
 
-    // changes before this date have non-backwards compatible formats
-    private static final LocalDateTime earliestChangelog = LocalDateTime.of(2020, Month.APRIL, 24, 0, 0);
-
     public Notification save(NotificationDto dto) {
         dto.validate();
         SecurityUtils.assertIsUserOrAdmin(dto.getIdent(), "Cannot edit other users notifications");
@@ -99,24 +92,16 @@ public class NotificationService {
             log.info("Skipping task, end message is empty taskId {}", task.getId());
             return;
         }
+        // the email body is also the fallback for slack users that can't be found
+        var body = templateService.teamUpdate(message.getModel());
         if (task.getChannel() == NotificationChannel.EMAIL) {
-            sendUpdateMail(email, message.getModel(), message.getSubject());
+            digests.add(RecipientType.EMAIL, email, message.getSubject(), body, null);
         } else if (task.getChannel() == NotificationChannel.SLACK) {
             var blocks = notificationSlackMessageConverter.convertTeamUpdateModel(message.getModel());
-            try {
-                slackClient.sendMessageToUser(email, message.getSubject(), blocks);
-            } catch (NotFoundException e) {
-                sendUpdateMail(email, message.getModel(), message.getSubject() + " - Erstatning for slack melding. Klarte ikke finne din slack bruker.");
-            }
+            digests.add(RecipientType.SLACK_USER_EMAIL, email, message.getSubject(), body, blocks);
         }
     }
 
-    private void sendUpdateMail(String email, UpdateModel model, String subject) {
-        String body = templateService.teamUpdate(model);
-
-        emailService.sendMail(MailTask.builder().to(email).subject(subject).body(body).build());
-    }
-
     public void nudge(Membered object) {
         sendMessage(object, recipients -> messageGenerator.nudgeTime(object, recipients.role()));
     }
@@ -134,12 +119,14 @@ public class NotificationService {
                 return;
             }
             var contactMessage = messageGenerator.apply(recipients);
-            // TODO consider schedule slack messages async (like email) to guard against slack downtime
+            // rendered once for all recipients
+            var html = contactMessage.toHtml();
+            var slack = contactMessage.toSlack();
             for (var recipient : recipients.addresses) {
                 switch (recipient.getType()) {
-                    case EPOST -> emailService.scheduleMail(MailTask.builder().to(recipient.getAddress()).subject(contactMessage.getTitle()).body(contactMessage.toHtml()).build());
-                    case SLACK -> slackClient.sendMessageToChannel(recipient.getAddress(), contactMessage.getTitle(), contactMessage.toSlack());
-                    case SLACK_USER -> slackClient.sendMessageToUserId(recipient.getAddress(), contactMessage.getTitle(), contactMessage.toSlack());
+                    case EPOST -> digests.add(RecipientType.EMAIL, recipient.getAddress(), contactMessage.getTitle(), html, null);
+                    case SLACK -> digests.add(RecipientType.SLACK_CHANNEL, recipient.getAddress(), contactMessage.getTitle(), null, slack);
+                    case SLACK_USER -> digests.add(RecipientType.SLACK_USER_ID, recipient.getAddress(), contactMessage.getTitle(), null, slack);
                     default -> throw new NotImplementedException("%s is not an implemented varsel type".formatted(recipient.getType()));
                 }
             }
@@ -193,11 +180,15 @@ public class NotificationService {
             return "empty";
         }
         log.info("new {} removes {} updates {}", model.getCreated(), model.getDeleted(), model.getUpdated());
-        return templateService.teamUpdate(model);
+        return templateService.mail("Oppdatering fra Teamkatalog", List.of(templateService.teamUpdate(model)));
     }
 
+    /**
+     * Read from the changelog feed, periods the feed does not cover are computed from the audits
+     */
     public Changelog changelogJson(NotificationType type, UUID targetId, LocalDateTime start, LocalDateTime end) {
-        return changelogCache.get("" + type + targetId + start + end, k -> Changelog.from(changelog(type, targetId, start, end)));
+        return changelogFeed.changelog(type, targetId, start, end)
+                .orElseGet(() -> changelogCache.get("" + type + targetId + start + end, k -> Changelog.from(changelog(type, targetId, start, end))));
     }
 
     private UpdateModel changelog(NotificationType type, UUID targetId, LocalDateTime start, LocalDateTime end) {
@@ -208,7 +199,7 @@ public class NotificationService {
                 .ident("MANUAL")
                 .time(NotificationTime.ALL)
                 .build());
-        start = start.isBefore(earliestChangelog) ? earliestChangelog : start;
+        start = start.isBefore(ChangelogFeed.EARLIEST_CHANGELOG) ? ChangelogFeed.EARLIEST_CHANGELOG : start;
         var audits = auditVersionRepository.findByTimeBetween(start, end);
         var tasks = auditDiffService.createTask(audits, notifications);
         var task = tryFind(tasks, t -> t.getChannel() == NotificationChannel.EMAIL);
@@ -1,8 +1,12 @@
 package no.nav.data.team.notify;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.prometheus.client.Summary;
 import lombok.extern.slf4j.Slf4j;
 import no.nav.data.common.security.SecurityProperties;
+import no.nav.data.common.utils.JsonUtils;
+import no.nav.data.common.utils.MetricUtils;
 import no.nav.data.team.contact.domain.SlackUser;
 import no.nav.data.team.integration.slack.SlackClient;
 import no.nav.data.team.integration.slack.dto.SlackDtos.PostMessageRequest.Block;
@@ -14,19 +18,50 @@ import no.nav.data.team.notify.dto.MailModels.UpdateModel;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class NotificationSlackMessageConverter {
 
     private final SlackClient slackClient;
     private final SecurityProperties securityProperties;
+    /**
+     * Recipients of the same changes in a notification run get equal models, converted once with one slack user lookup per member.
+     * Keyed by the serialized model, as the model itself is mutable
+     */
+    private final Cache<String, List<Block>> teamUpdateCache = MetricUtils.register("slackTeamUpdateCache",
+            Caffeine.newBuilder()
+                    .expireAfterWrite(Duration.ofMinutes(10))
+                    .maximumSize(200)
+                    .recordStats().build());
+    private final Summary renderSummary;
+
+    public NotificationSlackMessageConverter(SlackClient slackClient, SecurityProperties securityProperties) {
+        this.slackClient = slackClient;
+        this.securityProperties = securityProperties;
+        this.renderSummary = MetricUtils.summary()
+                .name("slack_render_summary").help("Time taken to convert a team update to slack blocks, in seconds")
+                .quantile(.5, .01).quantile(.9, .01).quantile(.99, .001)
+                .maxAgeSeconds(Duration.ofHours(24).getSeconds())
+                .register();
+    }
 
     public List<Block> convertTeamUpdateModel(UpdateModel model) {
+        return teamUpdateCache.get(JsonUtils.toJson(model), k -> {
+            var timer = renderSummary.startTimer();
+            try {
+                return List.copyOf(convert(model));
+            } finally {
+                timer.observeDuration();
+            }
+        });
+    }
+
+    private List<Block> convert(UpdateModel model) {
         var blocks = new ArrayList<Block>();
         blocks.add(Block.header("Oppdateringer i Teamkatalogen %s %s".formatted(timeHeader(model.getTime()), devText())));
         blocks.add(Block.divider());
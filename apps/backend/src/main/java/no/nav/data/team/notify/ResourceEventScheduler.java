@@ -5,33 +5,35 @@ import lombok.extern.slf4j.Slf4j;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import no.nav.data.common.storage.StorageService;
 import no.nav.data.common.storage.domain.DomainObject;
-import no.nav.data.team.cluster.domain.Cluster;
+import no.nav.data.team.catalog.CatalogSnapshot;
+import no.nav.data.team.catalog.CatalogSnapshotService;
+import no.nav.data.team.catalog.Membership;
 import no.nav.data.team.notify.domain.GenericNotificationTask;
 import no.nav.data.team.notify.domain.GenericNotificationTask.InactiveMembers;
 import no.nav.data.team.notify.domain.GenericNotificationTask.TaskType;
-import no.nav.data.team.po.domain.ProductArea;
 import no.nav.data.team.resource.NomClient;
+import no.nav.data.team.resource.domain.Resource;
 import no.nav.data.team.resource.domain.ResourceEvent;
 import no.nav.data.team.resource.domain.ResourceEvent.EventType;
-import no.nav.data.team.shared.domain.DomainObjectStatus;
 import no.nav.data.team.shared.domain.Member;
 import no.nav.data.team.shared.domain.Membered;
-import no.nav.data.team.team.domain.Team;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 import static no.nav.data.common.utils.StreamUtils.convert;
-import static no.nav.data.common.utils.StreamUtils.convertFlat;
 import static no.nav.data.common.utils.StreamUtils.filter;
-import static no.nav.data.common.utils.StreamUtils.union;
 import static no.nav.data.team.shared.domain.DomainObjectStatus.ACTIVE;
 
 @Slf4j
@@ -43,6 +45,7 @@ public class ResourceEventScheduler {
     private final StorageService storage;
     private final NotificationService service;
     private final NomClient nomClient;
+    private final CatalogSnapshotService catalog;
 
     @Scheduled(cron = "45 */4 * * * ?")
     @SchedulerLock(name = "runMailTasks")
@@ -76,40 +79,49 @@ public class ResourceEventScheduler {
         }
     }
 
+    /**
+     * Resources ending today are found by end date, and only those that are members somewhere get an event
+     */
     void doGenerateInactiveResourceEvent() {
-        List<Member> members = union(
-                convertFlat(allTeams(), Membered::getMembers),
-                convertFlat(allAreas(), Membered::getMembers),
-                convertFlat(allClusters(), Membered::getMembers)
-        );
-
-        members.stream()
-                .map(Member::getNavIdent).distinct()
-                .map(nomClient::getByNavIdent)
-                .forEach(or -> or.ifPresent(r -> {
-                    if (r.isInactive() && r.getEndDate().equals(LocalDate.now())) {
-                        log.info("ident {} became inactive today, creating ResourceEvent", r.getNavIdent());
-                        storage.save(ResourceEvent.builder().eventType(EventType.INACTIVE).ident(r.getNavIdent()).build());
-                    }
-                }));
+        var snapshot = catalog.get();
+        nomClient.findByEndDate(LocalDate.now()).stream()
+                .filter(Resource::isInactive)
+                .filter(r -> !snapshot.findMemberships(r.getNavIdent()).isEmpty())
+                .forEach(r -> {
+                    log.info("ident {} became inactive today, creating ResourceEvent", r.getNavIdent());
+                    storage.save(ResourceEvent.builder().eventType(EventType.INACTIVE).ident(r.getNavIdent()).build());
+                });
     }
 
+    /**
+     * Teams, areas and clusters of the inactive idents are found through the membership index of the catalog snapshot
+     */
     void doProcessResourceEvents() {
         List<ResourceEvent> events = storage.getAll(ResourceEvent.class);
         // Expand/refactor if new event types
 
         var inactiveEvents = filter(events, e -> e.getEventType() == EventType.INACTIVE);
         var perResource = inactiveEvents.stream().collect(toMap(ResourceEvent::getIdent, Function.identity(), DomainObject::max));
+        var snapshot = catalog.get();
 
-        convert(activeTeams(), t -> checkGoneInactive(t, perResource))
+        convert(memberOf(snapshot, perResource.keySet(), Membership::teams, t -> t.getStatus() == ACTIVE), t -> checkGoneInactive(t, perResource))
                 .forEach(ina -> storage.save(new GenericNotificationTask(InactiveMembers.team(ina.membered().getId(), ina.idents()))));
-        convert(activeAreas(), t -> checkGoneInactive(t, perResource))
+        convert(memberOf(snapshot, perResource.keySet(), Membership::productAreas, pa -> pa.getStatus() == ACTIVE), t -> checkGoneInactive(t, perResource))
                 .forEach(ina -> storage.save(new GenericNotificationTask(InactiveMembers.productArea(ina.membered().getId(), ina.idents()))));
-        convert(activeClusters(), t -> checkGoneInactive(t, perResource))
+        convert(memberOf(snapshot, perResource.keySet(), Membership::clusters, c -> c.getStatus() == ACTIVE), t -> checkGoneInactive(t, perResource))
                 .forEach(ina -> storage.save(new GenericNotificationTask(InactiveMembers.cluster(ina.membered().getId(), ina.idents()))));
         storage.deleteAll(inactiveEvents);
     }
 
+    private static <T extends Membered> Collection<T> memberOf(CatalogSnapshot snapshot, Collection<String> idents, Function<Membership, List<T>> memberships,
+            Predicate<T> filter) {
+        var byId = new LinkedHashMap<UUID, T>();
+        idents.forEach(ident -> memberships.apply(snapshot.findMemberships(ident)).stream()
+                .filter(filter)
+                .forEach(m -> byId.putIfAbsent(m.getId(), m)));
+        return byId.values();
+    }
+
     private Ina checkGoneInactive(Membered membered, Map<String, ResourceEvent> events) {
         var newInactiveIdents = membered.getMembers().stream()
                 .map(Member::getNavIdent)
@@ -124,29 +136,5 @@ public class ResourceEventScheduler {
         return ina;
     }
 
-    private List<Team> allTeams() {
-        return storage.getAll(Team.class);
-    }
-
-    private List<Team> activeTeams() {
-        return filter( allTeams(), t -> t.getStatus() == ACTIVE );
-    }
-
-    private List<Cluster> allClusters() {
-        return storage.getAll(Cluster.class);
-    }
-
-    private List<Cluster> activeClusters() {
-        return filter( allClusters(),  c -> c.getStatus() == ACTIVE );
-    }
-
-    private List<ProductArea> allAreas() {
-        return storage.getAll(ProductArea.class);
-    }
-
-    private List<ProductArea> activeAreas() {
-        return filter( allAreas(), pa -> pa.getStatus() == ACTIVE );
-    }
-
     private record Ina(Membered membered, List<String> idents) {    }
 }
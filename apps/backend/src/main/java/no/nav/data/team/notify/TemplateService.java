@@ -1,25 +1,53 @@
 package no.nav.data.team.notify;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.Getter;
 import no.nav.data.common.template.FreemarkerConfig.FreemarkerService;
+import no.nav.data.common.utils.JsonUtils;
+import no.nav.data.common.utils.MetricUtils;
+import no.nav.data.team.notify.dto.MailModels.MailModel;
 import no.nav.data.team.notify.dto.MailModels.UpdateModel;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.List;
+
 @Service
 public class TemplateService {
 
     private final FreemarkerService freemarkerService;
+    /**
+     * Recipients of the same changes in a notification run get equal models, rendered once.
+     * Keyed by the serialized model, as the model itself is mutable
+     */
+    private final Cache<String, String> teamUpdateCache = MetricUtils.register("teamUpdateCache",
+            Caffeine.newBuilder()
+                    .expireAfterWrite(Duration.ofMinutes(10))
+                    .maximumSize(200)
+                    .recordStats().build());
 
     public TemplateService(FreemarkerService freemarkerService) {
         this.freemarkerService = freemarkerService;
     }
 
+    /**
+     * @return the body of a team update, to be put in a document with {@link #mail(String, List)}
+     */
     public String teamUpdate(UpdateModel model) {
-        return freemarkerService.generate(model);
+        return teamUpdateCache.get(JsonUtils.toJson(model), k -> freemarkerService.generate(model));
+    }
+
+    /**
+     * @return html document with the bodies separated by a line
+     */
+    public String mail(String title, List<String> bodies) {
+        return freemarkerService.generate(new MailModel(title, bodies));
     }
 
     public enum MailTemplates {
-        TEAM_UPDATE("team-update.ftl");
+        TEAM_UPDATE("team-update.ftl"),
+        MAIL("mail.ftl");
 
         @Getter
         private final String templateName;
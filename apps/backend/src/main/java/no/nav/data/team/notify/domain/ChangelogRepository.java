@@ -0,0 +1,189 @@
+package no.nav.data.team.notify.domain;
+
+import io.micrometer.core.annotation.Timed;
+import no.nav.data.common.auditing.domain.Action;
+import no.nav.data.common.utils.JsonUtils;
+import no.nav.data.team.notify.dto.Changelog;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static no.nav.data.common.utils.MetricUtils.DB_QUERY_TIMED;
+import static no.nav.data.common.utils.MetricUtils.QUERY;
+
+/**
+ * Changes of teams and product areas per audit and target, stored in CHANGELOG_ENTRY as the changelog of that single audit.
+ * Entries are appended in audit order and never changed, so a range of the changelog is an indexed slice of entries.
+ */
+@Repository
+public class ChangelogRepository {
+
+    private final NamedParameterJdbcTemplate template;
+
+    public ChangelogRepository(NamedParameterJdbcTemplate template) {
+        this.template = template;
+    }
+
+    /**
+     * Audits of teams and product areas after the given time without entries, with the audit before each of them
+     */
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "ChangelogRepository.findAuditsWithoutEntries"}, percentiles = {.99, .75, .50})
+    public List<ChangelogAudit> findAuditsWithoutEntries(LocalDateTime after, int limit) {
+        return template.query("""
+                        select v.audit_id, v.time, v.action, v.table_name, v.table_id, v.product_area_id,
+                               p.audit_id as prev_audit_id, p.product_area_id as prev_product_area_id
+                          from audit_version v
+                          left join lateral (
+                            (select audit_id, time, product_area_id from audit_version
+                              where table_id = v.table_id and time < v.time
+                              order by time desc limit 1)
+                            union all
+                            (select audit_id, time, product_area_id from audit_version_archive
+                              where table_id = v.table_id and time < v.time
+                              order by time desc limit 1)
+                            order by time desc limit 1
+                          ) p on true
+                         where v.time > :after
+                           and v.table_name in ('Team', 'ProductArea')
+                           and not exists (select 1 from changelog_entry e where e.audit_id = v.audit_id)
+                         order by v.time
+                         limit :limit
+                        """,
+                new MapSqlParameterSource().addValue("after", after).addValue("limit", limit),
+                (rs, i) -> new ChangelogAudit(
+                        rs.getObject("audit_id", UUID.class),
+                        rs.getTimestamp("time").toLocalDateTime(),
+                        Action.valueOf(rs.getString("action")),
+                        rs.getString("table_name"),
+                        UUID.fromString(rs.getString("table_id")),
+                        uuid(rs, "product_area_id"),
+                        rs.getObject("prev_audit_id", UUID.class),
+                        uuid(rs, "prev_product_area_id")
+                ));
+    }
+
+    /**
+     * Entries that already exist are left as they are, so audits may be appended more than once
+     */
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "ChangelogRepository.append"}, percentiles = {.99, .75, .50})
+    public void append(List<ChangelogEntry> entries) {
+        template.batchUpdate("""
+                        insert into changelog_entry (audit_id, target_id, time, product_area_id, prev_product_area_id, data)
+                        values (:auditId, :targetId, :time, :productAreaId, :prevProductAreaId, cast(:data as jsonb))
+                        on conflict do nothing
+                        """,
+                entries.stream().map(e -> new MapSqlParameterSource()
+                        .addValue("auditId", e.auditId())
+                        .addValue("targetId", e.targetId().toString())
+                        .addValue("time", Timestamp.valueOf(e.time()))
+                        .addValue("productAreaId", e.productAreaId() == null ? null : e.productAreaId().toString())
+                        .addValue("prevProductAreaId", e.prevProductAreaId() == null ? null : e.prevProductAreaId().toString())
+                        .addValue("data", e.changelog() == null ? null : JsonUtils.toJson(e.changelog()))
+                ).toArray(SqlParameterSource[]::new));
+    }
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "ChangelogRepository.getCoverage"}, percentiles = {.99, .75, .50})
+    public Coverage getCoverage() {
+        return template.queryForObject("select min(time) as first, max(time) as last from changelog_entry", new MapSqlParameterSource(),
+                (rs, i) -> new Coverage(localDateTime(rs, "first"), localDateTime(rs, "last")));
+    }
+
+    /**
+     * @return time before which all audits have entries, null if the feed has not run
+     */
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "ChangelogRepository.getWatermark"}, percentiles = {.99, .75, .50})
+    public LocalDateTime getWatermark() {
+        return template.query("select watermark from changelog_feed where id = 1", new MapSqlParameterSource(),
+                rs -> rs.next() ? localDateTime(rs, "watermark") : null);
+    }
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "ChangelogRepository.setWatermark"}, percentiles = {.99, .75, .50})
+    public void setWatermark(LocalDateTime watermark) {
+        template.update("insert into changelog_feed (id, watermark) values (1, :watermark) on conflict (id) do update set watermark = excluded.watermark",
+                new MapSqlParameterSource().addValue("watermark", Timestamp.valueOf(watermark)));
+    }
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "ChangelogRepository.findAll"}, percentiles = {.99, .75, .50})
+    public List<Changelog> findAll(LocalDateTime start, LocalDateTime end) {
+        return template.query("""
+                        select data from changelog_entry
+                         where time between :start and :end
+                           and data is not null
+                         order by time
+                        """,
+                new MapSqlParameterSource().addValue("start", start).addValue("end", end),
+                (rs, i) -> JsonUtils.toObject(rs.getString("data"), Changelog.class));
+    }
+
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "ChangelogRepository.findByTarget"}, percentiles = {.99, .75, .50})
+    public List<Changelog> findByTarget(UUID targetId, LocalDateTime start, LocalDateTime end) {
+        return template.query("""
+                        select data from changelog_entry
+                         where target_id = :targetId
+                           and time between :start and :end
+                           and data is not null
+                         order by time
+                        """,
+                new MapSqlParameterSource().addValue("targetId", targetId.toString()).addValue("start", start).addValue("end", end),
+                (rs, i) -> JsonUtils.toObject(rs.getString("data"), Changelog.class));
+    }
+
+    /**
+     * Entries of the product area and of teams that were in it during the period
+     */
+    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "ChangelogRepository.findByProductArea"}, percentiles = {.99, .75, .50})
+    public List<Changelog> findByProductArea(UUID productAreaId, LocalDateTime start, LocalDateTime end) {
+        return template.query("""
+                        select data from changelog_entry
+                         where time between :start and :end
+                           and data is not null
+                           and (target_id = :productAreaId
+                                or target_id in (select target_id from changelog_entry
+                                                  where time between :start and :end
+                                                    and (product_area_id = :productAreaId or prev_product_area_id = :productAreaId)))
+                         order by time
+                        """,
+                new MapSqlParameterSource().addValue("productAreaId", productAreaId.toString()).addValue("start", start).addValue("end", end),
+                (rs, i) -> JsonUtils.toObject(rs.getString("data"), Changelog.class));
+    }
+
+    private static UUID uuid(ResultSet rs, String column) throws SQLException {
+        var value = rs.getString(column);
+        return value == null ? null : UUID.fromString(value);
+    }
+
+    private static LocalDateTime localDateTime(ResultSet rs, String column) throws SQLException {
+        var value = rs.getTimestamp(column);
+        return value == null ? null : value.toLocalDateTime();
+    }
+
+    /**
+     * An audit of a team or product area, with the audit before it of the same object
+     */
+    public record ChangelogAudit(UUID id, LocalDateTime time, Action action, String tableName, UUID tableId, UUID productAreaId,
+                                 UUID prevAuditId, UUID prevProductAreaId) {
+
+    }
+
+    /**
+     * @param changelog changes of the target in the audit, null if nothing shown in the changelog changed
+     */
+    public record ChangelogEntry(UUID auditId, UUID targetId, LocalDateTime time, UUID productAreaId, UUID prevProductAreaId, Changelog changelog) {
+
+    }
+
+    /**
+     * Times of the first and last entries, null if there are none
+     */
+    public record Coverage(LocalDateTime first, LocalDateTime last) {
+
+    }
+}
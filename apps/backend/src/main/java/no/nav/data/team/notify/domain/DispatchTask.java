@@ -0,0 +1,48 @@
+package no.nav.data.team.notify.domain;
+
+import no.nav.data.common.storage.domain.DomainObject;
+import no.nav.data.team.notify.domain.Notification.NotificationChannel;
+
+import java.time.LocalDateTime;
+
+/**
+ * Something sent by NotificationDispatcher, stored until it has been sent, with its failed attempts
+ */
+public interface DispatchTask extends DomainObject {
+
+    NotificationChannel getChannel();
+
+    int getAttempts();
+
+    void setAttempts(int attempts);
+
+    LocalDateTime getNextAttempt();
+
+    void setNextAttempt(LocalDateTime nextAttempt);
+
+    void setLastError(String lastError);
+
+    /**
+     * Tasks that can't be sent are kept for inspection, but not retried
+     */
+    boolean isDeadLetter();
+
+    void setDeadLetter(boolean deadLetter);
+
+    default boolean isDue(LocalDateTime time) {
+        return !isDeadLetter() && (getNextAttempt() == null || !getNextAttempt().isAfter(time));
+    }
+
+    default void failed(String error, LocalDateTime nextAttempt) {
+        setAttempts(getAttempts() + 1);
+        setLastError(error);
+        setNextAttempt(nextAttempt);
+    }
+
+    default void deadLetter(String error) {
+        setAttempts(getAttempts() + 1);
+        setLastError(error);
+        setNextAttempt(null);
+        setDeadLetter(true);
+    }
+}
@@ -0,0 +1,62 @@
+package no.nav.data.team.notify.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import no.nav.data.common.storage.domain.ChangeStamp;
+import no.nav.data.team.notify.domain.Notification.NotificationChannel;
+import no.nav.data.team.notify.domain.PendingMessage.Recipient;
+import no.nav.data.team.notify.domain.PendingMessage.RecipientType;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Messages to one recipient, sent together once the digest window has passed
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MessageDigest implements DispatchTask {
+
+    private UUID id;
+    private ChangeStamp changeStamp;
+
+    private RecipientType recipientType;
+    private String address;
+    /**
+     * Oldest first
+     */
+    private List<PendingMessage> messages;
+
+    private int attempts;
+    private LocalDateTime nextAttempt;
+    private String lastError;
+    private boolean deadLetter;
+
+    public static MessageDigest create(Recipient recipient, List<PendingMessage> messages) {
+        return MessageDigest.builder()
+                .recipientType(recipient.type())
+                .address(recipient.address())
+                .messages(messages.stream().sorted(Comparator.comparing(PendingMessage::getQueued)).toList())
+                .build();
+    }
+
+    public Recipient recipient() {
+        return new Recipient(recipientType, address);
+    }
+
+    /**
+     * Slack users that can't be found are sent an email, which goes through the mail queue
+     */
+    @Override
+    @JsonIgnore
+    public NotificationChannel getChannel() {
+        return recipientType == RecipientType.EMAIL ? NotificationChannel.EMAIL : NotificationChannel.SLACK;
+    }
+}
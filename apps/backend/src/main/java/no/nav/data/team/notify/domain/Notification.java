@@ -10,6 +10,7 @@ import no.nav.data.common.storage.domain.DomainObject;
 import no.nav.data.team.notify.dto.NotificationDto;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Data
@@ -84,4 +85,8 @@ public class Notification implements DomainObject {
     public boolean isDependentOn(UUID id) {
         return dependentTargets != null && dependentTargets.contains(id);
     }
+
+    public boolean isDependentOnAny(Set<UUID> ids) {
+        return dependentTargets != null && dependentTargets.stream().anyMatch(ids::contains);
+    }
 }
@@ -8,6 +8,7 @@ import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,6 +20,24 @@ public interface NotificationRepository extends CrudRepository<GenericStorage, U
     @Query(value = "select * from generic_storage where data ->> 'time' = :#{#time.name()} and type = 'Notification'", nativeQuery = true)
     List<GenericStorage> findByTime(@Param("time") NotificationTime time);
 
+    /**
+     * Dispatch tasks of the type that are not in dead letter and not waiting for a retry
+     */
+    @Query(value = "select * from generic_storage where type = ?1 and cast(data ->> 'deadLetter' as boolean) is not true "
+            + "and (data ->> 'nextAttempt' is null or cast(data ->> 'nextAttempt' as timestamp) <= ?2)", nativeQuery = true)
+    List<GenericStorage> findDue(String type, LocalDateTime time);
+
+    @Query(value = "select * from generic_storage where type = ?1 and cast(data ->> 'deadLetter' as boolean) = true and last_modified_date < ?2", nativeQuery = true)
+    List<GenericStorage> findDeadLetterBefore(String type, LocalDateTime time);
+
+    /**
+     * Pending messages of the recipients whose oldest message was queued before the given time
+     */
+    @Query(value = "select * from generic_storage where type = 'PendingMessage' and (data ->> 'recipientType', data ->> 'address') in ("
+            + "select data ->> 'recipientType', data ->> 'address' from generic_storage where type = 'PendingMessage' "
+            + "group by data ->> 'recipientType', data ->> 'address' having min(cast(data ->> 'queued' as timestamp)) <= ?1)", nativeQuery = true)
+    List<GenericStorage> findPendingMessagesQueuedBefore(LocalDateTime time);
+
     @Transactional
     @Modifying
     @Query(value = "update generic_storage set data = jsonb_set(data, '{lastNudge}', to_jsonb(?2)) where id = ?1", nativeQuery = true)
@@ -7,10 +7,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import no.nav.data.common.auditing.domain.AuditVersion;
 import no.nav.data.common.storage.domain.ChangeStamp;
-import no.nav.data.common.storage.domain.DomainObject;
 import no.nav.data.team.notify.domain.Notification.NotificationChannel;
 import no.nav.data.team.notify.domain.Notification.NotificationTime;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,7 +18,7 @@ import java.util.UUID;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-public class NotificationTask implements DomainObject {
+public class NotificationTask implements DispatchTask {
 
     private UUID id;
     private ChangeStamp changeStamp;
@@ -28,6 +28,14 @@ public class NotificationTask implements DomainObject {
     private NotificationChannel channel;
     private List<AuditTarget> targets;
 
+    /**
+     * Failed attempts at sending the task
+     */
+    private int attempts;
+    private LocalDateTime nextAttempt;
+    private String lastError;
+    private boolean deadLetter;
+
     @Data
     @Builder
     @AllArgsConstructor
@@ -0,0 +1,73 @@
+package no.nav.data.team.notify.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import no.nav.data.common.storage.domain.ChangeStamp;
+import no.nav.data.common.storage.domain.DomainObject;
+import no.nav.data.team.integration.slack.dto.SlackDtos.PostMessageRequest.Block;
+import no.nav.data.team.integration.slack.dto.SlackDtos.PostMessageRequest.Block.BlockType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static no.nav.data.common.utils.StreamUtils.convert;
+
+/**
+ * A message waiting to be sent in a digest with other messages to the same recipient
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PendingMessage implements DomainObject {
+
+    private UUID id;
+    private ChangeStamp changeStamp;
+
+    private RecipientType recipientType;
+    private String address;
+    private String subject;
+    private String html;
+    private List<SlackBlock> slack;
+    private LocalDateTime queued;
+
+    public enum RecipientType {
+        EMAIL,
+        SLACK_CHANNEL,
+        SLACK_USER_ID,
+        /**
+         * Slack user found by email when the digest is sent, falls back to email
+         */
+        SLACK_USER_EMAIL
+    }
+
+    public record Recipient(RecipientType type, String address) {
+
+    }
+
+    public Recipient recipient() {
+        return new Recipient(recipientType, address);
+    }
+
+    public List<Block> slackBlocks() {
+        return convert(slack, SlackBlock::toBlock);
+    }
+
+    public static List<SlackBlock> toSlackBlocks(List<Block> blocks) {
+        return convert(blocks, b -> new SlackBlock(b.getType(), b.getText() == null ? null : b.getText().getText()));
+    }
+
+    public record SlackBlock(BlockType type, String text) {
+
+        Block toBlock() {
+            return switch (type) {
+                case header -> Block.header(text);
+                case section -> Block.text(text);
+                case divider -> Block.divider();
+            };
+        }
+    }
+}
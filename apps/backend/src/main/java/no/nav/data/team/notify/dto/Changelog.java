@@ -3,6 +3,8 @@ package no.nav.data.team.notify.dto;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Builder.Default;
@@ -12,10 +14,15 @@ import no.nav.data.team.notify.dto.MailModels.TypedItem;
 import no.nav.data.team.notify.dto.MailModels.UpdateModel;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 
 import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
 import static no.nav.data.common.utils.StreamUtils.convert;
+import static no.nav.data.common.utils.StreamUtils.filter;
 
 @Data
 public class Changelog {
@@ -61,6 +68,15 @@ public class Changelog {
         List<Resource> removedMembers = new ArrayList<>();
         @Default
         List<Resource> addedMembers = new ArrayList<>();
+
+        @Override
+        public boolean hasChanged() {
+            return !Objects.equals(oldName, newName)
+                    || !Objects.equals(oldOwnershipType, newOwnershipType)
+                    || !Objects.equals(oldTeamType, newTeamType)
+                    || oldArea != null || newArea != null
+                    || !removedMembers.isEmpty() || !addedMembers.isEmpty();
+        }
     }
 
     @Data
@@ -84,6 +100,14 @@ public class Changelog {
         List<Item> removedTeams = new ArrayList<>();
         @Default
         List<Item> addedTeams = new ArrayList<>();
+
+        @Override
+        public boolean hasChanged() {
+            return !Objects.equals(oldName, newName)
+                    || !Objects.equals(oldAreaType, newAreaType)
+                    || !removedMembers.isEmpty() || !addedMembers.isEmpty()
+                    || !removedTeams.isEmpty() || !addedTeams.isEmpty();
+        }
     }
 
     @JsonAutoDetect(fieldVisibility = Visibility.ANY)
@@ -101,6 +125,109 @@ public class Changelog {
         return cl;
     }
 
+    /**
+     * Changes of each target on their own, by target id in the order they appear
+     */
+    public Map<String, Changelog> byTarget() {
+        var targets = new LinkedHashMap<String, Changelog>();
+        created.forEach(item -> targets.computeIfAbsent(item.getId(), id -> new Changelog()).getCreated().add(item));
+        deleted.forEach(item -> targets.computeIfAbsent(item.getId(), id -> new Changelog()).getDeleted().add(item));
+        updated.forEach(item -> targets.computeIfAbsent(item.getTarget().getId(), id -> new Changelog()).getUpdated().add(item));
+        return targets;
+    }
+
+    public boolean isEmpty() {
+        return created.isEmpty() && deleted.isEmpty() && updated.isEmpty();
+    }
+
+    /**
+     * Net changes of changelogs following each other in time, as one changelog for the whole period.
+     * Targets created and deleted in the period are left out, and the updates of a target are combined into one.
+     */
+    public static Changelog merge(List<Changelog> changelogs) {
+        var stepsByTarget = new LinkedHashMap<String, List<Changelog>>();
+        changelogs.forEach(cl -> cl.byTarget().forEach((id, step) -> stepsByTarget.computeIfAbsent(id, k -> new ArrayList<>()).add(step)));
+
+        var merged = new Changelog();
+        stepsByTarget.values().forEach(steps -> {
+            var first = steps.get(0);
+            var last = steps.get(steps.size() - 1);
+            boolean created = !first.getCreated().isEmpty();
+            boolean deleted = !last.getDeleted().isEmpty();
+            if (created && deleted) {
+                return;
+            }
+            if (created) {
+                // named as it is at the end of the period
+                merged.getCreated().add(last.getCreated().isEmpty() ? last.getUpdated().get(0).getTarget() : last.getCreated().get(0));
+            } else if (deleted) {
+                merged.getDeleted().add(last.getDeleted().get(0));
+            } else {
+                var updates = steps.stream().flatMap(s -> s.getUpdated().stream()).toList();
+                var update = updates.get(0) instanceof UpdateTeam ? mergeTeam(convert(updates, UpdateTeam.class::cast)) : mergeArea(convert(updates, UpdateArea.class::cast));
+                if (update.hasChanged()) {
+                    merged.getUpdated().add(update);
+                }
+            }
+        });
+        return merged;
+    }
+
+    private static UpdateTeam mergeTeam(List<UpdateTeam> updates) {
+        var first = updates.get(0);
+        var last = updates.get(updates.size() - 1);
+        var areaChanges = filter(updates, u -> u.getOldArea() != null || u.getNewArea() != null);
+        Item oldArea = areaChanges.isEmpty() ? null : areaChanges.get(0).getOldArea();
+        Item newArea = areaChanges.isEmpty() ? null : areaChanges.get(areaChanges.size() - 1).getNewArea();
+        if (Objects.equals(itemId(oldArea), itemId(newArea))) {
+            oldArea = null;
+            newArea = null;
+        }
+        var members = new NetChanges<>(Resource::ident);
+        updates.forEach(u -> members.apply(u.getRemovedMembers(), u.getAddedMembers()));
+
+        return UpdateTeam.builder()
+                .target(last.getTarget())
+                .oldName(first.getOldName())
+                .newName(last.getNewName())
+                .oldOwnershipType(first.getOldOwnershipType())
+                .newOwnershipType(last.getNewOwnershipType())
+                .oldTeamType(first.getOldTeamType())
+                .newTeamType(last.getNewTeamType())
+                .oldArea(oldArea)
+                .newArea(newArea)
+                .removedMembers(members.removed())
+                .addedMembers(members.added())
+                .build();
+    }
+
+    private static UpdateArea mergeArea(List<UpdateArea> updates) {
+        var first = updates.get(0);
+        var last = updates.get(updates.size() - 1);
+        var members = new NetChanges<>(Resource::ident);
+        var teams = new NetChanges<>(Item::getId);
+        updates.forEach(u -> {
+            members.apply(u.getRemovedMembers(), u.getAddedMembers());
+            teams.apply(u.getRemovedTeams(), u.getAddedTeams());
+        });
+
+        return UpdateArea.builder()
+                .target(last.getTarget())
+                .oldName(first.getOldName())
+                .newName(last.getNewName())
+                .oldAreaType(first.getOldAreaType())
+                .newAreaType(last.getNewAreaType())
+                .removedMembers(members.removed())
+                .addedMembers(members.added())
+                .removedTeams(teams.removed())
+                .addedTeams(teams.added())
+                .build();
+    }
+
+    private static String itemId(Item item) {
+        return item == null ? null : item.getId();
+    }
+
     private static Changeable convertUpdateItem(MailModels.UpdateItem item) {
         Item target = convertItemNoDel(item.getItem());
         return switch (target.getType()) {
@@ -157,7 +284,48 @@ public class Changelog {
         AREA;
     }
 
+    @JsonTypeInfo(use = JsonTypeInfo.Id.DEDUCTION)
+    @JsonSubTypes({@JsonSubTypes.Type(UpdateTeam.class), @JsonSubTypes.Type(UpdateArea.class)})
     interface Changeable {
 
+        Item getTarget();
+
+        boolean hasChanged();
+
+    }
+
+    /**
+     * Items removed and added over a series of changes, an item removed and added back again is left out
+     */
+    private static class NetChanges<T> {
+
+        private final Function<T, String> key;
+        private final Map<String, T> removed = new LinkedHashMap<>();
+        private final Map<String, T> added = new LinkedHashMap<>();
+
+        NetChanges(Function<T, String> key) {
+            this.key = key;
+        }
+
+        void apply(List<T> removedItems, List<T> addedItems) {
+            removedItems.forEach(item -> {
+                if (added.remove(key.apply(item)) == null) {
+                    removed.put(key.apply(item), item);
+                }
+            });
+            addedItems.forEach(item -> {
+                if (removed.remove(key.apply(item)) == null) {
+                    added.put(key.apply(item), item);
+                }
+            });
+        }
+
+        List<T> removed() {
+            return new ArrayList<>(removed.values());
+        }
+
+        List<T> added() {
+            return new ArrayList<>(added.values());
+        }
     }
 }
\ No newline at end of file
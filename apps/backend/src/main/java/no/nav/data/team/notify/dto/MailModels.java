@@ -1,5 +1,6 @@
 package no.nav.data.team.notify.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Builder.Default;
@@ -16,6 +17,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
+import static no.nav.data.team.notify.TemplateService.MailTemplates.MAIL;
 import static no.nav.data.team.notify.TemplateService.MailTemplates.TEAM_UPDATE;
 
 @UtilityClass
@@ -39,6 +41,15 @@ public class MailModels {
         private final MailTemplates template = TEAM_UPDATE;
     }
 
+    @Data
+    public static class MailModel implements Model {
+
+        private final String title;
+        private final List<String> parts;
+
+        private final MailTemplates template = MAIL;
+    }
+
     @Value
     @AllArgsConstructor
     public static class Resource {
@@ -110,18 +121,22 @@ public class MailModels {
         @Default
         List<TypedItem> newTeams = new ArrayList<>();
 
+        @JsonIgnore
         public String getFromProductArea() {
             return oldProductArea.getName();
         }
 
+        @JsonIgnore
         public String getFromProductAreaUrl() {
             return oldProductArea.getUrl();
         }
 
+        @JsonIgnore
         public String getToProductArea() {
             return newProductArea.getName();
         }
 
+        @JsonIgnore
         public String getToProductAreaUrl() {
             return newProductArea.getUrl();
         }
@@ -1,20 +1,32 @@
 package no.nav.data.team.po;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import no.nav.data.common.TeamCatalogProps;
 import no.nav.data.common.exceptions.ValidationException;
+import no.nav.data.common.rest.CursorParameters;
+import no.nav.data.common.rest.FieldSelection;
+import no.nav.data.common.rest.RestResponseCursorPage;
 import no.nav.data.common.rest.RestResponsePage;
+import no.nav.data.common.rest.StreamingResponse;
 import no.nav.data.common.utils.StreamUtils;
+import no.nav.data.team.catalog.CatalogFilter;
 import no.nav.data.team.po.domain.ProductArea;
 import no.nav.data.team.po.dto.AddTeamsToProductAreaRequest;
 import no.nav.data.team.po.dto.ProductAreaRequest;
 import no.nav.data.team.po.dto.ProductAreaResponse;
+import no.nav.data.team.resource.domain.Resource;
 import no.nav.data.team.shared.domain.DomainObjectStatus;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,12 +36,16 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 
 import static no.nav.data.common.utils.StreamUtils.convert;
+import static no.nav.data.team.shared.domain.Membered.withResources;
 
 @Slf4j
 @RestController
@@ -49,26 +65,60 @@ public class ProductAreaController {
     @ApiResponse(description = "ok")
     @GetMapping
     public ResponseEntity<RestResponsePage<ProductAreaResponse>> getAll(
-            @RequestParam(name = "status", required = false, defaultValue = "ACTIVE,PLANNED,INACTIVE") String stringStatus
+            @RequestParam(name = "status", required = false, defaultValue = "ACTIVE,PLANNED,INACTIVE") String stringStatus,
+            @RequestParam(name = "asOf", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime asOf,
+            @RequestParam(name = FieldSelection.PARAM, required = false) String fields
     ) {
         log.info("Get all ProductAreas");
 
-        var po = service.getAll();
+        var po = service.getAll(asOf);
 
         var queryStatusList = DomainObjectStatus.fromQueryParameter(stringStatus);
 
         po = po.stream().filter(t -> queryStatusList.contains(t.getStatus())).toList();
+        var fieldSelection = FieldSelection.parse(fields);
 
 
-        return ResponseEntity.ok(new RestResponsePage<>(StreamUtils.convert(po, this::convertProductAreaToReponse)));
+        return ResponseEntity.ok(new RestResponsePage<>(StreamUtils.convert(po, withResources(po, fieldSelection, (pa, r) -> convertProductAreaToReponse(pa, r, fieldSelection)))));
+    }
+
+    @Operation(summary = "Get All ProductAreas as newline delimited json", description = "Request with Accept: application/x-ndjson")
+    @ApiResponse(description = "ok", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ProductAreaResponse.class)))
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAllStream(
+            @RequestParam(name = "status", required = false, defaultValue = "ACTIVE,PLANNED,INACTIVE") String stringStatus,
+            @RequestParam(name = "asOf", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime asOf,
+            @RequestParam(name = FieldSelection.PARAM, required = false) String fields
+    ) {
+        log.info("Get all ProductAreas as stream");
+        var queryStatusList = DomainObjectStatus.fromQueryParameter(stringStatus);
+        var po = service.getAll(asOf).stream().filter(t -> queryStatusList.contains(t.getStatus())).toList();
+        var fieldSelection = FieldSelection.parse(fields);
+        return StreamingResponse.ndjson(po.stream(), withResources(po, fieldSelection, (pa, r) -> convertProductAreaToReponse(pa, r, fieldSelection)), fieldSelection);
+    }
+
+    @Operation(summary = "Get page of ProductAreas", description = "Sorted by name, use nextCursor from the response to get the next page")
+    @ApiResponse(description = "ok")
+    @GetMapping("/page")
+    public ResponseEntity<RestResponseCursorPage<ProductAreaResponse>> getPage(
+            @ParameterObject CursorParameters paging,
+            @RequestParam(name = "status", required = false, defaultValue = "ACTIVE,PLANNED,INACTIVE") String stringStatus,
+            @RequestParam(name = FieldSelection.PARAM, required = false) String fields
+    ) {
+        log.info("Get page of ProductAreas");
+        var filter = CatalogFilter.builder().statuses(DomainObjectStatus.fromQueryParameter(stringStatus)).build();
+        var page = service.getPage(filter, paging);
+        var fieldSelection = FieldSelection.parse(fields);
+        return ResponseEntity.ok(page.convert(withResources(page.getContent(), fieldSelection, (pa, r) -> convertProductAreaToReponse(pa, r, fieldSelection))));
     }
 
     @Operation(summary = "Get ProductArea")
     @ApiResponse(description = "ok")
     @GetMapping("/{id}")
-    public ResponseEntity<ProductAreaResponse> getById(@PathVariable UUID id) {
+    public ResponseEntity<ProductAreaResponse> getById(@PathVariable UUID id,
+            @RequestParam(name = "asOf", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime asOf) {
         log.info("Get ProductArea id={}", id);
-        return ResponseEntity.ok(convertProductAreaToReponse(service.get(id)));
+        return ResponseEntity.ok(convertProductAreaToReponse(service.get(id, asOf)));
     }
 
     @Operation(summary = "Search ProductArea")
@@ -81,7 +131,7 @@ public class ProductAreaController {
         }
         var po = service.search(name);
         log.info("Returned {} po", po.size());
-        return new ResponseEntity<>(new RestResponsePage<>(convert(po,this::convertProductAreaToReponse)), HttpStatus.OK);
+        return new ResponseEntity<>(new RestResponsePage<>(convert(po, withResources(po, this::convertProductAreaToReponse))), HttpStatus.OK);
     }
 
     @Operation(summary = "Create ProductArea")
@@ -125,9 +175,21 @@ public class ProductAreaController {
 
     }
 
+    static class ProductAreaCursorPageResponse extends RestResponseCursorPage<ProductAreaResponse> {
+
+    }
+
 
     private ProductAreaResponse convertProductAreaToReponse(ProductArea pa){
         return pa.convertToResponse(teamCatalogProps.getDefaultProductareaUuid());
     }
 
+    private ProductAreaResponse convertProductAreaToReponse(ProductArea pa, Map<String, Resource> resources) {
+        return convertProductAreaToReponse(pa, resources, FieldSelection.ALL);
+    }
+
+    private ProductAreaResponse convertProductAreaToReponse(ProductArea pa, Map<String, Resource> resources, FieldSelection fields) {
+        return pa.convertToResponse(teamCatalogProps.getDefaultProductareaUuid(), resources, fields);
+    }
+
 }
@@ -15,10 +15,6 @@ import static no.nav.data.common.utils.MetricUtils.QUERY;
 
 public interface ProductAreaRepository extends JpaRepository<GenericStorage, UUID> {
 
-    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "ProductAreaRepository.findByNameLike"}, percentiles = {.99, .75, .50})
-    @Query(value = "select * from generic_storage where data ->> 'name' ilike %?1% and type = 'ProductArea'", nativeQuery = true)
-    List<GenericStorage> findByNameLike(String name);
-
     @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "ProductAreaRepository.findByName"}, percentiles = {.99, .75, .50})
     @Query(value = "select * from generic_storage where data ->> 'name' ilike ?1 and type = 'ProductArea'", nativeQuery = true)
     List<GenericStorage> findByName(String name);
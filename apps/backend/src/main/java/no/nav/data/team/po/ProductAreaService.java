@@ -1,10 +1,17 @@
 package no.nav.data.team.po;
 
 import lombok.extern.slf4j.Slf4j;
+import no.nav.data.common.exceptions.NotFoundException;
 import no.nav.data.common.exceptions.ValidationException;
+import no.nav.data.common.rest.CursorParameters;
+import no.nav.data.common.rest.RestResponseCursorPage;
 import no.nav.data.common.storage.StorageService;
 import no.nav.data.common.storage.domain.GenericStorage;
+import no.nav.data.common.storage.domain.TypeRegistration;
 import no.nav.data.common.validator.Validator;
+import no.nav.data.team.catalog.CatalogFilter;
+import no.nav.data.team.catalog.CatalogPageRepository;
+import no.nav.data.team.catalog.CatalogSnapshotService;
 import no.nav.data.team.cluster.ClusterRepository;
 import no.nav.data.team.po.domain.ProductArea;
 import no.nav.data.team.po.dto.AddTeamsToProductAreaRequest;
@@ -15,10 +22,10 @@ import no.nav.data.team.team.domain.Team;
 import no.nav.data.team.team.dto.TeamRequest.Fields;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
-import static no.nav.data.common.utils.StreamUtils.convert;
 import static no.nav.data.common.validator.Validator.*;
 
 @Slf4j
@@ -28,14 +35,16 @@ public class ProductAreaService {
     private final StorageService storage;
     private final TeamRepository teamRepository;
     private final ClusterRepository clusterRepository;
-    private final ProductAreaRepository repository;
+    private final CatalogSnapshotService catalog;
+    private final CatalogPageRepository pageRepository;
 
     public ProductAreaService(StorageService storage, TeamRepository teamRepository,
-            ClusterRepository clusterRepository, ProductAreaRepository repository) {
+            ClusterRepository clusterRepository, CatalogSnapshotService catalog, CatalogPageRepository pageRepository) {
         this.storage = storage;
         this.teamRepository = teamRepository;
         this.clusterRepository = clusterRepository;
-        this.repository = repository;
+        this.catalog = catalog;
+        this.pageRepository = pageRepository;
     }
 
     public ProductArea save(ProductAreaRequest request) {
@@ -43,7 +52,7 @@ public class ProductAreaService {
                 .addValidations(this::validateName)
                 .addValidations(this::validateStatusNotNull)
                 .ifErrorsThrowValidationException();
-        var productArea = request.isUpdate() ? storage.get(request.getIdAsUUID(), ProductArea.class) : new ProductArea();
+        var productArea = request.isUpdate() ? storage.getForUpdate(request.getIdAsUUID(), ProductArea.class, request.getVersion()) : new ProductArea();
         return storage.save(productArea.convert(request));
     }
 
@@ -57,8 +66,19 @@ public class ProductAreaService {
         return storage.get(id, ProductArea.class);
     }
 
+    /**
+     * @param asOf point in time, null for the current product area
+     */
+    public ProductArea get(UUID id, LocalDateTime asOf) {
+        if (asOf == null) {
+            return get(id);
+        }
+        return catalog.get(asOf).findProductArea(id)
+                .orElseThrow(() -> new NotFoundException("Couldn't find " + TypeRegistration.typeOf(ProductArea.class) + " with id " + id + " at " + asOf));
+    }
+
     public List<ProductArea> search(String name) {
-        return convert(repository.findByNameLike(name), GenericStorage::toProductArea);
+        return catalog.get().searchProductAreas(name);
     }
 
     public ProductArea delete(UUID id) {
@@ -79,7 +99,15 @@ public class ProductAreaService {
     }
 
     public List<ProductArea> getAll() {
-        return storage.getAll(ProductArea.class);
+        return getAll(null);
+    }
+
+    public List<ProductArea> getAll(LocalDateTime asOf) {
+        return catalog.get(asOf).getProductAreas();
+    }
+
+    public RestResponseCursorPage<ProductArea> getPage(CatalogFilter filter, CursorParameters paging) {
+        return pageRepository.findPage(ProductArea.class, filter, paging.getCursor(), paging.validPageSize(), paging.isIncludeTotal());
     }
 
     public List<ProductArea> getAllActive() {
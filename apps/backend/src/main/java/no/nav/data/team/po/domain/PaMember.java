@@ -7,12 +7,12 @@ import lombok.NoArgsConstructor;
 import lombok.Singular;
 import no.nav.data.team.member.dto.MemberResponse;
 import no.nav.data.team.po.dto.PaMemberRequest;
-import no.nav.data.team.resource.NomClient;
-import no.nav.data.team.resource.dto.ResourceResponse;
+import no.nav.data.team.resource.domain.Resource;
 import no.nav.data.team.shared.domain.Member;
 import no.nav.data.team.team.domain.TeamRole;
 
 import java.util.List;
+import java.util.Map;
 
 import static no.nav.data.common.utils.StreamUtils.copyOf;
 
@@ -35,17 +35,12 @@ public class PaMember implements Member {
                 .build();
     }
 
-    public MemberResponse convertToResponse() {
-        var builder = MemberResponse.builder()
+    public MemberResponse convertToResponse(Map<String, Resource> resources) {
+        return MemberResponse.builder()
                 .navIdent(getNavIdent())
                 .roles(copyOf(getRoles()))
-                .description(getDescription());
-
-        NomClient.getInstance()
-                .getByNavIdent(getNavIdent())
-                .ifPresentOrElse(resource ->
-                                builder.resource(resource.convertToResponse())
-                        , () -> builder.resource(ResourceResponse.builder().navIdent(getNavIdent()).stale(true).build()));
-        return builder.build();
+                .description(getDescription())
+                .resource(Resource.convertToResponse(getNavIdent(), resources))
+                .build();
     }
 }
@@ -1,13 +1,18 @@
 package no.nav.data.team.po.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import lombok.Getter;
 import no.nav.data.team.po.dto.PaOwnerGroupRequest;
 import no.nav.data.team.po.dto.PaOwnerGroupResponse;
-import no.nav.data.team.resource.NomClient;
-import no.nav.data.team.resource.dto.ResourceResponse;
+import no.nav.data.team.resource.domain.Resource;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static no.nav.data.common.utils.StreamUtils.safeStream;
 
 @Getter
 @Builder
@@ -25,30 +30,21 @@ public class PaOwnerGroup {
         this.ownerGroupMemberNavIdList = ownerGroupMemberNavIdList;
     }
 
-    public PaOwnerGroupResponse convertToResponse() {
-        var builder = PaOwnerGroupResponse.builder();
-        var nomClient = NomClient.getInstance();
+    @JsonIgnore
+    public Stream<String> getResourceIdents() {
+        return Stream.concat(Stream.of(ownerNavId), safeStream(ownerGroupMemberNavIdList)).filter(Objects::nonNull);
+    }
 
+    public PaOwnerGroupResponse convertToResponse(Map<String, Resource> resources) {
+        var builder = PaOwnerGroupResponse.builder();
 
-        if(getOwnerNavId() !=null) {
-            var ownerResourceOptional = nomClient.getByNavIdent(getOwnerNavId());
-            if (ownerResourceOptional.isPresent()) {
-                builder.ownerResource(ownerResourceOptional.get().convertToResponse());
-            } else {
-                builder.ownerResource(ResourceResponse.builder().navIdent(getOwnerNavId()).stale(true).build());
-            }
+        if (getOwnerNavId() != null) {
+            builder.ownerResource(Resource.convertToResponse(getOwnerNavId(), resources));
         }
 
-        var ownerMemberResourceResponses = ownerGroupMemberNavIdList.stream().map(
-                memberNavId -> {
-                    var optionalRes = nomClient.getByNavIdent(memberNavId);
-                    if (optionalRes.isPresent()) {
-                        return optionalRes.get().convertToResponse();
-                    } else {
-                        return ResourceResponse.builder().navIdent(memberNavId).stale(true).build();
-                    }
-                }
-        ).toList();
+        var ownerMemberResourceResponses = ownerGroupMemberNavIdList.stream()
+                .map(memberNavId -> Resource.convertToResponse(memberNavId, resources))
+                .toList();
 
         builder.ownerGroupMemberResourceList(ownerMemberResourceResponses);
 
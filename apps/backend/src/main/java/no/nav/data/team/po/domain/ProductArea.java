@@ -1,14 +1,17 @@
 package no.nav.data.team.po.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import no.nav.data.common.rest.FieldSelection;
 import no.nav.data.common.storage.domain.ChangeStamp;
 import no.nav.data.common.storage.domain.DomainObject;
 import no.nav.data.common.utils.StreamUtils;
 import no.nav.data.team.po.dto.ProductAreaRequest;
 import no.nav.data.team.po.dto.ProductAreaResponse;
+import no.nav.data.team.resource.domain.Resource;
 import no.nav.data.team.shared.domain.HistorizedDomainObject;
 import no.nav.data.team.shared.domain.Membered;
 import no.nav.data.team.shared.dto.Links;
@@ -17,7 +20,9 @@ import no.nav.data.team.shared.domain.DomainObjectStatus;
 import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static no.nav.data.common.utils.StreamUtils.copyOf;
 
@@ -64,7 +69,24 @@ public class ProductArea implements DomainObject, Membered, HistorizedDomainObje
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public Stream<String> getResourceIdents() {
+        if (productAreaOwnerGroup == null) {
+            return Membered.super.getResourceIdents();
+        }
+        return Stream.concat(Membered.super.getResourceIdents(), productAreaOwnerGroup.getResourceIdents());
+    }
+
     public ProductAreaResponse convertToResponse(String defaultProductAreaId) {
+        return convertToResponse(defaultProductAreaId, Membered.resolveResources(List.of(this)));
+    }
+
+    public ProductAreaResponse convertToResponse(String defaultProductAreaId, Map<String, Resource> resources) {
+        return convertToResponse(defaultProductAreaId, resources, FieldSelection.ALL);
+    }
+
+    public ProductAreaResponse convertToResponse(String defaultProductAreaId, Map<String, Resource> resources, FieldSelection fields) {
         return ProductAreaResponse.builder()
                 .id(id)
                 .name(name)
@@ -72,10 +94,10 @@ public class ProductArea implements DomainObject, Membered, HistorizedDomainObje
                 .description(description)
                 .slackChannel(slackChannel)
                 .tags(copyOf(tags))
-                .members(StreamUtils.convert(members, PaMember::convertToResponse))
-                .changeStamp(convertChangeStampResponse())
-                .links(Links.getFor(this))
-                .paOwnerGroup(this.productAreaOwnerGroup != null ? this.productAreaOwnerGroup.convertToResponse() : null)
+                .members(fields.ifIncluded("members", () -> StreamUtils.convert(members, m -> m.convertToResponse(resources))))
+                .changeStamp(fields.ifIncluded("changeStamp", this::convertChangeStampResponse))
+                .links(fields.ifIncluded("links", () -> Links.getFor(this)))
+                .paOwnerGroup(this.productAreaOwnerGroup != null ? fields.ifIncluded("paOwnerGroup", () -> this.productAreaOwnerGroup.convertToResponse(resources)) : null)
                 .status(status)
                 .isDefaultArea(this.id.toString().equals(defaultProductAreaId))
                 .build();
@@ -35,6 +35,7 @@ public class ProductAreaRequest implements RequestElement {
 
     private DomainObjectStatus status;
 
+    private Long version;
     private Boolean update;
 
     @Override
@@ -1,11 +1,13 @@
 package no.nav.data.team.po.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import no.nav.data.common.rest.ChangeStampResponse;
+import no.nav.data.common.rest.FieldSelection;
 import no.nav.data.team.member.dto.MemberResponse;
 import no.nav.data.team.po.domain.AreaType;
 import no.nav.data.team.shared.dto.Links;
@@ -19,6 +21,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonPropertyOrder({"id", "name", "areaType", "description", "slackChannel", "tags", "members", "locations", "status", "changeStamp", "links", "paOwnerNavIdent", "paOwnerGroupNavIdentList","isDefaultArea"})
+@JsonFilter(FieldSelection.FILTER)
 public class ProductAreaResponse {
 
     private UUID id;
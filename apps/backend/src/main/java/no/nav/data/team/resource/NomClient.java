@@ -16,19 +16,12 @@ import no.nav.data.team.resource.domain.ResourceEvent.EventType;
 import no.nav.data.team.resource.domain.ResourceRepository;
 import no.nav.data.team.resource.domain.ResourceType;
 import no.nav.data.team.resource.dto.NomRessurs;
+import no.nav.data.team.search.SearchAnalyzers;
 import no.nav.data.team.settings.SettingsService;
 import no.nav.data.team.settings.dto.Settings;
 import org.apache.commons.codec.language.DoubleMetaphone;
 import org.apache.lucene.analysis.Analyzer;
-import org.apache.lucene.analysis.LowerCaseFilter;
-import org.apache.lucene.analysis.TokenStream;
-import org.apache.lucene.analysis.Tokenizer;
-import org.apache.lucene.analysis.core.WhitespaceTokenizer;
-import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
 import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
-import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
-import org.apache.lucene.analysis.phonetic.DoubleMetaphoneFilter;
-import org.apache.lucene.analysis.standard.StandardTokenizer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field.Store;
 import org.apache.lucene.document.TextField;
@@ -49,7 +42,10 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -103,6 +99,23 @@ NomClient {
                 .filter(r -> shouldReturn(r.getNavIdent()));
     }
 
+    /**
+     * Bulk variant of {@link #getByNavIdent(String)}, idents not found in memory are looked up in a single query
+     */
+    public Map<String, Resource> getByNavIdents(Collection<String> navIdents) {
+        var result = new HashMap<String, Resource>();
+        var misses = new ArrayList<String>();
+        navIdents.stream().filter(Objects::nonNull).distinct().forEach(ident -> ResourceState.get(ident).ifPresentOrElse(r -> result.put(ident, r), () -> misses.add(ident)));
+        if (!misses.isEmpty()) {
+            resourceRepository.findByIdents(misses).stream()
+                    .map(GenericStorage::toResource)
+                    .collect(groupingBy(Resource::getNavIdent, Collectors.maxBy(comparing(r -> r.getChangeStamp().getCreatedDate()))))
+                    .forEach((ident, r) -> r.ifPresent(resource -> result.put(ident, resource.stale())));
+        }
+        result.keySet().removeIf(ident -> !shouldReturn(ident));
+        return result;
+    }
+
     public Optional<Resource> getByEmail(String email) {
         return ResourceState.getByEmail(email)
                 .filter(r -> shouldReturn(r.getNavIdent()));
@@ -141,6 +154,13 @@ NomClient {
         }
     }
 
+    /**
+     * Reader of the people index, for searching people together with other indexes. Closed by the caller.
+     */
+    public IndexReader openSearchReader() {
+        return ResourceState.createReader();
+    }
+
     @NotNull
 
     // navIds associated with memberships should be valued higher
@@ -226,14 +246,18 @@ NomClient {
     }
 
 
+    /**
+     * Resources with the given end date, from an index of resources by end date kept up to date as resources are added
+     */
+    public List<Resource> findByEndDate(LocalDate endDate) {
+        loadState();
+        return ResourceState.findByEndDate(endDate).stream()
+                .filter(r -> shouldReturn(r.getNavIdent()))
+                .toList();
+    }
+
     public List<Resource> add(List<NomRessurs> nomResources) {
-        if (count() == 0) { // State er tom == Startup => re-laste ResourceState fra basen
-            storage.getAll(Resource.class).forEach( r -> {
-                    if (r.getNavIdent().equals("M166609")) log.debug("Adding M166609 to repo");
-                    ResourceState.put(r);
-                }
-            );
-        }
+        loadState();
         try {
             var toSave = new ArrayList<Resource>();
             try (var writer = ResourceState.createWriter()) {
@@ -278,6 +302,12 @@ NomClient {
         }
     }
 
+    private void loadState() {
+        if (count() == 0) { // State er tom == Startup => re-laste ResourceState fra basen
+            storage.getAll(Resource.class).forEach(ResourceState::put);
+        }
+    }
+
     private ResourceStatus shouldSave(Map<String, Resource> existing, Resource resource) {
         var newest = existing.get(resource.getNavIdent());
         boolean shouldSave = newest == null || newest.getOffset() < resource.getOffset();
@@ -362,21 +392,27 @@ NomClient {
 
     private static class ResourceState {
 
+        // searched together with CatalogSearchIndex, which uses the same field names
         static final String FIELD_IDENT = "ident";
         static final String FIELD_NAME_VERBATIM = "name_verbatim";
         static final String FIELD_NAME_NGRAMS = "name_ngrams";
         static final String FIELD_NAME_PHONETIC = "name_phonetic";
 
-        private static final Map<String, Resource> allResources = new HashMap<>(1 << 15);
-        private static final Map<String, Resource> allResourcesByMail = new HashMap<>(1 << 15);
+        // written by the kafka consumer while read by requests and schedulers
+        private static final Map<String, Resource> allResources = new ConcurrentHashMap<>(1 << 15);
+        private static final Map<String, Resource> allResourcesByMail = new ConcurrentHashMap<>(1 << 15);
+        /**
+         * Sets are replaced rather than modified, so a remapping function that is retried or runs concurrently never loses an ident
+         */
+        private static final NavigableMap<LocalDate, Set<String>> identsByEndDate = new ConcurrentSkipListMap<>();
         private static Directory index = new ByteBuffersDirectory();
         private static final PerFieldAnalyzerWrapper analyzer;
 
         static {
             var analyzerPerField = new HashMap<String, Analyzer>();
-            analyzerPerField.put(FIELD_NAME_NGRAMS, createNGramAnalyzer());
-            analyzerPerField.put(FIELD_NAME_PHONETIC, createMetaphoneAnalyzer());
-            analyzer = new PerFieldAnalyzerWrapper(createSimpleIgnoreCaseAnalyzer(), analyzerPerField);
+            analyzerPerField.put(FIELD_NAME_NGRAMS, SearchAnalyzers.ngram());
+            analyzerPerField.put(FIELD_NAME_PHONETIC, SearchAnalyzers.phonetic());
+            analyzer = new PerFieldAnalyzerWrapper(SearchAnalyzers.verbatim(), analyzerPerField);
         }
 
         static Optional<Resource> get(String ident) {
@@ -384,7 +420,11 @@ NomClient {
         }
 
         static List<Resource> findAll(List<String> idents) {
-            return allResources.values().stream().filter(r -> idents.contains(r.getNavIdent())).toList();
+            return idents.stream().map(String::toUpperCase).distinct().map(ResourceState::get).flatMap(Optional::stream).toList();
+        }
+
+        static List<Resource> findByEndDate(LocalDate endDate) {
+            return identsByEndDate.getOrDefault(endDate, Set.of()).stream().map(ResourceState::get).flatMap(Optional::stream).toList();
         }
 
         static Optional<Resource> getByEmail(String email) {
@@ -392,7 +432,25 @@ NomClient {
         }
 
         static void put(Resource resource) {
-            allResources.put(resource.getNavIdent().toUpperCase(), resource);
+            var ident = resource.getNavIdent().toUpperCase();
+            var previous = allResources.put(ident, resource);
+            var previousEndDate = previous == null ? null : previous.getEndDate();
+            if (!Objects.equals(previousEndDate, resource.getEndDate())) {
+                if (previousEndDate != null) {
+                    identsByEndDate.computeIfPresent(previousEndDate, (date, idents) -> {
+                        var remaining = new HashSet<>(idents);
+                        remaining.remove(ident);
+                        return remaining.isEmpty() ? null : Set.copyOf(remaining);
+                    });
+                }
+                if (resource.getEndDate() != null) {
+                    identsByEndDate.compute(resource.getEndDate(), (date, idents) -> {
+                        var added = idents == null ? new HashSet<String>() : new HashSet<>(idents);
+                        added.add(ident);
+                        return Set.copyOf(added);
+                    });
+                }
+            }
             if (resource.getEmail() != null) {
                 allResourcesByMail.put(resource.getEmail().toLowerCase(), resource);
             }
@@ -406,6 +464,7 @@ NomClient {
             index = new ByteBuffersDirectory();
             allResources.clear();
             allResourcesByMail.clear();
+            identsByEndDate.clear();
         }
 
         @SneakyThrows
@@ -422,44 +481,5 @@ NomClient {
         static Analyzer getAnalyzer() {
             return analyzer;
         }
-
-        @SneakyThrows
-        private static Analyzer createNGramAnalyzer(){
-            return new Analyzer() {
-                @Override
-                protected TokenStreamComponents createComponents(String fieldName) {
-                    Tokenizer source = new StandardTokenizer();
-                    TokenStream result = new LowerCaseFilter(source);
-                    result = new EdgeNGramTokenFilter(result ,3,40,false);
-                    return new TokenStreamComponents(source, result);
-                }
-            };
-        }
-
-        @SneakyThrows
-        private static Analyzer createMetaphoneAnalyzer(){
-            return new Analyzer() {
-                @Override
-                protected TokenStreamComponents createComponents(String fieldName) {
-                    Tokenizer source = new StandardTokenizer();
-                    TokenStream result = new LowerCaseFilter(source);
-                    result = new DoubleMetaphoneFilter(result ,10,false);
-                    return new TokenStreamComponents(source, result);
-                }
-            };
-        }
-
-        @SneakyThrows
-        private static Analyzer createSimpleIgnoreCaseAnalyzer(){
-            return new Analyzer() {
-                @Override
-                protected TokenStreamComponents createComponents(String fieldName) {
-                    Tokenizer source = new WhitespaceTokenizer();
-                    TokenStream result = new LowerCaseFilter(source);
-                    result = new ASCIIFoldingFilter(result);
-                    return new TokenStreamComponents(source, result);
-                }
-            };
-        }
     }
 }
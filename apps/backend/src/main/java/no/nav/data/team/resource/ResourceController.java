@@ -1,12 +1,15 @@
 package no.nav.data.team.resource;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import no.nav.data.common.exceptions.ValidationException;
 import no.nav.data.common.rest.RestResponsePage;
+import no.nav.data.common.rest.StreamingResponse;
 import no.nav.data.common.security.SecurityUtils;
 import no.nav.data.common.security.dto.UserInfo;
 import no.nav.data.common.validator.Validator;
@@ -26,6 +29,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -107,6 +111,17 @@ public class ResourceController {
         return ResponseEntity.ok(new RestResponsePage<>(resources));
     }
 
+    @Operation(summary = "Get Resources as newline delimited json", description = "Request with Accept: application/x-ndjson")
+    @ApiResponse(description = "ok", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ResourceResponse.class)))
+    @PostMapping(value = "/multi", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getByIdStream(@RequestBody List<String> ids) {
+        log.info("Resource get as stream ids={}", ids.size());
+        var resources = ids.stream()
+                .map(nomClient::getByNavIdent)
+                .flatMap(Optional::stream);
+        return StreamingResponse.ndjson(resources, Resource::convertToResponse);
+    }
+
     @Operation(summary = "Get Resource Photo")
     @ApiResponse(description = "ok")
     @GetMapping(value = "/{id}/photo", produces = MediaType.IMAGE_JPEG_VALUE)
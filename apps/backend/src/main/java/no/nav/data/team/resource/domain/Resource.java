@@ -17,6 +17,7 @@ import java.lang.management.RuntimeMXBean;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.Map;
 import java.util.UUID;
 
 @Data
@@ -95,4 +96,12 @@ public class Resource implements DomainObject {
                 .links(Links.getFor(this))
                 .build();
     }
+
+    /**
+     * @return response for the ident from already resolved resources, or a stale placeholder if it was not found
+     */
+    public static ResourceResponse convertToResponse(String navIdent, Map<String, Resource> resources) {
+        var resource = resources.get(navIdent);
+        return resource != null ? resource.convertToResponse() : ResourceResponse.builder().navIdent(navIdent).stale(true).build();
+    }
 }
@@ -14,7 +14,7 @@ import java.util.UUID;
 import static no.nav.data.common.utils.MetricUtils.DB_QUERY_TIMED;
 import static no.nav.data.common.utils.MetricUtils.QUERY;
 
-public interface ResourceRepository extends JpaRepository<GenericStorage, UUID>, ResourceRepositoryCustom {
+public interface ResourceRepository extends JpaRepository<GenericStorage, UUID> {
 
     @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "ResourceRepository.findByIdent"}, percentiles = {.99, .75, .50})
     @Query(value = "select * from generic_storage "
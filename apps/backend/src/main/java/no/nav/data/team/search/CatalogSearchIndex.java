@@ -0,0 +1,229 @@
+package no.nav.data.team.search;
+
+import lombok.SneakyThrows;
+import no.nav.data.common.storage.domain.DomainObject;
+import no.nav.data.team.catalog.CatalogSnapshot;
+import no.nav.data.team.cluster.domain.Cluster;
+import no.nav.data.team.po.domain.ProductArea;
+import no.nav.data.team.resource.NomClient;
+import no.nav.data.team.search.dto.SearchResultType;
+import no.nav.data.team.team.domain.Team;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.MultiReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FieldExistsQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static no.nav.data.common.utils.StreamUtils.safeStream;
+
+/**
+ * In-memory lucene index of teams, product areas and clusters.
+ * <p>
+ * Names are indexed verbatim, as word prefixes and phonetically, descriptions, tags, nais teams and slack channels verbatim and as word prefixes.
+ * Every word in the query must match at least one field, name matches rank above matches in the other fields.
+ * <p>
+ * People are indexed by {@link NomClient} with the same name fields and analyzers, and an ident in place of type and id.
+ * The two indexes are searched as one reader, so all types are scored by the same query and statistics.
+ */
+class CatalogSearchIndex {
+
+    static final String FIELD_ID = "id";
+    static final String FIELD_TYPE = "type";
+    static final String FIELD_NAME = "name";
+    static final String FIELD_NAME_VERBATIM = "name_verbatim";
+    static final String FIELD_NAME_NGRAMS = "name_ngrams";
+    static final String FIELD_NAME_PHONETIC = "name_phonetic";
+    static final String FIELD_TEXT_VERBATIM = "text_verbatim";
+    static final String FIELD_TEXT_NGRAMS = "text_ngrams";
+    static final String FIELD_IDENT = "ident";
+
+    private static final int MAX_QUERY_WORDS = 10;
+
+    private final Analyzer verbatimAnalyzer = SearchAnalyzers.verbatim();
+    private final Analyzer ngramQueryAnalyzer = SearchAnalyzers.ngramQuery();
+    private final Analyzer phoneticAnalyzer = SearchAnalyzers.phonetic();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    private volatile boolean loaded;
+
+    @SneakyThrows
+    CatalogSearchIndex() {
+        var ngramAnalyzer = SearchAnalyzers.ngram();
+        var analyzer = new PerFieldAnalyzerWrapper(verbatimAnalyzer, Map.of(
+                FIELD_NAME_NGRAMS, ngramAnalyzer,
+                FIELD_TEXT_NGRAMS, ngramAnalyzer,
+                FIELD_NAME_PHONETIC, phoneticAnalyzer
+        ));
+        writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    @SneakyThrows
+    synchronized void replaceAll(CatalogSnapshot snapshot) {
+        writer.deleteAll();
+        for (var object : Stream.of(snapshot.getTeams(), snapshot.getProductAreas(), snapshot.getClusters()).flatMap(Collection::stream).toList()) {
+            writer.addDocument(toDocument(object));
+        }
+        refresh();
+        loaded = true;
+    }
+
+    @SneakyThrows
+    synchronized void update(DomainObject object) {
+        var document = toDocument(object);
+        if (document != null) {
+            writer.updateDocument(idTerm(object.getId()), document);
+            refresh();
+        }
+    }
+
+    @SneakyThrows
+    synchronized void remove(UUID id) {
+        writer.deleteDocuments(idTerm(id));
+        refresh();
+    }
+
+    List<Hit> search(String queryString, Set<SearchResultType> types, int limit) {
+        return search(queryString, types, limit, null);
+    }
+
+    /**
+     * @param people reader of the people index, null to search the catalog only
+     * @return best matches of the given types, best first
+     */
+    @SneakyThrows
+    List<Hit> search(String queryString, Set<SearchResultType> types, int limit, IndexReader people) {
+        var query = toQuery(queryString, types);
+        if (query == null) {
+            return List.of();
+        }
+        var searcher = searcherManager.acquire();
+        try {
+            if (people == null) {
+                return search(searcher, query, limit);
+            }
+            try (var reader = new MultiReader(new IndexReader[]{searcher.getIndexReader(), people}, false)) {
+                return search(new IndexSearcher(reader), query, limit);
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private static List<Hit> search(IndexSearcher searcher, Query query, int limit) throws IOException {
+        var top = searcher.search(query, limit);
+        var storedFields = searcher.storedFields();
+        var hits = new ArrayList<Hit>(top.scoreDocs.length);
+        for (var sd : top.scoreDocs) {
+            var doc = storedFields.document(sd.doc);
+            var type = doc.get(FIELD_TYPE);
+            hits.add(type == null
+                    ? new Hit(SearchResultType.RESOURCE, doc.get(FIELD_IDENT), null, sd.score)
+                    : new Hit(SearchResultType.valueOf(type), doc.get(FIELD_ID), doc.get(FIELD_NAME), sd.score));
+        }
+        return hits;
+    }
+
+    /**
+     * @param id id of teams, product areas and clusters, ident of people
+     */
+    record Hit(SearchResultType type, String id, String name, float score) {
+
+    }
+
+    Query toQuery(String queryString, Set<SearchResultType> types) {
+        var words = Stream.of(StringUtils.split(StringUtils.defaultString(queryString))).limit(MAX_QUERY_WORDS).toList();
+        if (words.isEmpty()) {
+            return null;
+        }
+        var query = new BooleanQuery.Builder();
+        for (var word : words) {
+            var wordQuery = new BooleanQuery.Builder();
+            addTerms(wordQuery, FIELD_NAME_VERBATIM, verbatimAnalyzer, word, 8f);
+            addTerms(wordQuery, FIELD_NAME_NGRAMS, ngramQueryAnalyzer, word, 4f);
+            addTerms(wordQuery, FIELD_NAME_PHONETIC, phoneticAnalyzer, word, 1f);
+            addTerms(wordQuery, FIELD_TEXT_VERBATIM, verbatimAnalyzer, word, 2f);
+            addTerms(wordQuery, FIELD_TEXT_NGRAMS, ngramQueryAnalyzer, word, 1f);
+            query.add(wordQuery.build(), Occur.MUST);
+        }
+        var typeQuery = new BooleanQuery.Builder();
+        types.stream().filter(SearchResultType::isCatalogType).forEach(type -> typeQuery.add(new TermQuery(new Term(FIELD_TYPE, type.name())), Occur.SHOULD));
+        if (types.contains(SearchResultType.RESOURCE)) {
+            typeQuery.add(new FieldExistsQuery(FIELD_IDENT), Occur.SHOULD);
+        }
+        query.add(typeQuery.build(), Occur.FILTER);
+        return query.build();
+    }
+
+    private static void addTerms(BooleanQuery.Builder query, String field, Analyzer analyzer, String word, float boost) {
+        SearchAnalyzers.terms(analyzer, field, word).forEach(term -> query.add(new BoostQuery(new TermQuery(new Term(field, term)), boost), Occur.SHOULD));
+    }
+
+    private void refresh() throws IOException {
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    private static Term idTerm(UUID id) {
+        return new Term(FIELD_ID, id.toString());
+    }
+
+    private static Document toDocument(DomainObject object) {
+        if (object instanceof Team team) {
+            var text = Stream.of(Stream.of(team.getDescription(), team.getSlackChannel()), safeStream(team.getTags()), safeStream(team.getNaisTeams()));
+            return toDocument(SearchResultType.TEAM, team.getId(), team.getName(), text.flatMap(t -> t));
+        } else if (object instanceof ProductArea pa) {
+            var text = Stream.concat(Stream.of(pa.getDescription(), pa.getSlackChannel()), safeStream(pa.getTags()));
+            return toDocument(SearchResultType.PRODUCT_AREA, pa.getId(), pa.getName(), text);
+        } else if (object instanceof Cluster cluster) {
+            return toDocument(SearchResultType.CLUSTER, cluster.getId(), cluster.getName(), Stream.of(cluster.getDescription(), cluster.getSlackChannel()));
+        }
+        return null;
+    }
+
+    private static Document toDocument(SearchResultType type, UUID id, String name, Stream<String> text) {
+        var doc = new Document();
+        doc.add(new StringField(FIELD_ID, id.toString(), Store.YES));
+        doc.add(new StringField(FIELD_TYPE, type.name(), Store.YES));
+        var safeName = StringUtils.defaultString(name);
+        doc.add(new StoredField(FIELD_NAME, safeName));
+        doc.add(new TextField(FIELD_NAME_VERBATIM, safeName, Store.NO));
+        doc.add(new TextField(FIELD_NAME_NGRAMS, safeName, Store.NO));
+        doc.add(new TextField(FIELD_NAME_PHONETIC, safeName, Store.NO));
+        text.filter(StringUtils::isNotBlank).forEach(value -> {
+            doc.add(new TextField(FIELD_TEXT_VERBATIM, value, Store.NO));
+            doc.add(new TextField(FIELD_TEXT_NGRAMS, value, Store.NO));
+        });
+        return doc;
+    }
+}
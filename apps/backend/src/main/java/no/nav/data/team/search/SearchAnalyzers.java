@@ -0,0 +1,100 @@
+package no.nav.data.team.search;
+
+import lombok.SneakyThrows;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
+import org.apache.lucene.analysis.phonetic.DoubleMetaphoneFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Analyzers shared by the people index in {@link no.nav.data.team.resource.NomClient} and the catalog search index
+ */
+public final class SearchAnalyzers {
+
+    private SearchAnalyzers() {
+    }
+
+    /**
+     * Prefixes of each word, 3 to 40 characters
+     */
+    public static Analyzer ngram() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer source = new StandardTokenizer();
+                TokenStream result = new LowerCaseFilter(source);
+                result = new EdgeNGramTokenFilter(result, 3, 40, false);
+                return new TokenStreamComponents(source, result);
+            }
+        };
+    }
+
+    /**
+     * Words as indexed by {@link #ngram()}, without splitting them into prefixes. Used to query ngram fields.
+     */
+    public static Analyzer ngramQuery() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer source = new StandardTokenizer();
+                return new TokenStreamComponents(source, new LowerCaseFilter(source));
+            }
+        };
+    }
+
+    /**
+     * Double metaphone code of each word
+     */
+    public static Analyzer phonetic() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer source = new StandardTokenizer();
+                TokenStream result = new LowerCaseFilter(source);
+                result = new DoubleMetaphoneFilter(result, 10, false);
+                return new TokenStreamComponents(source, result);
+            }
+        };
+    }
+
+    /**
+     * Whitespace separated words, lower cased and ascii folded
+     */
+    public static Analyzer verbatim() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer source = new WhitespaceTokenizer();
+                TokenStream result = new LowerCaseFilter(source);
+                result = new ASCIIFoldingFilter(result);
+                return new TokenStreamComponents(source, result);
+            }
+        };
+    }
+
+    /**
+     * @return the terms the analyzer produces for text in the given field
+     */
+    @SneakyThrows
+    public static List<String> terms(Analyzer analyzer, String field, String text) {
+        var terms = new ArrayList<String>();
+        try (var stream = analyzer.tokenStream(field, text)) {
+            var term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,75 @@
+package no.nav.data.team.search;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import no.nav.data.common.exceptions.ValidationException;
+import no.nav.data.common.rest.RestResponsePage;
+import no.nav.data.team.search.dto.SearchResultResponse;
+import no.nav.data.team.search.dto.SearchResultType;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+@Slf4j
+@RestController
+@RequestMapping("/search")
+@Tag(name = "Search", description = "Search across teams, product areas, clusters and people")
+public class SearchController {
+
+    static final int MAX_LIMIT = 100;
+
+    private final SearchService service;
+
+    public SearchController(SearchService service) {
+        this.service = service;
+    }
+
+    @Operation(summary = "Search catalog", description = "Matches names, descriptions, tags, nais teams and slack channels of teams, product areas and clusters, and names of people. "
+            + "Ranked best first, optionally limited to types, ie. type=TEAM,RESOURCE")
+    @ApiResponse(description = "Search results fetched")
+    @GetMapping
+    public ResponseEntity<RestResponsePage<SearchResultResponse>> search(
+            @RequestParam(name = "q") String query,
+            @RequestParam(name = "type", required = false) String type,
+            @RequestParam(name = "limit", required = false, defaultValue = "20") int limit
+    ) {
+        var trimmed = query.trim();
+        log.info("Catalog search '{}'", trimmed);
+        if (trimmed.length() < 3) {
+            throw new ValidationException("Search must be at least 3 characters");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ValidationException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        var results = service.search(trimmed, parseTypes(type), limit);
+        return ResponseEntity.ok(new RestResponsePage<>(results));
+    }
+
+    private static Set<SearchResultType> parseTypes(String type) {
+        if (StringUtils.isBlank(type)) {
+            return EnumSet.allOf(SearchResultType.class);
+        }
+        var types = EnumSet.noneOf(SearchResultType.class);
+        Arrays.stream(type.split(",")).map(String::trim).filter(StringUtils::isNotEmpty).map(String::toUpperCase).forEach(t -> {
+            try {
+                types.add(SearchResultType.valueOf(t));
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Invalid type parameter: " + t);
+            }
+        });
+        return types;
+    }
+
+    static class SearchResultPageResponse extends RestResponsePage<SearchResultResponse> {
+
+    }
+}
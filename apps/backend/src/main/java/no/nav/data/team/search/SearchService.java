@@ -0,0 +1,78 @@
+package no.nav.data.team.search;
+
+import lombok.SneakyThrows;
+import no.nav.data.common.storage.domain.DomainObject;
+import no.nav.data.team.catalog.CatalogChangeListener;
+import no.nav.data.team.catalog.CatalogSnapshot;
+import no.nav.data.team.catalog.CatalogSnapshotService;
+import no.nav.data.team.resource.NomClient;
+import no.nav.data.team.search.dto.SearchResultResponse;
+import no.nav.data.team.search.dto.SearchResultType;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Searches teams, product areas and clusters in the catalog search index, and people in the {@link NomClient} index.
+ * <p>
+ * The catalog index follows the catalog snapshot, it is rebuilt on reload and updated per saved or removed object.
+ * Both indexes are searched in one query, so scores are comparable across types, and scaled by the best match.
+ */
+@Service
+public class SearchService implements CatalogChangeListener {
+
+    private final CatalogSnapshotService catalog;
+    private final NomClient nomClient;
+    private final CatalogSearchIndex index = new CatalogSearchIndex();
+
+    public SearchService(CatalogSnapshotService catalog, NomClient nomClient) {
+        this.catalog = catalog;
+        this.nomClient = nomClient;
+        catalog.addListener(this);
+    }
+
+    /**
+     * @return best matches of the given types, best first
+     */
+    @SneakyThrows
+    public List<SearchResultResponse> search(String query, Set<SearchResultType> types, int limit) {
+        if (!index.isLoaded()) {
+            var snapshot = catalog.get();
+            if (!index.isLoaded()) {
+                index.replaceAll(snapshot);
+            }
+        }
+        var results = new ArrayList<SearchResultResponse>();
+        try (var people = types.contains(SearchResultType.RESOURCE) ? nomClient.openSearchReader() : null) {
+            var hits = index.search(query, types, limit, people);
+            var best = hits.isEmpty() ? 1f : hits.get(0).score();
+            for (var hit : hits) {
+                if (hit.type() == SearchResultType.RESOURCE) {
+                    nomClient.getByNavIdent(hit.id())
+                            .ifPresent(r -> results.add(new SearchResultResponse(SearchResultType.RESOURCE, r.getNavIdent(), r.getFullName(), hit.score() / best)));
+                } else {
+                    results.add(new SearchResultResponse(hit.type(), hit.id(), hit.name(), hit.score() / best));
+                }
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public void reloaded(CatalogSnapshot snapshot) {
+        index.replaceAll(snapshot);
+    }
+
+    @Override
+    public void saved(DomainObject object) {
+        index.update(object);
+    }
+
+    @Override
+    public void removed(Class<?> type, UUID id) {
+        index.remove(id);
+    }
+}
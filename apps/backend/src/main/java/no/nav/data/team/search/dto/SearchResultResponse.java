@@ -0,0 +1,26 @@
+package no.nav.data.team.search.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"type", "id", "name", "score"})
+public class SearchResultResponse {
+
+    private SearchResultType type;
+    /**
+     * uuid for teams, product areas and clusters, nav ident for resources
+     */
+    private String id;
+    private String name;
+    /**
+     * Relevance relative to the best match, 0 to 1
+     */
+    private float score;
+}
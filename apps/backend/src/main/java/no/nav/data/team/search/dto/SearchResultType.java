@@ -0,0 +1,15 @@
+package no.nav.data.team.search.dto;
+
+public enum SearchResultType {
+    TEAM,
+    PRODUCT_AREA,
+    CLUSTER,
+    RESOURCE;
+
+    /**
+     * @return true for types in the catalog search index, resources are searched in the people index
+     */
+    public boolean isCatalogType() {
+        return this != RESOURCE;
+    }
+}
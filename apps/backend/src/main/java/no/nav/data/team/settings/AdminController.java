@@ -6,6 +6,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import no.nav.data.common.auditing.AuditCompactor;
+import no.nav.data.common.auditing.AuditCompactor.CompactionResult;
 import no.nav.data.common.mail.EmailService;
 import no.nav.data.common.mail.MailTask;
 import no.nav.data.common.security.SecurityUtils;
@@ -13,6 +15,7 @@ import no.nav.data.common.security.dto.UserInfo;
 import no.nav.data.common.storage.StorageService;
 import no.nav.data.team.notify.NotificationService;
 import no.nav.data.team.team.domain.Team;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -32,6 +35,7 @@ public class AdminController {
     private final NotificationService notificationService;
     private final EmailService emailService;
     private final StorageService storage;
+    private final AuditCompactor auditCompactor;
 
     @Operation(summary = "mail test")
     @ApiResponses(value = {@ApiResponse(description = "mail")})
@@ -50,6 +54,18 @@ public class AdminController {
         return ResponseEntity.ok("ok");
     }
 
+    @Operation(summary = "Compact audit history", description = "Delta encodes audit versions older than team-catalog.audit.compact-after, the first run converts all existing history")
+    @ApiResponses(value = {@ApiResponse(description = "Audit compacted"), @ApiResponse(responseCode = "409", description = "Audit compaction or archiving already running")})
+    @PostMapping("/audit/compact")
+    public ResponseEntity<CompactionResult> compactAudit() {
+        var result = auditCompactor.compactLocked();
+        if (result.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        log.info("Compacted audit {}", result.get());
+        return ResponseEntity.ok(result.get());
+    }
+
     public void testMail() {
         var email = SecurityUtils.getCurrentUser().map(UserInfo::getEmail).orElseThrow();
         emailService.sendMail(MailTask.builder().to(email).subject("test").body("testbody").build());
@@ -48,7 +48,7 @@ public class SettingsService {
     }
 
     private GenericStorage createSettings() {
-        return repository.save(new GenericStorage(UUID.randomUUID(), SETTINGS, JsonNodeFactory.instance.objectNode()));
+        return repository.save(new GenericStorage(UUID.randomUUID(), SETTINGS, JsonNodeFactory.instance.objectNode(), null));
     }
 
 }
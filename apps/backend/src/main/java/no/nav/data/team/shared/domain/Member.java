@@ -1,9 +1,11 @@
 package no.nav.data.team.shared.domain;
 
 import no.nav.data.team.member.dto.MemberResponse;
+import no.nav.data.team.resource.domain.Resource;
 import no.nav.data.team.team.domain.TeamRole;
 
 import java.util.List;
+import java.util.Map;
 
 public interface Member {
 
@@ -11,5 +13,8 @@ public interface Member {
 
     List<TeamRole> getRoles();
 
-    MemberResponse convertToResponse();
+    /**
+     * @param resources resources resolved up front, see {@link Membered#resolveResources(java.util.Collection)}
+     */
+    MemberResponse convertToResponse(Map<String, Resource> resources);
 }
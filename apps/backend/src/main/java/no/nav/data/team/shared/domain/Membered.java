@@ -1,14 +1,31 @@
 package no.nav.data.team.shared.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import no.nav.data.common.rest.FieldSelection;
 import no.nav.data.common.storage.domain.DomainObject;
+import no.nav.data.team.resource.NomClient;
+import no.nav.data.team.resource.domain.Resource;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toSet;
+import static no.nav.data.common.utils.StreamUtils.safeStream;
 
 public interface Membered extends DomainObject {
 
+    /**
+     * Response fields that need resources resolved
+     */
+    Set<String> RESOURCE_FIELDS = Set.of("members", "paOwnerGroup");
+
     String getName();
 
     List<? extends Member> getMembers();
@@ -20,4 +37,34 @@ public interface Membered extends DomainObject {
 
     LocalDateTime getLastNudge();
 
+    /**
+     * @return all idents that need a resource lookup when converting to a response
+     */
+    @JsonIgnore
+    default Stream<String> getResourceIdents() {
+        return safeStream(getMembers()).map(Member::getNavIdent);
+    }
+
+    /**
+     * Resolve resources for all objects in one go, misses in the resource index are fetched with a single query
+     */
+    static Map<String, Resource> resolveResources(Collection<? extends Membered> objects) {
+        return NomClient.getInstance().getByNavIdents(objects.stream().flatMap(Membered::getResourceIdents).collect(toSet()));
+    }
+
+    /**
+     * @return converter for a list of objects, sharing one {@link #resolveResources(Collection)} lookup
+     */
+    static <T extends Membered, R> Function<T, R> withResources(Collection<T> objects, BiFunction<T, Map<String, Resource>, R> converter) {
+        return withResources(objects, FieldSelection.ALL, converter);
+    }
+
+    /**
+     * @return converter for a list of objects, resources are only resolved if any of the selected fields need them
+     */
+    static <T extends Membered, R> Function<T, R> withResources(Collection<T> objects, FieldSelection fields, BiFunction<T, Map<String, Resource>, R> converter) {
+        Map<String, Resource> resources = fields.includesAny(RESOURCE_FIELDS) ? resolveResources(objects) : Map.of();
+        return object -> converter.apply(object, resources);
+    }
+
 }
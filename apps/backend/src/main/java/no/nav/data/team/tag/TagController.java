@@ -6,11 +6,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import no.nav.data.common.exceptions.ValidationException;
 import no.nav.data.common.rest.RestResponsePage;
+import no.nav.data.team.catalog.CatalogSnapshotService;
+import no.nav.data.team.tag.TagDictionary.TagUsage;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import static no.nav.data.common.utils.StartsWithComparator.startsWith;
@@ -23,20 +26,35 @@ import static org.apache.commons.lang3.StringUtils.containsIgnoreCase;
 @Tag(name = "Tag")
 public class TagController {
 
-    private final TagRepository tagRepository;
+    private final CatalogSnapshotService catalog;
 
-    public TagController(TagRepository tagRepository) {
-        this.tagRepository = tagRepository;
+    public TagController(CatalogSnapshotService catalog) {
+        this.catalog = catalog;
     }
 
-    @Operation(summary = "Get tags")
+    @Operation(summary = "Get tags", description = "All tags, or tags starting with prefix ignoring case")
     @ApiResponse(description = "Tags fetched")
     @GetMapping
-    public ResponseEntity<RestResponsePage<String>> getTags() {
-        var tags = tagRepository.getTags();
+    public ResponseEntity<RestResponsePage<String>> getTags(@RequestParam(name = "prefix", required = false) String prefix) {
+        var dictionary = catalog.get().getTagDictionary();
+        var tags = prefix == null ? dictionary.getTags() : dictionary.findByPrefix(prefix.trim());
         return new ResponseEntity<>(new RestResponsePage<>(tags), HttpStatus.OK);
     }
 
+    @Operation(summary = "Get tag usage", description = "Number of teams and product areas using each tag")
+    @ApiResponse(description = "Tag usage fetched")
+    @GetMapping("/usage")
+    public ResponseEntity<RestResponsePage<TagUsage>> getUsage() {
+        return new ResponseEntity<>(new RestResponsePage<>(catalog.get().getTagDictionary().getUsage()), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Get most used tags")
+    @ApiResponse(description = "Tag usage fetched")
+    @GetMapping("/top")
+    public ResponseEntity<RestResponsePage<TagUsage>> getMostUsed(@RequestParam(name = "limit", required = false, defaultValue = "10") int limit) {
+        return new ResponseEntity<>(new RestResponsePage<>(catalog.get().getTagDictionary().getMostUsed(limit)), HttpStatus.OK);
+    }
+
     @Operation(summary = "Search tags")
     @ApiResponse(description = "Tags fetched")
     @GetMapping("/search/{name}")
@@ -46,7 +64,7 @@ public class TagController {
         if (trimmedName.length() < 3) {
             throw new ValidationException("Search resource must be at least 3 characters");
         }
-        var tags = filter(tagRepository.getTags(), tag -> containsIgnoreCase(tag, trimmedName));
+        var tags = filter(catalog.get().getTagDictionary().getTags(), tag -> containsIgnoreCase(tag, trimmedName));
         tags.sort(startsWith(trimmedName));
         return new ResponseEntity<>(new RestResponsePage<>(tags), HttpStatus.OK);
     }
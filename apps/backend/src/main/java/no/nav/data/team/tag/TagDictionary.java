@@ -0,0 +1,113 @@
+package no.nav.data.team.tag;
+
+import no.nav.data.team.po.domain.ProductArea;
+import no.nav.data.team.team.domain.Team;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import static no.nav.data.common.utils.StreamUtils.safeStream;
+
+/**
+ * Immutable dictionary of tags in use by teams and product areas, with usage counts per type.
+ * Kept as part of the catalog snapshot, changes are applied per saved or removed object.
+ */
+public final class TagDictionary {
+
+    private static final Comparator<TagUsage> MOST_USED = Comparator.comparingInt(TagUsage::total).reversed().thenComparing(TagUsage::tag);
+
+    public static final TagDictionary EMPTY = new TagDictionary(new TreeMap<>());
+
+    private final NavigableMap<String, TagUsage> usage;
+    /**
+     * lower cased tag + NUL + tag, for case insensitive prefix lookup
+     */
+    private final NavigableMap<String, String> prefixIndex;
+    private final List<String> tags;
+    private final List<TagUsage> mostUsed;
+
+    private TagDictionary(TreeMap<String, TagUsage> usage) {
+        this.usage = usage;
+        this.prefixIndex = new TreeMap<>();
+        usage.keySet().forEach(tag -> prefixIndex.put(tag.toLowerCase() + '\0' + tag, tag));
+        this.tags = List.copyOf(usage.keySet());
+        this.mostUsed = usage.values().stream().sorted(MOST_USED).toList();
+    }
+
+    public static TagDictionary of(Collection<Team> teams, Collection<ProductArea> productAreas) {
+        var usage = new TreeMap<String, TagUsage>();
+        teams.forEach(team -> apply(usage, Team.class, team.getTags(), 1));
+        productAreas.forEach(pa -> apply(usage, ProductArea.class, pa.getTags(), 1));
+        return new TagDictionary(usage);
+    }
+
+    /**
+     * @return dictionary where an object of the given type has changed its tags from previousTags to newTags
+     */
+    public TagDictionary withChanged(Class<?> type, Collection<String> previousTags, Collection<String> newTags) {
+        if (!isTagged(type) || distinct(previousTags).equals(distinct(newTags))) {
+            return this;
+        }
+        var copy = new TreeMap<>(usage);
+        apply(copy, type, previousTags, -1);
+        apply(copy, type, newTags, 1);
+        return new TagDictionary(copy);
+    }
+
+    /**
+     * @return all tags, sorted
+     */
+    public List<String> getTags() {
+        return tags;
+    }
+
+    /**
+     * @return tags starting with prefix, ignoring case, sorted
+     */
+    public List<String> findByPrefix(String prefix) {
+        var lower = prefix.toLowerCase();
+        return List.copyOf(prefixIndex.subMap(lower, true, lower + Character.MAX_VALUE, true).values());
+    }
+
+    public List<TagUsage> getUsage() {
+        return List.copyOf(usage.values());
+    }
+
+    public List<TagUsage> getMostUsed(int limit) {
+        return mostUsed.subList(0, Math.min(Math.max(limit, 0), mostUsed.size()));
+    }
+
+    public record TagUsage(String tag, int teams, int productAreas) {
+
+        public int total() {
+            return teams + productAreas;
+        }
+
+        TagUsage plus(Class<?> type, int delta) {
+            return type == Team.class ? new TagUsage(tag, teams + delta, productAreas) : new TagUsage(tag, teams, productAreas + delta);
+        }
+    }
+
+    private static boolean isTagged(Class<?> type) {
+        return type == Team.class || type == ProductArea.class;
+    }
+
+    private static List<String> distinct(Collection<String> tags) {
+        return safeStream(tags).filter(Objects::nonNull).distinct().sorted().toList();
+    }
+
+    private static void apply(TreeMap<String, TagUsage> usage, Class<?> type, Collection<String> tags, int delta) {
+        distinct(tags).forEach(tag -> {
+            var updated = usage.getOrDefault(tag, new TagUsage(tag, 0, 0)).plus(type, delta);
+            if (updated.total() <= 0) {
+                usage.remove(tag);
+            } else {
+                usage.put(tag, updated);
+            }
+        });
+    }
+}
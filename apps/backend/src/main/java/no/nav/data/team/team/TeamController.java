@@ -11,7 +11,12 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import no.nav.data.common.exceptions.TechnicalException;
 import no.nav.data.common.exceptions.ValidationException;
+import no.nav.data.common.rest.CursorParameters;
+import no.nav.data.common.rest.FieldSelection;
+import no.nav.data.common.rest.RestResponseCursorPage;
 import no.nav.data.common.rest.RestResponsePage;
+import no.nav.data.common.rest.StreamingResponse;
+import no.nav.data.team.catalog.CatalogFilter;
 import no.nav.data.team.location.LocationRepository;
 import no.nav.data.team.location.domain.Location;
 import no.nav.data.team.shared.domain.DomainObjectStatus;
@@ -20,8 +25,12 @@ import no.nav.data.team.team.domain.Team;
 import no.nav.data.team.team.domain.TeamOwnershipType;
 import no.nav.data.team.team.dto.TeamRequest;
 import no.nav.data.team.team.dto.TeamResponse;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StreamUtils;
@@ -34,15 +43,19 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static no.nav.data.common.export.ExcelBuilder.SPREADSHEETML_SHEET_MIME;
 import static no.nav.data.common.utils.StreamUtils.convert;
+import static no.nav.data.team.shared.domain.Membered.withResources;
 
 
 @Slf4j
@@ -68,19 +81,43 @@ public class TeamController {
             @RequestParam(name = "productAreaId", required = false) UUID productAreaId,
             @RequestParam(name = "clusterId", required = false) UUID clusterId,
             @RequestParam(name = "locationCode", required = false) String locationCode,
-            @RequestParam(name = "status", required = false, defaultValue = "ACTIVE,PLANNED,INACTIVE") String stringStatus
+            @RequestParam(name = "status", required = false, defaultValue = "ACTIVE,PLANNED,INACTIVE") String stringStatus,
+            @RequestParam(name = "asOf", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime asOf,
+            @RequestParam(name = FieldSelection.PARAM, required = false) String fields
     ) {
         log.info("Get all Teams");
+        var teams = findTeams(productAreaId, clusterId, locationCode, stringStatus, asOf);
+        var fieldSelection = FieldSelection.parse(fields);
+        return ResponseEntity.ok(new RestResponsePage<>(convert(teams, withResources(teams, fieldSelection, (t, r) -> t.convertToResponse(r, fieldSelection)))));
+    }
+
+    @Operation(summary = "Get All Teams as newline delimited json", description = "Request with Accept: application/x-ndjson")
+    @ApiResponse(description = "ok", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = TeamResponse.class)))
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAllStream(
+            @RequestParam(name = "productAreaId", required = false) UUID productAreaId,
+            @RequestParam(name = "clusterId", required = false) UUID clusterId,
+            @RequestParam(name = "locationCode", required = false) String locationCode,
+            @RequestParam(name = "status", required = false, defaultValue = "ACTIVE,PLANNED,INACTIVE") String stringStatus,
+            @RequestParam(name = "asOf", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime asOf,
+            @RequestParam(name = FieldSelection.PARAM, required = false) String fields
+    ) {
+        log.info("Get all Teams as stream");
+        var teams = findTeams(productAreaId, clusterId, locationCode, stringStatus, asOf);
+        var fieldSelection = FieldSelection.parse(fields);
+        return StreamingResponse.ndjson(teams.stream(), withResources(teams, fieldSelection, (t, r) -> t.convertToResponse(r, fieldSelection)), fieldSelection);
+    }
 
+    private List<Team> findTeams(UUID productAreaId, UUID clusterId, String locationCode, String stringStatus, LocalDateTime asOf) {
         var queryStatusList = DomainObjectStatus.fromQueryParameter(stringStatus);
 
         List<Team> teams;
         if (productAreaId != null) {
-            teams = service.findByProductArea(productAreaId);
+            teams = service.findByProductArea(productAreaId, asOf);
         } else if (clusterId != null) {
-            teams = service.findByCluster(clusterId);
+            teams = service.findByCluster(clusterId, asOf);
         } else {
-            teams = service.getAll();
+            teams = service.getAll(asOf);
         }
 
         if(locationCode != null){
@@ -89,17 +126,39 @@ public class TeamController {
             teams = teams.stream().filter(t -> locations.containsKey(t.getOfficeHours() != null ? t.getOfficeHours().getLocationCode() : null)).toList();
         }
 
-        teams = teams.stream().filter(t -> queryStatusList.contains(t.getStatus())).toList();
+        return teams.stream().filter(t -> queryStatusList.contains(t.getStatus())).toList();
+    }
 
-        return ResponseEntity.ok(new RestResponsePage<>(convert(teams, Team::convertToResponse)));
+    @Operation(summary = "Get page of Teams", description = "Sorted by name, use nextCursor from the response to get the next page")
+    @ApiResponse(description = "ok")
+    @GetMapping("/page")
+    public ResponseEntity<RestResponseCursorPage<TeamResponse>> getPage(
+            @ParameterObject CursorParameters paging,
+            @RequestParam(name = "productAreaId", required = false) UUID productAreaId,
+            @RequestParam(name = "clusterId", required = false) UUID clusterId,
+            @RequestParam(name = "locationCode", required = false) String locationCode,
+            @RequestParam(name = "status", required = false, defaultValue = "ACTIVE,PLANNED,INACTIVE") String stringStatus,
+            @RequestParam(name = FieldSelection.PARAM, required = false) String fields
+    ) {
+        log.info("Get page of Teams");
+        var filter = CatalogFilter.builder()
+                .statuses(DomainObjectStatus.fromQueryParameter(stringStatus))
+                .productAreaId(productAreaId)
+                .clusterId(clusterId)
+                .locationCodes(locationCode == null ? null : locationRepository.getLocationByCode(locationCode).map(l -> l.flatMap().keySet()).orElse(Set.of()))
+                .build();
+        var page = service.getPage(filter, paging);
+        var fieldSelection = FieldSelection.parse(fields);
+        return ResponseEntity.ok(page.convert(withResources(page.getContent(), fieldSelection, (t, r) -> t.convertToResponse(r, fieldSelection))));
     }
 
     @Operation(summary = "Get Team")
     @ApiResponse(description = "ok")
     @GetMapping("/{id}")
-    public ResponseEntity<TeamResponse> getById(@PathVariable UUID id) {
+    public ResponseEntity<TeamResponse> getById(@PathVariable UUID id,
+            @RequestParam(name = "asOf", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime asOf) {
         log.info("Get Team id={}", id);
-        return ResponseEntity.ok(service.get(id).convertToResponse());
+        return ResponseEntity.ok(service.get(id, asOf).convertToResponse());
     }
 
     @Operation(summary = "Search teams")
@@ -112,7 +171,7 @@ public class TeamController {
         }
         var teams = service.search(name);
         log.info("Returned {} teams", teams.size());
-        return new ResponseEntity<>(new RestResponsePage<>(convert(teams, Team::convertToResponse)), HttpStatus.OK);
+        return new ResponseEntity<>(new RestResponsePage<>(convert(teams, withResources(teams, Team::convertToResponse))), HttpStatus.OK);
     }
 
     @Operation(summary = "Create Team v1")
@@ -133,14 +192,14 @@ public class TeamController {
         return new ResponseEntity<>(team.convertToResponse(), HttpStatus.CREATED);
     }
 
-    @Operation(summary = "Create Teams")
+    @Operation(summary = "Create Teams", description = "All teams are validated up front, nothing is created if any of them are invalid")
     @ApiResponse(responseCode = "201", description = "Teams created")
     @Transactional
     @PostMapping("/batch")
     public ResponseEntity<RestResponsePage<TeamResponse>> createTeams(@RequestBody List<TeamRequest> requests) {
-        log.info("Create Teams");
-        var teams = convert(requests, service::save);
-        return new ResponseEntity<>(new RestResponsePage<>(convert(teams, Team::convertToResponse)), HttpStatus.CREATED);
+        log.info("Create {} Teams", requests.size());
+        var teams = service.createAll(requests);
+        return new ResponseEntity<>(new RestResponsePage<>(convert(teams, withResources(teams, Team::convertToResponse))), HttpStatus.CREATED);
     }
 
     @Operation(summary = "Update Team", description = "If members is null members will not be updated")
@@ -205,4 +264,8 @@ public class TeamController {
 
     }
 
+    static class TeamCursorPageResponse extends RestResponseCursorPage<TeamResponse> {
+
+    }
+
 }
@@ -8,17 +8,19 @@ import no.nav.data.team.member.dto.MemberResponse;
 import no.nav.data.team.po.ProductAreaService;
 import no.nav.data.team.po.domain.ProductArea;
 import no.nav.data.team.resource.NomClient;
+import no.nav.data.team.resource.domain.Resource;
 import no.nav.data.team.resource.domain.ResourceType;
+import no.nav.data.team.shared.domain.Membered;
 import no.nav.data.team.shared.Lang;
 import no.nav.data.team.team.domain.OfficeHours;
 import no.nav.data.team.team.domain.Team;
-import no.nav.data.team.team.domain.TeamMember;
 import no.nav.data.team.team.domain.TeamRole;
 import org.springframework.stereotype.Service;
 
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -95,14 +97,15 @@ public class TeamExportService {
         ;
 
         teams.sort(Comparator.comparing(t -> t.team().getName()));
-        teams.forEach(t -> add(doc, t));
+        var resources = Membered.resolveResources(convert(teams, TeamInfo::team));
+        teams.forEach(t -> add(doc, t, resources));
 
         return doc.build();
     }
 
-    private void add(ExcelBuilder doc, TeamInfo teamInfo) {
+    private void add(ExcelBuilder doc, TeamInfo teamInfo, Map<String, Resource> resources) {
         var team = teamInfo.team();
-        var members = convert(team.getMembers(), TeamMember::convertToResponse);
+        var members = convert(team.getMembers(), m -> m.convertToResponse(resources));
 
 
         doc.addRow()
@@ -19,10 +19,6 @@ public interface TeamRepository extends JpaRepository<GenericStorage, UUID>, Tea
     @Query(value = "select * from generic_storage where data ->> 'productAreaId' = cast(?1 as text) and type = 'Team'", nativeQuery = true)
     List<GenericStorage> findByProductArea(UUID productAreaId);
 
-    @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "TeamRepository.findByNameLike"}, percentiles = {.99, .75, .50})
-    @Query(value = "select * from generic_storage where data ->> 'name' ilike %?1% and type = 'Team'", nativeQuery = true)
-    List<GenericStorage> findByNameLike(String name);
-
     @Timed(value = DB_QUERY_TIMED, extraTags = {QUERY, "TeamRepository.findByName"}, percentiles = {.99, .75, .50})
     @Query(value = "select * from generic_storage where data ->> 'name' ilike ?1 and type = 'Team'", nativeQuery = true)
     List<GenericStorage> findByName(String name);
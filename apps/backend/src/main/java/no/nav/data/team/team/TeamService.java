@@ -3,16 +3,30 @@ package no.nav.data.team.team;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import no.nav.data.common.TeamCatalogProps;
+import no.nav.data.common.exceptions.NotFoundException;
+import no.nav.data.common.rest.CursorParameters;
+import no.nav.data.common.rest.RestResponseCursorPage;
 import no.nav.data.common.storage.StorageService;
+import no.nav.data.common.exceptions.ValidationException;
+import no.nav.data.common.storage.domain.DomainObject;
 import no.nav.data.common.storage.domain.GenericStorage;
+import no.nav.data.common.storage.domain.TypeRegistration;
+import no.nav.data.common.utils.StringUtils;
+import no.nav.data.common.validator.ValidationError;
 import no.nav.data.common.validator.Validator;
+import no.nav.data.team.catalog.CatalogFilter;
+import no.nav.data.team.catalog.CatalogPageRepository;
+import no.nav.data.team.catalog.CatalogSnapshotService;
 import no.nav.data.team.cluster.domain.Cluster;
 import no.nav.data.team.location.LocationRepository;
+import no.nav.data.team.location.domain.Location;
 import no.nav.data.team.location.domain.LocationType;
 import no.nav.data.team.naisteam.NaisConsoleClient;
+import no.nav.data.team.naisteam.NaisTeam;
 import no.nav.data.team.po.domain.ProductArea;
 import no.nav.data.team.resource.NomClient;
 import no.nav.data.team.shared.domain.DomainObjectStatus;
+import no.nav.data.team.team.domain.OfficeHours;
 import no.nav.data.team.team.domain.Team;
 import no.nav.data.team.team.domain.TeamMember;
 import no.nav.data.team.team.dto.TeamMemberRequest;
@@ -22,11 +36,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import static no.nav.data.common.utils.StreamUtils.convert;
+import static no.nav.data.common.utils.StreamUtils.safeStream;
+import static no.nav.data.common.utils.StringUtils.isUUID;
 import static no.nav.data.common.validator.Validator.*;
 
 @Slf4j
@@ -38,50 +60,133 @@ public class TeamService {
     private final NomClient nomClient;
     private final TeamRepository teamRepository;
     private final LocationRepository locationRepository;
+    private final CatalogSnapshotService catalog;
+    private final CatalogPageRepository pageRepository;
 
     @Autowired
     private TeamCatalogProps teamCatalogProps;
 
-    public TeamService(StorageService storage, NaisConsoleClient naisTeamService, NomClient nomClient, TeamRepository teamRepository, LocationRepository locationRepository) {
+    public TeamService(StorageService storage, NaisConsoleClient naisTeamService, NomClient nomClient, TeamRepository teamRepository, LocationRepository locationRepository,
+            CatalogSnapshotService catalog, CatalogPageRepository pageRepository) {
         this.storage = storage;
         this.naisTeamService = naisTeamService;
         this.nomClient = nomClient;
         this.teamRepository = teamRepository;
         this.locationRepository = locationRepository;
+        this.catalog = catalog;
+        this.pageRepository = pageRepository;
     }
 
     public Team save(TeamRequest request) {
+        setDefaultProductArea(request);
+        var references = new References(
+                id -> storage.exists(id, ProductArea.class),
+                id -> storage.exists(id, Cluster.class),
+                ident -> nomClient.getByNavIdent(ident).isPresent(),
+                naisTeamService::naisTeamExists,
+                locationRepository::getLocationByCode
+        );
+        var validator = Validator.validate(request, storage);
+        validate(validator, references);
+        validator.ifErrorsThrowValidationException();
+
+        var team = request.isUpdate() ? storage.getForUpdate(request.getIdAsUUID(), Team.class, request.getVersion()) : new Team();
+
+        return storage.save(team.convert(request));
+    }
+
+    /**
+     * Create teams in bulk. References are validated with one lookup per kind for the whole batch, and nothing is saved if any of the teams are invalid.
+     */
+    public List<Team> createAll(List<TeamRequest> requests) {
+        requests.forEach(request -> {
+            request.format();
+            setDefaultProductArea(request);
+        });
+        var references = new References(
+                storage.existingIds(collectIds(requests, r -> Stream.of(r.getProductAreaId())), ProductArea.class)::contains,
+                storage.existingIds(collectIds(requests, r -> safeStream(r.getClusterIds())), Cluster.class)::contains,
+                nomClient.getByNavIdents(collectIdents(requests)).keySet()::contains,
+                convert(naisTeamService.getAllNaisTeams(), NaisTeam::slug)::contains,
+                locationsByCode(requests)
+        );
+
+        var errors = new ArrayList<ValidationError>();
+        for (int i = 0; i < requests.size(); i++) {
+            var validator = Validator.validate(requests.get(i));
+            validate(validator, references);
+            var row = i;
+            validator.getErrors().forEach(e -> errors.add(new ValidationError("[%d].%s".formatted(row, e.getReference()), e.getErrorType(), e.getErrorMessage())));
+        }
+        if (!errors.isEmpty()) {
+            log.warn("The batch was not accepted. The following errors occurred during validation:{}", errors);
+            throw new ValidationException(errors, "The batch was not accepted. The following errors occurred during validation:");
+        }
+
+        var teams = convert(requests, request -> new Team().convert(request));
+        return GenericStorage.to(storage.saveAll(teams), Team.class);
+    }
+
+    private void setDefaultProductArea(TeamRequest request) {
         if (request.getProductAreaId() == null) {
             request.setProductAreaId(teamCatalogProps.getDefaultProductareaUuid());
         }
-        Validator.validate(request, storage)
-                .addValidations(validator -> validator.checkExists(request.getProductAreaId(), storage, ProductArea.class))
-                .addValidations(validator -> getaVoid(request, validator))
-                .addValidations(TeamRequest::getMembers, this::validateMembers)
-                .addValidation(TeamRequest::getContactPersonIdent, this::validateContactPerson)
-                .addValidations(TeamRequest::getNaisTeams, this::validateNaisTeam)
-                .addValidations(this::validateName)
-                .addValidations(this::validateTeamOwner)
-                .addValidations(this::validateLocationCode)
-                .addValidations(this::validateStatusNotNull)
-                .ifErrorsThrowValidationException();
+    }
 
-        var team = request.isUpdate() ? storage.get(request.getIdAsUUID(), Team.class) : new Team();
+    private void validate(Validator<TeamRequest> validator, References references) {
+        var request = validator.getItem();
+        validator.addValidations(v -> checkExists(v, request.getProductAreaId(), references.productAreaExists(), ProductArea.class))
+                .addValidations(TeamRequest::getClusterIds, (v, clusterId) -> checkExists(v, clusterId, references.clusterExists(), Cluster.class))
+                .addValidations(TeamRequest::getMembers, (v, member) -> validateMember(v, member, references))
+                .addValidation(TeamRequest::getContactPersonIdent, (v, ident) -> validateContactPerson(v, ident, references))
+                .addValidations(TeamRequest::getNaisTeams, (v, naisTeam) -> validateNaisTeam(v, naisTeam, references))
+                .addValidations(this::validateName)
+                .addValidations(v -> validateTeamOwner(v, references))
+                .addValidations(v -> validateLocationCode(v, references))
+                .addValidations(this::validateStatusNotNull);
+    }
 
-        storage.save(team.convert(request));
-        return team;
+    private void checkExists(Validator<TeamRequest> validator, String id, Predicate<UUID> exists, Class<? extends DomainObject> aClass) {
+        if (isUUID(id) && !exists.test(UUID.fromString(id))) {
+            String type = TypeRegistration.typeOf(aClass);
+            validator.addError(type, DOES_NOT_EXIST, type + " " + id + " does not exist");
+        }
     }
 
+    private static List<UUID> collectIds(List<TeamRequest> requests, Function<TeamRequest, Stream<String>> ids) {
+        return requests.stream().flatMap(ids).filter(StringUtils::isUUID).map(UUID::fromString).distinct().toList();
+    }
 
+    private Function<String, Optional<Location>> locationsByCode(List<TeamRequest> requests) {
+        var codes = requests.stream().map(TeamRequest::getOfficeHours).filter(Objects::nonNull).map(OfficeHours::getLocationCode).toList();
+        var locations = locationRepository.getLocationsByCodes(codes);
+        return code -> Optional.ofNullable(code == null ? null : locations.get(code));
+    }
 
-    private void getaVoid(TeamRequest request, Validator<TeamRequest> validator) {
-        request.getClusterIds().forEach(cId -> validator.checkExists(cId, storage, Cluster.class));
+    private static List<String> collectIdents(List<TeamRequest> requests) {
+        return requests.stream()
+                .flatMap(r -> Stream.concat(
+                        Stream.of(r.getContactPersonIdent(), r.getTeamOwnerIdent()),
+                        safeStream(r.getMembers()).map(TeamMemberRequest::getNavIdent)))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
     }
 
     public Team get(UUID id) {
         return storage.get(id, Team.class);
     }
 
+    /**
+     * @param asOf point in time, null for the current team
+     */
+    public Team get(UUID id, LocalDateTime asOf) {
+        if (asOf == null) {
+            return get(id);
+        }
+        return catalog.get(asOf).findTeam(id).orElseThrow(() -> new NotFoundException("Couldn't find " + TypeRegistration.typeOf(Team.class) + " with id " + id + " at " + asOf));
+    }
+
     public Team delete(UUID id) {
         Team delete = storage.delete(id, Team.class);
         //graphService.deleteTeam(delete);
@@ -89,7 +194,11 @@ public class TeamService {
     }
 
     public List<Team> getAll() {
-        return storage.getAll(Team.class);
+        return getAll(null);
+    }
+
+    public List<Team> getAll(LocalDateTime asOf) {
+        return catalog.get(asOf).getTeams();
     }
 
     public List<Team> getAllActive() {
@@ -98,32 +207,44 @@ public class TeamService {
     }
 
     public List<Team> findByProductArea(UUID productAreaId) {
-        return convert(teamRepository.findByProductArea(productAreaId), GenericStorage::toTeam);
+        return findByProductArea(productAreaId, null);
+    }
+
+    public List<Team> findByProductArea(UUID productAreaId, LocalDateTime asOf) {
+        return catalog.get(asOf).findTeamsByProductArea(productAreaId);
     }
 
     public List<Team> findByCluster(UUID clusterId) {
-        return teamRepository.findByCluster(clusterId);
+        return findByCluster(clusterId, null);
+    }
+
+    public List<Team> findByCluster(UUID clusterId, LocalDateTime asOf) {
+        return catalog.get(asOf).findTeamsByCluster(clusterId);
     }
 
     public List<Team> search(String name) {
-        return convert(teamRepository.findByNameLike(name), GenericStorage::toTeam);
+        return catalog.get().searchTeams(name);
+    }
+
+    public RestResponseCursorPage<Team> getPage(CatalogFilter filter, CursorParameters paging) {
+        return pageRepository.findPage(Team.class, filter, paging.getCursor(), paging.validPageSize(), paging.isIncludeTotal());
     }
 
-    private void validateNaisTeam(Validator<TeamRequest> validator, String naisTeam) {
+    private void validateNaisTeam(Validator<TeamRequest> validator, String naisTeam, References references) {
         Team existingTeam = validator.getDomainItem();
-        if (!(existingTeam != null && existingTeam.getNaisTeams().contains(naisTeam)) && !naisTeamService.naisTeamExists(naisTeam)) {
+        if (!(existingTeam != null && existingTeam.getNaisTeams().contains(naisTeam)) && !references.naisTeamExists().test(naisTeam)) {
             validator.addError(Fields.naisTeams, DOES_NOT_EXIST, "Nais Team " + naisTeam + " does not exist");
         }
     }
 
-    private void validateMembers(Validator<TeamRequest> validator, TeamMemberRequest member) {
+    private void validateMember(Validator<TeamRequest> validator, TeamMemberRequest member, References references) {
         var existingMembers = validator.getDomainItem() == null ? List.<TeamMember>of() : validator.getDomainItem(Team.class).getMembers();
-        validateIdent(validator, member.getNavIdent(), Fields.members, convert(existingMembers, TeamMember::getNavIdent));
+        validateIdent(validator, member.getNavIdent(), Fields.members, convert(existingMembers, TeamMember::getNavIdent), references);
     }
 
-    private void validateContactPerson(Validator<TeamRequest> validator, String ident) {
+    private void validateContactPerson(Validator<TeamRequest> validator, String ident, References references) {
         List<String> existingIdents = Optional.ofNullable(validator.getDomainItem(Team.class)).map(Team::getContactPersonIdent).map(List::of).orElse(List.of());
-        validateIdent(validator, ident, Fields.contactPersonIdent, existingIdents);
+        validateIdent(validator, ident, Fields.contactPersonIdent, existingIdents, references);
     }
 
     private void validateStatusNotNull(Validator<TeamRequest> teamRequestValidator) {
@@ -133,11 +254,11 @@ public class TeamService {
     }
 
 
-    private void validateIdent(Validator<TeamRequest> validator, String ident, String fieldName, List<String> existingIdents) {
+    private void validateIdent(Validator<TeamRequest> validator, String ident, String fieldName, List<String> existingIdents, References references) {
         if (ident == null) {
             return;
         }
-        if (existingIdents.stream().noneMatch(m -> m.equals(ident)) && nomClient.getByNavIdent(ident).isEmpty()) {
+        if (existingIdents.stream().noneMatch(m -> m.equals(ident)) && !references.identExists().test(ident)) {
             validator.addError(fieldName, DOES_NOT_EXIST, "Resource " + ident + " does not exist");
         }
     }
@@ -150,13 +271,13 @@ public class TeamService {
 
     }
 
-    private void validateTeamOwner(Validator<TeamRequest> validator) {
+    private void validateTeamOwner(Validator<TeamRequest> validator, References references) {
         var teamRequest = validator.getItem();
         var teamInDefaultProductArea = teamCatalogProps.getDefaultProductareaUuid().
                 equals(teamRequest.getProductAreaId());
         if(teamInDefaultProductArea){
             if(teamRequest.getTeamOwnerIdent() != null){
-                validateIdent(validator,teamRequest.getTeamOwnerIdent(), Fields.teamOwnerIdent, List.of());
+                validateIdent(validator,teamRequest.getTeamOwnerIdent(), Fields.teamOwnerIdent, List.of(), references);
             }
         }else{
             if(teamRequest.getTeamOwnerIdent() != null) {
@@ -166,14 +287,14 @@ public class TeamService {
         }
     }
 
-    private void validateLocationCode(Validator<TeamRequest> validator){
+    private void validateLocationCode(Validator<TeamRequest> validator, References references){
         val officeHours = validator.getItem().getOfficeHours();
         if(officeHours != null){
             if(officeHours.getDays().contains(DayOfWeek.SATURDAY) || officeHours.getDays().contains(DayOfWeek.SUNDAY)){
                 validator.addError(Fields.officeHours, ILLEGAL_ARGUMENT, "Officehours can't be on saturdays or sundays");
             }
 
-            val location = locationRepository.getLocationByCode(officeHours.getLocationCode());
+            val location = references.location().apply(officeHours.getLocationCode());
             if(location.isEmpty()){
                 validator.addError(Fields.officeHours, DOES_NOT_EXIST, "Location for given location code does not exist.");
             }
@@ -182,4 +303,12 @@ public class TeamService {
             }
         }
     }
+
+    /**
+     * Lookups used when validating references to other objects, backed by single lookups or by prefetched sets for batches
+     */
+    private record References(Predicate<UUID> productAreaExists, Predicate<UUID> clusterExists, Predicate<String> identExists, Predicate<String> naisTeamExists,
+                              Function<String, Optional<Location>> location) {
+
+    }
 }
@@ -4,12 +4,14 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import no.nav.data.common.rest.FieldSelection;
 import no.nav.data.common.storage.domain.ChangeStamp;
 import no.nav.data.common.storage.domain.DomainObject;
 import no.nav.data.common.utils.StreamUtils;
 import no.nav.data.team.contact.domain.ContactAddress;
 import no.nav.data.team.location.LocationRepository;
 import no.nav.data.team.location.dto.LocationSimplePathResponse;
+import no.nav.data.team.resource.domain.Resource;
 import no.nav.data.team.shared.domain.DomainObjectStatus;
 import no.nav.data.team.shared.domain.HistorizedDomainObject;
 import no.nav.data.team.shared.domain.Membered;
@@ -22,6 +24,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static no.nav.data.common.utils.StreamUtils.copyOf;
@@ -86,6 +89,14 @@ public class Team implements DomainObject, Membered, HistorizedDomainObject {
     }
 
     public TeamResponse convertToResponse() {
+        return convertToResponse(Membered.resolveResources(List.of(this)));
+    }
+
+    public TeamResponse convertToResponse(Map<String, Resource> resources) {
+        return convertToResponse(resources, FieldSelection.ALL);
+    }
+
+    public TeamResponse convertToResponse(Map<String, Resource> resources, FieldSelection fields) {
         return TeamResponse.builder()
                 .id(id)
                 .name(name)
@@ -101,16 +112,20 @@ public class Team implements DomainObject, Membered, HistorizedDomainObject {
                 .qaTime(qaTime)
                 .naisTeams(copyOf(naisTeams))
                 .tags(copyOf(tags))
-                .members(StreamUtils.convert(members, TeamMember::convertToResponse))
-                .changeStamp(convertChangeStampResponse())
-                .links(Links.getFor(this))
-                .officeHours(officeHours != null ? OfficeHoursResponse.builder()
-                        .location(LocationSimplePathResponse.convert(LocationRepository.getLocationFor(officeHours.getLocationCode())))
-                        .days(officeHours.getDays())
-                        .information(officeHours.getInformation())
-                        .build() : null)
+                .members(fields.ifIncluded("members", () -> StreamUtils.convert(members, m -> m.convertToResponse(resources))))
+                .changeStamp(fields.ifIncluded("changeStamp", this::convertChangeStampResponse))
+                .links(fields.ifIncluded("links", () -> Links.getFor(this)))
+                .officeHours(fields.ifIncluded("officeHours", this::convertOfficeHours))
                 .status(status)
                 .build();
     }
 
+    private OfficeHoursResponse convertOfficeHours() {
+        return officeHours != null ? OfficeHoursResponse.builder()
+                .location(LocationSimplePathResponse.convert(LocationRepository.getLocationFor(officeHours.getLocationCode())))
+                .days(officeHours.getDays())
+                .information(officeHours.getInformation())
+                .build() : null;
+    }
+
 }
@@ -46,6 +46,7 @@ public class TeamRequest implements RequestElement {
     private DomainObjectStatus status;
 
 
+    private Long version;
     private Boolean update;
 
     @Override
@@ -1,11 +1,13 @@
 package no.nav.data.team.team.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import no.nav.data.common.rest.ChangeStampResponse;
+import no.nav.data.common.rest.FieldSelection;
 import no.nav.data.team.contact.domain.ContactAddress;
 import no.nav.data.team.member.dto.MemberResponse;
 import no.nav.data.team.shared.dto.Links;
@@ -24,6 +26,7 @@ import java.util.UUID;
 @JsonPropertyOrder({"id", "name", "description", "slackChannel", "contactPersonIdent", "productAreaId",
         "teamOwnerIdent", "clusterIds",
         "teamType", "teamOwnershipType", "qaTime", "naisTeams", "members", "tags", "officeHours", "status", "changeStamp", "links"})
+@JsonFilter(FieldSelection.FILTER)
 public class TeamResponse {
 
     private UUID id;
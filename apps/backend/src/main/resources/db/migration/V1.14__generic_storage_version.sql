@@ -0,0 +1,2 @@
+ALTER TABLE GENERIC_STORAGE
+    ADD COLUMN VERSION BIGINT NOT NULL DEFAULT 0;
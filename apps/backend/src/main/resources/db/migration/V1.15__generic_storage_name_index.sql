@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS GS_CATALOG_NAME_IDX ON GENERIC_STORAGE (TYPE, (coalesce(lower(DATA ->> 'name'), '')), ID);
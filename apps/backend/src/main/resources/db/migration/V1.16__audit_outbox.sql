@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS AUDIT_OUTBOX
+(
+    SEQ        BIGSERIAL PRIMARY KEY,
+    AUDIT_ID   UUID      NOT NULL,
+    ACTION     TEXT      NOT NULL,
+    TABLE_NAME TEXT      NOT NULL,
+    TABLE_ID   TEXT      NOT NULL,
+    USER_ID    TEXT      NOT NULL,
+    TIME       TIMESTAMP NOT NULL,
+    DATA       TEXT      NOT NULL
+);
@@ -0,0 +1,12 @@
+ALTER TABLE AUDIT_VERSION
+    ADD COLUMN ENCODING TEXT NOT NULL DEFAULT 'FULL',
+    ADD COLUMN ORDINAL INTEGER,
+    ADD COLUMN PRODUCT_AREA_ID TEXT;
+
+-- read by notification queries, which can't use the json of delta encoded versions
+UPDATE AUDIT_VERSION
+SET PRODUCT_AREA_ID = DATA #>> '{data,productAreaId}'
+WHERE TABLE_NAME = 'Team';
+
+CREATE INDEX IF NOT EXISTS AUDIT_VERSION_TABLE_ID_ORDINAL ON AUDIT_VERSION (TABLE_ID, ORDINAL);
+CREATE INDEX IF NOT EXISTS AUDIT_VERSION_NOT_ENCODED ON AUDIT_VERSION (TIME) WHERE ORDINAL IS NULL;
@@ -0,0 +1,66 @@
+-- AUDIT_VERSION is partitioned by month on TIME. The audit archiver creates partitions ahead of time,
+-- and moves partitions older than team-catalog.audit.retention-months to AUDIT_VERSION_ARCHIVE
+ALTER TABLE AUDIT_VERSION RENAME TO AUDIT_VERSION_UNPARTITIONED;
+ALTER TABLE AUDIT_VERSION_UNPARTITIONED RENAME CONSTRAINT AUDIT_VERSION_PKEY TO AUDIT_VERSION_UNPARTITIONED_PKEY;
+
+CREATE TABLE AUDIT_VERSION
+(
+    AUDIT_ID        UUID      NOT NULL,
+    ACTION          TEXT      NOT NULL,
+    TABLE_NAME      TEXT      NOT NULL,
+    TABLE_ID        TEXT      NOT NULL,
+    USER_ID         TEXT      NOT NULL,
+    TIME            TIMESTAMP NOT NULL,
+    DATA            JSONB     NOT NULL,
+    ENCODING        TEXT      NOT NULL DEFAULT 'FULL',
+    ORDINAL         INTEGER,
+    PRODUCT_AREA_ID TEXT,
+    PRIMARY KEY (AUDIT_ID, TIME)
+) PARTITION BY RANGE (TIME);
+
+CREATE TABLE AUDIT_VERSION_DEFAULT PARTITION OF AUDIT_VERSION DEFAULT;
+
+DO
+$$
+    DECLARE
+        partition_start DATE := date_trunc('month', coalesce((SELECT min(TIME) FROM AUDIT_VERSION_UNPARTITIONED), now()));
+    BEGIN
+        WHILE partition_start <= date_trunc('month', now()) + INTERVAL '3 month'
+            LOOP
+                EXECUTE format('CREATE TABLE %I PARTITION OF AUDIT_VERSION FOR VALUES FROM (%L) TO (%L)',
+                               'audit_version_' || to_char(partition_start, 'YYYY_MM'), partition_start, partition_start + INTERVAL '1 month');
+                partition_start := partition_start + INTERVAL '1 month';
+            END LOOP;
+    END
+$$;
+
+INSERT INTO AUDIT_VERSION (AUDIT_ID, ACTION, TABLE_NAME, TABLE_ID, USER_ID, TIME, DATA, ENCODING, ORDINAL, PRODUCT_AREA_ID)
+SELECT AUDIT_ID, ACTION, TABLE_NAME, TABLE_ID, USER_ID, TIME, DATA, ENCODING, ORDINAL, PRODUCT_AREA_ID
+FROM AUDIT_VERSION_UNPARTITIONED;
+
+DROP TABLE AUDIT_VERSION_UNPARTITIONED;
+
+CREATE INDEX IF NOT EXISTS AUDIT_VERSION_TIME ON AUDIT_VERSION (TIME DESC);
+CREATE INDEX IF NOT EXISTS AUDIT_VERSION_TABLE_ID_TIME ON AUDIT_VERSION (TABLE_ID, TIME);
+CREATE INDEX IF NOT EXISTS AUDIT_VERSION_TABLE_ID_ORDINAL ON AUDIT_VERSION (TABLE_ID, ORDINAL);
+CREATE INDEX IF NOT EXISTS AUDIT_VERSION_NOT_ENCODED ON AUDIT_VERSION (TIME) WHERE ORDINAL IS NULL;
+
+-- DATA is the gzip compressed json of the version, a full snapshot or a patch as in AUDIT_VERSION
+CREATE TABLE IF NOT EXISTS AUDIT_VERSION_ARCHIVE
+(
+    AUDIT_ID        UUID PRIMARY KEY,
+    ACTION          TEXT      NOT NULL,
+    TABLE_NAME      TEXT      NOT NULL,
+    TABLE_ID        TEXT      NOT NULL,
+    USER_ID         TEXT      NOT NULL,
+    TIME            TIMESTAMP NOT NULL,
+    DATA            BYTEA     NOT NULL,
+    ENCODING        TEXT      NOT NULL,
+    ORDINAL         INTEGER,
+    PRODUCT_AREA_ID TEXT
+);
+-- already compressed
+ALTER TABLE AUDIT_VERSION_ARCHIVE ALTER COLUMN DATA SET STORAGE EXTERNAL;
+
+CREATE INDEX IF NOT EXISTS AUDIT_VERSION_ARCHIVE_TABLE_ID_TIME ON AUDIT_VERSION_ARCHIVE (TABLE_ID, TIME);
+CREATE INDEX IF NOT EXISTS AUDIT_VERSION_ARCHIVE_TABLE_ID_ORDINAL ON AUDIT_VERSION_ARCHIVE (TABLE_ID, ORDINAL);
@@ -0,0 +1,4 @@
+-- Keyset pagination and export of the audit log order by TIME and AUDIT_ID
+DROP INDEX IF EXISTS AUDIT_VERSION_TIME;
+CREATE INDEX IF NOT EXISTS AUDIT_VERSION_TIME_ID ON AUDIT_VERSION (TIME DESC, AUDIT_ID DESC);
+CREATE INDEX IF NOT EXISTS AUDIT_VERSION_ARCHIVE_TIME_ID ON AUDIT_VERSION_ARCHIVE (TIME, AUDIT_ID);
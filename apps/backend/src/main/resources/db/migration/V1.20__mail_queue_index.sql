@@ -0,0 +1,2 @@
+-- mails are claimed oldest first by the mail queue
+CREATE INDEX IF NOT EXISTS GS_MAIL_TASK_CREATED ON GENERIC_STORAGE (CREATED_DATE) WHERE TYPE = 'MailTask';
@@ -0,0 +1,17 @@
+-- Changelog of each team and product area audit, DATA is null for audits without changes shown in the changelog.
+-- Product area columns are set for teams, so product area changelogs include their teams
+CREATE TABLE IF NOT EXISTS CHANGELOG_ENTRY
+(
+    AUDIT_ID             UUID      NOT NULL,
+    TARGET_ID            TEXT      NOT NULL,
+    TIME                 TIMESTAMP NOT NULL,
+    PRODUCT_AREA_ID      TEXT,
+    PREV_PRODUCT_AREA_ID TEXT,
+    DATA                 JSONB,
+    PRIMARY KEY (AUDIT_ID, TARGET_ID)
+);
+
+CREATE INDEX IF NOT EXISTS CHANGELOG_ENTRY_TIME ON CHANGELOG_ENTRY (TIME);
+CREATE INDEX IF NOT EXISTS CHANGELOG_ENTRY_TARGET_ID_TIME ON CHANGELOG_ENTRY (TARGET_ID, TIME);
+CREATE INDEX IF NOT EXISTS CHANGELOG_ENTRY_PRODUCT_AREA_ID_TIME ON CHANGELOG_ENTRY (PRODUCT_AREA_ID, TIME);
+CREATE INDEX IF NOT EXISTS CHANGELOG_ENTRY_PREV_PRODUCT_AREA_ID_TIME ON CHANGELOG_ENTRY (PREV_PRODUCT_AREA_ID, TIME);
@@ -0,0 +1,7 @@
+-- Position of the changelog feed, audits before WATERMARK have entries in CHANGELOG_ENTRY.
+-- It never passes the oldest audit in AUDIT_OUTBOX, so audits written to AUDIT_VERSION late are still found
+CREATE TABLE IF NOT EXISTS CHANGELOG_FEED
+(
+    ID        INT PRIMARY KEY,
+    WATERMARK TIMESTAMP NOT NULL
+);
@@ -0,0 +1,15 @@
+<#-- @ftlvariable name="" type="no.nav.data.team.notify.dto.MailModels.MailModel" -->
+<!DOCTYPE html PUBLIC "-//W3C//DTD XHTML 1.0 Transitional//EN" "http://www.w3.org/TR/xhtml1/DTD/xhtml1-transitional.dtd">
+<html xmlns="http://www.w3.org/1999/xhtml">
+<head>
+  <meta http-equiv="Content-Type" content="text/html; charset=UTF-8"/>
+  <title>${title?html}</title>
+  <meta name="viewport" content="width=device-width, initial-scale=1.0"/>
+</head>
+<body>
+<#list parts as part>
+${part}
+<#sep><hr/></#sep>
+</#list>
+</body>
+</html>
@@ -1,12 +1,5 @@
 <#-- @ftlvariable name="" type="no.nav.data.team.notify.dto.MailModels.UpdateModel" -->
-<!DOCTYPE html PUBLIC "-//W3C//DTD XHTML 1.0 Transitional//EN" "http://www.w3.org/TR/xhtml1/DTD/xhtml1-transitional.dtd">
-<html xmlns="http://www.w3.org/1999/xhtml">
-<head>
-  <meta http-equiv="Content-Type" content="text/html; charset=UTF-8"/>
-  <title>Oppdatering fra Teamkatalog</title>
-  <meta name="viewport" content="width=device-width, initial-scale=1.0"/>
-</head>
-<body>
+<#-- body of a mail, put in a document by mail.ftl -->
 <#macro timeText time>
 <#-- @ftlvariable name="time" type="no.nav.data.team.notify.domain.Notification.NotificationTime" -->
     <#switch time>
@@ -147,6 +140,3 @@
     for å avslutte abonnement eller endre hyppighet på varsler.
   </p>
 </div>
-
-</body>
-</html>
\ No newline at end of file
@@ -0,0 +1,89 @@
+package no.nav.data.common.auditing;
+
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import no.nav.data.common.auditing.domain.AuditEncoding;
+import no.nav.data.common.auditing.domain.AuditVersion;
+import no.nav.data.team.IntegrationTestBase;
+import no.nav.data.team.team.domain.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditArchiverIT extends IntegrationTestBase {
+
+    @Autowired
+    private AuditArchiver archiver;
+    @Autowired
+    private AuditCompactor compactor;
+    @Autowired
+    private AuditVersionReader reader;
+    @Autowired
+    private LockProvider lockProvider;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("delete from audit_version_archive");
+    }
+
+    @Test
+    void archiveOldPartition() {
+        var team = storageService.save(Team.builder().name("team 0").build());
+        for (int i = 1; i < 4; i++) {
+            team.setName("team " + i);
+            team = storageService.save(team);
+        }
+        jdbcTemplate.execute("update audit_version set time = time - interval '30 month'");
+        compactor.compact();
+
+        assertThat(archiver.createPartitions()).contains(YearMonth.now().minusMonths(30));
+        assertThat(archiver.archive()).contains(YearMonth.now().minusMonths(30));
+
+        var tableId = team.getId().toString();
+        assertThat(auditVersionRepository.findByTableIdOrderByTimeDesc(tableId)).isEmpty();
+        assertThat(reader.findHistory(tableId)).extracting(v -> v.getTeamData().getName()).containsExactly("team 3", "team 2", "team 1", "team 0");
+
+        team.setName("team 4");
+        storageService.save(team);
+        jdbcTemplate.execute("update audit_version set time = time - interval '2 hour'");
+        compactor.compact();
+
+        var latest = auditVersionRepository.findByTableIdOrderByTimeDescLimitOne(tableId);
+        assertThat(latest.getOrdinal()).isEqualTo(4);
+        assertThat(latest.getEncoding()).isEqualTo(AuditEncoding.FULL);
+        assertThat(reader.findHistory(tableId)).extracting(AuditVersion::getOrdinal).containsExactly(4, 3, 2, 1, 0);
+    }
+
+    @Test
+    void keepVersionAfterArchivableVersionFull() {
+        var team = storageService.save(Team.builder().name("team 0").build());
+        jdbcTemplate.execute("update audit_version set time = time - interval '30 month'");
+        compactor.compact();
+
+        team.setName("team 1");
+        storageService.save(team);
+        jdbcTemplate.execute("update audit_version set time = time - interval '2 hour' where time > now() - interval '1 day'");
+        compactor.compact();
+
+        var latest = auditVersionRepository.findByTableIdOrderByTimeDescLimitOne(team.getId().toString());
+        assertThat(latest.getOrdinal()).isEqualTo(1);
+        assertThat(latest.getEncoding()).isEqualTo(AuditEncoding.FULL);
+    }
+
+    @Test
+    void compactUnderMaintenanceLock() {
+        var lock = lockProvider.lock(new LockConfiguration(Instant.now(), AuditCompactor.MAINTENANCE_LOCK, Duration.ofMinutes(1), Duration.ZERO)).orElseThrow();
+        try {
+            assertThat(compactor.compactLocked()).isEmpty();
+        } finally {
+            lock.unlock();
+        }
+        assertThat(compactor.compactLocked()).isPresent();
+    }
+}
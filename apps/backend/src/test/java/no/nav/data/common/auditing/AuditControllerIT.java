@@ -0,0 +1,61 @@
+package no.nav.data.common.auditing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import no.nav.data.common.utils.JsonUtils;
+import no.nav.data.team.IntegrationTestBase;
+import no.nav.data.team.team.domain.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditControllerIT extends IntegrationTestBase {
+
+    private String tableId;
+
+    @BeforeEach
+    void setUp() {
+        var team = storageService.save(Team.builder().name("team 0").build());
+        for (int i = 1; i < 3; i++) {
+            team.setName("team " + i);
+            team = storageService.save(team);
+        }
+        tableId = team.getId().toString();
+    }
+
+    @Test
+    void getAuditPages() {
+        var first = restTemplate.getForEntity("/audit/page?pageSize=2&tableId={id}&includeTotal=true", JsonNode.class, tableId).getBody();
+        assertThat(first).isNotNull();
+        assertThat(first.get("totalElements").asLong()).isEqualTo(3L);
+        assertThat(names(first.get("content"))).containsExactly("team 2", "team 1");
+
+        var second = restTemplate.getForEntity("/audit/page?pageSize=2&tableId={id}&cursor={cursor}", JsonNode.class, tableId, first.get("nextCursor").asText())
+                .getBody();
+        assertThat(second).isNotNull();
+        assertThat(names(second.get("content"))).containsExactly("team 0");
+        assertThat(second.get("nextCursor").isNull()).isTrue();
+
+        var invalid = restTemplate.getForEntity("/audit/page?cursor=invalid", String.class);
+        assertThat(invalid.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void exportAudit() {
+        var export = restTemplate.getForEntity("/audit/export?tableId={id}&table=Team", String.class, tableId).getBody();
+        assertThat(export).isNotNull();
+        var lines = export.lines().map(JsonUtils::toJsonNode).toList();
+        assertThat(names(JsonUtils.toJsonNode(lines))).containsExactly("team 0", "team 1", "team 2");
+
+        var invalid = restTemplate.getForEntity("/audit/export?from=2024-02-01T00:00:00&to=2024-01-01T00:00:00", String.class);
+        assertThat(invalid.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private static List<String> names(JsonNode audits) {
+        return StreamSupport.stream(audits.spliterator(), false).map(audit -> audit.get("data").get("data").get("name").asText()).toList();
+    }
+}
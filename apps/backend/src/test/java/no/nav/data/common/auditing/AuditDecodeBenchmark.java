@@ -0,0 +1,69 @@
+package no.nav.data.common.auditing;
+
+import no.nav.data.common.auditing.domain.Action;
+import no.nav.data.common.auditing.domain.AuditVersion;
+import no.nav.data.common.storage.domain.GenericStorage;
+import no.nav.data.common.utils.JsonUtils;
+import no.nav.data.common.utils.MicroBenchmark;
+import no.nav.data.team.shared.domain.DomainObjectStatus;
+import no.nav.data.team.team.domain.Team;
+import no.nav.data.team.team.domain.TeamMember;
+import no.nav.data.team.team.domain.TeamRole;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static no.nav.data.team.TestDataHelper.createNavIdent;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Decoding a large team version, reading through a GenericStorage and a JsonNode against reading the domain object in one pass.
+ * Run with {@code mvn test -Dtest=AuditDecodeBenchmark}
+ */
+class AuditDecodeBenchmark {
+
+    private static final int MEMBERS = 1000;
+
+    private static AuditVersion version;
+
+    @BeforeAll
+    static void beforeAll() {
+        var id = UUID.randomUUID();
+        var team = Team.builder().id(id).name("Team").description("A team with a long enough description " + "x".repeat(200))
+                .status(DomainObjectStatus.ACTIVE)
+                .members(IntStream.range(0, MEMBERS).mapToObj(i -> TeamMember.builder().navIdent(createNavIdent(i)).role(TeamRole.DEVELOPER).description("Member " + i).build()).toList())
+                .build();
+        var storage = new GenericStorage();
+        storage.setId(id);
+        storage.setDomainObjectData(team);
+        version = AuditVersion.builder().action(Action.UPDATE).table("Team").tableId(id.toString()).user("S123456").data(JsonUtils.toJson(storage)).build();
+    }
+
+    @Test
+    void decode() {
+        var twoPass = MicroBenchmark.run("generic storage then team", 50, 500,
+                () -> JsonUtils.toObject(JsonUtils.toObject(version.getData(), GenericStorage.class).getData(), Team.class));
+        var singlePass = MicroBenchmark.run("team in one pass", 50, 500, () -> copy().getTeamData());
+
+        assertThat(copy().getTeamData().getMembers()).hasSize(MEMBERS);
+        assertThat(singlePass.microsPerOp()).isLessThan(twoPass.microsPerOp());
+    }
+
+    @Test
+    void response() {
+        var parsed = MicroBenchmark.run("data parsed and written", 50, 500, () -> JsonUtils.toJson(JsonUtils.toJsonNode(version.getData())));
+        var raw = MicroBenchmark.run("response with raw data", 50, 500, () -> JsonUtils.toJson(copy().convertToResponse()));
+
+        assertThat(JsonUtils.toJsonNode(JsonUtils.toJson(copy().convertToResponse())).get("data")).isEqualTo(JsonUtils.toJsonNode(version.getData()));
+        assertThat(raw.microsPerOp()).isLessThan(parsed.microsPerOp());
+    }
+
+    /**
+     * Versions cache the decoded object
+     */
+    private static AuditVersion copy() {
+        return version.toBuilder().domainObjectCache(null).build();
+    }
+}
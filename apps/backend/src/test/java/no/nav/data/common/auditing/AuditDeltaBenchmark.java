@@ -0,0 +1,91 @@
+package no.nav.data.common.auditing;
+
+import lombok.extern.slf4j.Slf4j;
+import no.nav.data.common.auditing.domain.Action;
+import no.nav.data.common.auditing.domain.AuditEncoding;
+import no.nav.data.common.auditing.domain.AuditVersion;
+import no.nav.data.common.storage.domain.GenericStorage;
+import no.nav.data.common.utils.JsonPatch;
+import no.nav.data.common.utils.JsonUtils;
+import no.nav.data.common.utils.MicroBenchmark;
+import no.nav.data.team.shared.domain.DomainObjectStatus;
+import no.nav.data.team.team.domain.Team;
+import no.nav.data.team.team.domain.TeamMember;
+import no.nav.data.team.team.domain.TeamRole;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static no.nav.data.team.TestDataHelper.createNavIdent;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Storage size and read latency of a team history with one member change per version, full snapshots against delta encoding.
+ * Run with {@code mvn test -Dtest=AuditDeltaBenchmark}
+ */
+@Slf4j
+class AuditDeltaBenchmark {
+
+    private static final int VERSIONS = 200;
+    private static final int MEMBERS = 40;
+    private static final int KEYFRAME_INTERVAL = 10;
+
+    private static List<AuditVersion> full;
+    private static List<AuditVersion> delta;
+
+    @BeforeAll
+    static void beforeAll() {
+        var id = UUID.randomUUID();
+        var members = new ArrayList<TeamMember>(IntStream.range(0, MEMBERS).mapToObj(AuditDeltaBenchmark::member).toList());
+        full = new ArrayList<>();
+        delta = new ArrayList<>();
+        for (int i = 0; i < VERSIONS; i++) {
+            members.remove(i % members.size());
+            members.add(member(MEMBERS + i));
+            var team = Team.builder().id(id).name("Team").description("A team with a long enough description " + "x".repeat(200))
+                    .status(DomainObjectStatus.ACTIVE).members(List.copyOf(members)).build();
+            var storage = new GenericStorage();
+            storage.setId(id);
+            storage.setDomainObjectData(team);
+            var data = JsonUtils.toJson(storage);
+            var version = AuditVersion.builder().action(Action.UPDATE).table("Team").tableId(id.toString()).user("S123456").ordinal(i).data(data).build();
+            full.add(version);
+            if (i % KEYFRAME_INTERVAL == 0) {
+                delta.add(version);
+            } else {
+                var patch = JsonPatch.diff(JsonUtils.toJsonNode(full.get(i - 1).getData()), JsonUtils.toJsonNode(data));
+                delta.add(version.toBuilder().encoding(AuditEncoding.PATCH).data(JsonUtils.toJson(patch)).build());
+            }
+        }
+    }
+
+    @Test
+    void storage() {
+        long fullBytes = full.stream().mapToLong(v -> v.getData().length()).sum();
+        long deltaBytes = delta.stream().mapToLong(v -> v.getData().length()).sum();
+        log.info("full {} bytes, delta {} bytes", fullBytes, deltaBytes);
+
+        assertThat(deltaBytes).isLessThan(fullBytes / 3);
+    }
+
+    @Test
+    void readHistory() {
+        var fullRead = MicroBenchmark.run("full history", 20, 200, () -> new AuditVersionReader(null, null).resolve(full));
+        var deltaRead = MicroBenchmark.run("delta history", 20, 200, () -> new AuditVersionReader(null, null).resolve(delta));
+        var latest = delta.subList(delta.size() - KEYFRAME_INTERVAL, delta.size());
+        var latestRead = MicroBenchmark.run("delta latest version", 20, 2000,
+                () -> new AuditVersionReader(null, null).resolve(latest).get(latest.size() - 1));
+
+        assertThat(new AuditVersionReader(null, null).resolve(delta)).extracting(AuditVersion::getData).containsExactlyElementsOf(full.stream().map(AuditVersion::getData).toList());
+        assertThat(latestRead.microsPerOp()).isLessThan(deltaRead.microsPerOp());
+        assertThat(fullRead.microsPerOp()).isLessThan(deltaRead.microsPerOp());
+    }
+
+    private static TeamMember member(int i) {
+        return TeamMember.builder().navIdent(createNavIdent(i)).role(TeamRole.DEVELOPER).description("Member " + i).build();
+    }
+}
@@ -0,0 +1,59 @@
+package no.nav.data.common.auditing;
+
+import no.nav.data.common.auditing.domain.Action;
+import no.nav.data.common.auditing.domain.AuditOutboxRepository;
+import no.nav.data.team.IntegrationTestBase;
+import no.nav.data.team.team.domain.Team;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditOutboxWriterIT extends IntegrationTestBase {
+
+    @Autowired
+    private AuditOutboxWriter writer;
+    @Autowired
+    private AuditOutboxRepository outboxRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void auditIsWrittenThroughOutbox() {
+        var team = storageService.save(Team.builder().name("team").build());
+
+        var audits = auditVersionRepository.findByTableIdOrderByTimeDesc(team.getId().toString());
+        assertThat(audits).hasSize(1);
+        assertThat(audits.get(0).getAction()).isEqualTo(Action.CREATE);
+        assertThat(audits.get(0).getTeamData().getName()).isEqualTo("team");
+        assertThat(outboxRepository.status().size()).isZero();
+    }
+
+    @Test
+    void rolledBackWriteIsNotAudited() {
+        var tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            storageService.save(Team.builder().name("team").build());
+            status.setRollbackOnly();
+        });
+        writer.flush();
+
+        assertThat(auditVersionRepository.count()).isZero();
+        assertThat(outboxRepository.status().size()).isZero();
+    }
+
+    @Test
+    void alreadyWrittenAuditIsIgnored() {
+        var team = storageService.save(Team.builder().name("team").build());
+        var audit = auditVersionRepository.findByTableIdOrderByTimeDesc(team.getId().toString()).get(0);
+
+        outboxRepository.add(audit);
+        assertThat(outboxRepository.status().size()).isEqualTo(1);
+        writer.flush();
+
+        assertThat(auditVersionRepository.count()).isEqualTo(1);
+        assertThat(outboxRepository.status().size()).isZero();
+    }
+}
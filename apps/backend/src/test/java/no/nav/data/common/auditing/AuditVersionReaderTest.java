@@ -0,0 +1,96 @@
+package no.nav.data.common.auditing;
+
+import no.nav.data.common.auditing.domain.Action;
+import no.nav.data.common.auditing.domain.AuditArchiveRepository;
+import no.nav.data.common.auditing.domain.AuditEncoding;
+import no.nav.data.common.auditing.domain.AuditVersion;
+import no.nav.data.common.auditing.domain.AuditVersionRepository;
+import no.nav.data.common.auditing.domain.AuditVersionRepositoryCustom.ChainRequest;
+import no.nav.data.common.utils.JsonPatch;
+import no.nav.data.common.utils.JsonUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditVersionReaderTest {
+
+    private static final String TABLE_ID = "0b6e8a3c-8d6e-4a53-9c1a-6f2a3b2d1c01";
+
+    @Mock
+    private AuditVersionRepository repository;
+    @Mock
+    private AuditArchiveRepository archiveRepository;
+    @InjectMocks
+    private AuditVersionReader reader;
+
+    private final List<String> snapshots = IntStream.range(0, 5).mapToObj(i -> "{\"data\":{\"name\":\"team\",\"version\":" + i + "}}").toList();
+
+    @Test
+    void resolveFullHistory() {
+        var history = compacted();
+
+        var resolved = reader.resolve(reverse(history));
+
+        assertThat(resolved).extracting(AuditVersion::getData).containsExactlyElementsOf(reverse(snapshots));
+        assertThat(resolved).noneMatch(AuditVersion::isPatch);
+        verifyNoInteractions(repository, archiveRepository);
+    }
+
+    @Test
+    void resolveSingleVersionLoadsChain() {
+        var history = compacted();
+        when(repository.findChains(List.of(new ChainRequest(TABLE_ID, 3, 3)))).thenReturn(history.subList(0, 4));
+
+        var resolved = reader.resolve(history.get(3));
+
+        assertThat(resolved.getData()).isEqualTo(snapshots.get(3));
+        assertThat(resolved.getId()).isEqualTo(history.get(3).getId());
+        verify(repository).findChains(List.of(new ChainRequest(TABLE_ID, 3, 3)));
+        verifyNoInteractions(archiveRepository);
+    }
+
+    @Test
+    void resolveArchivedVersionLoadsChainFromArchive() {
+        var history = compacted();
+        when(repository.findChains(List.of(new ChainRequest(TABLE_ID, 2, 2)))).thenReturn(List.of());
+        when(archiveRepository.findChain(TABLE_ID, 2, 2)).thenReturn(history.subList(0, 3));
+
+        var resolved = reader.resolve(history.get(2));
+
+        assertThat(resolved.getData()).isEqualTo(snapshots.get(2));
+    }
+
+    private List<AuditVersion> compacted() {
+        var versions = new ArrayList<AuditVersion>();
+        for (int i = 0; i < snapshots.size(); i++) {
+            var builder = AuditVersion.builder().action(Action.UPDATE).table("Team").tableId(TABLE_ID).user("S123456").ordinal(i);
+            if (i == 0) {
+                builder.data(snapshots.get(i));
+            } else {
+                var patch = JsonPatch.diff(JsonUtils.toJsonNode(snapshots.get(i - 1)), JsonUtils.toJsonNode(snapshots.get(i)));
+                builder.encoding(AuditEncoding.PATCH).data(JsonUtils.toJson(patch));
+            }
+            versions.add(builder.build());
+        }
+        return versions;
+    }
+
+    private static <T> List<T> reverse(List<T> list) {
+        var copy = new ArrayList<>(list);
+        Collections.reverse(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,53 @@
+package no.nav.data.common.mail;
+
+import no.nav.data.team.IntegrationTestBase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static no.nav.data.common.utils.StreamUtils.convert;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailQueueIT extends IntegrationTestBase {
+
+    @Autowired
+    private MailQueueRepository queue;
+
+    @Test
+    void claimLeasedBatches() {
+        for (int i = 0; i < 3; i++) {
+            storageService.save(MailTask.builder().to("mail" + i + "@nav.no").subject("subject").body("body").build());
+        }
+
+        var first = queue.claim(2, Duration.ofMinutes(10));
+        assertThat(first).hasSize(2);
+        assertThat(first.get(0).getLeasedUntil()).isAfter(LocalDateTime.now());
+        var second = queue.claim(2, Duration.ofMinutes(10));
+        assertThat(second).hasSize(1);
+        assertThat(convert(second, MailTask::getTo)).doesNotContainAnyElementsOf(convert(first, MailTask::getTo));
+        assertThat(queue.claim(2, Duration.ofMinutes(10))).isEmpty();
+
+        queue.delete(convert(first, MailTask::getId));
+        assertThat(queue.status()).isEqualTo(new MailQueueRepository.QueueStatus(1, 0));
+    }
+
+    @Test
+    void retryAfterDelayThenDeadLetter() {
+        var mail = storageService.save(MailTask.builder().to("mail@nav.no").subject("subject").body("body").build());
+        var claimed = queue.claim(10, Duration.ofMinutes(10)).get(0);
+        assertThat(claimed.getId()).isEqualTo(mail.getId());
+
+        queue.failed(claimed.getId(), 1, "error", Duration.ZERO);
+        var retried = queue.claim(10, Duration.ofMinutes(10));
+        assertThat(retried).hasSize(1);
+        assertThat(retried.get(0).getAttempts()).isEqualTo(1);
+        assertThat(retried.get(0).getLastError()).isEqualTo("error");
+
+        queue.deadLetter(mail.getId(), 2, "error");
+        assertThat(storageService.get(mail.getId(), MailTask.class).isDeadLetter()).isTrue();
+        assertThat(queue.claim(10, Duration.ZERO)).isEmpty();
+        assertThat(queue.status()).isEqualTo(new MailQueueRepository.QueueStatus(0, 1));
+    }
+}
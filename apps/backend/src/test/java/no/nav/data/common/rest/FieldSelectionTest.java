@@ -0,0 +1,43 @@
+package no.nav.data.common.rest;
+
+import no.nav.data.common.utils.JsonUtils;
+import no.nav.data.team.team.dto.TeamResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FieldSelectionTest {
+
+    @Test
+    void parse() {
+        assertThat(FieldSelection.parse(null).isAll()).isTrue();
+        assertThat(FieldSelection.parse(" ").isAll()).isTrue();
+
+        var fields = FieldSelection.parse("name, naisTeams,,");
+        assertThat(fields.isAll()).isFalse();
+        assertThat(fields.includes("id")).isTrue();
+        assertThat(fields.includes("name")).isTrue();
+        assertThat(fields.includes("naisTeams")).isTrue();
+        assertThat(fields.includes("members")).isFalse();
+        assertThat(fields.includesAny(List.of("members", "name"))).isTrue();
+        assertThat(fields.<String>ifIncluded("members", () -> {
+            throw new AssertionError("should not be computed");
+        })).isNull();
+    }
+
+    @Test
+    void serializeSelectedFields() throws Exception {
+        var team = TeamResponse.builder().id(UUID.randomUUID()).name("team").description("desc").naisTeams(List.of("nais")).build();
+        var mapper = JsonUtils.getObjectMapper();
+
+        var filtered = mapper.readTree(mapper.writer(FieldSelection.parse("name").filterProvider()).writeValueAsString(team));
+        assertThat(filtered.fieldNames()).toIterable().containsExactly("id", "name");
+
+        var all = mapper.readTree(mapper.writeValueAsString(team));
+        assertThat(all.has("description")).isTrue();
+        assertThat(all.has("naisTeams")).isTrue();
+    }
+}
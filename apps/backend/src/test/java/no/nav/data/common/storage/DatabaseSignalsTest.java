@@ -0,0 +1,85 @@
+package no.nav.data.common.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseSignalsTest {
+
+    private static final String CHANNEL = "test_signal";
+
+    @Mock
+    private DataSourceProperties dataSourceProperties;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicInteger received = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void deliverAfterCommit() {
+        var signals = signals(false);
+        TransactionSynchronizationManager.initSynchronization();
+
+        signals.signal(CHANNEL);
+        assertThat(received).hasValue(0);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(received).hasValue(1);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void noDeliveryOnRollback() {
+        var signals = signals(false);
+        TransactionSynchronizationManager.initSynchronization();
+
+        signals.signal(CHANNEL);
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(received).hasValue(0);
+    }
+
+    @Test
+    void deliverOutsideTransaction() {
+        signals(false).signal(CHANNEL);
+
+        assertThat(received).hasValue(1);
+    }
+
+    @Test
+    void deliverLocallyUntilListening() {
+        var signals = signals(true);
+        TransactionSynchronizationManager.initSynchronization();
+
+        signals.signal(CHANNEL);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(received).hasValue(1);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private DatabaseSignals signals(boolean enabled) {
+        var signals = new DatabaseSignals(dataSourceProperties, jdbcTemplate, new DatabaseSignalsProperties(enabled));
+        signals.listen(CHANNEL, received::incrementAndGet);
+        return signals;
+    }
+}
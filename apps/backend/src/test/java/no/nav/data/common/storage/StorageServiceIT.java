@@ -0,0 +1,58 @@
+package no.nav.data.common.storage;
+
+import no.nav.data.common.exceptions.ConflictException;
+import no.nav.data.common.exceptions.NotFoundException;
+import no.nav.data.team.IntegrationTestBase;
+import no.nav.data.team.team.domain.Team;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StorageServiceIT extends IntegrationTestBase {
+
+    @Test
+    void updateIncrementsVersion() {
+        var team = storageService.save(Team.builder().name("team").build());
+        assertThat(team.getChangeStamp().getVersion()).isZero();
+
+        team.setName("new name");
+        var updated = storageService.save(team);
+
+        assertThat(updated.getChangeStamp().getVersion()).isEqualTo(1);
+        assertThat(updated.getChangeStamp().getCreatedDate()).isEqualTo(team.getChangeStamp().getCreatedDate());
+        assertThat(storageService.get(team.getId(), Team.class).getName()).isEqualTo("new name");
+        assertThat(auditVersionRepository.findByTableIdOrderByTimeDesc(team.getId().toString())).hasSize(2);
+    }
+
+    @Test
+    void concurrentUpdateIsRejected() {
+        var team = storageService.save(Team.builder().name("team").build());
+        var first = storageService.get(team.getId(), Team.class);
+        var second = storageService.get(team.getId(), Team.class);
+
+        first.setName("first");
+        storageService.save(first);
+        second.setName("second");
+
+        assertThatThrownBy(() -> storageService.save(second)).isInstanceOf(ConflictException.class);
+        assertThat(storageService.get(team.getId(), Team.class).getName()).isEqualTo("first");
+    }
+
+    @Test
+    void updateOfDeletedObject() {
+        var team = storageService.save(Team.builder().name("team").build());
+        storageService.delete(team);
+
+        assertThatThrownBy(() -> storageService.save(team)).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void unversionedObjectIsSaved() {
+        var team = storageService.save(Team.builder().name("team").build());
+        var copy = Team.builder().id(team.getId()).name("copy").build();
+
+        assertThat(storageService.save(copy).getName()).isEqualTo("copy");
+        assertThat(storageService.get(team.getId(), Team.class).getChangeStamp().getVersion()).isEqualTo(1);
+    }
+}
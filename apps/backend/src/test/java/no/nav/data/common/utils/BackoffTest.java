@@ -0,0 +1,23 @@
+package no.nav.data.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BackoffTest {
+
+    @Test
+    void retryDelay() {
+        assertThat(Backoff.retryDelay(1)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(Backoff.retryDelay(4)).isEqualTo(Duration.ofMinutes(8));
+        assertThat(Backoff.retryDelay(30)).isEqualTo(Backoff.MAX_RETRY);
+    }
+
+    @Test
+    void exhausted() {
+        assertThat(Backoff.exhausted(Backoff.MAX_ATTEMPTS - 1)).isFalse();
+        assertThat(Backoff.exhausted(Backoff.MAX_ATTEMPTS)).isTrue();
+    }
+}
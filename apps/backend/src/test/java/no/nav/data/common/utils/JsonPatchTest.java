@@ -0,0 +1,57 @@
+package no.nav.data.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonPatchTest {
+
+    @Test
+    void roundtripObject() {
+        var source = JsonUtils.toJsonNode("""
+                {"name": "team", "description": "old", "tags": ["a"], "officeHours": {"locationCode": "FA1"}}
+                """);
+        var target = JsonUtils.toJsonNode("""
+                {"name": "team", "tags": ["a", "b"], "officeHours": {"locationCode": "FA2", "days": ["MONDAY"]}, "slackChannel": "#team"}
+                """);
+
+        var patch = JsonPatch.diff(source, target);
+
+        assertThat(JsonPatch.apply(source, patch)).isEqualTo(target);
+        assertThat(patch.toString()).doesNotContain("\"name\"");
+    }
+
+    @Test
+    void memberAddedAndRemoved() {
+        var source = JsonUtils.toJsonNode("""
+                {"members": [{"navIdent": "S1"}, {"navIdent": "S2"}, {"navIdent": "S3"}, {"navIdent": "S4"}]}
+                """);
+        var target = JsonUtils.toJsonNode("""
+                {"members": [{"navIdent": "S1"}, {"navIdent": "S3"}, {"navIdent": "S4"}, {"navIdent": "S5"}]}
+                """);
+
+        var patch = JsonPatch.diff(source, target);
+
+        assertThat(JsonPatch.apply(source, patch)).isEqualTo(target);
+        assertThat(patch).hasSize(2);
+    }
+
+    @Test
+    void applyDoesNotModifySource() {
+        var source = JsonUtils.toJsonNode("{\"a/b\": [1, 2], \"c~d\": 1}");
+        var target = JsonUtils.toJsonNode("{\"a/b\": [2], \"c~d\": 2}");
+        var copy = source.deepCopy();
+
+        var patched = JsonPatch.apply(source, JsonPatch.diff(source, target));
+
+        assertThat(patched).isEqualTo(target);
+        assertThat(source).isEqualTo(copy);
+    }
+
+    @Test
+    void equalDocuments() {
+        var node = JsonUtils.toJsonNode("{\"a\": [1, {\"b\": null}]}");
+
+        assertThat(JsonPatch.diff(node, node.deepCopy())).isEmpty();
+    }
+}
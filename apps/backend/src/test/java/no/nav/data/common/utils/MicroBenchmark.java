@@ -0,0 +1,43 @@
+package no.nav.data.common.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.Supplier;
+
+/**
+ * Minimal timing harness for *Benchmark classes. These are not part of the regular build, run them explicitly with
+ * {@code mvn test -Dtest=<class>}
+ */
+@Slf4j
+public final class MicroBenchmark {
+
+    private static volatile Object sink;
+
+    private MicroBenchmark() {
+    }
+
+    public static Result run(String name, int warmupIterations, int iterations, Supplier<?> operation) {
+        for (int i = 0; i < warmupIterations; i++) {
+            sink = operation.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = operation.get();
+        }
+        var result = new Result(name, iterations, System.nanoTime() - start);
+        log.info("{}", result);
+        return result;
+    }
+
+    public record Result(String name, int iterations, long nanos) {
+
+        public double microsPerOp() {
+            return nanos / 1000.0 / iterations;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %.1f us/op (%d ops)", name, microsPerOp(), iterations);
+        }
+    }
+}
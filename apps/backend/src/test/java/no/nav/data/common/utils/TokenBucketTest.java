@@ -0,0 +1,41 @@
+package no.nav.data.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final TokenBucket bucket = new TokenBucket(2, 60, Duration.ofMinutes(1), now::get);
+
+    @Test
+    void burstThenSteadyRate() {
+        assertThat(bucket.reserve(Duration.ZERO)).isZero();
+        assertThat(bucket.reserve(Duration.ZERO)).isZero();
+        assertThat(bucket.reserve(Duration.ZERO)).isEqualTo(-1);
+
+        assertThat(bucket.reserve(Duration.ofSeconds(5))).isEqualTo(Duration.ofSeconds(1).toNanos());
+        // waits behind the caller already waiting
+        assertThat(bucket.reserve(Duration.ofSeconds(5))).isEqualTo(Duration.ofSeconds(2).toNanos());
+
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertThat(bucket.reserve(Duration.ZERO)).isEqualTo(-1);
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(bucket.reserve(Duration.ZERO)).isZero();
+    }
+
+    @Test
+    void refillUpToCapacity() {
+        bucket.reserve(Duration.ZERO);
+        bucket.reserve(Duration.ZERO);
+        now.addAndGet(Duration.ofMinutes(1).toNanos());
+
+        assertThat(bucket.reserve(Duration.ZERO)).isZero();
+        assertThat(bucket.reserve(Duration.ZERO)).isZero();
+        assertThat(bucket.reserve(Duration.ZERO)).isEqualTo(-1);
+    }
+}
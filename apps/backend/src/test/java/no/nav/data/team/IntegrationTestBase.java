@@ -5,6 +5,7 @@ import no.nav.data.AppStarter;
 import no.nav.data.common.TeamCatalogProps;
 import no.nav.data.common.auditing.domain.AuditVersionRepository;
 import no.nav.data.common.security.azure.AzureTokenProvider;
+import no.nav.data.common.storage.DatabaseSignals;
 import no.nav.data.common.storage.StorageService;
 import no.nav.data.common.storage.domain.GenericStorageRepository;
 import no.nav.data.team.IntegrationTestBase.Initializer;
@@ -67,6 +68,11 @@ public abstract class IntegrationTestBase extends KafkaTestBase {
     protected AzureTokenProvider tokenProvider;
     @MockBean
     protected TeamCatalogProps teamCatalogProps;
+    /**
+     * Workers woken by signals are run explicitly by the tests
+     */
+    @MockBean
+    protected DatabaseSignals signals;
 
     @BeforeEach
     void setUpBase() {
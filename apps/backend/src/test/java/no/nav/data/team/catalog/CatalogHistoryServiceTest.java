@@ -0,0 +1,141 @@
+package no.nav.data.team.catalog;
+
+import no.nav.data.common.auditing.AuditOutboxWriter;
+import no.nav.data.common.auditing.AuditVersionReader;
+import no.nav.data.common.auditing.domain.Action;
+import no.nav.data.common.auditing.domain.AuditOutboxRepository;
+import no.nav.data.common.auditing.domain.AuditOutboxRepository.OutboxStatus;
+import no.nav.data.common.auditing.domain.AuditVersion;
+import no.nav.data.common.auditing.domain.AuditVersionRepository;
+import no.nav.data.common.storage.DatabaseSignals;
+import no.nav.data.common.utils.JsonUtils;
+import no.nav.data.team.catalog.CatalogTimelineTest.Version;
+import no.nav.data.team.team.domain.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogHistoryServiceTest {
+
+    LocalDateTime start = LocalDateTime.of(2024, 1, 1, 12, 0);
+    Team first = Team.builder().id(UUID.randomUUID()).name("First").build();
+    Team late = Team.builder().id(UUID.randomUUID()).name("Late").build();
+    Team last = Team.builder().id(UUID.randomUUID()).name("Last").build();
+
+    Version firstCreated = created(first, start);
+    // written after lastCreated, waiting in the outbox when the timeline is loaded
+    Version lateCreated = created(late, start.plusMinutes(118));
+    Version lastCreated = created(last, start.plusHours(2));
+
+    @Mock
+    private AuditVersionRepository repository;
+    @Mock
+    private AuditVersionReader reader;
+    @Mock
+    private AuditOutboxRepository outboxRepository;
+    @Mock
+    private DatabaseSignals signals;
+    @InjectMocks
+    private CatalogHistoryService service;
+
+    @BeforeEach
+    void setUp() {
+        var teams = Stream.of(first, late, last).collect(Collectors.toMap(Team::getId, Function.identity()));
+        var versions = Stream.of(firstCreated, lateCreated, lastCreated).collect(Collectors.toMap(Version::getId, v -> auditVersion(v, teams.get(v.getTableId()))));
+        when(reader.findAllById(anyCollection())).thenAnswer(invocation -> invocation.<Collection<UUID>>getArgument(0).stream()
+                .collect(Collectors.toMap(Function.identity(), versions::get)));
+    }
+
+    @Test
+    void cacheSnapshotUntilCatalogChanges() {
+        when(outboxRepository.status()).thenReturn(new OutboxStatus(0, null));
+        when(repository.findMetadataAfter(anyCollection(), any())).thenReturn(List.of(firstCreated, lastCreated), List.of(lastCreated));
+
+        assertThat(names(service.asOf(start.plusHours(1)))).containsExactly("First");
+        service.refresh();
+        assertThat(names(service.asOf(start.plusMinutes(90)))).containsExactly("First");
+
+        verify(reader, times(1)).findAllById(anyCollection());
+    }
+
+    @Test
+    void lateWriteBeforeCachedTime() {
+        when(outboxRepository.status()).thenReturn(new OutboxStatus(1, lateCreated.getTime()), new OutboxStatus(0, null));
+        when(repository.findMetadataAfter(anyCollection(), isNull())).thenReturn(List.of(firstCreated, lastCreated));
+        // looked for from the oldest audit in the outbox, not from the latest version
+        when(repository.findMetadataAfter(anyCollection(), eq(lateCreated.getTime().minusMinutes(1)))).thenReturn(List.of(lateCreated, lastCreated));
+
+        assertThat(names(service.asOf(start.plusHours(3)))).containsExactlyInAnyOrder("First", "Last");
+        service.refresh();
+        assertThat(names(service.asOf(start.plusHours(3)))).containsExactlyInAnyOrder("First", "Late", "Last");
+
+        verify(reader, times(2)).findAllById(anyCollection());
+    }
+
+    @Test
+    void readWithoutQueryingAfterLoad() {
+        when(outboxRepository.status()).thenReturn(new OutboxStatus(0, null));
+        when(repository.findMetadataAfter(anyCollection(), any())).thenReturn(List.of(firstCreated, lastCreated));
+
+        service.asOf(start.plusHours(1));
+        service.asOf(start.plusHours(3));
+
+        verify(repository, times(1)).findMetadataAfter(anyCollection(), any());
+    }
+
+    @Test
+    void refreshOnSignal() {
+        ArgumentCaptor<Runnable> listener = ArgumentCaptor.forClass(Runnable.class);
+        verify(signals).listen(eq(AuditOutboxWriter.AUDIT_WRITTEN_SIGNAL), listener.capture());
+        when(outboxRepository.status()).thenReturn(new OutboxStatus(0, null));
+        when(repository.findMetadataAfter(anyCollection(), any())).thenReturn(List.of(firstCreated), List.of(lastCreated));
+
+        // nothing to extend before the timeline is loaded
+        listener.getValue().run();
+        service.refreshIfChanged();
+        assertThat(names(service.asOf(start.plusHours(3)))).containsExactly("First");
+
+        service.refreshIfChanged();
+        verify(repository, times(1)).findMetadataAfter(anyCollection(), any());
+
+        listener.getValue().run();
+        service.refreshIfChanged();
+        assertThat(names(service.asOf(start.plusHours(3)))).containsExactlyInAnyOrder("First", "Last");
+    }
+
+    private static List<String> names(CatalogSnapshot snapshot) {
+        return snapshot.getTeams().stream().map(Team::getName).toList();
+    }
+
+    private static Version created(Team team, LocalDateTime time) {
+        return new Version(UUID.randomUUID(), time, Action.CREATE, AuditVersion.TEAM_TYPE, team.getId());
+    }
+
+    private static AuditVersion auditVersion(Version version, Team team) {
+        return AuditVersion.builder().id(version.getId()).time(version.getTime()).action(version.getAction()).table(version.getTableName())
+                .tableId(version.getTableId().toString()).data(JsonUtils.toJson(Map.of("data", team))).build();
+    }
+}
@@ -0,0 +1,101 @@
+package no.nav.data.team.catalog;
+
+import no.nav.data.common.storage.domain.ChangeStamp;
+import no.nav.data.team.cluster.domain.Cluster;
+import no.nav.data.team.po.domain.PaMember;
+import no.nav.data.team.po.domain.ProductArea;
+import no.nav.data.team.team.domain.Team;
+import no.nav.data.team.team.domain.TeamMember;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogSnapshotTest {
+
+    ProductArea pa = ProductArea.builder().id(UUID.randomUUID()).name("Område").build();
+    Cluster cluster = Cluster.builder().id(UUID.randomUUID()).name("Klynge").build();
+    Team team1 = Team.builder().id(UUID.randomUUID()).name("Team Alpha").productAreaId(pa.getId()).clusterIds(List.of(cluster.getId())).build();
+    Team team2 = Team.builder().id(UUID.randomUUID()).name("Team Beta").productAreaId(pa.getId()).build();
+
+    CatalogSnapshot snapshot = CatalogSnapshot.of(1, List.of(team1, team2), List.of(pa), List.of(cluster));
+
+    @Test
+    void indexes() {
+        assertThat(snapshot.getTeams()).containsExactly(team1, team2);
+        assertThat(snapshot.findTeamsByProductArea(pa.getId())).containsExactlyInAnyOrder(team1, team2);
+        assertThat(snapshot.findTeamsByCluster(cluster.getId())).containsExactly(team1);
+        assertThat(snapshot.findTeamsByCluster(UUID.randomUUID())).isEmpty();
+        assertThat(snapshot.searchTeams("alp")).containsExactly(team1);
+        assertThat(snapshot.searchProductAreas("mrå")).containsExactly(pa);
+        assertThat(snapshot.searchClusters("KLY")).containsExactly(cluster);
+    }
+
+    @Test
+    void saveCreatesNewVersion() {
+        var moved = Team.builder().id(team1.getId()).name("Team Alpha").productAreaId(UUID.randomUUID()).build();
+        var updated = snapshot.withSaved(moved);
+
+        assertThat(updated.getVersion()).isEqualTo(2);
+        assertThat(updated.getTeams()).hasSize(2).contains(moved);
+        assertThat(updated.findTeamsByProductArea(pa.getId())).containsExactly(team2);
+        assertThat(updated.findTeamsByCluster(cluster.getId())).isEmpty();
+
+        assertThat(snapshot.getVersion()).isEqualTo(1);
+        assertThat(snapshot.findTeamsByCluster(cluster.getId())).containsExactly(team1);
+    }
+
+    @Test
+    void remove() {
+        var updated = snapshot.withRemoved(Team.class, team1.getId());
+        assertThat(updated.getVersion()).isEqualTo(2);
+        assertThat(updated.getTeams()).containsExactly(team2);
+
+        assertThat(updated.withRemoved(Team.class, team1.getId())).isSameAs(updated);
+    }
+
+    @Test
+    void memberships() {
+        var ident = "S123456";
+        var member = Team.builder().id(UUID.randomUUID()).name("Team Gamma").members(List.of(TeamMember.builder().navIdent(ident).build())).build();
+        var area = ProductArea.builder().id(pa.getId()).name("Område").members(List.of(PaMember.builder().navIdent(ident).build())).build();
+        var updated = snapshot.withSaved(member).withSaved(area);
+
+        var membership = updated.findMemberships(ident);
+        assertThat(membership.teams()).containsExactly(member);
+        assertThat(membership.productAreas()).containsExactly(area);
+        assertThat(membership.clusters()).isEmpty();
+        assertThat(updated.withRemoved(Team.class, member.getId()).findMemberships(ident).teams()).isEmpty();
+        assertThat(snapshot.findMemberships(ident)).isEqualTo(Membership.EMPTY);
+    }
+
+    @Test
+    void membershipsFollowSavedMembers() {
+        var ident = "S123456";
+        var other = "S654321";
+        var member = Team.builder().id(team1.getId()).name("Team Alpha").members(List.of(TeamMember.builder().navIdent(ident).build())).build();
+        var renamed = Team.builder().id(team1.getId()).name("Team Alfa").members(List.of(TeamMember.builder().navIdent(ident).build())).build();
+        var replaced = Team.builder().id(team1.getId()).name("Team Alfa").members(List.of(TeamMember.builder().navIdent(other).build())).build();
+
+        var withMember = snapshot.withSaved(member);
+        var withRenamed = withMember.withSaved(renamed);
+        var withReplaced = withRenamed.withSaved(replaced);
+
+        assertThat(withRenamed.findMemberships(ident).teams()).containsExactly(renamed);
+        assertThat(withReplaced.findMemberships(ident)).isEqualTo(Membership.EMPTY);
+        assertThat(withReplaced.findMemberships(other).teams()).containsExactly(replaced);
+        assertThat(withMember.findMemberships(ident).teams()).containsExactly(member);
+    }
+
+    @Test
+    void fingerprintIgnoresSubMillisecondPrecision() {
+        var time = LocalDateTime.of(2023, 1, 1, 12, 0, 0, 123_456_789);
+        team1.setChangeStamp(ChangeStamp.builder().lastModifiedDate(time).build());
+
+        assertThat(snapshot.fingerprints().get(Team.class)).isEqualTo(new CatalogSnapshot.Fingerprint(2, time.withNano(123_000_000)));
+        assertThat(snapshot.fingerprints().get(Cluster.class)).isEqualTo(new CatalogSnapshot.Fingerprint(1, null));
+    }
+}
@@ -0,0 +1,83 @@
+package no.nav.data.team.catalog;
+
+import no.nav.data.common.auditing.domain.Action;
+import no.nav.data.common.auditing.dto.AuditMetadata;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogTimelineTest {
+
+    LocalDateTime start = LocalDateTime.of(2024, 1, 1, 12, 0);
+    UUID team = UUID.randomUUID();
+    UUID pa = UUID.randomUUID();
+
+    Version teamCreated = new Version(UUID.randomUUID(), start, Action.CREATE, "Team", team);
+    Version paCreated = new Version(UUID.randomUUID(), start.plusHours(1), Action.CREATE, "ProductArea", pa);
+    Version teamUpdated = new Version(UUID.randomUUID(), start.plusHours(2), Action.UPDATE, "Team", team);
+    Version teamDeleted = new Version(UUID.randomUUID(), start.plusHours(3), Action.DELETE, "Team", team);
+
+    CatalogTimeline timeline = new CatalogTimeline();
+
+    @Test
+    void versionsAtTime() {
+        timeline.add(List.of(teamCreated, paCreated, teamUpdated, teamDeleted));
+
+        assertThat(timeline.at(start.minusMinutes(1)).changedAt()).isNull();
+        assertThat(timeline.at(start.minusMinutes(1)).versions()).isEmpty();
+        assertThat(timeline.at(start).versions()).containsExactly(teamCreated);
+        assertThat(timeline.at(start.plusMinutes(150)).versions()).containsExactlyInAnyOrder(teamUpdated, paCreated);
+        assertThat(timeline.at(start.plusMinutes(150)).changedAt()).isEqualTo(teamUpdated.time());
+        assertThat(timeline.at(start.plusHours(4)).versions()).containsExactly(paCreated);
+        assertThat(timeline.at(start.plusHours(4)).changedAt()).isEqualTo(teamDeleted.time());
+    }
+
+    @Test
+    void ignoreVersionsAlreadyAdded() {
+        assertThat(timeline.add(List.of(teamCreated, teamUpdated))).isFalse();
+        assertThat(timeline.add(List.of(teamUpdated, teamDeleted))).isFalse();
+        assertThat(timeline.at(start.plusHours(3)).versions()).isEmpty();
+        assertThat(timeline.getLatest()).isEqualTo(teamDeleted.time());
+    }
+
+    @Test
+    void lateVersionChangesPast() {
+        timeline.add(List.of(teamCreated, teamUpdated));
+
+        assertThat(timeline.add(List.of(paCreated))).isTrue();
+        assertThat(timeline.at(start.plusHours(1)).versions()).containsExactlyInAnyOrder(teamCreated, paCreated);
+        assertThat(timeline.getLatest()).isEqualTo(teamUpdated.time());
+    }
+
+    record Version(UUID id, LocalDateTime time, Action action, String tableName, UUID tableId) implements AuditMetadata {
+
+        @Override
+        public UUID getId() {
+            return id;
+        }
+
+        @Override
+        public LocalDateTime getTime() {
+            return time;
+        }
+
+        @Override
+        public Action getAction() {
+            return action;
+        }
+
+        @Override
+        public String getTableName() {
+            return tableName;
+        }
+
+        @Override
+        public UUID getTableId() {
+            return tableId;
+        }
+    }
+}
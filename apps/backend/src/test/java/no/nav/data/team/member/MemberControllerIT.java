@@ -9,10 +9,14 @@ import no.nav.data.team.team.domain.Team;
 import no.nav.data.team.team.domain.TeamMember;
 import no.nav.data.team.team.dto.TeamResponse;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.util.List;
+import java.util.Map;
 
 import static no.nav.data.common.utils.StreamUtils.convert;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -39,4 +43,20 @@ class MemberControllerIT extends IntegrationTestBase {
         assertThat(resp.getBody().getProductAreas().size()).isEqualTo(1L);
         assertThat(convert(resp.getBody().getProductAreas(), ProductAreaResponse::getName)).contains("pa name1");
     }
+
+    @Test
+    void getMembershipsForIdents() {
+        storageService.save(Team.builder().name("name1").members(List.of(TeamMember.builder().navIdent("S123123").build(), TeamMember.builder().navIdent("S123124").build())).build());
+        storageService.save(Team.builder().name("name2").members(List.of(TeamMember.builder().navIdent("S123124").build())).build());
+
+        var resp = restTemplate.exchange("/member/membership", HttpMethod.POST, new HttpEntity<>(List.of("S123123", "S123124", "S999999")),
+                new ParameterizedTypeReference<Map<String, MembershipResponse>>() {
+                });
+
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(resp.getBody()).isNotNull().containsOnlyKeys("S123123", "S123124", "S999999");
+        assertThat(convert(resp.getBody().get("S123123").getTeams(), TeamResponse::getName)).containsExactly("name1");
+        assertThat(convert(resp.getBody().get("S123124").getTeams(), TeamResponse::getName)).containsExactlyInAnyOrder("name1", "name2");
+        assertThat(resp.getBody().get("S999999").getTeams()).isEmpty();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package no.nav.data.team.notify;
+
+import no.nav.data.common.auditing.domain.Action;
+import no.nav.data.common.auditing.domain.AuditVersionRepository;
+import no.nav.data.common.auditing.dto.AuditMetadata;
+import no.nav.data.common.utils.MicroBenchmark;
+import no.nav.data.team.notify.domain.Notification;
+import no.nav.data.team.notify.domain.Notification.NotificationChannel;
+import no.nav.data.team.notify.domain.Notification.NotificationTime;
+import no.nav.data.team.notify.domain.Notification.NotificationType;
+import no.nav.data.team.notify.domain.TeamAuditMetadata;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static no.nav.data.team.TestDataHelper.createNavIdent;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Creating notification tasks for a run with many changed teams, for a growing number of subscribers.
+ * Run with {@code mvn test -Dtest=AuditDiffServiceBenchmark}
+ */
+class AuditDiffServiceBenchmark {
+
+    private static final int PRODUCT_AREAS = 50;
+    private static final int TEAMS = 2000;
+    private static final int CHANGED_TEAMS = 500;
+
+    private static final LocalDateTime start = LocalDateTime.now().minusHours(1);
+    private static final List<UUID> productAreas = IntStream.range(0, PRODUCT_AREAS).mapToObj(i -> UUID.randomUUID()).toList();
+    private static final List<UUID> teams = IntStream.range(0, TEAMS).mapToObj(i -> UUID.randomUUID()).toList();
+
+    private static AuditDiffService service;
+    private static List<AuditMetadata> audits;
+
+    @BeforeAll
+    static void beforeAll() {
+        var teamsBefore = IntStream.range(0, TEAMS)
+                .mapToObj(i -> (TeamAuditMetadata) new Version(UUID.randomUUID(), start.minusDays(1), Action.UPDATE, teams.get(i), productAreas.get(i % PRODUCT_AREAS)))
+                .toList();
+        audits = IntStream.range(0, CHANGED_TEAMS)
+                .mapToObj(i -> (AuditMetadata) new Version(UUID.randomUUID(), start.plusSeconds(i), Action.UPDATE, teams.get(i * 3), productAreas.get(i * 3 % PRODUCT_AREAS)))
+                .toList();
+
+        var repository = mock(AuditVersionRepository.class, withSettings().stubOnly());
+        when(repository.getTeamMetadataBefore(any())).thenReturn(teamsBefore);
+        when(repository.getTeamMetadataBetween(any(), any())).thenReturn(List.of());
+        when(repository.findLatestBefore(anyMap())).thenAnswer(invocation -> {
+            Map<UUID, LocalDateTime> before = invocation.getArgument(0);
+            var latest = new HashMap<UUID, AuditMetadata>();
+            before.keySet().forEach(id -> latest.put(id, new Version(UUID.randomUUID(), start.minusDays(1), Action.UPDATE, id, null)));
+            return latest;
+        });
+        service = new AuditDiffService(repository);
+    }
+
+    @Test
+    void subscribers() {
+        var small = run(1000);
+        var large = run(4000);
+
+        // four times the subscribers should take about four times as long
+        assertThat(large.microsPerOp()).isLessThan(small.microsPerOp() * 8);
+    }
+
+    private static MicroBenchmark.Result run(int subscribers) {
+        var notifications = IntStream.range(0, subscribers).boxed().flatMap(AuditDiffServiceBenchmark::subscriptions).toList();
+        var tasks = service.createTask(audits, notifications);
+        assertThat(tasks).isNotEmpty();
+
+        return MicroBenchmark.run(subscribers + " subscribers", 10, 10, () -> service.createTask(audits, notifications));
+    }
+
+    /**
+     * A product area, and two teams that may be outside it
+     */
+    private static Stream<Notification> subscriptions(int i) {
+        return Stream.of(
+                notification(i, NotificationType.PA, productAreas.get(i % PRODUCT_AREAS)),
+                notification(i, NotificationType.TEAM, teams.get(i % TEAMS)),
+                notification(i, NotificationType.TEAM, teams.get(i * 7 % TEAMS))
+        );
+    }
+
+    private static Notification notification(int i, NotificationType type, UUID target) {
+        return Notification.builder()
+                .ident(createNavIdent(i))
+                .time(NotificationTime.ALL)
+                .type(type)
+                .target(target)
+                .channels(i % 2 == 0 ? List.of(NotificationChannel.EMAIL) : List.of(NotificationChannel.EMAIL, NotificationChannel.SLACK))
+                .build();
+    }
+
+    record Version(UUID id, LocalDateTime time, Action action, UUID tableId, UUID productAreaId) implements TeamAuditMetadata {
+
+        @Override
+        public UUID getId() {
+            return id;
+        }
+
+        @Override
+        public LocalDateTime getTime() {
+            return time;
+        }
+
+        @Override
+        public Action getAction() {
+            return action;
+        }
+
+        @Override
+        public String getTableName() {
+            return "Team";
+        }
+
+        @Override
+        public UUID getTableId() {
+            return tableId;
+        }
+
+        @Override
+        public UUID getProductAreaId() {
+            return productAreaId;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package no.nav.data.team.notify;
+
+import no.nav.data.common.auditing.AuditVersionListener;
+import no.nav.data.common.auditing.domain.Action;
+import no.nav.data.common.auditing.domain.AuditOutboxRepository;
+import no.nav.data.common.auditing.domain.AuditVersion;
+import no.nav.data.common.storage.domain.GenericStorage;
+import no.nav.data.team.IntegrationTestBase;
+import no.nav.data.team.notify.domain.ChangelogRepository;
+import no.nav.data.team.notify.domain.ChangelogRepository.ChangelogAudit;
+import no.nav.data.team.notify.domain.ChangelogRepository.ChangelogEntry;
+import no.nav.data.team.po.domain.ProductArea;
+import no.nav.data.team.team.domain.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangelogFeedIT extends IntegrationTestBase {
+
+    @Autowired
+    private ChangelogFeed feed;
+    @Autowired
+    private ChangelogRepository repository;
+    @Autowired
+    private AuditOutboxRepository outboxRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from changelog_entry");
+        jdbcTemplate.update("delete from changelog_feed");
+    }
+
+    @Test
+    void findAuditsWithoutEntries() {
+        var pa = storageService.save(ProductArea.builder().name("pa").build());
+        var team = storageService.save(Team.builder().name("team").productAreaId(pa.getId()).build());
+        team.setProductAreaId(null);
+        storageService.save(team);
+        var teamAudits = auditVersionRepository.findByTableIdOrderByTimeDesc(team.getId().toString());
+
+        var audits = repository.findAuditsWithoutEntries(ChangelogFeed.EARLIEST_CHANGELOG, 10);
+
+        assertThat(audits).extracting(ChangelogAudit::tableId).containsExactly(pa.getId(), team.getId(), team.getId());
+        var moved = audits.get(2);
+        assertThat(moved.id()).isEqualTo(teamAudits.get(0).getId());
+        assertThat(moved.prevAuditId()).isEqualTo(teamAudits.get(1).getId());
+        assertThat(moved.productAreaId()).isNull();
+        assertThat(moved.prevProductAreaId()).isEqualTo(pa.getId());
+        assertThat(audits.get(1).prevAuditId()).isNull();
+
+        assertThat(repository.findAuditsWithoutEntries(moved.time(), 10)).isEmpty();
+    }
+
+    @Test
+    void appendIgnoresExistingEntries() {
+        var time = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        var entry = new ChangelogEntry(UUID.randomUUID(), UUID.randomUUID(), time, null, null, null);
+
+        repository.append(List.of(entry));
+        repository.append(List.of(entry));
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from changelog_entry", Long.class)).isEqualTo(1L);
+        var coverage = repository.getCoverage();
+        assertThat(coverage.first()).isEqualTo(time);
+        assertThat(coverage.last()).isEqualTo(time);
+    }
+
+    @Test
+    void emptyCoverage() {
+        var coverage = repository.getCoverage();
+        assertThat(coverage.first()).isNull();
+        assertThat(coverage.last()).isNull();
+    }
+
+    @Test
+    void findByProductAreaIncludesTeamsThatLeft() {
+        var pa = storageService.save(ProductArea.builder().name("pa").build());
+        var team = storageService.save(Team.builder().name("team").productAreaId(pa.getId()).build());
+        team.setProductAreaId(null);
+        storageService.save(team);
+        storageService.save(Team.builder().name("other team").build());
+
+        feed.appendAll();
+
+        var start = ChangelogFeed.EARLIEST_CHANGELOG;
+        var end = LocalDateTime.now().plusMinutes(1);
+        var teamChanges = repository.findByTarget(team.getId(), start, end);
+        var paChanges = repository.findByTarget(pa.getId(), start, end);
+        assertThat(teamChanges).isNotEmpty();
+        assertThat(repository.findByProductArea(pa.getId(), start, end)).hasSize(teamChanges.size() + paChanges.size());
+    }
+
+    @Test
+    void appendAuditWrittenLate() {
+        var now = LocalDateTime.now();
+        outboxRepository.add(audit(Team.builder().name("team a").build(), now));
+        outboxRepository.moveBatch(10);
+        // waiting in the outbox while the feed runs, with a time long before the audits already in the feed
+        var late = audit(Team.builder().name("team b").build(), now.minusMinutes(10));
+        outboxRepository.add(late);
+
+        feed.appendAll();
+        assertThat(repository.getWatermark()).isEqualTo(late.getTime().truncatedTo(ChronoUnit.MICROS));
+
+        outboxRepository.moveBatch(10);
+        feed.appendAll();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from changelog_entry where audit_id = ?", Long.class, late.getId())).isEqualTo(1L);
+        assertThat(repository.getWatermark()).isAfter(now);
+    }
+
+    private static AuditVersion audit(Team team, LocalDateTime time) {
+        var storage = new GenericStorage().generateId().setDomainObjectData(team);
+        return AuditVersionListener.convertAuditVersion(storage, Action.CREATE).toBuilder().time(time).build();
+    }
+}
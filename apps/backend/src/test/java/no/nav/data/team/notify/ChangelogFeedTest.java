@@ -0,0 +1,126 @@
+package no.nav.data.team.notify;
+
+import no.nav.data.common.auditing.domain.Action;
+import no.nav.data.common.auditing.domain.AuditOutboxRepository;
+import no.nav.data.common.auditing.domain.AuditOutboxRepository.OutboxStatus;
+import no.nav.data.common.auditing.domain.AuditVersion;
+import no.nav.data.common.auditing.domain.AuditVersionRepository;
+import no.nav.data.team.notify.NotificationMessageGenerator.NotificationMessage;
+import no.nav.data.team.notify.domain.ChangelogRepository;
+import no.nav.data.team.notify.domain.ChangelogRepository.ChangelogAudit;
+import no.nav.data.team.notify.domain.ChangelogRepository.ChangelogEntry;
+import no.nav.data.team.notify.domain.ChangelogRepository.Coverage;
+import no.nav.data.team.notify.domain.Notification.NotificationType;
+import no.nav.data.team.notify.dto.MailModels.UpdateModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChangelogFeedTest {
+
+    @Mock
+    private ChangelogRepository repository;
+    @Mock
+    private AuditVersionRepository auditVersionRepository;
+    @Mock
+    private AuditOutboxRepository outboxRepository;
+    @Mock
+    private NotificationMessageGenerator messageGenerator;
+
+    private ChangelogFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new ChangelogFeed(repository, auditVersionRepository, outboxRepository, messageGenerator);
+    }
+
+    @Test
+    void stopBatchAtFailedAudit() {
+        var now = LocalDateTime.now();
+        var ok = audit(now.minusMinutes(10));
+        var failing = audit(now.minusMinutes(5));
+        var after = audit(now.minusMinutes(4));
+        when(outboxRepository.status()).thenReturn(new OutboxStatus(0, null));
+        when(repository.getWatermark()).thenReturn(now.minusHours(1));
+        when(repository.findAuditsWithoutEntries(any(), anyInt())).thenReturn(List.of(ok, failing, after));
+        when(messageGenerator.updateSummary(any()))
+                .thenReturn(new NotificationMessage<>("subject", new UpdateModel(), false, true))
+                .thenThrow(new IllegalStateException("nom down"));
+
+        assertThat(feed.appendBatch()).isEqualTo(1);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ChangelogEntry>> entries = ArgumentCaptor.forClass(List.class);
+        verify(repository).append(entries.capture());
+        assertThat(entries.getValue()).extracting(ChangelogEntry::auditId).containsOnly(ok.id());
+        verify(repository).setWatermark(failing.time());
+    }
+
+    @Test
+    void keepWatermarkWhenFirstAuditFails() {
+        var now = LocalDateTime.now();
+        var failing = audit(now.minusMinutes(5));
+        when(outboxRepository.status()).thenReturn(new OutboxStatus(0, null));
+        when(repository.getWatermark()).thenReturn(now.minusMinutes(5));
+        when(repository.findAuditsWithoutEntries(any(), anyInt())).thenReturn(List.of(failing));
+        when(messageGenerator.updateSummary(any())).thenThrow(new IllegalStateException("nom down"));
+
+        assertThat(feed.appendBatch()).isZero();
+
+        verify(repository, never()).append(anyList());
+        verify(repository, never()).setWatermark(any());
+    }
+
+    @Test
+    void readUpToWatermarkWithoutAppending() {
+        var teamId = UUID.randomUUID();
+        var now = LocalDateTime.now();
+        var watermark = now.minusMinutes(2);
+        when(repository.getWatermark()).thenReturn(watermark);
+        when(repository.getCoverage()).thenReturn(new Coverage(now.minusDays(10), now.minusMinutes(1)));
+        when(repository.findByTarget(teamId, now.minusDays(1), watermark)).thenReturn(List.of());
+
+        assertThat(feed.changelog(NotificationType.TEAM, teamId, now.minusDays(1), now)).isPresent();
+
+        verify(repository, never()).findAuditsWithoutEntries(any(), anyInt());
+    }
+
+    @Test
+    void fallbackBeforeFeedHasRun() {
+        var now = LocalDateTime.now();
+        when(repository.getWatermark()).thenReturn(null);
+
+        assertThat(feed.changelog(NotificationType.TEAM, UUID.randomUUID(), now.minusDays(1), now)).isEmpty();
+
+        verify(repository, never()).findAuditsWithoutEntries(any(), anyInt());
+    }
+
+    @Test
+    void fallbackBeforeCoverage() {
+        var now = LocalDateTime.now();
+        when(repository.getWatermark()).thenReturn(now);
+        when(repository.getCoverage()).thenReturn(new Coverage(now.minusDays(1), now));
+
+        assertThat(feed.changelog(NotificationType.ALL_EVENTS, null, now.minusDays(2), now)).isEmpty();
+    }
+
+    private static ChangelogAudit audit(LocalDateTime time) {
+        return new ChangelogAudit(UUID.randomUUID(), time, Action.UPDATE, AuditVersion.TEAM_TYPE, UUID.randomUUID(), null, UUID.randomUUID(), null);
+    }
+}
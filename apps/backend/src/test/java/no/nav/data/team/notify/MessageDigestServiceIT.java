@@ -0,0 +1,68 @@
+package no.nav.data.team.notify;
+
+import no.nav.data.common.auditing.domain.MailLogRepository;
+import no.nav.data.common.security.azure.support.MailLog;
+import no.nav.data.common.storage.domain.GenericStorage;
+import no.nav.data.team.IntegrationTestBase;
+import no.nav.data.team.contact.domain.Channel;
+import no.nav.data.team.notify.domain.MessageDigest;
+import no.nav.data.team.notify.domain.PendingMessage;
+import no.nav.data.team.notify.domain.PendingMessage.RecipientType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageDigestServiceIT extends IntegrationTestBase {
+
+    @Autowired
+    private MessageDigestService service;
+    @Autowired
+    private MailLogRepository mailLogRepository;
+
+    @Test
+    void collectDigestsOfRecipientsPastWindow() {
+        storageService.save(message("a@nav.no", "first", 10));
+        storageService.save(message("a@nav.no", "second", 1));
+        var recent = storageService.save(message("b@nav.no", "recent", 1));
+
+        service.collectDigests(LocalDateTime.now().minusMinutes(5));
+
+        var digests = storageService.getAll(MessageDigest.class);
+        assertThat(digests).hasSize(1);
+        assertThat(digests.get(0).getAddress()).isEqualTo("a@nav.no");
+        assertThat(digests.get(0).getMessages()).extracting(PendingMessage::getSubject).containsExactly("first", "second");
+        assertThat(storageService.getAll(PendingMessage.class)).extracting(PendingMessage::getId).containsExactly(recent.getId());
+    }
+
+    @Test
+    void hideUpdateDigestsFromMailLog() {
+        var update = message("a@nav.no", NotificationConstants.UPDATE_SUBJECT, 10);
+        var nudge = message("a@nav.no", "Teamkatalog påminnelse for Team a", 10);
+        mailLog(MessageDigestService.subject(List.of(update)));
+        mailLog(MessageDigestService.subject(List.of(update, update)));
+        mailLog(MessageDigestService.subject(List.of(nudge)));
+        mailLog(MessageDigestService.subject(List.of(update, nudge)));
+
+        var shown = mailLogRepository.findAllNonUpdates(PageRequest.of(0, 10)).map(GenericStorage::toMailLog).map(MailLog::getSubject);
+        assertThat(shown).containsExactlyInAnyOrder("Teamkatalog påminnelse for Team a", "Teamkatalog - 2 varsler");
+    }
+
+    private void mailLog(String subject) {
+        storageService.save(MailLog.builder().to("a@nav.no").subject(subject).body("body").channel(Channel.EPOST).build());
+    }
+
+    private static PendingMessage message(String address, String subject, int minutesAgo) {
+        return PendingMessage.builder()
+                .recipientType(RecipientType.EMAIL)
+                .address(address)
+                .subject(subject)
+                .html("<h1>%s</h1>".formatted(subject))
+                .queued(LocalDateTime.now().minusMinutes(minutesAgo))
+                .build();
+    }
+}
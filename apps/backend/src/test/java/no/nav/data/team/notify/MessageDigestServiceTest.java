@@ -0,0 +1,178 @@
+package no.nav.data.team.notify;
+
+import no.nav.data.common.mail.EmailService;
+import no.nav.data.common.mail.MailTask;
+import no.nav.data.common.template.FreemarkerConfig;
+import no.nav.data.common.storage.StorageService;
+import no.nav.data.common.storage.domain.GenericStorage;
+import no.nav.data.team.contact.domain.SlackUser;
+import no.nav.data.team.integration.slack.SlackClient;
+import no.nav.data.team.integration.slack.dto.SlackDtos.PostMessageRequest.Block;
+import no.nav.data.team.notify.domain.MessageDigest;
+import no.nav.data.team.notify.domain.NotificationRepository;
+import no.nav.data.team.notify.domain.PendingMessage;
+import no.nav.data.team.notify.domain.PendingMessage.RecipientType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static no.nav.data.common.utils.StreamUtils.convert;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MessageDigestServiceTest {
+
+    @Mock
+    private StorageService storage;
+    @Mock
+    private NotificationRepository repository;
+    @Mock
+    private NotificationDispatcher dispatcher;
+    @Mock
+    private EmailService emailService;
+    @Mock
+    private SlackClient slackClient;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final TemplateService templateService = new TemplateService(new FreemarkerConfig().freemarkerService());
+    private MessageDigestService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new MessageDigestService(storage, repository, dispatcher, emailService, slackClient, templateService, transactionManager, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void collectDigestPerRecipient() {
+        var first = message(RecipientType.SLACK_USER_EMAIL, "a@nav.no", "first", 10);
+        var second = message(RecipientType.SLACK_USER_EMAIL, "a@nav.no", "second", 2);
+        var other = message(RecipientType.EMAIL, "b@nav.no", "other", 6);
+        var queuedBefore = LocalDateTime.now().minusMinutes(5);
+        when(repository.findPendingMessagesQueuedBefore(queuedBefore)).thenReturn(convert(List.of(second, first, other), MessageDigestServiceTest::storage));
+
+        service.collectDigests(queuedBefore);
+
+        var digests = ArgumentCaptor.forClass(MessageDigest.class);
+        verify(storage, times(2)).save(digests.capture());
+        var slackDigest = digests.getAllValues().stream().filter(d -> d.getRecipientType() == RecipientType.SLACK_USER_EMAIL).findFirst().orElseThrow();
+        assertThat(slackDigest.getAddress()).isEqualTo("a@nav.no");
+        assertThat(slackDigest.getMessages()).extracting(PendingMessage::getSubject).containsExactly("first", "second");
+        var emailDigest = digests.getAllValues().stream().filter(d -> d.getRecipientType() == RecipientType.EMAIL).findFirst().orElseThrow();
+        assertThat(emailDigest.getMessages()).extracting(PendingMessage::getSubject).containsExactly("other");
+        verify(storage).deleteAll(anyList());
+    }
+
+    @Test
+    void sendDigestsThroughDispatcher() {
+        service.sendDigests();
+
+        verify(dispatcher).dispatchDue(eq(MessageDigest.class), any());
+    }
+
+    @Test
+    void sendRightAwayWithoutWindow() {
+        service = new MessageDigestService(storage, repository, dispatcher, emailService, slackClient, templateService, transactionManager, Duration.ZERO);
+        var saved = new MessageDigest();
+        when(storage.save(any(MessageDigest.class))).thenReturn(saved);
+
+        service.add(RecipientType.EMAIL, "a@nav.no", "nudge", "<h1>nudge</h1>", null);
+
+        verify(dispatcher).send(eq(saved), any());
+        verify(storage, never()).save(any(PendingMessage.class));
+    }
+
+    @Test
+    void sendSlackDigest() {
+        var first = message(RecipientType.SLACK_USER_EMAIL, "a@nav.no", "first", 10);
+        var second = message(RecipientType.SLACK_USER_EMAIL, "a@nav.no", "second", 8);
+        when(slackClient.getUserByEmail("a@nav.no")).thenReturn(new SlackUser("U123", "User"));
+
+        service.send(MessageDigest.create(second.recipient(), List.of(second, first)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Block>> blocks = ArgumentCaptor.forClass(List.class);
+        verify(slackClient, times(1)).getUserByEmail("a@nav.no");
+        verify(slackClient).sendMessageToUserId(eq("U123"), eq("Teamkatalog - 2 varsler"), blocks.capture());
+        assertThat(blocks.getValue()).containsExactly(Block.header("first"), Block.divider(), Block.header("second"));
+        verify(emailService, never()).scheduleMail(any());
+    }
+
+    @Test
+    void fallbackToEmail() {
+        var message = message(RecipientType.SLACK_USER_EMAIL, "a@nav.no", "update", 10);
+
+        service.send(MessageDigest.create(message.recipient(), List.of(message)));
+
+        var mail = ArgumentCaptor.forClass(MailTask.class);
+        verify(emailService).scheduleMail(mail.capture());
+        assertThat(mail.getValue().getSubject()).isEqualTo("update" + MessageDigestService.SLACK_FALLBACK_SUFFIX);
+        assertThat(mail.getValue().getBody()).contains("<title>update" + MessageDigestService.SLACK_FALLBACK_SUFFIX + "</title>", "<h1>update</h1>");
+        verify(slackClient, never()).sendMessageToUserId(anyString(), anyString(), anyList());
+    }
+
+    @Test
+    void emailDigestIsOneDocument() {
+        var update = message(RecipientType.EMAIL, "a@nav.no", NotificationConstants.UPDATE_SUBJECT, 10);
+        var nudge = message(RecipientType.EMAIL, "a@nav.no", "nudge", 8);
+
+        service.send(MessageDigest.create(update.recipient(), List.of(update, nudge)));
+
+        var mail = ArgumentCaptor.forClass(MailTask.class);
+        verify(emailService).scheduleMail(mail.capture());
+        var body = mail.getValue().getBody();
+        assertThat(body.split("<html", -1)).hasSize(2);
+        assertThat(body.split("<body", -1)).hasSize(2);
+        assertThat(body).containsSubsequence("<h1>%s</h1>".formatted(NotificationConstants.UPDATE_SUBJECT), "<hr/>", "<h1>nudge</h1>");
+    }
+
+    @Test
+    void failedDigestIsThrownToDispatcher() {
+        var message = message(RecipientType.SLACK_CHANNEL, "C123", "nudge", 10);
+        doThrow(new IllegalStateException("slack down")).when(slackClient).sendMessageToChannel(anyString(), anyString(), anyList());
+
+        assertThatThrownBy(() -> service.send(MessageDigest.create(message.recipient(), List.of(message)))).hasMessage("slack down");
+    }
+
+    @Test
+    void updateDigestKeepsUpdateSubject() {
+        var update = message(RecipientType.EMAIL, "a@nav.no", NotificationConstants.UPDATE_SUBJECT, 10);
+        var nudge = message(RecipientType.EMAIL, "a@nav.no", "Teamkatalog påminnelse for Team a", 8);
+
+        assertThat(MessageDigestService.subject(List.of(update, update))).isEqualTo(NotificationConstants.UPDATE_SUBJECT + " - 2 varsler");
+        assertThat(MessageDigestService.subject(List.of(update, nudge))).isEqualTo("Teamkatalog - 2 varsler");
+    }
+
+    private static GenericStorage storage(PendingMessage message) {
+        return new GenericStorage().generateId().setDomainObjectData(message);
+    }
+
+    private static PendingMessage message(RecipientType type, String address, String subject, int minutesAgo) {
+        return PendingMessage.builder()
+                .recipientType(type)
+                .address(address)
+                .subject(subject)
+                .html("<h1>%s</h1>".formatted(subject))
+                .slack(PendingMessage.toSlackBlocks(List.of(Block.header(subject))))
+                .queued(LocalDateTime.now().minusMinutes(minutesAgo))
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package no.nav.data.team.notify;
+
+import no.nav.data.common.exceptions.TechnicalException;
+import no.nav.data.common.storage.StorageService;
+import no.nav.data.common.storage.domain.GenericStorage;
+import no.nav.data.common.utils.Backoff;
+import no.nav.data.team.notify.domain.MessageDigest;
+import no.nav.data.team.notify.domain.Notification.NotificationChannel;
+import no.nav.data.team.notify.domain.NotificationRepository;
+import no.nav.data.team.notify.domain.NotificationTask;
+import no.nav.data.team.notify.domain.PendingMessage.RecipientType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTest {
+
+    @Mock
+    private NotificationService service;
+    @Mock
+    private StorageService storage;
+    @Mock
+    private NotificationRepository repository;
+
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new NotificationDispatcher(storage, repository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void sendDueTasks() {
+        var email = task(NotificationChannel.EMAIL);
+        var slack = task(NotificationChannel.SLACK);
+        var notDue = task(NotificationChannel.EMAIL);
+        notDue.failed("error", LocalDateTime.now().plusMinutes(1));
+        var dead = task(NotificationChannel.EMAIL);
+        dead.deadLetter("error");
+
+        dispatcher.dispatch(List.of(email, slack, notDue, dead), service::notifyTask);
+
+        verify(storage).delete(email);
+        verify(storage).delete(slack);
+        verify(service, never()).notifyTask(notDue);
+        verify(service, never()).notifyTask(dead);
+    }
+
+    @Test
+    void retryWithBackoffThenDeadLetter() {
+        var task = task(NotificationChannel.SLACK);
+        doThrow(new TechnicalException("slack down")).when(service).notifyTask(task);
+
+        dispatcher.send(task, service::notifyTask);
+        assertThat(task.getAttempts()).isEqualTo(1);
+        assertThat(task.getLastError()).isEqualTo("slack down");
+        assertThat(task.isDue(LocalDateTime.now())).isFalse();
+        assertThat(task.getNextAttempt()).isBefore(LocalDateTime.now().plus(Backoff.FIRST_RETRY).plusSeconds(1));
+
+        for (int i = 1; i < Backoff.MAX_ATTEMPTS; i++) {
+            dispatcher.send(task, service::notifyTask);
+        }
+        assertThat(task.isDeadLetter()).isTrue();
+        assertThat(task.getAttempts()).isEqualTo(Backoff.MAX_ATTEMPTS);
+        verify(storage, never()).delete(task);
+    }
+
+    @Test
+    void deadLetterWhenEmailMissing() {
+        var task = task(NotificationChannel.EMAIL);
+        doThrow(new MailNotFoundException("Can't find email")).when(service).notifyTask(task);
+
+        dispatcher.send(task, service::notifyTask);
+
+        assertThat(task.isDeadLetter()).isTrue();
+        verify(storage).save(task);
+    }
+
+    @Test
+    void dispatchDueAndPurgeDeadLetters() {
+        var due = task(NotificationChannel.EMAIL);
+        var expired = task(NotificationChannel.EMAIL);
+        expired.deadLetter("error");
+        when(repository.findDue(eq("NotificationTask"), any())).thenReturn(List.of(storage(due)));
+        when(repository.findDeadLetterBefore(eq("NotificationTask"), any())).thenReturn(List.of(storage(expired)));
+
+        dispatcher.dispatchDue(NotificationTask.class, service::notifyTask);
+
+        verify(service).notifyTask(argThat(t -> t.getId().equals(due.getId())));
+        verify(storage).delete(argThat((NotificationTask t) -> t.getId().equals(due.getId())));
+        verify(storage).delete(argThat((NotificationTask t) -> t.getId().equals(expired.getId())));
+    }
+
+    @Test
+    void retryDigest() {
+        var digest = MessageDigest.builder().id(UUID.randomUUID()).recipientType(RecipientType.SLACK_CHANNEL).address("C123").messages(List.of()).build();
+
+        dispatcher.send(digest, d -> {
+            throw new TechnicalException("slack down");
+        });
+
+        assertThat(digest.getAttempts()).isEqualTo(1);
+        assertThat(digest.isDue(LocalDateTime.now())).isFalse();
+        verify(storage).save(digest);
+    }
+
+    private static GenericStorage storage(NotificationTask task) {
+        return new GenericStorage(task.getId(), "NotificationTask", null, 0L).setDomainObjectData(task);
+    }
+
+    private static NotificationTask task(NotificationChannel channel) {
+        return NotificationTask.builder().id(UUID.randomUUID()).ident("S123456").channel(channel).build();
+    }
+}
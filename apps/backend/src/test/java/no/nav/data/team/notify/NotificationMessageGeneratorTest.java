@@ -1,7 +1,9 @@
 package no.nav.data.team.notify;
 
 import no.nav.data.common.auditing.AuditVersionListener;
+import no.nav.data.common.auditing.AuditVersionReader;
 import no.nav.data.common.auditing.domain.Action;
+import no.nav.data.common.auditing.domain.AuditArchiveRepository;
 import no.nav.data.common.auditing.domain.AuditVersion;
 import no.nav.data.common.auditing.domain.AuditVersionRepository;
 import no.nav.data.common.security.SecurityProperties;
@@ -25,16 +27,20 @@ import no.nav.data.team.team.domain.Team;
 import no.nav.data.team.team.domain.TeamMember;
 import no.nav.data.team.team.domain.TeamOwnershipType;
 import no.nav.data.team.team.domain.TeamType;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.StreamSupport;
 
 import static no.nav.data.common.utils.StreamUtils.find;
 import static no.nav.data.team.TestDataHelper.createNavIdent;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -44,7 +50,16 @@ class NotificationMessageGeneratorTest {
     private final AuditVersionRepository auditVersionRepository = mock(AuditVersionRepository.class);
     private final SecurityProperties securityProperties = UrlGeneratorTestUtil.getSecurityProperties();
     private final StorageService storage = mock(StorageService.class);
-    private final NotificationMessageGenerator generator = new NotificationMessageGenerator(auditVersionRepository, storage, UrlGeneratorTestUtil.get(), NomClient.getInstance());
+    private final Map<UUID, AuditVersion> audits = new HashMap<>();
+    private final NotificationMessageGenerator generator = new NotificationMessageGenerator(new AuditVersionReader(auditVersionRepository, mock(AuditArchiveRepository.class)), storage, UrlGeneratorTestUtil.get(), NomClient.getInstance());
+
+    @BeforeEach
+    void setUp() {
+        when(auditVersionRepository.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<UUID> ids = invocation.getArgument(0);
+            return StreamSupport.stream(ids.spliterator(), false).filter(audits::containsKey).map(audits::get).toList();
+        });
+    }
 
     @Test
     void update() {
@@ -334,7 +349,7 @@ class NotificationMessageGeneratorTest {
         gs.setDomainObjectData(domainObject);
         AuditVersion audit = AuditVersionListener.convertAuditVersion(gs, Action.CREATE);
         assert audit != null;
-        when(auditVersionRepository.findById(audit.getId())).thenReturn(Optional.of(audit));
+        audits.put(audit.getId(), audit);
         return audit;
     }
 
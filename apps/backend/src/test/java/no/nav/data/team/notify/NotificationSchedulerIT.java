@@ -2,10 +2,12 @@ package no.nav.data.team.notify;
 
 import
         no.nav.data.team.IntegrationTestBase;
+import no.nav.data.common.storage.domain.GenericStorage;
 import no.nav.data.team.notify.domain.Notification;
 import no.nav.data.team.notify.domain.Notification.NotificationChannel;
 import no.nav.data.team.notify.domain.Notification.NotificationTime;
 import no.nav.data.team.notify.domain.Notification.NotificationType;
+import no.nav.data.team.notify.domain.NotificationRepository;
 import no.nav.data.team.notify.domain.NotificationState;
 import no.nav.data.team.notify.domain.NotificationTask;
 import no.nav.data.team.po.domain.ProductArea;
@@ -32,6 +34,8 @@ class NotificationSchedulerIT extends IntegrationTestBase {
 
     @Autowired
     private NotificationScheduler scheduler;
+    @Autowired
+    private NotificationRepository notificationRepository;
 
     @Test
     void initAudits() throws Exception {
@@ -368,6 +372,30 @@ class NotificationSchedulerIT extends IntegrationTestBase {
         assertThat(find(emailTask.getTargets(), t -> t.getTargetId().equals(team.getId())).isSilent()).isFalse();
     }
 
+    @Test
+    void findDueAndExpiredDeadLetterTasks() {
+        var due = storageService.save(NotificationTask.builder().ident("S123456").channel(NotificationChannel.EMAIL).build());
+        var retried = NotificationTask.builder().ident("S123456").channel(NotificationChannel.EMAIL).build();
+        retried.failed("error", LocalDateTime.now().minusMinutes(1));
+        retried = storageService.save(retried);
+        var later = NotificationTask.builder().ident("S123456").channel(NotificationChannel.EMAIL).build();
+        later.failed("error", LocalDateTime.now().plusMinutes(10));
+        storageService.save(later);
+        var dead = NotificationTask.builder().ident("S123456").channel(NotificationChannel.EMAIL).build();
+        dead.deadLetter("error");
+        dead = storageService.save(dead);
+        var recentlyDead = NotificationTask.builder().ident("S123456").channel(NotificationChannel.EMAIL).build();
+        recentlyDead.deadLetter("error");
+        storageService.save(recentlyDead);
+        jdbcTemplate.execute("update generic_storage set last_modified_date = last_modified_date - interval '31 day' where id = '" + dead.getId() + "'");
+
+        var dueTasks = GenericStorage.to(notificationRepository.findDue("NotificationTask", LocalDateTime.now()), NotificationTask.class);
+        assertThat(dueTasks).extracting(NotificationTask::getId).containsExactlyInAnyOrder(due.getId(), retried.getId());
+
+        var expired = notificationRepository.findDeadLetterBefore("NotificationTask", LocalDateTime.now().minus(NotificationDispatcher.DEAD_LETTER_RETENTION));
+        assertThat(expired).extracting(GenericStorage::getId).containsExactly(dead.getId());
+    }
+
     @Test
     void testNudge() {
         var teamA = storageService.save(Team.builder()
@@ -0,0 +1,97 @@
+package no.nav.data.team.notify;
+
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import no.nav.data.common.auditing.domain.AuditVersionRepository;
+import no.nav.data.common.storage.DatabaseSignals;
+import no.nav.data.common.storage.StorageService;
+import no.nav.data.team.notify.domain.NotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatcher;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationSchedulerTest {
+
+    @Mock
+    private NotificationRepository repository;
+    @Mock
+    private NotificationService service;
+    @Mock
+    private NotificationDispatcher dispatcher;
+    @Mock
+    private AuditVersionRepository auditVersionRepository;
+    @Mock
+    private StorageService storage;
+    @Mock
+    private AuditDiffService auditDiffService;
+    @Mock
+    private LockProvider lockProvider;
+    @Mock
+    private DatabaseSignals signals;
+    @Mock
+    private SimpleLock lock;
+
+    private NotificationScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new NotificationScheduler(repository, service, dispatcher, auditVersionRepository, storage, auditDiffService, lockProvider, signals);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void processChangesOnWake() {
+        when(lockProvider.lock(argThat(allNotify()))).thenReturn(Optional.of(lock));
+
+        scheduler.wake();
+
+        verify(lockProvider, timeout(5000)).lock(argThat(allNotify()));
+        verify(lock, timeout(5000)).unlock();
+    }
+
+    @Test
+    void coalesceWakesWhileRunning() throws Exception {
+        var running = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(lockProvider.lock(argThat(allNotify()))).thenAnswer(invocation -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(lock);
+        });
+
+        scheduler.wake();
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        // arrive while the first run is in progress, and give one more run for the changes it may have missed
+        scheduler.wake();
+        scheduler.wake();
+        scheduler.wake();
+        release.countDown();
+
+        verify(lockProvider, after(500).times(2)).lock(argThat(allNotify()));
+    }
+
+    private static ArgumentMatcher<LockConfiguration> allNotify() {
+        return config -> config != null && config.getName().equals("allNotify");
+    }
+}
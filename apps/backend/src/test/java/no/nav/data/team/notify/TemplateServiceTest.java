@@ -1,6 +1,7 @@
 package no.nav.data.team.notify;
 
 import no.nav.data.common.template.FreemarkerConfig;
+import no.nav.data.common.template.FreemarkerConfig.FreemarkerService;
 import no.nav.data.team.notify.domain.Notification.NotificationTime;
 import no.nav.data.team.notify.dto.MailModels.Resource;
 import no.nav.data.team.notify.dto.MailModels.TypedItem;
@@ -12,6 +13,11 @@ import org.junit.jupiter.api.Test;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class TemplateServiceTest {
 
@@ -57,6 +63,41 @@ class TemplateServiceTest {
         System.out.println(html);
     }
 
+    @Test
+    void renderEqualModelsOnce() {
+        var freemarker = mock(FreemarkerService.class);
+        when(freemarker.generate(any())).thenReturn("html");
+        var cachingService = new TemplateService(freemarker);
+
+        assertThat(cachingService.teamUpdate(updateModel("Le team"))).isEqualTo("html");
+        assertThat(cachingService.teamUpdate(updateModel("Le team"))).isEqualTo("html");
+        cachingService.teamUpdate(updateModel("Le team 2"));
+
+        verify(freemarker, times(2)).generate(any());
+    }
+
+    @Test
+    void renderModelChangedAfterRender() {
+        var freemarker = mock(FreemarkerService.class);
+        when(freemarker.generate(any())).thenReturn("html", "changed html");
+        var cachingService = new TemplateService(freemarker);
+
+        var model = updateModel("Le team");
+        assertThat(cachingService.teamUpdate(model)).isEqualTo("html");
+        model.getCreated().add(new TypedItem(TargetType.TEAM, "2", model.getBaseUrl() + "/team/2", "Le team 2"));
+
+        assertThat(cachingService.teamUpdate(model)).isEqualTo("changed html");
+        assertThat(cachingService.teamUpdate(updateModel("Le team"))).isEqualTo("html");
+    }
+
+    private UpdateModel updateModel(String created) {
+        UpdateModel model = new UpdateModel();
+        model.setTime(NotificationTime.ALL);
+        model.setBaseUrl("http://baseurl");
+        model.getCreated().add(new TypedItem(TargetType.TEAM, "1", model.getBaseUrl() + "/team/1", created));
+        return model;
+    }
+
     private TypedItem pa(String name, String url) {
         return new TypedItem(TargetType.AREA, null, name, url);
     }
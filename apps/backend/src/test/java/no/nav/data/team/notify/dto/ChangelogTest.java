@@ -0,0 +1,79 @@
+package no.nav.data.team.notify.dto;
+
+import no.nav.data.common.utils.JsonUtils;
+import no.nav.data.team.notify.dto.Changelog.Item;
+import no.nav.data.team.notify.dto.Changelog.Resource;
+import no.nav.data.team.notify.dto.Changelog.TargetType;
+import no.nav.data.team.notify.dto.Changelog.UpdateArea;
+import no.nav.data.team.notify.dto.Changelog.UpdateTeam;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangelogTest {
+
+    private static final Item TEAM = Item.builder().type(TargetType.TEAM).id("team").name("Team").build();
+    private static final Item AREA = Item.builder().type(TargetType.AREA).id("area").name("Area").build();
+
+    @Test
+    void mergeUpdates() {
+        var rename = teamUpdate("Old", "New", List.of(), List.of(new Resource("A1", "A")));
+        var members = teamUpdate("New", "Newer", List.of(new Resource("A1", "A")), List.of(new Resource("B1", "B")));
+
+        var merged = Changelog.merge(List.of(changelog(rename), changelog(members)));
+
+        assertThat(merged.getUpdated()).hasSize(1);
+        var update = (UpdateTeam) merged.getUpdated().get(0);
+        assertThat(update.getOldName()).isEqualTo("Old");
+        assertThat(update.getNewName()).isEqualTo("Newer");
+        assertThat(update.getAddedMembers()).containsExactly(new Resource("B1", "B"));
+        assertThat(update.getRemovedMembers()).isEmpty();
+    }
+
+    @Test
+    void leaveOutChangesUndone() {
+        var added = teamUpdate("Team", "Team", List.of(), List.of(new Resource("A1", "A")));
+        var removed = teamUpdate("Team", "Team", List.of(new Resource("A1", "A")), List.of());
+
+        assertThat(Changelog.merge(List.of(changelog(added), changelog(removed))).isEmpty()).isTrue();
+    }
+
+    @Test
+    void leaveOutCreatedAndDeleted() {
+        var created = new Changelog();
+        created.getCreated().add(TEAM);
+        var deleted = new Changelog();
+        deleted.getDeleted().add(TEAM);
+        var areaChanged = changelog(UpdateArea.builder().target(AREA).oldName("Area").newName("Area").addedTeams(List.of(TEAM)).build());
+
+        var merged = Changelog.merge(List.of(created, areaChanged, changelog(teamUpdate("Team", "Renamed", List.of(), List.of())), deleted));
+
+        assertThat(merged.getCreated()).isEmpty();
+        assertThat(merged.getDeleted()).isEmpty();
+        assertThat(merged.getUpdated()).hasSize(1);
+        assertThat(((UpdateArea) merged.getUpdated().get(0)).getAddedTeams()).containsExactly(TEAM);
+    }
+
+    @Test
+    void readUpdateTypes() {
+        var changelog = new Changelog();
+        changelog.getUpdated().add(teamUpdate("Old", "New", List.of(), List.of()));
+        changelog.getUpdated().add(UpdateArea.builder().target(AREA).oldName("Area").newName("Area").oldAreaType("A").newAreaType("B").build());
+
+        var read = JsonUtils.toObject(JsonUtils.toJson(changelog), Changelog.class);
+
+        assertThat(read).isEqualTo(changelog);
+    }
+
+    private static UpdateTeam teamUpdate(String oldName, String newName, List<Resource> removed, List<Resource> added) {
+        return UpdateTeam.builder().target(TEAM).oldName(oldName).newName(newName).removedMembers(removed).addedMembers(added).build();
+    }
+
+    private static Changelog changelog(Changelog.Changeable update) {
+        var changelog = new Changelog();
+        changelog.getUpdated().add(update);
+        return changelog;
+    }
+}
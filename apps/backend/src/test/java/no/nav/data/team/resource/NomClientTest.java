@@ -1,6 +1,7 @@
 package no.nav.data.team.resource;
 
 import no.nav.data.common.storage.StorageService;
+import no.nav.data.team.notify.UrlGeneratorTestUtil;
 import no.nav.data.team.resource.domain.Resource;
 import no.nav.data.team.resource.domain.ResourceRepository;
 import no.nav.data.team.resource.dto.NomRessurs;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import static no.nav.data.team.TestDataHelper.createResource;
@@ -31,6 +33,7 @@ class NomClientTest {
 
     @BeforeEach
     void setup() {
+        UrlGeneratorTestUtil.get();
         client = new NomClient(storage, settingsService, resourceRepository);
         client.clear();
     }
@@ -239,4 +242,30 @@ class NomClientTest {
         verify("bobby andrew", "Peterson", "Lumberhill", "Smarty", "Smartyer");
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void findByEndDate() {
+        when(storage.getAll(Resource.class)).thenReturn(List.of());
+        var today = LocalDate.now();
+        var moved = createResource("Moved", "Bob", "S123458").addKafkaData(0, 1);
+        moved.setSluttdato(today);
+        client.add(List.of(
+                endingOn(createResource("Ending", "Today", "S123456"), today),
+                endingOn(createResource("Ending", "Tomorrow", "S123457"), today.plusDays(1)),
+                moved
+        ));
+        assertThat(client.findByEndDate(today)).extracting(Resource::getNavIdent).containsExactlyInAnyOrder("S123456", "S123458");
+
+        var extended = createResource("Moved", "Bob", "S123458").addKafkaData(0, 2);
+        extended.setSluttdato(today.plusDays(1));
+        client.add(List.of(extended));
+
+        assertThat(client.findByEndDate(today)).extracting(Resource::getNavIdent).containsExactly("S123456");
+        assertThat(client.findByEndDate(today.plusDays(1))).extracting(Resource::getNavIdent).containsExactlyInAnyOrder("S123457", "S123458");
+    }
+
+    private static NomRessurs endingOn(NomRessurs resource, LocalDate endDate) {
+        resource.setSluttdato(endDate);
+        return resource;
+    }
+}
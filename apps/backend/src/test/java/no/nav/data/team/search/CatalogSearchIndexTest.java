@@ -0,0 +1,76 @@
+package no.nav.data.team.search;
+
+import no.nav.data.team.catalog.CatalogSnapshot;
+import no.nav.data.team.cluster.domain.Cluster;
+import no.nav.data.team.po.domain.ProductArea;
+import no.nav.data.team.search.CatalogSearchIndex.Hit;
+import no.nav.data.team.search.dto.SearchResultType;
+import no.nav.data.team.team.domain.Team;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogSearchIndexTest {
+
+    private static final Set<SearchResultType> ALL = EnumSet.allOf(SearchResultType.class);
+
+    ProductArea pa = ProductArea.builder().id(UUID.randomUUID()).name("Arbeid og ytelser").description("Område for dagpenger").tags(List.of("ytelse")).build();
+    Cluster cluster = Cluster.builder().id(UUID.randomUUID()).name("Klynge Data").slackChannel("#klynge-data").build();
+    Team team = Team.builder().id(UUID.randomUUID()).name("Team Dagpenger").description("Behandler søknader").naisTeams(List.of("teamdagpenger")).build();
+    Team other = Team.builder().id(UUID.randomUUID()).name("Team Datadeling").tags(List.of("dagpenger")).build();
+
+    CatalogSearchIndex index = new CatalogSearchIndex();
+
+    {
+        index.replaceAll(CatalogSnapshot.of(1, List.of(team, other), List.of(pa), List.of(cluster)));
+    }
+
+    @Test
+    void nameMatchRanksAboveOtherFields() {
+        assertThat(ids(index.search("dagpenger", ALL, 10))).containsExactly(team.getId(), other.getId(), pa.getId());
+    }
+
+    @Test
+    void prefixAndPhonetic() {
+        assertThat(ids(index.search("dagp", ALL, 10))).startsWith(team.getId());
+        assertThat(ids(index.search("klinge", ALL, 10))).containsExactly(cluster.getId());
+    }
+
+    @Test
+    void allWordsMustMatch() {
+        assertThat(ids(index.search("team data", ALL, 10))).containsExactly(other.getId());
+        assertThat(index.search("team ukjent", ALL, 10)).isEmpty();
+    }
+
+    @Test
+    void filterTypes() {
+        assertThat(ids(index.search("dagpenger", EnumSet.of(SearchResultType.PRODUCT_AREA), 10))).containsExactly(pa.getId());
+        assertThat(index.search("dagpenger", EnumSet.of(SearchResultType.RESOURCE), 10)).isEmpty();
+    }
+
+    @Test
+    void updateAndRemove() {
+        index.update(Team.builder().id(team.getId()).name("Team Sykepenger").build());
+        assertThat(ids(index.search("sykepenger", ALL, 10))).containsExactly(team.getId());
+        assertThat(ids(index.search("dagpenger", ALL, 10))).doesNotContain(team.getId());
+
+        index.remove(other.getId());
+        assertThat(ids(index.search("datadeling", ALL, 10))).isEmpty();
+    }
+
+    @Test
+    void hit() {
+        var hit = index.search("ytelser", ALL, 10).get(0);
+        assertThat(hit.type()).isEqualTo(SearchResultType.PRODUCT_AREA);
+        assertThat(hit.name()).isEqualTo("Arbeid og ytelser");
+    }
+
+    private static List<UUID> ids(List<Hit> hits) {
+        return hits.stream().map(Hit::id).map(UUID::fromString).toList();
+    }
+}
@@ -0,0 +1,70 @@
+package no.nav.data.team.search;
+
+import no.nav.data.common.storage.StorageService;
+import no.nav.data.team.catalog.CatalogSnapshot;
+import no.nav.data.team.catalog.CatalogSnapshotService;
+import no.nav.data.team.resource.NomClient;
+import no.nav.data.team.resource.domain.Resource;
+import no.nav.data.team.resource.domain.ResourceRepository;
+import no.nav.data.team.search.dto.SearchResultResponse;
+import no.nav.data.team.search.dto.SearchResultType;
+import no.nav.data.team.settings.SettingsService;
+import no.nav.data.team.team.domain.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import static no.nav.data.team.TestDataHelper.createResource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceTest {
+
+    @Mock
+    private CatalogSnapshotService catalog;
+    @Mock
+    private StorageService storage;
+    @Mock
+    private SettingsService settingsService;
+    @Mock
+    private ResourceRepository resourceRepository;
+
+    private SearchService service;
+
+    @BeforeEach
+    void setUp() {
+        var nomClient = new NomClient(storage, settingsService, resourceRepository);
+        nomClient.clear();
+        when(storage.getAll(Resource.class)).thenReturn(List.of());
+        nomClient.add(List.of(createResource("Nordmann", "Ola", "S123456"), createResource("Hansen", "Kari", "S123457")));
+
+        var team = Team.builder().id(UUID.randomUUID()).name("Team Utbetaling").description("Utviklet av Ola Nordmann og andre").build();
+        var other = Team.builder().id(UUID.randomUUID()).name("Team Kari").build();
+        when(catalog.get()).thenReturn(CatalogSnapshot.of(1, List.of(team, other), List.of(), List.of()));
+        service = new SearchService(catalog, nomClient);
+    }
+
+    @Test
+    void rankAcrossTypes() {
+        var results = service.search("nordmann", EnumSet.allOf(SearchResultType.class), 10);
+
+        assertThat(results).extracting(SearchResultResponse::getType).containsExactly(SearchResultType.RESOURCE, SearchResultType.TEAM);
+        assertThat(results.get(0).getId()).isEqualTo("S123456");
+        assertThat(results.get(0).getName()).isEqualTo("Ola Nordmann");
+        assertThat(results.get(0).getScore()).isEqualTo(1f);
+        assertThat(results.get(1).getScore()).isLessThan(1f);
+    }
+
+    @Test
+    void filterTypes() {
+        assertThat(service.search("kari", EnumSet.of(SearchResultType.RESOURCE), 10)).extracting(SearchResultResponse::getId).containsExactly("S123457");
+        assertThat(service.search("kari", EnumSet.of(SearchResultType.TEAM), 10)).extracting(SearchResultResponse::getName).containsExactly("Team Kari");
+    }
+}
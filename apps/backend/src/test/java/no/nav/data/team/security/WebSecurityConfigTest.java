@@ -0,0 +1,72 @@
+package no.nav.data.team.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import no.nav.data.common.TeamCatalogProps;
+import no.nav.data.common.security.WebSecurityConfig;
+import no.nav.data.common.security.azure.AADStatelessAuthenticationFilter;
+import no.nav.data.common.security.dto.AppRole;
+import no.nav.data.team.catalog.CatalogSnapshotService;
+import no.nav.data.team.member.MemberController;
+import no.nav.data.team.member.MemberExportService;
+import no.nav.data.team.resource.NomMock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.oauth2.client.servlet.OAuth2ClientAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Access rules of the production filter chain, the integration tests run with the open test chain
+ */
+@WebMvcTest(controllers = MemberController.class, excludeAutoConfiguration = OAuth2ClientAutoConfiguration.class)
+@Import(WebSecurityConfig.class)
+@ExtendWith(NomMock.class)
+class WebSecurityConfigTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private AADStatelessAuthenticationFilter aadAuthFilter;
+    @MockBean
+    private CatalogSnapshotService catalog;
+    @MockBean
+    private MemberExportService memberExportService;
+    @MockBean
+    private TeamCatalogProps teamCatalogProps;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<FilterChain>getArgument(2).doFilter(invocation.<ServletRequest>getArgument(0), invocation.<ServletResponse>getArgument(1));
+            return null;
+        }).when(aadAuthFilter).doFilter(any(), any(), any());
+    }
+
+    @Test
+    void readerCanLookUpMemberships() throws Exception {
+        mvc.perform(post("/member/membership").with(user("reader").roles(AppRole.READ.name()))
+                        .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void readerCannotWrite() throws Exception {
+        mvc.perform(post("/team").with(user("reader").roles(AppRole.READ.name()))
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isForbidden());
+    }
+}
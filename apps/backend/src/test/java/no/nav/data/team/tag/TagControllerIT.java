@@ -34,6 +34,14 @@ class TagControllerIT extends IntegrationTestBase {
         assertThat(get("/tag/search/tag")).containsExactly("tag1", "the taggy");
     }
 
+    @Test
+    void findTagsByPrefix() {
+        storageService.save(Team.builder().tags(List.of("Tag1", "other")).build());
+        storageService.save(ProductArea.builder().tags(List.of("tag2", "the taggy")).build());
+
+        assertThat(get("/tag?prefix=tag")).containsExactly("Tag1", "tag2");
+    }
+
     private List<String> get(String url) {
         var res = restTemplate.getForEntity(url, TagPageResponse.class);
         assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -0,0 +1,44 @@
+package no.nav.data.team.tag;
+
+import no.nav.data.team.catalog.CatalogSnapshot;
+import no.nav.data.team.po.domain.ProductArea;
+import no.nav.data.team.tag.TagDictionary.TagUsage;
+import no.nav.data.team.team.domain.Team;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TagDictionaryTest {
+
+    Team team = Team.builder().id(UUID.randomUUID()).tags(List.of("Tag1", "tag2", "tag2")).build();
+    ProductArea pa = ProductArea.builder().id(UUID.randomUUID()).tags(List.of("tag2", "other")).build();
+
+    CatalogSnapshot snapshot = CatalogSnapshot.of(1, List.of(team), List.of(pa), List.of());
+
+    @Test
+    void lookup() {
+        var tags = snapshot.getTagDictionary();
+        assertThat(tags.getTags()).containsExactly("Tag1", "other", "tag2");
+        assertThat(tags.findByPrefix("TAG")).containsExactly("Tag1", "tag2");
+        assertThat(tags.findByPrefix("x")).isEmpty();
+        assertThat(tags.getMostUsed(2)).containsExactly(new TagUsage("tag2", 1, 1), new TagUsage("Tag1", 1, 0));
+        assertThat(tags.getMostUsed(10)).hasSize(3);
+    }
+
+    @Test
+    void maintainedOnSaveAndRemove() {
+        var updated = snapshot.withSaved(Team.builder().id(team.getId()).tags(List.of("tag2", "new")).build());
+        var tags = updated.getTagDictionary();
+        assertThat(tags.getTags()).containsExactly("new", "other", "tag2");
+        assertThat(tags.getUsage()).contains(new TagUsage("tag2", 1, 1), new TagUsage("new", 1, 0));
+
+        var removed = updated.withRemoved(ProductArea.class, pa.getId()).getTagDictionary();
+        assertThat(removed.getTags()).containsExactly("new", "tag2");
+        assertThat(removed.getUsage()).contains(new TagUsage("tag2", 1, 0));
+
+        assertThat(snapshot.getTagDictionary().getTags()).containsExactly("Tag1", "other", "tag2");
+    }
+}
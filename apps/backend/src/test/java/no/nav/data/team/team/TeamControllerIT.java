@@ -12,6 +12,7 @@ import no.nav.data.team.resource.dto.ResourceResponse;
 import no.nav.data.team.shared.domain.DomainObjectStatus;
 import no.nav.data.team.shared.dto.Links;
 import no.nav.data.team.shared.dto.Links.NamedLink;
+import no.nav.data.team.team.TeamController.TeamCursorPageResponse;
 import no.nav.data.team.team.TeamController.TeamPageResponse;
 import no.nav.data.team.team.domain.*;
 import no.nav.data.team.team.dto.OfficeHoursResponse;
@@ -21,6 +22,7 @@ import no.nav.data.team.team.dto.TeamResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -100,6 +102,29 @@ public class TeamControllerIT extends IntegrationTestBase {
         assertThat(convert(resp2.getBody().getContent(), TeamResponse::getName)).contains("name1", "name2", "name3", "name4");
     }
 
+    @Test
+    void getTeamPages() {
+        storageService.save(activeTeamBuilder("Name3").build());
+        storageService.save(activeTeamBuilder("name1").build());
+        storageService.save(activeTeamBuilder("name2").build());
+        storageService.save(activeTeamBuilder("name4").status(DomainObjectStatus.INACTIVE).build());
+
+        var first = restTemplate.getForEntity("/team/page?pageSize=2&status=ACTIVE&includeTotal=true", TeamCursorPageResponse.class).getBody();
+        assertThat(first).isNotNull();
+        assertThat(first.getTotalElements()).isEqualTo(3L);
+        assertThat(convert(first.getContent(), TeamResponse::getName)).containsExactly("name1", "name2");
+        assertThat(first.getNextCursor()).isNotNull();
+
+        var second = restTemplate.getForEntity("/team/page?pageSize=2&status=ACTIVE&cursor={cursor}", TeamCursorPageResponse.class, first.getNextCursor()).getBody();
+        assertThat(second).isNotNull();
+        assertThat(second.getTotalElements()).isNull();
+        assertThat(convert(second.getContent(), TeamResponse::getName)).containsExactly("Name3");
+        assertThat(second.getNextCursor()).isNull();
+
+        var invalid = restTemplate.getForEntity("/team/page?cursor=invalid", String.class);
+        assertThat(invalid.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
     @Test
     void getAllTeamsByStatus() {
         storageService.save(activeTeamBuilder("name1").build());
@@ -239,6 +264,20 @@ public class TeamControllerIT extends IntegrationTestBase {
         assertThat(resp.getBody().getNumberOfElements()).isEqualTo(2);
     }
 
+    @Test
+    void createTeamsFail_ReportsInvalidRows() {
+        var teamRequest = List.of(createTeamRequest(), createTeamRequest(), createTeamRequest());
+        teamRequest.get(1).setProductAreaId("52e1f875-0262-45e0-bfcd-8f484413cb70");
+        teamRequest.get(2).setNaisTeams(List.of("bogus-team"));
+        ResponseEntity<String> resp = restTemplate.postForEntity("/team/batch", teamRequest, String.class);
+
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(resp.getBody()).contains("[1].ProductArea -- doesNotExist");
+        assertThat(resp.getBody()).contains("[2].naisTeams -- doesNotExist");
+        assertThat(resp.getBody()).doesNotContain("[0].");
+        assertThat(storageService.getAll(Team.class)).isEmpty();
+    }
+
     @Test
     void createTeamFail_ProductAreaDoesNotExist() {
         TeamRequest teamRequest = createTeamRequest();
@@ -391,6 +430,55 @@ public class TeamControllerIT extends IntegrationTestBase {
     }
 
 
+    @Test
+    void updateTeam_conflictIfModifiedSinceRead() {
+        var teamRequest = createTeamRequestForUpdate();
+        var readVersion = storageService.get(teamRequest.getIdAsUUID(), Team.class).getChangeStamp().getVersion();
+        teamRequest.setVersion(readVersion);
+
+        teamRequest.setName("first change");
+        ResponseEntity<TeamResponse> first = restTemplate.exchange("/team/{id}", HttpMethod.PUT, new HttpEntity<>(teamRequest), TeamResponse.class, teamRequest.getId());
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody()).isNotNull();
+        assertThat(first.getBody().getChangeStamp().getVersion()).isEqualTo(readVersion + 1);
+
+        teamRequest.setName("stale change");
+        ResponseEntity<String> stale = restTemplate.exchange("/team/{id}", HttpMethod.PUT, new HttpEntity<>(teamRequest), String.class, teamRequest.getId());
+
+        assertThat(stale.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(storageService.get(teamRequest.getIdAsUUID(), Team.class).getName()).isEqualTo("first change");
+    }
+
+    @Test
+    void updateTeam_versionFromIfMatch() {
+        var teamRequest = createTeamRequestForUpdate();
+        var headers = new HttpHeaders();
+        headers.setIfMatch("\"%d\"".formatted(storageService.get(teamRequest.getIdAsUUID(), Team.class).getChangeStamp().getVersion()));
+        teamRequest.setName("newname");
+
+        ResponseEntity<TeamResponse> resp = restTemplate.exchange("/team/{id}", HttpMethod.PUT, new HttpEntity<>(teamRequest, headers), TeamResponse.class, teamRequest.getId());
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        resp = restTemplate.exchange("/team/{id}", HttpMethod.PUT, new HttpEntity<>(teamRequest, headers), TeamResponse.class, teamRequest.getId());
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void updateTeam_withoutVersionOverwrites() {
+        var teamRequest = createTeamRequestForUpdate();
+        Team team = storageService.get(teamRequest.getIdAsUUID(), Team.class);
+        team.setDescription("other change");
+        storageService.save(team);
+
+        teamRequest.setName("newname");
+        ResponseEntity<TeamResponse> resp = restTemplate.exchange("/team/{id}", HttpMethod.PUT, new HttpEntity<>(teamRequest), TeamResponse.class, teamRequest.getId());
+
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(resp.getBody()).isNotNull();
+        assertThat(resp.getBody().getName()).isEqualTo("newname");
+        assertThat(resp.getBody().getDescription()).isEqualTo(teamRequest.getDescription());
+    }
+
     @Test
     void deleteTeam() {
         UUID id = storageService.save(defaultTeam()).getId();
@@ -0,0 +1,79 @@
+package no.nav.data.team.team;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import no.nav.data.common.rest.FieldSelection;
+import no.nav.data.common.storage.domain.ChangeStamp;
+import no.nav.data.common.utils.JsonUtils;
+import no.nav.data.common.utils.MicroBenchmark;
+import no.nav.data.team.notify.UrlGeneratorTestUtil;
+import no.nav.data.team.resource.NomMock;
+import no.nav.data.team.shared.domain.DomainObjectStatus;
+import no.nav.data.team.team.domain.OfficeHours;
+import no.nav.data.team.team.domain.Team;
+import no.nav.data.team.team.domain.TeamMember;
+import no.nav.data.team.team.domain.TeamRole;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static no.nav.data.common.utils.StreamUtils.convert;
+import static no.nav.data.team.TestDataHelper.createNavIdent;
+import static no.nav.data.team.shared.domain.Membered.withResources;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Conversion and serialization of a full team listing, with and without a sparse fieldset.
+ * Run with {@code mvn test -Dtest=TeamResponseFieldsBenchmark}
+ */
+@ExtendWith(NomMock.class)
+class TeamResponseFieldsBenchmark {
+
+    private static final int TEAMS = 1000;
+    private static final int MEMBERS = 10;
+
+    private static List<Team> teams;
+
+    @BeforeAll
+    static void beforeAll() {
+        UrlGeneratorTestUtil.get();
+        teams = IntStream.range(0, TEAMS).mapToObj(i -> Team.builder()
+                .id(UUID.randomUUID())
+                .name("Team " + i)
+                .status(DomainObjectStatus.ACTIVE)
+                .productAreaId(UUID.randomUUID())
+                .naisTeams(List.of("nais-" + i))
+                .officeHours(OfficeHours.builder().locationCode("FA1-BA6").build())
+                .changeStamp(ChangeStamp.builder().createdBy("S123456").createdDate(LocalDateTime.now()).lastModifiedBy("S123456").lastModifiedDate(LocalDateTime.now()).build())
+                // a mix of idents known to the resource index and misses
+                .members(IntStream.range(0, MEMBERS).mapToObj(m -> TeamMember.builder().navIdent(createNavIdent(95 + m)).role(TeamRole.DEVELOPER).build()).toList())
+                .build()
+        ).toList();
+    }
+
+    @Test
+    void idOnlyListing() {
+        var mapper = JsonUtils.getObjectMapper();
+        var fullWriter = mapper.writer();
+        var fields = FieldSelection.parse("id,name,naisTeams,productAreaId");
+        var sparseWriter = mapper.writer(fields.filterProvider());
+
+        var full = MicroBenchmark.run("all fields", 20, 100, () -> write(fullWriter, convert(teams, withResources(teams, Team::convertToResponse))));
+        var sparse = MicroBenchmark.run("fields=id,name,naisTeams,productAreaId", 20, 100,
+                () -> write(sparseWriter, convert(teams, withResources(teams, fields, (t, r) -> t.convertToResponse(r, fields)))));
+
+        assertThat(sparse.microsPerOp()).isLessThan(full.microsPerOp());
+    }
+
+    private static String write(ObjectWriter writer, Object value) {
+        try {
+            return writer.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -30,8 +30,12 @@ export const createCluster = async (cluster: ClusterSubmitValues) => {
   }
 };
 
-export const editCluster = async (cluster: ClusterSubmitValues) => {
-  return (await axios.put<Cluster>(`${env.teamCatalogBaseUrl}/cluster/${cluster.id}`, cluster)).data;
+export const editCluster = async (cluster: ClusterSubmitValues, version?: number) => {
+  return (
+    await axios.put<Cluster>(`${env.teamCatalogBaseUrl}/cluster/${cluster.id}`, cluster, {
+      headers: version === undefined ? {} : { "If-Match": `"${version}"` },
+    })
+  ).data;
 };
 
 export const searchClusters = async (term: string) => {
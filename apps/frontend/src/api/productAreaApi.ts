@@ -44,8 +44,12 @@ export const createProductArea = async (productarea: ProductAreaSubmitValues) =>
   }
 };
 
-export const putProductArea = async (productAreaId: string, productarea: ProductAreaSubmitValues) => {
-  return (await axios.put<ProductArea>(`${env.teamCatalogBaseUrl}/productarea/${productAreaId}`, productarea)).data;
+export const putProductArea = async (productAreaId: string, productarea: ProductAreaSubmitValues, version?: number) => {
+  return (
+    await axios.put<ProductArea>(`${env.teamCatalogBaseUrl}/productarea/${productAreaId}`, productarea, {
+      headers: version === undefined ? {} : { "If-Match": `"${version}"` },
+    })
+  ).data;
 };
 
 export function mapProductAreaToFormValues(productArea?: ProductArea): ProductAreaFormValues {
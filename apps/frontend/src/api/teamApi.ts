@@ -70,8 +70,12 @@ export const createTeam = async (team: ProductTeamSubmitRequest) => {
   }
 };
 
-export const editTeam = async (team: ProductTeamSubmitRequest) => {
-  return (await axios.put<ProductTeamResponse>(`${env.teamCatalogBaseUrl}/team/v2/${team.id}`, team)).data;
+export const editTeam = async (team: ProductTeamSubmitRequest, version?: number) => {
+  return (
+    await axios.put<ProductTeamResponse>(`${env.teamCatalogBaseUrl}/team/v2/${team.id}`, team, {
+      headers: version === undefined ? {} : { "If-Match": `"${version}"` },
+    })
+  ).data;
 };
 
 export const mapProductTeamToFormValue = (team?: ProductTeamResponse): ProductTeamFormValues => {
@@ -154,6 +154,7 @@ export enum ObjectType {
 export interface ChangeStamp {
   lastModifiedBy: string;
   lastModifiedDate: string;
+  version: number;
 }
 
 export interface UserInfo {
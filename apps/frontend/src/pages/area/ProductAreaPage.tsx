@@ -75,7 +75,7 @@ export const ProductAreaPage = () => {
       throw new Error("productArea must be defined");
     }
 
-    const response = await putProductArea(productArea.id, productAreaSubmitValues);
+    const response = await putProductArea(productArea.id, productAreaSubmitValues, productArea.changeStamp?.version);
     if (response.id) {
       setShowModal(false);
       await productAreasQuery.refetch();
@@ -89,11 +89,15 @@ export const ProductAreaPage = () => {
       }
 
       // TODO: ProductArea PUT request/response and form input vs form submit values are a proper mess and should be fixed some day
-      return await putProductArea(productArea.id, {
-        ...mapProductAreaToSubmitValues(mapProductAreaToFormValues(productArea)),
-        members: updatedMemberList,
-        areaType: productArea.areaType || AreaType.OTHER,
-      });
+      return await putProductArea(
+        productArea.id,
+        {
+          ...mapProductAreaToSubmitValues(mapProductAreaToFormValues(productArea)),
+          members: updatedMemberList,
+          areaType: productArea.areaType || AreaType.OTHER,
+        },
+        productArea.changeStamp?.version,
+      );
     },
 
     onSuccess: () => {
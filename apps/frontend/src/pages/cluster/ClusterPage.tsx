@@ -55,7 +55,7 @@ export const ClusterPage = () => {
   }, [cluster]);
 
   const handleSubmit = async (values: ClusterSubmitValues) => {
-    const response = await editCluster({ ...values, id: cluster?.id });
+    const response = await editCluster({ ...values, id: cluster?.id }, cluster?.changeStamp?.version);
     if (response.id) {
       setShowModal(false);
       await clustersQuery.refetch();
@@ -68,10 +68,13 @@ export const ClusterPage = () => {
         throw new Error("productArea must be defined");
       }
 
-      return await editCluster({
-        ...cluster,
-        members: updatedMemberList,
-      });
+      return await editCluster(
+        {
+          ...cluster,
+          members: updatedMemberList,
+        },
+        cluster.changeStamp?.version,
+      );
     },
     onSuccess: () => {
       queryClient.invalidateQueries({ queryKey: ["getCluster", clusterId] });
@@ -83,10 +83,13 @@ export const TeamPage = () => {
       mappedContactUsers = [];
     }
 
-    const editResponse = await editTeam({
-      ...values,
-      contactAddresses: [...contactAddressesWithoutMail, ...mappedContactUsers],
-    });
+    const editResponse = await editTeam(
+      {
+        ...values,
+        contactAddresses: [...contactAddressesWithoutMail, ...mappedContactUsers],
+      },
+      team?.changeStamp?.version,
+    );
     await teamQuery.refetch();
     await productAreaQuery.refetch();
     await processesQuery.refetch();
@@ -117,7 +120,7 @@ export const TeamPage = () => {
         officeHours: formattedOfficeHours,
         members: updatedMemberList,
       };
-      return editTeam(updatedTeam);
+      return editTeam(updatedTeam, team.changeStamp?.version);
     },
 
     onSuccess: () => {